@@ -0,0 +1,94 @@
+package com.alejokf.graphs.application.async;
+
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.domain.Graph;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking facade of {@link com.alejokf.graphs.application.search.GraphTraversalService},
+ * {@link com.alejokf.graphs.application.search.GraphSearchService} and
+ * {@link com.alejokf.graphs.application.shortestpath.ShortestPathService}.
+ * <p>
+ * Every method returns immediately. If the lane of the query type is full, the returned future is completed
+ * exceptionally with a {@link java.util.concurrent.RejectedExecutionException}.
+ */
+public interface AsyncGraphQueryService {
+
+    /**
+     * Prefix of the output of a trace of a batch whose calculation failed
+     */
+    String ERROR_PREFIX = "ERROR ";
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphTraversalService#traceLatency(Graph, List)
+     */
+    CompletableFuture<Optional<Long>> traceLatency(Graph graph, List<String> trace);
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphTraversalService#traceLatencyOutput(Graph, List)
+     */
+    CompletableFuture<String> traceLatencyOutput(Graph graph, List<String> trace);
+
+    /**
+     * Calculates the latency output of a batch of traces as a single query, so the whole batch is admitted or
+     * rejected at once and takes a single slot of its lane. A trace whose calculation fails doesn't fail the batch:
+     * its output is {@value #ERROR_PREFIX} followed by the error message.
+     *
+     * @param graph  the graph
+     * @param traces the traces
+     * @return the latency output of every trace, in the same order
+     * @see com.alejokf.graphs.application.search.GraphTraversalService#traceLatencyOutput(Graph, List)
+     */
+    CompletableFuture<List<String>> traceLatencyOutputs(Graph graph, List<List<String>> traces);
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphSearchService#tracesByExactHops(Graph, String, String, int)
+     */
+    CompletableFuture<Traces> tracesByExactHops(Graph graph, String start, String end, int exactHops);
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphSearchService#tracesByExactHops(Graph, String, String, int,
+     * QueryOptions)
+     */
+    CompletableFuture<Traces> tracesByExactHops(Graph graph, String start, String end, int exactHops,
+            QueryOptions options);
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphSearchService#tracesByMaxHops(Graph, String, String, int)
+     */
+    CompletableFuture<Traces> tracesByMaxHops(Graph graph, String start, String end, int maxHops);
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphSearchService#tracesByMaxHops(Graph, String, String, int,
+     * QueryOptions)
+     */
+    CompletableFuture<Traces> tracesByMaxHops(Graph graph, String start, String end, int maxHops,
+            QueryOptions options);
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphSearchService#tracesByMaxLatency(Graph, String, String, int)
+     */
+    CompletableFuture<Traces> tracesByMaxLatency(Graph graph, String start, String end, int maxLatency);
+
+    /**
+     * @see com.alejokf.graphs.application.search.GraphSearchService#tracesByMaxLatency(Graph, String, String, int,
+     * QueryOptions)
+     */
+    CompletableFuture<Traces> tracesByMaxLatency(Graph graph, String start, String end, int maxLatency,
+            QueryOptions options);
+
+    /**
+     * @see com.alejokf.graphs.application.shortestpath.ShortestPathService#shortestPath(Graph, String)
+     */
+    CompletableFuture<ShortestPaths> shortestPath(Graph graph, String start);
+
+    /**
+     * @see com.alejokf.graphs.application.shortestpath.ShortestPathService#shortestPath(Graph, String, QueryOptions)
+     */
+    CompletableFuture<ShortestPaths> shortestPath(Graph graph, String start, QueryOptions options);
+}
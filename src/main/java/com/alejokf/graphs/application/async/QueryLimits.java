@@ -0,0 +1,36 @@
+package com.alejokf.graphs.application.async;
+
+/**
+ * Class representing the limits of a query lane: how many queries run at the same time, and how many more can wait
+ * for their turn before new queries are rejected
+ */
+public class QueryLimits {
+
+    // Maximum number of queries running at the same time
+    private final int maxConcurrent;
+    // Maximum number of queries waiting to run
+    private final int maxQueued;
+
+    public QueryLimits(int maxConcurrent, int maxQueued) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("At least one concurrent query is required");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("Queue capacity can't be negative");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+    }
+
+    public static QueryLimits of(int maxConcurrent, int maxQueued) {
+        return new QueryLimits(maxConcurrent, maxQueued);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+}
@@ -0,0 +1,22 @@
+package com.alejokf.graphs.application.async;
+
+/**
+ * Types of queries, each one scheduled in its own lane so cheap queries never wait behind expensive ones
+ */
+public enum QueryType {
+
+    /**
+     * Latency of a known trace. Cheap, proportional to the length of the trace.
+     */
+    TRACE_LATENCY,
+
+    /**
+     * Search of all traces between two nodes. Potentially exponential in the hops or latency limit.
+     */
+    TRACE_SEARCH,
+
+    /**
+     * Shortest paths from a node. Proportional to the size of the graph.
+     */
+    SHORTEST_PATH
+}
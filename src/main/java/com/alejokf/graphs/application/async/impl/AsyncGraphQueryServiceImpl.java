@@ -0,0 +1,148 @@
+package com.alejokf.graphs.application.async.impl;
+
+import com.alejokf.graphs.application.async.AsyncGraphQueryService;
+import com.alejokf.graphs.application.async.QueryLimits;
+import com.alejokf.graphs.application.async.QueryType;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.search.GraphSearchService;
+import com.alejokf.graphs.application.search.GraphTraversalService;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.shortestpath.ShortestPathService;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.domain.Graph;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Service running graph queries asynchronously.
+ * <p>
+ * Every {@link QueryType} has its own {@link QueryLane}, with its own concurrency limit and bounded queue, so cheap
+ * trace latency lookups are never queued behind expensive trace searches. Queries run on virtual threads when the
+ * runtime supports them.
+ */
+@Component
+public class AsyncGraphQueryServiceImpl implements AsyncGraphQueryService, AutoCloseable {
+
+    private final GraphTraversalService graphTraversalService;
+    private final GraphSearchService graphSearchService;
+    private final ShortestPathService shortestPathService;
+
+    private final ExecutorService executor;
+    private final Map<QueryType, QueryLane> lanes = new EnumMap<>(QueryType.class);
+
+    @Autowired
+    public AsyncGraphQueryServiceImpl(GraphTraversalService graphTraversalService,
+            GraphSearchService graphSearchService, ShortestPathService shortestPathService) {
+        this(graphTraversalService, graphSearchService, shortestPathService, defaultLimits());
+    }
+
+    public AsyncGraphQueryServiceImpl(GraphTraversalService graphTraversalService,
+            GraphSearchService graphSearchService, ShortestPathService shortestPathService,
+            Map<QueryType, QueryLimits> limits) {
+        this.graphTraversalService = graphTraversalService;
+        this.graphSearchService = graphSearchService;
+        this.shortestPathService = shortestPathService;
+        this.executor = QueryExecutors.newQueryExecutor();
+        for (QueryType type : QueryType.values()) {
+            QueryLimits typeLimits = limits.get(type);
+            if (typeLimits == null) {
+                throw new IllegalArgumentException("Limits are required for " + type);
+            }
+            lanes.put(type, new QueryLane(type.name(), typeLimits, executor));
+        }
+    }
+
+    /**
+     * Default limits: trace latency lookups are cheap and mostly waiting for a thread, so many can run at once, while
+     * searches and shortest paths are CPU bound and are limited to the number of processors
+     */
+    public static Map<QueryType, QueryLimits> defaultLimits() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        Map<QueryType, QueryLimits> limits = new EnumMap<>(QueryType.class);
+        limits.put(QueryType.TRACE_LATENCY, QueryLimits.of(256, 10_000));
+        limits.put(QueryType.TRACE_SEARCH, QueryLimits.of(processors, 1_000));
+        limits.put(QueryType.SHORTEST_PATH, QueryLimits.of(processors, 1_000));
+        return limits;
+    }
+
+    public CompletableFuture<Optional<Long>> traceLatency(Graph graph, List<String> trace) {
+        return lanes.get(QueryType.TRACE_LATENCY).submit(() -> graphTraversalService.traceLatency(graph, trace));
+    }
+
+    public CompletableFuture<String> traceLatencyOutput(Graph graph, List<String> trace) {
+        return lanes.get(QueryType.TRACE_LATENCY)
+                .submit(() -> graphTraversalService.traceLatencyOutput(graph, trace));
+    }
+
+    public CompletableFuture<List<String>> traceLatencyOutputs(Graph graph, List<List<String>> traces) {
+        return lanes.get(QueryType.TRACE_LATENCY).submit(() -> {
+            List<String> outputs = new ArrayList<>(traces.size());
+            for (List<String> trace : traces) {
+                try {
+                    outputs.add(graphTraversalService.traceLatencyOutput(graph, trace));
+                } catch (RuntimeException e) {
+                    outputs.add(ERROR_PREFIX + e.getMessage());
+                }
+            }
+            return outputs;
+        });
+    }
+
+    public CompletableFuture<Traces> tracesByExactHops(Graph graph, String start, String end, int exactHops) {
+        return lanes.get(QueryType.TRACE_SEARCH)
+                .submit(() -> graphSearchService.tracesByExactHops(graph, start, end, exactHops));
+    }
+
+    public CompletableFuture<Traces> tracesByExactHops(Graph graph, String start, String end, int exactHops,
+            QueryOptions options) {
+        return lanes.get(QueryType.TRACE_SEARCH)
+                .submit(() -> graphSearchService.tracesByExactHops(graph, start, end, exactHops, options));
+    }
+
+    public CompletableFuture<Traces> tracesByMaxHops(Graph graph, String start, String end, int maxHops) {
+        return lanes.get(QueryType.TRACE_SEARCH)
+                .submit(() -> graphSearchService.tracesByMaxHops(graph, start, end, maxHops));
+    }
+
+    public CompletableFuture<Traces> tracesByMaxHops(Graph graph, String start, String end, int maxHops,
+            QueryOptions options) {
+        return lanes.get(QueryType.TRACE_SEARCH)
+                .submit(() -> graphSearchService.tracesByMaxHops(graph, start, end, maxHops, options));
+    }
+
+    public CompletableFuture<Traces> tracesByMaxLatency(Graph graph, String start, String end, int maxLatency) {
+        return lanes.get(QueryType.TRACE_SEARCH)
+                .submit(() -> graphSearchService.tracesByMaxLatency(graph, start, end, maxLatency));
+    }
+
+    public CompletableFuture<Traces> tracesByMaxLatency(Graph graph, String start, String end, int maxLatency,
+            QueryOptions options) {
+        return lanes.get(QueryType.TRACE_SEARCH)
+                .submit(() -> graphSearchService.tracesByMaxLatency(graph, start, end, maxLatency, options));
+    }
+
+    public CompletableFuture<ShortestPaths> shortestPath(Graph graph, String start) {
+        return lanes.get(QueryType.SHORTEST_PATH).submit(() -> shortestPathService.shortestPath(graph, start));
+    }
+
+    public CompletableFuture<ShortestPaths> shortestPath(Graph graph, String start, QueryOptions options) {
+        return lanes.get(QueryType.SHORTEST_PATH)
+                .submit(() -> shortestPathService.shortestPath(graph, start, options));
+    }
+
+    /**
+     * Stops accepting queries. Queries already running are completed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
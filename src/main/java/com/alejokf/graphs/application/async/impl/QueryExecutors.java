@@ -0,0 +1,39 @@
+package com.alejokf.graphs.application.async.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of the executor running the queries
+ */
+final class QueryExecutors {
+
+    private QueryExecutors() {
+    }
+
+    /**
+     * Returns an executor starting a new virtual thread per query when the runtime supports them (Java 21+), or a
+     * pool of daemon platform threads otherwise. In both cases the number of threads is bounded by the query lanes.
+     * Virtual threads are looked up reflectively so the project still builds and runs on Java 11.
+     *
+     * @return the executor
+     */
+    static ExecutorService newQueryExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                            MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "graph-query-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
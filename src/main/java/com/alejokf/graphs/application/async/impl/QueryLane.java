@@ -0,0 +1,140 @@
+package com.alejokf.graphs.application.async.impl;
+
+import com.alejokf.graphs.application.async.QueryLimits;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for the queries of a single type.
+ * <p>
+ * At most {@code maxConcurrent} queries run at the same time. Further queries wait in a bounded FIFO queue, so they
+ * run in arrival order, and queries arriving when the queue is full are rejected immediately instead of piling up.
+ */
+class QueryLane {
+
+    private final String name;
+    private final QueryLimits limits;
+    private final Executor executor;
+
+    // Guarded by this
+    private final Queue<Task<?>> queued = new ArrayDeque<>();
+    private int running;
+
+    QueryLane(String name, QueryLimits limits, Executor executor) {
+        this.name = name;
+        this.limits = limits;
+        this.executor = executor;
+    }
+
+    /**
+     * Submits a query to the lane
+     *
+     * @param query the query
+     * @param <T>   the type of the query result
+     * @return the future result of the query, completed exceptionally with a {@link RejectedExecutionException} if
+     * the lane is full or the executor has been shut down
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Task<T> task = new Task<>(query, result);
+
+        boolean start;
+        synchronized (this) {
+            start = running < limits.getMaxConcurrent();
+            if (start) {
+                running++;
+            } else if (queued.size() < limits.getMaxQueued()) {
+                queued.add(task);
+            } else {
+                result.completeExceptionally(new RejectedExecutionException("Too many " + name + " queries"));
+                return result;
+            }
+        }
+        if (start) {
+            start(task);
+        }
+        return result;
+    }
+
+    synchronized int running() {
+        return running;
+    }
+
+    synchronized int queued() {
+        return queued.size();
+    }
+
+    /**
+     * Called when a query finishes: its slot is handed over to the oldest queued query, if any
+     */
+    private void next() {
+        start(release());
+    }
+
+    /**
+     * Releases the slot of a query that finished or was rejected
+     *
+     * @return the oldest queued query, which takes over the slot, or null if there is none
+     */
+    private Task<?> release() {
+        synchronized (this) {
+            Task<?> task = queued.poll();
+            if (task == null) {
+                running--;
+            }
+            return task;
+        }
+    }
+
+    /**
+     * Starts {@code task} in the executor. If the executor has been shut down, the task is rejected without running
+     * it, and its slot goes to the next queued task, which is rejected too.
+     */
+    private void start(Task<?> task) {
+        while (task != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                // The slot is released before the future is completed, so callers see the lane already updated
+                Task<?> rejected = task;
+                task = release();
+                rejected.reject(e);
+            }
+        }
+    }
+
+    /**
+     * A query with its future result
+     */
+    private final class Task<T> implements Runnable {
+
+        private final Supplier<T> query;
+        private final CompletableFuture<T> result;
+
+        private Task(Supplier<T> query, CompletableFuture<T> result) {
+            this.query = query;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(query.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                next();
+            }
+        }
+
+        private void reject(RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
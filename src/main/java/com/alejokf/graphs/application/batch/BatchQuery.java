@@ -0,0 +1,79 @@
+package com.alejokf.graphs.application.batch;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class representing a single query of a query file
+ */
+public class BatchQuery {
+
+    private final QueryKind kind;
+    // The node labels of the query: the trace for latency queries, or the start and end nodes otherwise
+    private final List<String> nodes;
+    // The hops or latency limit of trace searches, 0 otherwise
+    private final int limit;
+
+    public BatchQuery(QueryKind kind, List<String> nodes, int limit) {
+        this.kind = kind;
+        this.nodes = nodes;
+        this.limit = limit;
+    }
+
+    /**
+     * Parses a line of a query file: a keyword of {@link QueryKind} followed by its arguments, separated by spaces
+     *
+     * @param line the line
+     * @return the query
+     */
+    public static BatchQuery parse(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        QueryKind kind = QueryKind.fromKeyword(tokens[0]);
+        switch (kind) {
+            case LATENCY:
+                if (tokens.length < 2) {
+                    throw new IllegalArgumentException("A trace is required");
+                }
+                return new BatchQuery(kind, Arrays.asList(tokens).subList(1, tokens.length), 0);
+            case SHORTEST:
+                if (tokens.length != 3) {
+                    throw new IllegalArgumentException("Start and end nodes are required");
+                }
+                return new BatchQuery(kind, List.of(tokens[1], tokens[2]), 0);
+            default:
+                if (tokens.length != 4) {
+                    throw new IllegalArgumentException("Start node, end node and limit are required");
+                }
+                return new BatchQuery(kind, List.of(tokens[1], tokens[2]), Integer.parseInt(tokens[3]));
+        }
+    }
+
+    public QueryKind getKind() {
+        return kind;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public String getStart() {
+        return nodes.get(0);
+    }
+
+    public String getEnd() {
+        return nodes.get(nodes.size() - 1);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the query as a line of a query file
+     */
+    @Override
+    public String toString() {
+        String query = kind.getKeyword() + " " + String.join(" ", nodes);
+        return kind == QueryKind.LATENCY || kind == QueryKind.SHORTEST ? query : query + " " + limit;
+    }
+}
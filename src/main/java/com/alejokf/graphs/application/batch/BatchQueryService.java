@@ -0,0 +1,28 @@
+package com.alejokf.graphs.application.batch;
+
+import com.alejokf.graphs.domain.Graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+public interface BatchQueryService {
+
+    /**
+     * Runs all the queries read from {@code queries} on the {@code graph}, writing one result line per query to
+     * {@code results}, in the same order as the queries.
+     * <p>
+     * Queries are one per line, as a keyword of {@link QueryKind} followed by its arguments. Empty lines and lines
+     * starting with {@code #} are ignored. Latency queries result in the latency or "NO SUCH TRACE", trace searches
+     * in the number of traces, and shortest path queries in the distance or "NO SUCH TRACE". Invalid queries result
+     * in a line starting with "ERROR".
+     *
+     * @param graph       the graph
+     * @param queries     the reader of the queries
+     * @param results     the writer of the results
+     * @param parallelism the number of queries run at the same time
+     * @return the summary of the run
+     * @throws IOException in case an IO error occurs when reading the queries or writing the results
+     */
+    BatchSummary run(Graph graph, BufferedReader queries, Writer results, int parallelism) throws IOException;
+}
@@ -0,0 +1,88 @@
+package com.alejokf.graphs.application.batch;
+
+import java.util.Map;
+
+/**
+ * Class representing the summary of a batch run: how many queries were run, how long it took, and the timing of
+ * every kind of query
+ */
+public class BatchSummary {
+
+    private final long queries;
+    private final long errors;
+    private final long elapsedNanos;
+    private final Map<QueryKind, KindSummary> kinds;
+
+    public BatchSummary(long queries, long errors, long elapsedNanos, Map<QueryKind, KindSummary> kinds) {
+        this.queries = queries;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.kinds = kinds;
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of queries per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : queries / (elapsedNanos / 1e9);
+    }
+
+    public Map<QueryKind, KindSummary> getKinds() {
+        return kinds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder(String.format("%d queries (%d errors) in %.3f s, %.0f queries/s",
+                queries, errors, elapsedNanos / 1e9, getThroughput()));
+        kinds.forEach((kind, kindSummary) -> summary.append(String.format("%n  %-10s %s", kind.getKeyword(),
+                kindSummary)));
+        return summary.toString();
+    }
+
+    /**
+     * Timing of the queries of a single kind
+     */
+    public static class KindSummary {
+
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        public KindSummary(long count, long totalNanos, long maxNanos) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%8d queries, mean %9.3f ms, max %9.3f ms, total %9.3f s", count,
+                    count == 0 ? 0 : totalNanos / 1e6 / count, maxNanos / 1e6, totalNanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.alejokf.graphs.application.batch;
+
+/**
+ * Kinds of queries of a query file, with the keyword starting their lines
+ */
+public enum QueryKind {
+
+    /**
+     * {@code latency A B C}: latency of the trace A-B-C
+     */
+    LATENCY("latency"),
+
+    /**
+     * {@code exactHops A C 4}: number of traces from A to C with exactly 4 hops
+     */
+    EXACT_HOPS("exactHops"),
+
+    /**
+     * {@code maxHops C C 3}: number of traces from C to C with a maximum of 3 hops
+     */
+    MAX_HOPS("maxHops"),
+
+    /**
+     * {@code maxLatency C C 30}: number of traces from C to C with a latency of less than 30
+     */
+    MAX_LATENCY("maxLatency"),
+
+    /**
+     * {@code shortest A C}: distance of the shortest path from A to C
+     */
+    SHORTEST("shortest");
+
+    private final String keyword;
+
+    QueryKind(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * @param keyword the keyword
+     * @return the kind of query starting with the keyword
+     */
+    public static QueryKind fromKeyword(String keyword) {
+        for (QueryKind kind : values()) {
+            if (kind.keyword.equals(keyword)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown query " + keyword);
+    }
+}
@@ -0,0 +1,136 @@
+package com.alejokf.graphs.application.batch.impl;
+
+import com.alejokf.graphs.application.batch.BatchQuery;
+import com.alejokf.graphs.application.batch.BatchQueryService;
+import com.alejokf.graphs.application.batch.BatchSummary;
+import com.alejokf.graphs.application.batch.QueryKind;
+import com.alejokf.graphs.application.planner.QueryPlannerService;
+import com.alejokf.graphs.domain.Graph;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service running the queries of a query file.
+ * <p>
+ * Lines are parsed as they are read, and every query is dispatched to a pool of {@code parallelism} threads. Results
+ * are written in the order of the queries: at most a window of queries is in flight, and the oldest one is waited for
+ * and written before a new one is read, so memory stays bounded for files of any size.
+ * <p>
+ * Every query is run by the {@link QueryPlannerService}, with the cheapest strategy for the graph and the query.
+ */
+@Component
+public class BatchQueryServiceImpl implements BatchQueryService {
+
+    // Queries in flight per thread, enough to keep every thread busy while the oldest query is waited for
+    private static final int WINDOW_PER_THREAD = 64;
+
+    private final QueryPlannerService queryPlannerService;
+
+    @Autowired
+    public BatchQueryServiceImpl(QueryPlannerService queryPlannerService) {
+        this.queryPlannerService = queryPlannerService;
+    }
+
+    public BatchSummary run(Graph graph, BufferedReader queries, Writer results, int parallelism)
+            throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        Map<QueryKind, KindStats> stats = new EnumMap<>(QueryKind.class);
+        for (QueryKind kind : QueryKind.values()) {
+            stats.put(kind, new KindStats());
+        }
+        LongAdder errors = new LongAdder();
+        ArrayDeque<CompletableFuture<String>> pending = new ArrayDeque<>();
+        int window = parallelism * WINDOW_PER_THREAD;
+        long count = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = queries.readLine()) != null) {
+                lineNumber++;
+                String query = line.trim();
+                if (query.isEmpty() || query.startsWith("#")) {
+                    continue;
+                }
+                int queryLine = lineNumber;
+                pending.add(CompletableFuture.supplyAsync(() -> execute(graph, query, queryLine, stats, errors),
+                        executor));
+                count++;
+                if (pending.size() >= window) {
+                    write(pending.poll(), results);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), results);
+            }
+            results.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<QueryKind, BatchSummary.KindSummary> kinds = new EnumMap<>(QueryKind.class);
+        stats.forEach((kind, kindStats) -> {
+            if (kindStats.count.sum() > 0) {
+                kinds.put(kind, kindStats.toSummary());
+            }
+        });
+        return new BatchSummary(count, errors.sum(), elapsed, kinds);
+    }
+
+    private static void write(CompletableFuture<String> result, Writer results) throws IOException {
+        results.write(result.join());
+        results.write('\n');
+    }
+
+    private String execute(Graph graph, String line, int lineNumber, Map<QueryKind, KindStats> stats,
+            LongAdder errors) {
+        try {
+            BatchQuery query = BatchQuery.parse(line);
+            long start = System.nanoTime();
+            String result = queryPlannerService.execute(graph, query).getResult();
+            stats.get(query.getKind()).add(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            errors.increment();
+            return "ERROR at line " + lineNumber + ": " + e.getMessage();
+        }
+    }
+
+    private static class KindStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void add(long elapsed) {
+            count.increment();
+            nanos.add(elapsed);
+            maxNanos.accumulate(elapsed);
+        }
+
+        BatchSummary.KindSummary toSummary() {
+            return new BatchSummary.KindSummary(count.sum(), nanos.sum(), maxNanos.get());
+        }
+    }
+}
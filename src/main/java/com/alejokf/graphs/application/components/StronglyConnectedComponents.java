@@ -0,0 +1,146 @@
+package com.alejokf.graphs.application.components;
+
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Class representing the strongly connected components (SCC) of a graph, i.e. the maximal sets of nodes in which
+ * every node can reach every other node.
+ * <p>
+ * The components are calculated with Tarjan's algorithm, implemented iteratively (with explicit stacks) so deep
+ * graphs don't cause a stack overflow. The algorithm completes the components in reverse topological order, so
+ * component ids are a reverse topological order of the condensation: every edge between two different components
+ * goes from a bigger id to a smaller one.
+ */
+public final class StronglyConnectedComponents {
+
+    // The component id of every node
+    private final int[] components;
+    // The number of nodes of every component
+    private final int[] sizes;
+    // Whether a component has a non-empty trace starting and ending on the same node
+    private final boolean[] cyclic;
+
+    private StronglyConnectedComponents(int[] components, int[] sizes, boolean[] cyclic) {
+        this.components = components;
+        this.sizes = sizes;
+        this.cyclic = cyclic;
+    }
+
+    /**
+     * Returns the strongly connected components of the {@code graph}, which are calculated only the first time they
+     * are requested for that graph
+     *
+     * @param graph the graph
+     * @return the strongly connected components of the graph
+     */
+    public static StronglyConnectedComponents of(IndexedGraph graph) {
+        return graph.derive(StronglyConnectedComponents.class, StronglyConnectedComponents::calculate);
+    }
+
+    private static StronglyConnectedComponents calculate(IndexedGraph graph) {
+        int n = graph.size();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] components = new int[n];
+        int[] nextEdge = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+
+        // Tarjan's stack with the nodes of the components not completed yet
+        int[] stack = new int[n];
+        int stackSize = 0;
+        // Explicit call stack replacing the recursion
+        int[] callStack = new int[n];
+        int callStackSize = 0;
+
+        int[] sizes = new int[n];
+        int counter = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            index[root] = low[root] = counter++;
+            nextEdge[root] = graph.outStart(root);
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[callStackSize++] = root;
+
+            while (callStackSize > 0) {
+                int node = callStack[callStackSize - 1];
+                if (nextEdge[node] < graph.outEnd(node)) {
+                    int head = graph.outHead(nextEdge[node]++);
+                    if (index[head] < 0) {
+                        index[head] = low[head] = counter++;
+                        nextEdge[head] = graph.outStart(head);
+                        stack[stackSize++] = head;
+                        onStack[head] = true;
+                        callStack[callStackSize++] = head;
+                    } else if (onStack[head]) {
+                        low[node] = Math.min(low[node], index[head]);
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+                if (callStackSize > 0) {
+                    int parent = callStack[callStackSize - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+                if (low[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = componentCount;
+                        sizes[componentCount]++;
+                    } while (member != node);
+                    componentCount++;
+                }
+            }
+        }
+
+        boolean[] cyclic = new boolean[componentCount];
+        for (int node = 0; node < n; node++) {
+            int component = components[node];
+            if (sizes[component] > 1) {
+                cyclic[component] = true;
+            } else {
+                for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                    if (graph.outHead(edge) == node) {
+                        cyclic[component] = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return new StronglyConnectedComponents(components, Arrays.copyOf(sizes, componentCount), cyclic);
+    }
+
+    public int componentCount() {
+        return sizes.length;
+    }
+
+    public int componentOf(int node) {
+        return components[node];
+    }
+
+    public int componentSize(int component) {
+        return sizes[component];
+    }
+
+    /**
+     * Returns whether the component is non-trivial, i.e. it has more than one node or its only node has an edge to
+     * itself. Only nodes in non-trivial components are part of a non-empty trace starting and ending on themselves.
+     *
+     * @param component the component id
+     * @return true if the component is non-trivial
+     */
+    public boolean isCyclic(int component) {
+        return cyclic[component];
+    }
+}
@@ -0,0 +1,97 @@
+package com.alejokf.graphs.application.compression;
+
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.domain.CompressedGraph;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Traversal and shortest path engines running on a {@link CompressedGraph}. Results are the same as the ones of the
+ * engines on the uncompressed graph, and are labelled with the nodes of {@link CompressedGraph#getNodes()}.
+ */
+public interface CompressedGraphService {
+
+    /**
+     * Returns the latency of the {@code trace}, i.e. the sum of the weights of its edges
+     *
+     * @param graph the compressed graph
+     * @param trace the trace within the graph
+     * @return the latency of the trace, or empty if the trace doesn't exist
+     */
+    Optional<Long> traceLatency(CompressedGraph graph, List<String> trace);
+
+    /**
+     * Returns all the traces originating in node {@code start} and ending in node {@code end} with exactly
+     * {@code exactHops} hops
+     *
+     * @param graph     the compressed graph
+     * @param start     the starting node
+     * @param end       the ending node
+     * @param exactHops the exact number of hops
+     * @return the traces from {@code start} to {@code end} with exactly {@code exactHops} hops
+     */
+    Traces tracesByExactHops(CompressedGraph graph, String start, String end, int exactHops);
+
+    /**
+     * Same as {@link #tracesByExactHops(CompressedGraph, String, String, int)}, stopping with the traces found so far,
+     * marked as truncated, when a limit of the {@code options} is reached. Overlays are not supported.
+     *
+     * @param options the limits of the search
+     * @throws IllegalArgumentException if the {@code options} have a non-empty overlay
+     */
+    Traces tracesByExactHops(CompressedGraph graph, String start, String end, int exactHops, QueryOptions options);
+
+    /**
+     * Returns all the traces originating in node {@code start} and ending in node {@code end} with a maximum of
+     * {@code maxHops} hops
+     *
+     * @param graph   the compressed graph
+     * @param start   the starting node
+     * @param end     the ending node
+     * @param maxHops the maximum number of hops
+     * @return the traces from {@code start} to {@code end} with a maximum of {@code maxHops} hops
+     */
+    Traces tracesByMaxHops(CompressedGraph graph, String start, String end, int maxHops);
+
+    /**
+     * Same as {@link #tracesByMaxHops(CompressedGraph, String, String, int)}, stopping with the traces found so far,
+     * marked as truncated, when a limit of the {@code options} is reached. Overlays are not supported.
+     *
+     * @param options the limits of the search
+     * @throws IllegalArgumentException if the {@code options} have a non-empty overlay
+     */
+    Traces tracesByMaxHops(CompressedGraph graph, String start, String end, int maxHops, QueryOptions options);
+
+    /**
+     * Returns all the traces originating in node {@code start} and ending in node {@code end} with a latency of less
+     * than {@code maxLatency}
+     *
+     * @param graph      the compressed graph
+     * @param start      the starting node
+     * @param end        the ending node
+     * @param maxLatency the maximum latency
+     * @return the traces from {@code start} to {@code end} with a latency of less than {@code maxLatency}
+     */
+    Traces tracesByMaxLatency(CompressedGraph graph, String start, String end, int maxLatency);
+
+    /**
+     * Same as {@link #tracesByMaxLatency(CompressedGraph, String, String, int)}, stopping with the traces found so far,
+     * marked as truncated, when a limit of the {@code options} is reached. Overlays are not supported.
+     *
+     * @param options the limits of the search
+     * @throws IllegalArgumentException if the {@code options} have a non-empty overlay
+     */
+    Traces tracesByMaxLatency(CompressedGraph graph, String start, String end, int maxLatency, QueryOptions options);
+
+    /**
+     * Finds the {@link ShortestPaths} starting on node {@code start}
+     *
+     * @param graph the compressed graph
+     * @param start the starting node
+     * @return the shortest paths starting from node {@code start}
+     */
+    ShortestPaths shortestPath(CompressedGraph graph, String start);
+}
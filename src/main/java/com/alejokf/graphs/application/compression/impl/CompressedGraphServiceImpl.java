@@ -0,0 +1,199 @@
+package com.alejokf.graphs.application.compression.impl;
+
+import com.alejokf.graphs.application.compression.CompressedGraphService;
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.search.impl.TraceStatus;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.application.support.IndexedMinHeap;
+import com.alejokf.graphs.domain.CompressedGraph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Service running the graph engines on a {@link CompressedGraph}.
+ * <p>
+ * Every engine reads the edges of a node with a {@link CompressedGraph.EdgeCursor}, decoding them in order while
+ * they are used, so no adjacency list is ever built. The algorithms are the ones of the engines on the
+ * {@link IndexedGraph}, without the indexes derived from it (e.g. the reachability index), which would need the
+ * uncompressed adjacency to be built.
+ */
+@Component
+public class CompressedGraphServiceImpl implements CompressedGraphService {
+
+    /**
+     * Heads are sorted, so the search of every edge of the trace stops as soon as a greater head is decoded
+     */
+    public Optional<Long> traceLatency(CompressedGraph graph, List<String> trace) {
+        if (trace == null || trace.isEmpty()) {
+            throw new IllegalArgumentException("Trace must be non-empty");
+        }
+        IndexedGraph nodes = graph.getNodes();
+        int node = nodes.indexOf(trace.get(0));
+        if (node < 0) {
+            return Optional.empty();
+        }
+        CompressedGraph.EdgeCursor cursor = graph.cursor();
+        long latency = 0;
+        for (int i = 1; i < trace.size(); i++) {
+            int next = nodes.indexOf(trace.get(i));
+            if (next < 0) {
+                return Optional.empty();
+            }
+            cursor.moveTo(node);
+            boolean found = false;
+            while (cursor.next() && cursor.head() <= next) {
+                if (cursor.head() == next) {
+                    latency += cursor.weight();
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return Optional.empty();
+            }
+            node = next;
+        }
+        return Optional.of(latency);
+    }
+
+    public Traces tracesByExactHops(CompressedGraph graph, String start, String end, int exactHops) {
+        return tracesByExactHops(graph, start, end, exactHops, QueryOptions.NONE);
+    }
+
+    public Traces tracesByMaxHops(CompressedGraph graph, String start, String end, int maxHops) {
+        return tracesByMaxHops(graph, start, end, maxHops, QueryOptions.NONE);
+    }
+
+    public Traces tracesByMaxLatency(CompressedGraph graph, String start, String end, int maxLatency) {
+        return tracesByMaxLatency(graph, start, end, maxLatency, QueryOptions.NONE);
+    }
+
+    public Traces tracesByExactHops(CompressedGraph graph, String start, String end, int exactHops,
+            QueryOptions options) {
+        return traces(graph, start, end, status -> status.getHops() <= exactHops,
+                status -> status.getHops() == exactHops, options);
+    }
+
+    public Traces tracesByMaxHops(CompressedGraph graph, String start, String end, int maxHops,
+            QueryOptions options) {
+        return traces(graph, start, end, status -> status.getHops() <= maxHops,
+                status -> status.getHops() > 0 && status.getHops() <= maxHops, options);
+    }
+
+    public Traces tracesByMaxLatency(CompressedGraph graph, String start, String end, int maxLatency,
+            QueryOptions options) {
+        return traces(graph, start, end, status -> status.getLatency() < maxLatency,
+                status -> status.getLatency() > 0 && status.getLatency() <= maxLatency, options);
+    }
+
+    /**
+     * Depth-first search of the traces from {@code start} to {@code end}, with the same predicates as
+     * {@link com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl}. The edges of a node are decoded once,
+     * when its state is popped.
+     * <p>
+     * There is no reachability index to discard the nodes that can't reach {@code end}, since it would need the
+     * uncompressed adjacency, so states are pruned when pushed instead: a state that fails {@code keepTraversing} can
+     * neither be accepted nor lead to a trace, so it is never pushed. Every popped state is counted by the
+     * {@link QueryBudget} of the {@code options}, and the search stops with the traces found so far, marked as
+     * truncated, as soon as a limit is reached.
+     */
+    private Traces traces(CompressedGraph graph, String start, String end, Predicate<TraceStatus> keepTraversing,
+            Predicate<TraceStatus> addTrace, QueryOptions options) {
+        if (!options.getOverlay().isEmpty()) {
+            throw new IllegalArgumentException("Overlays are not supported on compressed graphs");
+        }
+        IndexedGraph nodes = graph.getNodes();
+        int startNode = nodes.indexOf(start);
+        if (startNode < 0) {
+            throw new IllegalArgumentException("Start node does not exist");
+        }
+        Traces.Builder traces = new Traces.Builder(nodes);
+        int endNode = nodes.indexOf(end);
+        if (endNode < 0) {
+            return traces.build();
+        }
+
+        CompressedGraph.EdgeCursor cursor = graph.cursor();
+        Deque<TraceStatus> deque = new ArrayDeque<>();
+        deque.push(TraceStatus.of(startNode, 0, 0L));
+        QueryBudget budget = QueryBudget.start(options);
+        while (!deque.isEmpty()) {
+            if (!budget.expand()) {
+                break;
+            }
+            TraceStatus traceStatus = deque.pop();
+            int node = traceStatus.getCurrentNode();
+            traces.visit(traceStatus.getHops(), node);
+            if (keepTraversing.test(traceStatus)) {
+                if (addTrace.test(traceStatus) && node == endNode) {
+                    traces.addTrace(traceStatus.getHops());
+                    if (!budget.acceptsMoreResults(traces.traceCount())) {
+                        break;
+                    }
+                }
+                cursor.moveTo(node);
+                while (cursor.next()) {
+                    TraceStatus next = TraceStatus.of(cursor.head(), traceStatus.getHops() + 1,
+                            traceStatus.getLatency() + cursor.weight());
+                    if (keepTraversing.test(next)) {
+                        deque.push(next);
+                    }
+                }
+            }
+        }
+
+        if (budget.getTruncation() != null) {
+            traces.truncate(budget.getTruncation());
+        }
+        return traces.build();
+    }
+
+    /**
+     * Dijkstra's algorithm with an indexed binary heap, as in
+     * {@link com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl}: the search starts with the
+     * outgoing edges of the source, so the distance from the source to itself is its shortest cycle
+     */
+    public ShortestPaths shortestPath(CompressedGraph graph, String start) {
+        IndexedGraph nodes = graph.getNodes();
+        int source = nodes.indexOf(start);
+        if (source < 0) {
+            throw new IllegalArgumentException("Start node does not exist");
+        }
+        long[] distances = new long[graph.size()];
+        int[] predecessors = new int[graph.size()];
+        Arrays.fill(distances, ShortestPaths.UNREACHABLE);
+        Arrays.fill(predecessors, ShortestPaths.NO_PREDECESSOR);
+        IndexedMinHeap heap = new IndexedMinHeap(graph.size());
+        CompressedGraph.EdgeCursor cursor = graph.cursor();
+
+        relaxEdges(cursor, source, 0, distances, predecessors, heap);
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            relaxEdges(cursor, node, distances[node], distances, predecessors, heap);
+        }
+        return new ShortestPaths(nodes, source, distances, predecessors);
+    }
+
+    private static void relaxEdges(CompressedGraph.EdgeCursor cursor, int node, long distance, long[] distances,
+            int[] predecessors, IndexedMinHeap heap) {
+        cursor.moveTo(node);
+        while (cursor.next()) {
+            int head = cursor.head();
+            long headDistance = distance + cursor.weight();
+            if (headDistance < distances[head]) {
+                distances[head] = headDistance;
+                predecessors[head] = node;
+                heap.insertOrDecrease(head, headDistance);
+            }
+        }
+    }
+}
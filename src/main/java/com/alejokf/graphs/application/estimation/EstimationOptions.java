@@ -0,0 +1,111 @@
+package com.alejokf.graphs.application.estimation;
+
+import java.time.Duration;
+
+/**
+ * Class representing when an approximate count stops: once the relative error of the estimate at the
+ * {@code confidence} level is at most {@code targetRelativeError}, once the {@code timeBudget} is spent, or once
+ * {@code maxSamples} random walks were sampled, whatever happens first.
+ * <p>
+ * The random walks are drawn from the {@code seed}, so two estimates with the same options and the same stop
+ * condition are identical, whatever the {@code parallelism}. Estimates stopped by the time budget depend on the speed
+ * of the machine.
+ * <p>
+ * Instances are immutable, and every {@code with} method returns a copy with one value changed.
+ */
+public final class EstimationOptions {
+
+    /**
+     * 5% relative error at 95% confidence, within one second
+     */
+    public static final EstimationOptions DEFAULT = new EstimationOptions(0.05, Duration.ofSeconds(1), 100_000_000L,
+            0.95, 42L, Runtime.getRuntime().availableProcessors());
+
+    private final double targetRelativeError;
+    private final Duration timeBudget;
+    private final long maxSamples;
+    private final double confidence;
+    private final long seed;
+    private final int parallelism;
+
+    private EstimationOptions(double targetRelativeError, Duration timeBudget, long maxSamples, double confidence,
+            long seed, int parallelism) {
+        this.targetRelativeError = targetRelativeError;
+        this.timeBudget = timeBudget;
+        this.maxSamples = maxSamples;
+        this.confidence = confidence;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param targetRelativeError the relative error to stop at, or 0 to stop only by time or samples
+     * @return a copy with the target relative error
+     */
+    public EstimationOptions withTargetRelativeError(double targetRelativeError) {
+        if (!(targetRelativeError >= 0)) {
+            throw new IllegalArgumentException("The target relative error can't be negative");
+        }
+        return new EstimationOptions(targetRelativeError, timeBudget, maxSamples, confidence, seed, parallelism);
+    }
+
+    public EstimationOptions withTimeBudget(Duration timeBudget) {
+        if (timeBudget.isNegative()) {
+            throw new IllegalArgumentException("The time budget can't be negative");
+        }
+        return new EstimationOptions(targetRelativeError, timeBudget, maxSamples, confidence, seed, parallelism);
+    }
+
+    public EstimationOptions withMaxSamples(long maxSamples) {
+        if (maxSamples < 2) {
+            throw new IllegalArgumentException("At least two samples are needed");
+        }
+        return new EstimationOptions(targetRelativeError, timeBudget, maxSamples, confidence, seed, parallelism);
+    }
+
+    /**
+     * @param confidence the confidence level of the interval, between 0 and 1 (exclusive)
+     * @return a copy with the confidence level
+     */
+    public EstimationOptions withConfidence(double confidence) {
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("The confidence must be between 0 and 1");
+        }
+        return new EstimationOptions(targetRelativeError, timeBudget, maxSamples, confidence, seed, parallelism);
+    }
+
+    public EstimationOptions withSeed(long seed) {
+        return new EstimationOptions(targetRelativeError, timeBudget, maxSamples, confidence, seed, parallelism);
+    }
+
+    public EstimationOptions withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        return new EstimationOptions(targetRelativeError, timeBudget, maxSamples, confidence, seed, parallelism);
+    }
+
+    public double getTargetRelativeError() {
+        return targetRelativeError;
+    }
+
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    public long getMaxSamples() {
+        return maxSamples;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+}
@@ -0,0 +1,109 @@
+package com.alejokf.graphs.application.estimation;
+
+/**
+ * Class representing an approximate number of traces, with its confidence interval.
+ * <p>
+ * The interval is the estimate plus or minus its standard error times the normal quantile of the confidence level,
+ * and its lower bound is never below 0. Exact counts (e.g. when the end can't be reached) have no error.
+ */
+public final class TraceCountEstimate {
+
+    /**
+     * The reason why the sampling stopped
+     */
+    public enum StopReason {
+        /**
+         * The count is exact, no sampling was needed
+         */
+        EXACT,
+        /**
+         * The relative error reached the target
+         */
+        TARGET_ERROR,
+        /**
+         * The time budget was spent
+         */
+        TIME_BUDGET,
+        /**
+         * The maximum number of samples was reached
+         */
+        MAX_SAMPLES
+    }
+
+    private final double estimate;
+    private final double standardError;
+    private final double confidence;
+    private final double margin;
+    private final long samples;
+    private final StopReason stopReason;
+
+    public TraceCountEstimate(double estimate, double standardError, double confidence, double margin, long samples,
+            StopReason stopReason) {
+        this.estimate = estimate;
+        this.standardError = standardError;
+        this.confidence = confidence;
+        this.margin = margin;
+        this.samples = samples;
+        this.stopReason = stopReason;
+    }
+
+    /**
+     * @param count the exact number of traces
+     * @return an estimate without error
+     */
+    public static TraceCountEstimate exact(long count) {
+        return new TraceCountEstimate(count, 0, 1, 0, 0, StopReason.EXACT);
+    }
+
+    public double getEstimate() {
+        return estimate;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    /**
+     * @return the confidence level of the interval
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public double getLower() {
+        return Math.max(0, estimate - margin);
+    }
+
+    public double getUpper() {
+        return estimate + margin;
+    }
+
+    /**
+     * @return the half width of the interval relative to the estimate, or infinity if the estimate is 0 and the
+     * count is not exact
+     */
+    public double getRelativeError() {
+        if (margin == 0) {
+            return 0;
+        }
+        return estimate == 0 ? Double.POSITIVE_INFINITY : margin / estimate;
+    }
+
+    /**
+     * @return the number of random walks sampled
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.4g traces, %.0f%% confidence interval [%.4g, %.4g] (relative error %.2f%%), "
+                        + "%d samples, stopped by %s", estimate, confidence * 100, getLower(), getUpper(),
+                getRelativeError() * 100, samples, stopReason);
+    }
+}
@@ -0,0 +1,51 @@
+package com.alejokf.graphs.application.estimation;
+
+import com.alejokf.graphs.domain.Graph;
+
+/**
+ * Approximate versions of the trace counts of {@link com.alejokf.graphs.application.search.GraphSearchService}, for
+ * graphs where enumerating the traces is not feasible. The estimates converge to the sizes of the results of the
+ * exact searches.
+ */
+public interface TraceCountEstimationService {
+
+    /**
+     * Estimates the number of traces from node {@code start} to node {@code end} with exactly {@code exactHops} hops
+     *
+     * @param graph     the graph
+     * @param start     the starting node
+     * @param end       the ending node
+     * @param exactHops the exact number of hops
+     * @param options   when to stop sampling
+     * @return the estimated number of traces
+     */
+    TraceCountEstimate estimateTracesByExactHops(Graph graph, String start, String end, int exactHops,
+            EstimationOptions options);
+
+    /**
+     * Estimates the number of traces from node {@code start} to node {@code end} with 1 to {@code maxHops} hops
+     *
+     * @param graph   the graph
+     * @param start   the starting node
+     * @param end     the ending node
+     * @param maxHops the maximum number of hops
+     * @param options when to stop sampling
+     * @return the estimated number of traces
+     */
+    TraceCountEstimate estimateTracesByMaxHops(Graph graph, String start, String end, int maxHops,
+            EstimationOptions options);
+
+    /**
+     * Estimates the number of non-empty traces from node {@code start} to node {@code end} with a latency of less
+     * than {@code maxLatency}
+     *
+     * @param graph      the graph
+     * @param start      the starting node
+     * @param end        the ending node
+     * @param maxLatency the maximum latency (exclusive)
+     * @param options    when to stop sampling
+     * @return the estimated number of traces
+     */
+    TraceCountEstimate estimateTracesByMaxLatency(Graph graph, String start, String end, int maxLatency,
+            EstimationOptions options);
+}
@@ -0,0 +1,221 @@
+package com.alejokf.graphs.application.estimation.impl;
+
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Samples random walks from the start node to estimate the number of traces to the end node, with Knuth's estimator.
+ * <p>
+ * Every walk picks one of the useful outgoing edges of its current node uniformly at random, and multiplies its
+ * weight by their number, i.e. by the inverse of the probability of the choice. Every time the walk is on the end
+ * node with a valid trace, the weight is added to the sample, so the expected value of a sample is the number of
+ * traces. The walk stops when no edge is useful.
+ * <p>
+ * An edge is useful when the end node can still be reached after it within the limit, using the minimum number of
+ * hops (or the minimum latency) from every node to the end node, calculated once backwards from the end node. The
+ * discarded edges lead to no trace, so the estimator is still unbiased, but no walk is wasted on them and the
+ * variance is smaller.
+ * <p>
+ * By latency, a cycle of zero-weight edges would keep a walk useful forever, and makes the number of traces infinite.
+ * Walks are then cut after {@code (limit / w + 1) * n} hops, with {@code w} the minimum positive weight and
+ * {@code n} the number of nodes. A trace within the limit has at most {@code limit / w} positive-weight edges, and
+ * the runs of zero-weight edges around them have less than {@code n} hops each unless they repeat a node, so only
+ * the traces going around a zero-weight cycle are cut. Without zero-weight cycles no trace is that long, so the
+ * estimator is unchanged.
+ * <p>
+ * The sampler is immutable and shared by all threads, every batch of walks runs with its own random generator.
+ */
+class RandomWalkSampler {
+
+    /**
+     * The traces to count
+     */
+    enum Mode {
+        EXACT_HOPS, MAX_HOPS, MAX_LATENCY
+    }
+
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final IndexedGraph graph;
+    private final int start;
+    private final int end;
+    private final Mode mode;
+    private final long limit;
+    // Minimum number of hops, or minimum latency, from every node to the end node, or UNREACHABLE
+    private final long[] toEnd;
+    // Maximum number of hops of a walk
+    private final long maxWalkHops;
+
+    RandomWalkSampler(IndexedGraph graph, int start, int end, Mode mode, long limit) {
+        this.graph = graph;
+        this.start = start;
+        this.end = end;
+        this.mode = mode;
+        this.limit = limit;
+        this.toEnd = mode == Mode.MAX_LATENCY ? latenciesToEnd() : hopsToEnd();
+        this.maxWalkHops = mode == Mode.MAX_LATENCY ? maxLatencyWalkHops() : limit;
+    }
+
+    /**
+     * @return whether some trace may exist, i.e. whether some walk can reach the end node
+     */
+    boolean canReachEnd() {
+        return hasUsefulEdge(start, 0);
+    }
+
+    /**
+     * Samples {@code walks} random walks
+     *
+     * @param random the random generator of the batch
+     * @param walks  the number of walks
+     * @return the statistics of the samples
+     */
+    SampleStatistics sample(SplittableRandom random, int walks) {
+        SampleStatistics statistics = new SampleStatistics();
+        for (int i = 0; i < walks; i++) {
+            statistics.add(walk(random));
+        }
+        return statistics;
+    }
+
+    private double walk(SplittableRandom random) {
+        double sample = 0;
+        double weight = 1;
+        int node = start;
+        long used = 0;
+        for (long hops = 0; hops < maxWalkHops; hops++) {
+            int useful = 0;
+            for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                if (isUseful(edge, used)) {
+                    useful++;
+                }
+            }
+            if (useful == 0) {
+                return sample;
+            }
+            int chosen = random.nextInt(useful);
+            int edge = graph.outStart(node);
+            while (!isUseful(edge, used) || chosen-- > 0) {
+                edge++;
+            }
+            weight *= useful;
+            used += mode == Mode.MAX_LATENCY ? graph.outWeight(edge) : 1;
+            node = graph.outHead(edge);
+            if (node == end && isValid(used)) {
+                sample += weight;
+            }
+        }
+        return sample;
+    }
+
+    private boolean hasUsefulEdge(int node, long used) {
+        for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+            if (isUseful(edge, used)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param used the hops or latency of the walk so far
+     * @return whether a trace can still end on the end node after following the {@code edge}
+     */
+    private boolean isUseful(int edge, long used) {
+        long remaining = toEnd[graph.outHead(edge)];
+        if (remaining == UNREACHABLE) {
+            return false;
+        }
+        if (mode == Mode.MAX_LATENCY) {
+            return used + graph.outWeight(edge) + remaining < limit;
+        }
+        return used + 1 + remaining <= limit;
+    }
+
+    private boolean isValid(long used) {
+        switch (mode) {
+            case EXACT_HOPS:
+                return used == limit;
+            case MAX_HOPS:
+                return used >= 1 && used <= limit;
+            default:
+                return used > 0 && used < limit;
+        }
+    }
+
+    /**
+     * @return {@code (limit / w + 1) * n}, or {@link Long#MAX_VALUE} if it overflows
+     */
+    private long maxLatencyWalkHops() {
+        long runs = limit / minPositiveWeight() + 1;
+        return runs > Long.MAX_VALUE / graph.size() ? Long.MAX_VALUE : runs * graph.size();
+    }
+
+    /**
+     * @return the minimum positive weight of the edges, or 1 if there is none
+     */
+    private long minPositiveWeight() {
+        long min = Long.MAX_VALUE;
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            long weight = graph.outWeight(edge);
+            if (weight > 0 && weight < min) {
+                min = weight;
+            }
+        }
+        return min == Long.MAX_VALUE ? 1 : min;
+    }
+
+    /**
+     * Breadth-first search backwards from the end node
+     */
+    private long[] hopsToEnd() {
+        long[] hops = new long[graph.size()];
+        Arrays.fill(hops, UNREACHABLE);
+        Deque<Integer> queue = new ArrayDeque<>();
+        hops[end] = 0;
+        queue.add(end);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int edge = graph.inStart(node); edge < graph.inEnd(node); edge++) {
+                int tail = graph.inTail(edge);
+                if (hops[tail] == UNREACHABLE) {
+                    hops[tail] = hops[node] + 1;
+                    queue.add(tail);
+                }
+            }
+        }
+        return hops;
+    }
+
+    /**
+     * Dijkstra's algorithm backwards from the end node
+     */
+    private long[] latenciesToEnd() {
+        long[] latencies = new long[graph.size()];
+        Arrays.fill(latencies, UNREACHABLE);
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        latencies[end] = 0;
+        queue.add(new long[]{0, end});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > latencies[node]) {
+                continue;
+            }
+            for (int edge = graph.inStart(node); edge < graph.inEnd(node); edge++) {
+                int tail = graph.inTail(edge);
+                long latency = entry[0] + graph.inWeight(edge);
+                if (latency < latencies[tail]) {
+                    latencies[tail] = latency;
+                    queue.add(new long[]{latency, tail});
+                }
+            }
+        }
+        return latencies;
+    }
+}
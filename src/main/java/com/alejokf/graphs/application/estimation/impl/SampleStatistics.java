@@ -0,0 +1,45 @@
+package com.alejokf.graphs.application.estimation.impl;
+
+/**
+ * Running count, mean and sum of squared deviations of samples (Welford's algorithm), which can be merged with the
+ * statistics of other samples (Chan's algorithm) without losing precision on large values.
+ */
+class SampleStatistics {
+
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+
+    void add(double sample) {
+        count++;
+        double delta = sample - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (sample - mean);
+    }
+
+    void merge(SampleStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        squaredDeviations += other.squaredDeviations + delta * delta * count / total * other.count;
+        count = total;
+    }
+
+    long count() {
+        return count;
+    }
+
+    double mean() {
+        return mean;
+    }
+
+    /**
+     * @return the standard error of the mean
+     */
+    double standardError() {
+        return count < 2 ? Double.POSITIVE_INFINITY : Math.sqrt(squaredDeviations / (count - 1) / count);
+    }
+}
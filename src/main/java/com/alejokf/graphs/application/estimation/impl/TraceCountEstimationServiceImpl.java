@@ -0,0 +1,141 @@
+package com.alejokf.graphs.application.estimation.impl;
+
+import com.alejokf.graphs.application.estimation.EstimationOptions;
+import com.alejokf.graphs.application.estimation.TraceCountEstimate;
+import com.alejokf.graphs.application.estimation.TraceCountEstimationService;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Service to estimate numbers of traces by sampling random walks, see {@link RandomWalkSampler}.
+ * <p>
+ * Walks are sampled in batches of {@value #BATCH_SIZE}, and every batch has its own generator, split in order from a
+ * root generator seeded with {@link EstimationOptions#getSeed()}. Rounds of batches run in parallel, and their
+ * statistics are merged in batch order, checking the stop conditions after every batch, so the estimate only depends
+ * on the seed and the stop condition, not on the parallelism. The time budget is checked after every round.
+ */
+@Component
+public class TraceCountEstimationServiceImpl implements TraceCountEstimationService {
+
+    static final int BATCH_SIZE = 4096;
+
+    public TraceCountEstimate estimateTracesByExactHops(Graph graph, String start, String end, int exactHops,
+            EstimationOptions options) {
+        if (exactHops == 0) {
+            IndexedGraph indexedGraph = graph.getIndexedGraph();
+            return TraceCountEstimate.exact(indexOf(indexedGraph, start) == indexedGraph.indexOf(end) ? 1 : 0);
+        }
+        return estimate(graph, start, end, RandomWalkSampler.Mode.EXACT_HOPS, exactHops, options);
+    }
+
+    public TraceCountEstimate estimateTracesByMaxHops(Graph graph, String start, String end, int maxHops,
+            EstimationOptions options) {
+        return estimate(graph, start, end, RandomWalkSampler.Mode.MAX_HOPS, maxHops, options);
+    }
+
+    public TraceCountEstimate estimateTracesByMaxLatency(Graph graph, String start, String end, int maxLatency,
+            EstimationOptions options) {
+        return estimate(graph, start, end, RandomWalkSampler.Mode.MAX_LATENCY, maxLatency, options);
+    }
+
+    private TraceCountEstimate estimate(Graph graph, String start, String end, RandomWalkSampler.Mode mode,
+            int limit, EstimationOptions options) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("The limit can't be negative");
+        }
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int startNode = indexOf(indexedGraph, start);
+        int endNode = indexedGraph.indexOf(end);
+        if (endNode < 0) {
+            return TraceCountEstimate.exact(0);
+        }
+        RandomWalkSampler sampler = new RandomWalkSampler(indexedGraph, startNode, endNode, mode, limit);
+        if (!sampler.canReachEnd()) {
+            return TraceCountEstimate.exact(0);
+        }
+
+        double z = normalQuantile((1 + options.getConfidence()) / 2);
+        long deadline = System.nanoTime() + options.getTimeBudget().toNanos();
+        SplittableRandom root = new SplittableRandom(options.getSeed());
+        SampleStatistics statistics = new SampleStatistics();
+        while (true) {
+            int batches = options.getParallelism();
+            SplittableRandom[] randoms = new SplittableRandom[batches];
+            int[] sizes = new int[batches];
+            long planned = statistics.count();
+            for (int i = 0; i < batches; i++) {
+                randoms[i] = root.split();
+                sizes[i] = (int) Math.min(BATCH_SIZE, options.getMaxSamples() - planned);
+                planned += sizes[i];
+            }
+            SampleStatistics[] results = IntStream.range(0, batches)
+                    .parallel()
+                    .mapToObj(i -> sampler.sample(randoms[i], sizes[i]))
+                    .toArray(SampleStatistics[]::new);
+
+            for (SampleStatistics result : results) {
+                statistics.merge(result);
+                double margin = z * statistics.standardError();
+                if (options.getTargetRelativeError() > 0 && statistics.mean() > 0
+                        && margin <= options.getTargetRelativeError() * statistics.mean()) {
+                    return estimate(statistics, options, z, TraceCountEstimate.StopReason.TARGET_ERROR);
+                }
+                if (statistics.count() >= options.getMaxSamples()) {
+                    return estimate(statistics, options, z, TraceCountEstimate.StopReason.MAX_SAMPLES);
+                }
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return estimate(statistics, options, z, TraceCountEstimate.StopReason.TIME_BUDGET);
+            }
+        }
+    }
+
+    private static TraceCountEstimate estimate(SampleStatistics statistics, EstimationOptions options, double z,
+            TraceCountEstimate.StopReason reason) {
+        double standardError = statistics.standardError();
+        return new TraceCountEstimate(statistics.mean(), standardError, options.getConfidence(), z * standardError,
+                statistics.count(), reason);
+    }
+
+    private static int indexOf(IndexedGraph graph, String start) {
+        int node = graph.indexOf(start);
+        if (node < 0) {
+            throw new IllegalArgumentException("Start node does not exist");
+        }
+        return node;
+    }
+
+    /**
+     * Quantile of the standard normal distribution, with Acklam's rational approximation (relative error below
+     * 1.2e-9)
+     *
+     * @param p the probability, between 0 and 1 (exclusive)
+     * @return the value below which the standard normal distribution has probability {@code p}
+     */
+    static double normalQuantile(double p) {
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02,
+                -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01,
+                -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00,
+                4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
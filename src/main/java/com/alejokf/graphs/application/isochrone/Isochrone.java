@@ -0,0 +1,115 @@
+package com.alejokf.graphs.application.isochrone;
+
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+
+/**
+ * Class representing the nodes reachable from a {@code source} node within a latency budget, with their shortest
+ * distances.
+ * <p>
+ * Nodes are kept as ids of the {@link IndexedGraph} in primitive arrays, ordered by distance. As everywhere else,
+ * the source is only part of the isochrone if a non-empty trace back to it fits in the budget.
+ * <p>
+ * If the calculation stopped because of a limit of its {@link com.alejokf.graphs.application.options.QueryOptions},
+ * the isochrone only has the closest nodes found by then, and is marked as truncated.
+ */
+public class Isochrone {
+
+    private final IndexedGraph graph;
+    // Id of the source node
+    private final int source;
+    // The latency budget
+    private final long budget;
+    // Ids of the reachable nodes, ordered by distance
+    private final int[] nodes;
+    // The shortest distance of every reachable node, in the same order
+    private final long[] distances;
+    // The reason why the calculation stopped before reaching every node, or null
+    private final TruncationReason truncation;
+
+    public Isochrone(IndexedGraph graph, int source, long budget, int[] nodes, long[] distances) {
+        this(graph, source, budget, nodes, distances, null);
+    }
+
+    public Isochrone(IndexedGraph graph, int source, long budget, int[] nodes, long[] distances,
+            TruncationReason truncation) {
+        this.graph = graph;
+        this.source = source;
+        this.budget = budget;
+        this.nodes = nodes;
+        this.distances = distances;
+        this.truncation = truncation;
+    }
+
+    public Node getSource() {
+        return graph.getNode(source);
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return true if the calculation stopped before reaching every node
+     */
+    public boolean isTruncated() {
+        return truncation != null;
+    }
+
+    /**
+     * @return the reason why the calculation stopped before reaching every node, or null if it did not
+     */
+    public TruncationReason getTruncation() {
+        return truncation;
+    }
+
+    /**
+     * @return the number of reachable nodes
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * @param i the position, in the range {@code [0, size())}
+     * @return the id of the i-th closest reachable node
+     */
+    public int node(int i) {
+        return nodes[i];
+    }
+
+    /**
+     * @param i the position, in the range {@code [0, size())}
+     * @return the label of the i-th closest reachable node
+     */
+    public String label(int i) {
+        return graph.getLabel(nodes[i]);
+    }
+
+    /**
+     * @param i the position, in the range {@code [0, size())}
+     * @return the shortest distance of the i-th closest reachable node
+     */
+    public long distance(int i) {
+        return distances[i];
+    }
+
+    /**
+     * @param label the label of the node
+     * @return the shortest distance of the node, or -1 if it is not reachable within the budget
+     */
+    public long distanceOf(String label) {
+        int node = graph.indexOf(label);
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] == node) {
+                return distances[i];
+            }
+        }
+        return -1;
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+}
@@ -0,0 +1,49 @@
+package com.alejokf.graphs.application.isochrone;
+
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.domain.Graph;
+
+import java.util.List;
+
+public interface IsochroneService {
+
+    /**
+     * Finds the {@link Isochrone} of node {@code source}, i.e. the nodes reachable from it on the {@code graph} with
+     * a shortest distance of at most {@code budget}
+     *
+     * @param graph  the graph to perform the calculation
+     * @param source the source node
+     * @param budget the latency budget
+     * @return the nodes reachable from {@code source} within {@code budget}
+     */
+    Isochrone isochrone(Graph graph, String source, long budget);
+
+    /**
+     * Same as {@link #isochrone(Graph, String, long)}, stopping with the closest nodes found so far, marked as
+     * truncated, when a limit of the {@code options} is reached. Every reached node counts as an expanded state and as
+     * a result. Overlays are not supported.
+     *
+     * @param options the limits of the calculation
+     * @throws IllegalArgumentException if the source does not exist or the {@code options} have a non-empty overlay
+     */
+    Isochrone isochrone(Graph graph, String source, long budget, QueryOptions options);
+
+    /**
+     * Finds the {@link Isochrone} of every node of {@code sources} with the same {@code budget}
+     *
+     * @param graph   the graph to perform the calculation
+     * @param sources the source nodes
+     * @param budget  the latency budget
+     * @return the isochrone of every source, in the same order as {@code sources}
+     */
+    List<Isochrone> isochrones(Graph graph, List<String> sources, long budget);
+
+    /**
+     * Same as {@link #isochrones(Graph, List, long)}, with the limits of the {@code options} applied to every
+     * isochrone separately, see {@link #isochrone(Graph, String, long, QueryOptions)}. Overlays are not supported.
+     *
+     * @param options the limits of the calculation of every isochrone
+     * @throws IllegalArgumentException if a source does not exist or the {@code options} have a non-empty overlay
+     */
+    List<Isochrone> isochrones(Graph graph, List<String> sources, long budget, QueryOptions options);
+}
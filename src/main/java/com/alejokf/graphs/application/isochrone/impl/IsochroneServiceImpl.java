@@ -0,0 +1,129 @@
+package com.alejokf.graphs.application.isochrone.impl;
+
+import com.alejokf.graphs.application.isochrone.Isochrone;
+import com.alejokf.graphs.application.isochrone.IsochroneService;
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.support.DijkstraScratch;
+import com.alejokf.graphs.application.support.DijkstraScratchPool;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service to calculate the nodes reachable within a latency budget
+ */
+@Component
+public class IsochroneServiceImpl implements IsochroneService {
+
+    public Isochrone isochrone(Graph graph, String source, long budget) {
+        return isochrone(graph, source, budget, QueryOptions.NONE);
+    }
+
+    public Isochrone isochrone(Graph graph, String source, long budget, QueryOptions options) {
+        checkOverlay(options);
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        return calculateIsochrone(indexedGraph, indexOf(indexedGraph, source), budget,
+                DijkstraScratchPool.of(indexedGraph), QueryBudget.start(options));
+    }
+
+    public List<Isochrone> isochrones(Graph graph, List<String> sources, long budget) {
+        return isochrones(graph, sources, budget, QueryOptions.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The isochrones are calculated in parallel, with scratches borrowed from the {@link DijkstraScratchPool} of the
+     * graph, so no per-source state proportional to the graph is allocated. Every isochrone has its own
+     * {@link QueryBudget}, since a budget can't be shared between threads.
+     */
+    public List<Isochrone> isochrones(Graph graph, List<String> sources, long budget, QueryOptions options) {
+        checkOverlay(options);
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int[] sourceNodes = sources.stream().mapToInt(source -> indexOf(indexedGraph, source)).toArray();
+        DijkstraScratchPool scratches = DijkstraScratchPool.of(indexedGraph);
+        return Arrays.stream(sourceNodes)
+                .parallel()
+                .mapToObj(source -> calculateIsochrone(indexedGraph, source, budget, scratches,
+                        QueryBudget.start(options)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Calculates the isochrone of node {@code source}.
+     * <p>
+     * The implementation runs Dijkstra's algorithm starting with the outgoing edges of {@code source}, and stops as
+     * soon as the smallest tentative distance in the heap exceeds the budget. Tentative distances over the budget are
+     * never added to the heap, so the cost is proportional to the reachable region and its outgoing edges, not to
+     * the whole graph.
+     * <p>
+     * Every node is counted by the {@code limits} before it is processed, so a truncated isochrone holds the closest
+     * nodes, with their final distances.
+     *
+     * @param graph     the graph
+     * @param source    the source node
+     * @param budget    the latency budget
+     * @param scratches the pool the scratch used for the search is borrowed from, and released to once reset
+     * @param limits    the limits of the calculation
+     * @return the isochrone of {@code source}
+     */
+    private Isochrone calculateIsochrone(IndexedGraph graph, int source, long budget, DijkstraScratchPool scratches,
+            QueryBudget limits) {
+        DijkstraScratch scratch = scratches.borrow();
+        int[] nodes = new int[16];
+        long[] distances = new long[16];
+        int size = 0;
+        try {
+            relaxEdges(graph, source, 0, budget, scratch);
+            while (scratch.hasNext() && scratch.peekDistance() <= budget) {
+                if (!limits.expand() || !limits.acceptsMoreResults(size)) {
+                    break;
+                }
+                int node = scratch.next();
+                long distance = scratch.distance(node);
+                if (size == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, size * 2);
+                    distances = Arrays.copyOf(distances, size * 2);
+                }
+                nodes[size] = node;
+                distances[size] = distance;
+                size++;
+                relaxEdges(graph, node, distance, budget, scratch);
+            }
+        } finally {
+            scratch.reset();
+            scratches.release(scratch);
+        }
+        return new Isochrone(graph, source, budget, Arrays.copyOf(nodes, size), Arrays.copyOf(distances, size),
+                limits.getTruncation());
+    }
+
+    private static void relaxEdges(IndexedGraph graph, int node, long distance, long budget,
+            DijkstraScratch scratch) {
+        for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+            long headDistance = distance + graph.outWeight(edge);
+            if (headDistance <= budget) {
+                scratch.relax(graph.outHead(edge), headDistance, node);
+            }
+        }
+    }
+
+    private static void checkOverlay(QueryOptions options) {
+        if (!options.getOverlay().isEmpty()) {
+            throw new IllegalArgumentException("Overlays are not supported on isochrones");
+        }
+    }
+
+    private static int indexOf(IndexedGraph graph, String label) {
+        int node = graph.indexOf(label);
+        if (node < 0) {
+            throw new IllegalArgumentException("Source node does not exist");
+        }
+        return node;
+    }
+}
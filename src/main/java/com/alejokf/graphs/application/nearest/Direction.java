@@ -0,0 +1,17 @@
+package com.alejokf.graphs.application.nearest;
+
+/**
+ * Direction in which the distances to the nearest source are measured
+ */
+public enum Direction {
+
+    /**
+     * Distances from the nearest source to every node, following the edges from their tail to their head
+     */
+    FORWARD,
+
+    /**
+     * Distances from every node to the nearest source, following the edges from their head to their tail
+     */
+    REVERSE
+}
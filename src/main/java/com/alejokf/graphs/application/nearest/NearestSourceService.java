@@ -0,0 +1,33 @@
+package com.alejokf.graphs.application.nearest;
+
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.domain.Graph;
+
+import java.util.List;
+
+public interface NearestSourceService {
+
+    /**
+     * Finds the {@link NearestSources}, i.e. for every node of the {@code graph}, the nearest node of
+     * {@code sources} and the shortest distance to it.
+     * <p>
+     * Unlike the shortest paths of a single source, the distance of a source to itself is 0.
+     *
+     * @param graph     the graph to perform the calculation
+     * @param sources   the source nodes
+     * @param direction whether distances are measured from the sources, or to the sources
+     * @return the nearest source of every node
+     */
+    NearestSources nearestSources(Graph graph, List<String> sources, Direction direction);
+
+    /**
+     * Same as {@link #nearestSources(Graph, List, Direction)}, stopping when a limit of the {@code options} is reached.
+     * In that case, only the nodes whose distance was already final have a nearest source, and the result is marked as
+     * truncated. Every processed node counts as an expanded state, and the maximum number of results does not apply.
+     * Overlays are not supported.
+     *
+     * @param options the limits of the calculation
+     * @throws IllegalArgumentException if a source does not exist or the {@code options} have a non-empty overlay
+     */
+    NearestSources nearestSources(Graph graph, List<String> sources, Direction direction, QueryOptions options);
+}
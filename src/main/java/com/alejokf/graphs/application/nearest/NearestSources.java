@@ -0,0 +1,104 @@
+package com.alejokf.graphs.application.nearest;
+
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.domain.IndexedGraph;
+
+/**
+ * Class representing the nearest source of every node of a graph, and the distance to it.
+ * <p>
+ * Both are kept in primitive arrays indexed by the node ids of the {@link IndexedGraph}. The owners partition the
+ * reachable nodes into the regions closest to every source (a Voronoi partition of the graph). Sources are their own
+ * owners, at distance 0.
+ * <p>
+ * If the calculation stopped because of a limit of its {@link com.alejokf.graphs.application.options.QueryOptions},
+ * only the nodes whose distance was final by then have an owner, and the result is marked as truncated.
+ */
+public class NearestSources {
+
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+    public static final int NO_OWNER = -1;
+
+    private final IndexedGraph graph;
+    private final Direction direction;
+    // The distance of every node to its nearest source, or UNREACHABLE
+    private final long[] distances;
+    // The id of the nearest source of every node, or NO_OWNER
+    private final int[] owners;
+    // The reason why the calculation stopped before reaching every node, or null
+    private final TruncationReason truncation;
+
+    public NearestSources(IndexedGraph graph, Direction direction, long[] distances, int[] owners) {
+        this(graph, direction, distances, owners, null);
+    }
+
+    public NearestSources(IndexedGraph graph, Direction direction, long[] distances, int[] owners,
+            TruncationReason truncation) {
+        this.graph = graph;
+        this.direction = direction;
+        this.distances = distances;
+        this.owners = owners;
+        this.truncation = truncation;
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return true if the calculation stopped before reaching every node
+     */
+    public boolean isTruncated() {
+        return truncation != null;
+    }
+
+    /**
+     * @return the reason why the calculation stopped before reaching every node, or null if it did not
+     */
+    public TruncationReason getTruncation() {
+        return truncation;
+    }
+
+    /**
+     * @return the distance of every node to its nearest source, indexed by node id, or {@value #UNREACHABLE}
+     */
+    public long[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * @return the id of the nearest source of every node, indexed by node id, or {@value #NO_OWNER}
+     */
+    public int[] getOwners() {
+        return owners;
+    }
+
+    /**
+     * @param label the label of the node
+     * @return the distance of the node to its nearest source, or null if no source is reachable
+     */
+    public Long getDistance(String label) {
+        long distance = distances[indexOf(label)];
+        return distance == UNREACHABLE ? null : distance;
+    }
+
+    /**
+     * @param label the label of the node
+     * @return the label of the nearest source of the node, or null if no source is reachable
+     */
+    public String getOwner(String label) {
+        int owner = owners[indexOf(label)];
+        return owner == NO_OWNER ? null : graph.getLabel(owner);
+    }
+
+    private int indexOf(String label) {
+        int node = graph.indexOf(label);
+        if (node < 0) {
+            throw new IllegalArgumentException("Node does not exist");
+        }
+        return node;
+    }
+}
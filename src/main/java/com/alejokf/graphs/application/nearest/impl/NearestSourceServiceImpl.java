@@ -0,0 +1,108 @@
+package com.alejokf.graphs.application.nearest.impl;
+
+import com.alejokf.graphs.application.nearest.Direction;
+import com.alejokf.graphs.application.nearest.NearestSourceService;
+import com.alejokf.graphs.application.nearest.NearestSources;
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.support.DijkstraScratch;
+import com.alejokf.graphs.application.support.DijkstraScratchPool;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service to calculate the nearest source of every node
+ */
+@Component
+public class NearestSourceServiceImpl implements NearestSourceService {
+
+    public NearestSources nearestSources(Graph graph, List<String> sources, Direction direction) {
+        return nearestSources(graph, sources, direction, QueryOptions.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The implementation runs a single Dijkstra search from a virtual node with an edge of weight 0 to every source,
+     * i.e. with all the sources in the heap at distance 0. Every node inherits the owner of the node it is reached
+     * from, so the owner of a node is the source its shortest distance starts from. The cost is the one of a single
+     * shortest paths calculation, whatever the number of sources. The scratch of the search is borrowed from the
+     * {@link DijkstraScratchPool} of the graph.
+     * <p>
+     * Owners are set when nodes are reached, so if a limit of the {@code options} is reached, the owners of the nodes
+     * left in the heap are cleared.
+     */
+    public NearestSources nearestSources(Graph graph, List<String> sources, Direction direction,
+            QueryOptions options) {
+        if (!options.getOverlay().isEmpty()) {
+            throw new IllegalArgumentException("Overlays are not supported on nearest sources");
+        }
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int size = indexedGraph.size();
+        long[] distances = new long[size];
+        int[] owners = new int[size];
+        Arrays.fill(distances, NearestSources.UNREACHABLE);
+        Arrays.fill(owners, NearestSources.NO_OWNER);
+
+        QueryBudget budget = QueryBudget.start(options);
+        DijkstraScratchPool scratches = DijkstraScratchPool.of(indexedGraph);
+        DijkstraScratch scratch = scratches.borrow();
+        try {
+            for (String source : sources) {
+                int node = indexedGraph.indexOf(source);
+                if (node < 0) {
+                    throw new IllegalArgumentException("Source node " + source + " does not exist");
+                }
+                if (scratch.relax(node, 0, DijkstraScratch.NO_PREDECESSOR)) {
+                    owners[node] = node;
+                }
+            }
+
+            boolean forward = direction == Direction.FORWARD;
+            while (scratch.hasNext()) {
+                if (!budget.expand()) {
+                    clearTentativeOwners(scratch, distances, owners);
+                    break;
+                }
+                int node = scratch.next();
+                long distance = scratch.distance(node);
+                distances[node] = distance;
+                if (forward) {
+                    for (int edge = indexedGraph.outStart(node); edge < indexedGraph.outEnd(node); edge++) {
+                        int head = indexedGraph.outHead(edge);
+                        if (scratch.relax(head, distance + indexedGraph.outWeight(edge), node)) {
+                            owners[head] = owners[node];
+                        }
+                    }
+                } else {
+                    for (int edge = indexedGraph.inStart(node); edge < indexedGraph.inEnd(node); edge++) {
+                        int tail = indexedGraph.inTail(edge);
+                        if (scratch.relax(tail, distance + indexedGraph.inWeight(edge), node)) {
+                            owners[tail] = owners[node];
+                        }
+                    }
+                }
+            }
+        } finally {
+            scratch.reset();
+            scratches.release(scratch);
+        }
+        return new NearestSources(indexedGraph, direction, distances, owners, budget.getTruncation());
+    }
+
+    /**
+     * Clears the owner of every reached node whose distance is not final
+     */
+    private static void clearTentativeOwners(DijkstraScratch scratch, long[] distances, int[] owners) {
+        for (int i = 0; i < scratch.touchedCount(); i++) {
+            int node = scratch.touched(i);
+            if (distances[node] == NearestSources.UNREACHABLE) {
+                owners[node] = NearestSources.NO_OWNER;
+            }
+        }
+    }
+}
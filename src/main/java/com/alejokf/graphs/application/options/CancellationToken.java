@@ -0,0 +1,18 @@
+package com.alejokf.graphs.application.options;
+
+/**
+ * Token to cancel running queries from another thread. Queries check it periodically and stop with a partial result
+ * once it is cancelled.
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,95 @@
+package com.alejokf.graphs.application.options;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tracks the limits of a {@link QueryOptions} while a query runs.
+ * <p>
+ * It is meant to be called in the hot loop of a search, so {@link #expand()} only increments a counter: the clock
+ * and the cancellation token are checked on the first state and then once every {@value CHECK_INTERVAL} states. A
+ * budget belongs to a single query and must not be shared between threads.
+ */
+public final class QueryBudget {
+
+    // The number of states expanded between two checks of the deadline and the cancellation token
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final long maxExpandedStates;
+    private final int maxResults;
+    private final CancellationToken cancellationToken;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private long expandedStates;
+    private TruncationReason truncation;
+
+    private QueryBudget(QueryOptions options) {
+        this.maxExpandedStates = options.getMaxExpandedStates();
+        this.maxResults = options.getMaxResults();
+        this.cancellationToken = options.getCancellationToken();
+        Instant deadline = options.getDeadline();
+        this.hasDeadline = deadline != null;
+        long remaining = 0;
+        if (hasDeadline) {
+            Duration duration = Duration.between(Instant.now(), deadline);
+            remaining = duration.isNegative() ? 0 : duration.compareTo(Duration.ofDays(365)) > 0 ?
+                    Duration.ofDays(365).toNanos() : duration.toNanos();
+        }
+        this.deadlineNanos = System.nanoTime() + remaining;
+    }
+
+    /**
+     * Starts tracking the limits of a query, with the deadline measured from now
+     *
+     * @param options the options of the query
+     * @return the budget of the query
+     */
+    public static QueryBudget start(QueryOptions options) {
+        return new QueryBudget(options);
+    }
+
+    /**
+     * Counts an expanded state
+     *
+     * @return true if the query can go on, false if it must stop with a partial result
+     */
+    public boolean expand() {
+        long expanded = ++expandedStates;
+        if (expanded > maxExpandedStates) {
+            return truncate(TruncationReason.MAX_EXPANDED_STATES);
+        }
+        if ((expanded & (CHECK_INTERVAL - 1)) == 1) {
+            if (cancellationToken != null && cancellationToken.isCancelled()) {
+                return truncate(TruncationReason.CANCELLED);
+            }
+            if (hasDeadline && System.nanoTime() - deadlineNanos >= 0) {
+                return truncate(TruncationReason.DEADLINE);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param results the number of results found so far
+     * @return true if the query can find more results, false if it must stop
+     */
+    public boolean acceptsMoreResults(int results) {
+        return results < maxResults || truncate(TruncationReason.MAX_RESULTS);
+    }
+
+    public long getExpandedStates() {
+        return expandedStates;
+    }
+
+    /**
+     * @return the reason why the query was truncated, or null if it was not
+     */
+    public TruncationReason getTruncation() {
+        return truncation;
+    }
+
+    private boolean truncate(TruncationReason reason) {
+        truncation = reason;
+        return false;
+    }
+}
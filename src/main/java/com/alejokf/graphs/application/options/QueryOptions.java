@@ -0,0 +1,121 @@
+package com.alejokf.graphs.application.options;
+
+import com.alejokf.graphs.domain.WeightOverlay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Class representing the limits of a query: a deadline, a maximum number of expanded states, a maximum number of
+ * results and a cancellation token. A query reaching any of them stops and returns a partial result marked as
+ * truncated. Options also switch on profiling, see {@link com.alejokf.graphs.application.profiling.QueryProfiler},
+ * and apply a {@link WeightOverlay} to the graph.
+ * <p>
+ * Instances are immutable, and every {@code with} method returns a copy with one more limit.
+ */
+public final class QueryOptions {
+
+    /**
+     * Options without any limit
+     */
+    public static final QueryOptions NONE = new QueryOptions(null, Long.MAX_VALUE, Integer.MAX_VALUE, null, false,
+            WeightOverlay.EMPTY);
+
+    private final Instant deadline;
+    private final long maxExpandedStates;
+    private final int maxResults;
+    private final CancellationToken cancellationToken;
+    private final boolean profiling;
+    private final WeightOverlay overlay;
+
+    private QueryOptions(Instant deadline, long maxExpandedStates, int maxResults,
+            CancellationToken cancellationToken, boolean profiling, WeightOverlay overlay) {
+        this.deadline = deadline;
+        this.maxExpandedStates = maxExpandedStates;
+        this.maxResults = maxResults;
+        this.cancellationToken = cancellationToken;
+        this.profiling = profiling;
+        this.overlay = overlay;
+    }
+
+    public QueryOptions withDeadline(Instant deadline) {
+        return new QueryOptions(deadline, maxExpandedStates, maxResults, cancellationToken, profiling, overlay);
+    }
+
+    /**
+     * @param timeout the time the query may run, from now
+     * @return a copy with a deadline {@code timeout} from now
+     */
+    public QueryOptions withTimeout(Duration timeout) {
+        return withDeadline(Instant.now().plus(timeout));
+    }
+
+    public QueryOptions withMaxExpandedStates(long maxExpandedStates) {
+        if (maxExpandedStates < 1) {
+            throw new IllegalArgumentException("The maximum number of expanded states must be positive");
+        }
+        return new QueryOptions(deadline, maxExpandedStates, maxResults, cancellationToken, profiling, overlay);
+    }
+
+    public QueryOptions withMaxResults(int maxResults) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("The maximum number of results must be positive");
+        }
+        return new QueryOptions(deadline, maxExpandedStates, maxResults, cancellationToken, profiling, overlay);
+    }
+
+    public QueryOptions withCancellationToken(CancellationToken cancellationToken) {
+        return new QueryOptions(deadline, maxExpandedStates, maxResults, cancellationToken, profiling, overlay);
+    }
+
+    /**
+     * @return a copy that profiles the query, whose result then has a
+     * {@link com.alejokf.graphs.application.profiling.QueryProfile}
+     */
+    public QueryOptions withProfiling() {
+        return new QueryOptions(deadline, maxExpandedStates, maxResults, cancellationToken, true, overlay);
+    }
+
+    /**
+     * @param overlay the changes to the edges of the graph the query sees
+     * @return a copy that runs the query on the graph with the changes of the {@code overlay}
+     */
+    public QueryOptions withOverlay(WeightOverlay overlay) {
+        Objects.requireNonNull(overlay, "overlay is required");
+        return new QueryOptions(deadline, maxExpandedStates, maxResults, cancellationToken, profiling, overlay);
+    }
+
+    /**
+     * @return whether these options have no limit, profiling nor overlay, i.e. whether a query with them runs like a
+     * query without options
+     */
+    public boolean isUnlimited() {
+        return deadline == null && maxExpandedStates == Long.MAX_VALUE && maxResults == Integer.MAX_VALUE
+                && cancellationToken == null && !profiling && overlay.isEmpty();
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public long getMaxExpandedStates() {
+        return maxExpandedStates;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    public WeightOverlay getOverlay() {
+        return overlay;
+    }
+}
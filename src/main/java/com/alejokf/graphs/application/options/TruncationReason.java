@@ -0,0 +1,27 @@
+package com.alejokf.graphs.application.options;
+
+/**
+ * Reasons why a query stopped before completing, leaving a partial result
+ */
+public enum TruncationReason {
+
+    /**
+     * The deadline of the query passed
+     */
+    DEADLINE,
+
+    /**
+     * The query expanded the maximum number of states
+     */
+    MAX_EXPANDED_STATES,
+
+    /**
+     * The query found the maximum number of results
+     */
+    MAX_RESULTS,
+
+    /**
+     * The query was cancelled with its {@link CancellationToken}
+     */
+    CANCELLED
+}
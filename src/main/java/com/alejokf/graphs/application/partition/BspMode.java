@@ -0,0 +1,17 @@
+package com.alejokf.graphs.application.partition;
+
+/**
+ * How the workers owning the partitions of a graph are run
+ */
+public enum BspMode {
+
+    /**
+     * One thread per partition, in the current JVM
+     */
+    THREADS,
+
+    /**
+     * One separate JVM per partition, exchanging messages with the coordinator over a loopback socket
+     */
+    PROCESSES
+}
@@ -0,0 +1,53 @@
+package com.alejokf.graphs.application.partition;
+
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.List;
+
+/**
+ * Class representing the result of running a {@link VertexProgram} on a {@link PartitionedGraph}: the final value of
+ * every vertex and the metrics of every superstep
+ */
+public class BspResult {
+
+    // The graph the program was run on
+    private final IndexedGraph graph;
+    // The final value of every vertex, indexed by vertex id
+    private final long[] values;
+    // The metrics of every superstep, in execution order
+    private final List<SuperstepMetrics> metrics;
+
+    public BspResult(IndexedGraph graph, long[] values, List<SuperstepMetrics> metrics) {
+        this.graph = graph;
+        this.values = values;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param node the label of the node
+     * @return the final value of the node
+     */
+    public long getValue(String node) {
+        int id = graph.indexOf(node);
+        if (id < 0) {
+            throw new IllegalArgumentException("Node does not exist");
+        }
+        return values[id];
+    }
+
+    public long[] getValues() {
+        return values;
+    }
+
+    public List<SuperstepMetrics> getMetrics() {
+        return metrics;
+    }
+
+    public long getTotalMessages() {
+        return metrics.stream().mapToLong(SuperstepMetrics::getMessages).sum();
+    }
+
+    public long getTotalRemoteMessages() {
+        return metrics.stream().mapToLong(SuperstepMetrics::getRemoteMessages).sum();
+    }
+}
@@ -0,0 +1,117 @@
+package com.alejokf.graphs.application.partition;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Class representing a single partition of a {@link PartitionedGraph}: the nodes it owns and their outgoing edges.
+ * <p>
+ * Owned nodes are identified by their local index in the partition. The head of every edge is stored as the
+ * partition owning it and its local index in that partition, so messages can be routed without any global lookup.
+ * A partition can be written to and read from a binary stream, to be shipped to a worker process.
+ */
+public final class Partition {
+
+    // The id of this partition
+    private final int id;
+    // The global id of every owned node, indexed by local index
+    private final int[] nodes;
+    // Outgoing edges: edges of local node u are in [offsets[u], offsets[u + 1])
+    private final int[] offsets;
+    private final int[] headPartitions;
+    private final int[] headLocals;
+    private final long[] weights;
+
+    public Partition(int id, int[] nodes, int[] offsets, int[] headPartitions, int[] headLocals, long[] weights) {
+        this.id = id;
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.headPartitions = headPartitions;
+        this.headLocals = headLocals;
+        this.weights = weights;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the number of owned nodes
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    public int edgeCount() {
+        return weights.length;
+    }
+
+    /**
+     * @param local the local index of the node
+     * @return the global id of the node
+     */
+    public int globalId(int local) {
+        return nodes[local];
+    }
+
+    public int edgeStart(int local) {
+        return offsets[local];
+    }
+
+    public int edgeEnd(int local) {
+        return offsets[local + 1];
+    }
+
+    public int headPartition(int edge) {
+        return headPartitions[edge];
+    }
+
+    public int headLocal(int edge) {
+        return headLocals[edge];
+    }
+
+    public long weight(int edge) {
+        return weights[edge];
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(id);
+        out.writeInt(nodes.length);
+        out.writeInt(weights.length);
+        for (int node : nodes) {
+            out.writeInt(node);
+        }
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        for (int edge = 0; edge < weights.length; edge++) {
+            out.writeInt(headPartitions[edge]);
+            out.writeInt(headLocals[edge]);
+            out.writeLong(weights[edge]);
+        }
+    }
+
+    public static Partition readFrom(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        int nodeCount = in.readInt();
+        int edgeCount = in.readInt();
+        int[] nodes = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = in.readInt();
+        }
+        int[] offsets = new int[nodeCount + 1];
+        for (int i = 0; i <= nodeCount; i++) {
+            offsets[i] = in.readInt();
+        }
+        int[] headPartitions = new int[edgeCount];
+        int[] headLocals = new int[edgeCount];
+        long[] weights = new long[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            headPartitions[edge] = in.readInt();
+            headLocals[edge] = in.readInt();
+            weights[edge] = in.readLong();
+        }
+        return new Partition(id, nodes, offsets, headPartitions, headLocals, weights);
+    }
+}
@@ -0,0 +1,20 @@
+package com.alejokf.graphs.application.partition;
+
+/**
+ * Strategy used to assign the nodes of a graph to partitions
+ */
+public enum PartitionStrategy {
+
+    /**
+     * Every node is assigned to a partition by the hash of its label. It is cheap and balanced, but it doesn't take
+     * the edges into account, so most edges usually cross partitions.
+     */
+    HASH,
+
+    /**
+     * Nodes are streamed in breadth-first order and every node is assigned to the partition holding most of its
+     * already assigned neighbours, penalised by how full the partition is (Linear Deterministic Greedy). It reduces
+     * the number of edges crossing partitions, and therefore the messages exchanged between workers.
+     */
+    EDGE_CUT
+}
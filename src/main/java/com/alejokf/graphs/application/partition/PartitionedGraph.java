@@ -0,0 +1,192 @@
+package com.alejokf.graphs.application.partition;
+
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Class representing a graph split into {@link Partition}s, every one of them owned by a different worker
+ */
+public final class PartitionedGraph {
+
+    // The complete graph, used to translate between labels and ids
+    private final IndexedGraph graph;
+    // The partition owning every node, indexed by node id
+    private final int[] owners;
+    // The local index of every node in the partition owning it, indexed by node id
+    private final int[] locals;
+    private final Partition[] partitions;
+
+    private PartitionedGraph(IndexedGraph graph, int[] owners, int[] locals, Partition[] partitions) {
+        this.graph = graph;
+        this.owners = owners;
+        this.locals = locals;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Splits the {@code graph} into {@code partitionCount} partitions, following the provided {@code strategy}
+     *
+     * @param graph          the graph
+     * @param partitionCount the number of partitions
+     * @param strategy       the strategy to assign nodes to partitions
+     * @return the partitioned graph
+     */
+    public static PartitionedGraph of(IndexedGraph graph, int partitionCount, PartitionStrategy strategy) {
+        Objects.requireNonNull(graph, "graph is required");
+        Objects.requireNonNull(strategy, "strategy is required");
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        int[] owners = strategy == PartitionStrategy.HASH ? hashOwners(graph, partitionCount) :
+                edgeCutOwners(graph, partitionCount);
+
+        int[] sizes = new int[partitionCount];
+        int[] edgeCounts = new int[partitionCount];
+        int[] locals = new int[graph.size()];
+        for (int node = 0; node < graph.size(); node++) {
+            locals[node] = sizes[owners[node]]++;
+            edgeCounts[owners[node]] += graph.outDegree(node);
+        }
+
+        Partition[] partitions = new Partition[partitionCount];
+        int[][] nodes = new int[partitionCount][];
+        for (int p = 0; p < partitionCount; p++) {
+            nodes[p] = new int[sizes[p]];
+        }
+        for (int node = 0; node < graph.size(); node++) {
+            nodes[owners[node]][locals[node]] = node;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            int[] offsets = new int[sizes[p] + 1];
+            int[] headPartitions = new int[edgeCounts[p]];
+            int[] headLocals = new int[edgeCounts[p]];
+            long[] weights = new long[edgeCounts[p]];
+            int position = 0;
+            for (int local = 0; local < sizes[p]; local++) {
+                int node = nodes[p][local];
+                for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                    int head = graph.outHead(edge);
+                    headPartitions[position] = owners[head];
+                    headLocals[position] = locals[head];
+                    weights[position] = graph.outWeight(edge);
+                    position++;
+                }
+                offsets[local + 1] = position;
+            }
+            partitions[p] = new Partition(p, nodes[p], offsets, headPartitions, headLocals, weights);
+        }
+        return new PartitionedGraph(graph, owners, locals, partitions);
+    }
+
+    private static int[] hashOwners(IndexedGraph graph, int partitionCount) {
+        int[] owners = new int[graph.size()];
+        for (int node = 0; node < graph.size(); node++) {
+            int hash = graph.getLabel(node).hashCode() * 0x9E3779B9;
+            owners[node] = Math.floorMod(hash ^ (hash >>> 16), partitionCount);
+        }
+        return owners;
+    }
+
+    /**
+     * Linear Deterministic Greedy streaming partitioning, with the nodes streamed in breadth-first order (ignoring
+     * edge directions) so neighbours are seen close to each other
+     */
+    private static int[] edgeCutOwners(IndexedGraph graph, int partitionCount) {
+        int n = graph.size();
+        double capacity = Math.ceil((double) n / partitionCount);
+        int[] owners = new int[n];
+        Arrays.fill(owners, -1);
+        int[] sizes = new int[partitionCount];
+        int[] neighbours = new int[partitionCount];
+
+        int[] queue = new int[n];
+        boolean[] queued = new boolean[n];
+        for (int root = 0; root < n; root++) {
+            if (queued[root]) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            queued[root] = true;
+            while (head < tail) {
+                int node = queue[head++];
+
+                Arrays.fill(neighbours, 0);
+                for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                    int other = graph.outHead(edge);
+                    if (owners[other] >= 0) {
+                        neighbours[owners[other]]++;
+                    }
+                    if (!queued[other]) {
+                        queued[other] = true;
+                        queue[tail++] = other;
+                    }
+                }
+                for (int edge = graph.inStart(node); edge < graph.inEnd(node); edge++) {
+                    int other = graph.inTail(edge);
+                    if (owners[other] >= 0) {
+                        neighbours[owners[other]]++;
+                    }
+                    if (!queued[other]) {
+                        queued[other] = true;
+                        queue[tail++] = other;
+                    }
+                }
+
+                int best = -1;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                for (int p = 0; p < partitionCount; p++) {
+                    if (sizes[p] >= capacity) {
+                        continue;
+                    }
+                    double score = neighbours[p] * (1 - sizes[p] / capacity);
+                    if (best < 0 || score > bestScore || (score == bestScore && sizes[p] < sizes[best])) {
+                        best = p;
+                        bestScore = score;
+                    }
+                }
+                owners[node] = best;
+                sizes[best]++;
+            }
+        }
+        return owners;
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    public Partition getPartition(int partition) {
+        return partitions[partition];
+    }
+
+    public int ownerOf(int node) {
+        return owners[node];
+    }
+
+    public int localOf(int node) {
+        return locals[node];
+    }
+
+    /**
+     * @return the number of edges whose tail and head are owned by different partitions
+     */
+    public long cutEdges() {
+        long cut = 0;
+        for (Partition partition : partitions) {
+            for (int edge = 0; edge < partition.edgeCount(); edge++) {
+                if (partition.headPartition(edge) != partition.getId()) {
+                    cut++;
+                }
+            }
+        }
+        return cut;
+    }
+}
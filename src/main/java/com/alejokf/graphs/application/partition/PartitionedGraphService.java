@@ -0,0 +1,51 @@
+package com.alejokf.graphs.application.partition;
+
+import com.alejokf.graphs.domain.Graph;
+
+public interface PartitionedGraphService {
+
+    /**
+     * Splits the {@code graph} into {@code partitions} partitions, to be processed by one worker each
+     *
+     * @param graph      the graph
+     * @param partitions the number of partitions
+     * @param strategy   the strategy to assign nodes to partitions
+     * @return the partitioned graph
+     */
+    PartitionedGraph partition(Graph graph, int partitions, PartitionStrategy strategy);
+
+    /**
+     * Calculates the shortest distance from node {@code start} to every node of the {@code graph}. Unreachable
+     * nodes have the value {@link Long#MAX_VALUE}.
+     *
+     * @param graph the partitioned graph
+     * @param start the starting node
+     * @param mode  how the workers are run
+     * @return the shortest distance to every node, and the metrics of the execution
+     */
+    BspResult shortestPaths(PartitionedGraph graph, String start, BspMode mode);
+
+    /**
+     * Calculates the minimum number of hops from node {@code start} to every node of the {@code graph} reachable
+     * with at most {@code maxHops} hops. Nodes not reachable have the value {@link Long#MAX_VALUE}.
+     *
+     * @param graph   the partitioned graph
+     * @param start   the starting node
+     * @param maxHops the maximum number of hops
+     * @param mode    how the workers are run
+     * @return the minimum number of hops to every node, and the metrics of the execution
+     */
+    BspResult reachableByMaxHops(PartitionedGraph graph, String start, int maxHops, BspMode mode);
+
+    /**
+     * Counts the traces from node {@code start} to every node of the {@code graph} with a maximum of {@code maxHops}
+     * hops.
+     *
+     * @param graph   the partitioned graph
+     * @param start   the starting node
+     * @param maxHops the maximum number of hops
+     * @param mode    how the workers are run
+     * @return the number of traces to every node, and the metrics of the execution
+     */
+    BspResult countTracesByMaxHops(PartitionedGraph graph, String start, int maxHops, BspMode mode);
+}
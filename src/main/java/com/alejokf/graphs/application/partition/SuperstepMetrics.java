@@ -0,0 +1,60 @@
+package com.alejokf.graphs.application.partition;
+
+/**
+ * Class representing the metrics of a single superstep of a BSP execution
+ */
+public class SuperstepMetrics {
+
+    // The superstep number
+    private final int superstep;
+    // Wall time of the superstep, including computation and message exchange
+    private final long nanos;
+    // Vertices still active at the end of the superstep
+    private final long activeVertices;
+    // Messages sent during the superstep
+    private final long messages;
+    // Messages sent to a vertex owned by a different partition
+    private final long remoteMessages;
+    // Bytes of messages exchanged between processes. Always 0 when the workers are threads
+    private final long bytes;
+
+    public SuperstepMetrics(int superstep, long nanos, long activeVertices, long messages, long remoteMessages,
+            long bytes) {
+        this.superstep = superstep;
+        this.nanos = nanos;
+        this.activeVertices = activeVertices;
+        this.messages = messages;
+        this.remoteMessages = remoteMessages;
+        this.bytes = bytes;
+    }
+
+    public int getSuperstep() {
+        return superstep;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getActiveVertices() {
+        return activeVertices;
+    }
+
+    public long getMessages() {
+        return messages;
+    }
+
+    public long getRemoteMessages() {
+        return remoteMessages;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "superstep " + superstep + ": " + nanos / 1000 + "us, " + activeVertices + " active, " + messages
+                + " messages (" + remoteMessages + " remote, " + bytes + " bytes)";
+    }
+}
@@ -0,0 +1,45 @@
+package com.alejokf.graphs.application.partition;
+
+/**
+ * View of the vertex being computed by a {@link VertexProgram} in a superstep
+ */
+public interface Vertex {
+
+    /**
+     * @return the id of the vertex in the {@link com.alejokf.graphs.domain.IndexedGraph}
+     */
+    int id();
+
+    /**
+     * @return the current superstep, starting at 0
+     */
+    int superstep();
+
+    long value();
+
+    void setValue(long value);
+
+    /**
+     * @return the number of outgoing edges of the vertex
+     */
+    int edgeCount();
+
+    /**
+     * @param edge the edge position, in the range {@code [0, edgeCount())}
+     * @return the weight of the edge
+     */
+    long edgeWeight(int edge);
+
+    /**
+     * Sends a message through an outgoing edge, which will be received by its head in the next superstep
+     *
+     * @param edge    the edge position, in the range {@code [0, edgeCount())}
+     * @param message the message
+     */
+    void sendAlong(int edge, long message);
+
+    /**
+     * Deactivates the vertex. It will not be computed again unless it receives a message.
+     */
+    void voteToHalt();
+}
@@ -0,0 +1,48 @@
+package com.alejokf.graphs.application.partition;
+
+import java.io.Serializable;
+
+/**
+ * A program executed in every vertex of a {@link PartitionedGraph} in a sequence of supersteps (Bulk Synchronous
+ * Parallel model, as in Pregel).
+ * <p>
+ * In every superstep, each active vertex, or vertex having received messages, is computed. Messages sent in a
+ * superstep are delivered in the next one, and all the messages sent to the same vertex are combined into one with
+ * {@link #combine(long, long)}. The execution ends when all vertices have voted to halt and there are no messages in
+ * flight, or after {@link #maxSupersteps()} supersteps.
+ * <p>
+ * Programs are serialized to be sent to the workers, so they should only hold their parameters.
+ */
+public interface VertexProgram extends Serializable {
+
+    /**
+     * @param vertex the vertex id
+     * @return the value of the vertex before the first superstep
+     */
+    long initialValue(int vertex);
+
+    /**
+     * Combines two messages sent to the same vertex in the same superstep
+     *
+     * @param first  a message
+     * @param second another message
+     * @return the combined message
+     */
+    long combine(long first, long second);
+
+    /**
+     * Computes the vertex in the current superstep
+     *
+     * @param vertex     the vertex being computed
+     * @param hasMessage whether the vertex received messages in this superstep
+     * @param message    the combined received message, only meaningful if {@code hasMessage} is true
+     */
+    void compute(Vertex vertex, boolean hasMessage, long message);
+
+    /**
+     * @return the maximum number of supersteps to run
+     */
+    default int maxSupersteps() {
+        return Integer.MAX_VALUE;
+    }
+}
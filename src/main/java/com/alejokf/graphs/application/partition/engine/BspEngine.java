@@ -0,0 +1,20 @@
+package com.alejokf.graphs.application.partition.engine;
+
+import com.alejokf.graphs.application.partition.BspResult;
+import com.alejokf.graphs.application.partition.PartitionedGraph;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+/**
+ * Engine running a {@link VertexProgram} on a {@link PartitionedGraph}, with one worker per partition
+ */
+public interface BspEngine {
+
+    /**
+     * Runs the {@code program} on every vertex of the {@code graph} until it finishes
+     *
+     * @param graph   the partitioned graph
+     * @param program the vertex program
+     * @return the final value of every vertex and the metrics of every superstep
+     */
+    BspResult run(PartitionedGraph graph, VertexProgram program);
+}
@@ -0,0 +1,175 @@
+package com.alejokf.graphs.application.partition.engine;
+
+import com.alejokf.graphs.application.partition.Partition;
+import com.alejokf.graphs.application.partition.Vertex;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+/**
+ * Runs a {@link VertexProgram} on the vertices of a single {@link Partition}.
+ * <p>
+ * Messages received during a superstep are combined in the "next" inbox, which becomes the current inbox when the
+ * next superstep starts. Messages sent to vertices of the same partition are delivered directly, and messages to
+ * other partitions are kept in one outbox per partition until they are exchanged.
+ */
+final class BspWorker implements Vertex {
+
+    private final Partition partition;
+    private final VertexProgram program;
+
+    private final long[] values;
+    private final boolean[] halted;
+    private boolean[] hasMessage;
+    private long[] inbox;
+    private boolean[] nextHasMessage;
+    private long[] nextInbox;
+    private final MessageBatch[] outboxes;
+
+    // The vertex being computed
+    private int current;
+    private int superstep;
+    private long sentMessages;
+    private long remoteMessages;
+
+    BspWorker(Partition partition, VertexProgram program, int partitionCount) {
+        this.partition = partition;
+        this.program = program;
+        int size = partition.size();
+        this.values = new long[size];
+        this.halted = new boolean[size];
+        this.hasMessage = new boolean[size];
+        this.inbox = new long[size];
+        this.nextHasMessage = new boolean[size];
+        this.nextInbox = new long[size];
+        this.outboxes = new MessageBatch[partitionCount];
+        for (int p = 0; p < partitionCount; p++) {
+            outboxes[p] = new MessageBatch();
+        }
+        for (int local = 0; local < size; local++) {
+            values[local] = program.initialValue(partition.globalId(local));
+        }
+    }
+
+    /**
+     * Computes every active vertex, or vertex having received messages, in the provided superstep
+     *
+     * @param superstep the superstep
+     * @return the number of vertices still active after the superstep
+     */
+    int compute(int superstep) {
+        this.superstep = superstep;
+        sentMessages = 0;
+        remoteMessages = 0;
+
+        boolean[] swapHasMessage = hasMessage;
+        hasMessage = nextHasMessage;
+        nextHasMessage = swapHasMessage;
+        long[] swapInbox = inbox;
+        inbox = nextInbox;
+        nextInbox = swapInbox;
+
+        int active = 0;
+        for (int local = 0; local < values.length; local++) {
+            boolean received = hasMessage[local];
+            if (superstep == 0 || received || !halted[local]) {
+                halted[local] = false;
+                current = local;
+                program.compute(this, received, inbox[local]);
+                hasMessage[local] = false;
+            }
+            if (!halted[local]) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Combines the messages in the batch into the inbox of the next superstep
+     */
+    void deliver(MessageBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            int target = batch.target(i);
+            long message = batch.message(i);
+            if (nextHasMessage[target]) {
+                nextInbox[target] = program.combine(nextInbox[target], message);
+            } else {
+                nextHasMessage[target] = true;
+                nextInbox[target] = message;
+            }
+        }
+    }
+
+    MessageBatch outbox(int partition) {
+        return outboxes[partition];
+    }
+
+    long sentMessages() {
+        return sentMessages;
+    }
+
+    long remoteMessages() {
+        return remoteMessages;
+    }
+
+    Partition getPartition() {
+        return partition;
+    }
+
+    long value(int local) {
+        return values[local];
+    }
+
+    @Override
+    public int id() {
+        return partition.globalId(current);
+    }
+
+    @Override
+    public int superstep() {
+        return superstep;
+    }
+
+    @Override
+    public long value() {
+        return values[current];
+    }
+
+    @Override
+    public void setValue(long value) {
+        values[current] = value;
+    }
+
+    @Override
+    public int edgeCount() {
+        return partition.edgeEnd(current) - partition.edgeStart(current);
+    }
+
+    @Override
+    public long edgeWeight(int edge) {
+        return partition.weight(partition.edgeStart(current) + edge);
+    }
+
+    @Override
+    public void sendAlong(int edge, long message) {
+        int position = partition.edgeStart(current) + edge;
+        int target = partition.headLocal(position);
+        int targetPartition = partition.headPartition(position);
+        sentMessages++;
+        if (targetPartition == partition.getId()) {
+            if (nextHasMessage[target]) {
+                nextInbox[target] = program.combine(nextInbox[target], message);
+            } else {
+                nextHasMessage[target] = true;
+                nextInbox[target] = message;
+            }
+        } else {
+            remoteMessages++;
+            outboxes[targetPartition].add(target, message);
+        }
+    }
+
+    @Override
+    public void voteToHalt() {
+        halted[current] = true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.alejokf.graphs.application.partition.engine;
+
+import com.alejokf.graphs.application.partition.Partition;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Entry point of a worker process started by {@link ProcessBspEngine}.
+ * <p>
+ * It connects to the coordinator on the loopback port received as the first argument, receives its partition and
+ * the vertex program, and then executes the supersteps requested by the coordinator until it is told to finish,
+ * when it sends back the final values of its vertices.
+ */
+public class BspWorkerMain {
+
+    static final int STEP = 1;
+    static final int FINISH = 2;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        int port = Integer.parseInt(args[0]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            run(in, out);
+        }
+    }
+
+    private static void run(DataInputStream in, DataOutputStream out) throws IOException, ClassNotFoundException {
+        int partitionCount = in.readInt();
+        byte[] programBytes = new byte[in.readInt()];
+        in.readFully(programBytes);
+        VertexProgram program;
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(programBytes))) {
+            program = (VertexProgram) objectIn.readObject();
+        }
+        Partition partition = Partition.readFrom(in);
+        BspWorker worker = new BspWorker(partition, program, partitionCount);
+        MessageBatch received = new MessageBatch();
+
+        while (in.readInt() == STEP) {
+            int superstep = in.readInt();
+            received.readFrom(in);
+            worker.deliver(received);
+            received.clear();
+
+            int active = worker.compute(superstep);
+            out.writeInt(active);
+            out.writeLong(worker.sentMessages());
+            out.writeLong(worker.remoteMessages());
+            for (int p = 0; p < partitionCount; p++) {
+                if (p != partition.getId()) {
+                    worker.outbox(p).writeTo(out);
+                    worker.outbox(p).clear();
+                }
+            }
+            out.flush();
+        }
+
+        for (int local = 0; local < partition.size(); local++) {
+            out.writeLong(worker.value(local));
+        }
+        out.flush();
+    }
+}
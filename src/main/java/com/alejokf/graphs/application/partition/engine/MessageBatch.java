@@ -0,0 +1,69 @@
+package com.alejokf.graphs.application.partition.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Batch of messages sent to the vertices of a single partition, stored in primitive arrays so a whole superstep of
+ * messages is exchanged at once
+ */
+final class MessageBatch {
+
+    // Local index of the target vertex of every message
+    private int[] targets = new int[64];
+    private long[] messages = new long[64];
+    private int size;
+
+    void add(int target, long message) {
+        if (size == targets.length) {
+            targets = Arrays.copyOf(targets, size * 2);
+            messages = Arrays.copyOf(messages, size * 2);
+        }
+        targets[size] = target;
+        messages[size] = message;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int target(int i) {
+        return targets[i];
+    }
+
+    long message(int i) {
+        return messages[i];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    long writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(targets[i]);
+            out.writeLong(messages[i]);
+        }
+        return Integer.BYTES + (long) size * (Integer.BYTES + Long.BYTES);
+    }
+
+    /**
+     * Reads a batch from the stream, appending its messages to this batch
+     *
+     * @return the number of bytes read
+     */
+    long readFrom(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            add(in.readInt(), in.readLong());
+        }
+        return Integer.BYTES + (long) count * (Integer.BYTES + Long.BYTES);
+    }
+}
@@ -0,0 +1,151 @@
+package com.alejokf.graphs.application.partition.engine;
+
+import com.alejokf.graphs.application.partition.BspResult;
+import com.alejokf.graphs.application.partition.Partition;
+import com.alejokf.graphs.application.partition.PartitionedGraph;
+import com.alejokf.graphs.application.partition.SuperstepMetrics;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BspEngine} running every worker in a separate JVM on the same host, as a stand-in for the nodes of a
+ * cluster.
+ * <p>
+ * This process acts as the coordinator: it starts one {@link BspWorkerMain} process per partition, which connect
+ * back over a loopback socket, and ships them their partition and the serialized vertex program. In every superstep
+ * it sends each worker the batch of messages addressed to it, and collects the batches each worker sends to the
+ * other partitions, which are delivered in the next superstep. Messages between vertices of the same partition never
+ * leave the worker.
+ */
+public class ProcessBspEngine implements BspEngine {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 60_000;
+
+    public BspResult run(PartitionedGraph graph, VertexProgram program) {
+        int partitionCount = graph.partitionCount();
+        List<Process> processes = new ArrayList<>();
+        Socket[] sockets = new Socket[partitionCount];
+        try (ServerSocket server = new ServerSocket(0, partitionCount, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            for (int p = 0; p < partitionCount; p++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        BspWorkerMain.class.getName(), Integer.toString(server.getLocalPort()))
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+
+            DataInputStream[] ins = new DataInputStream[partitionCount];
+            DataOutputStream[] outs = new DataOutputStream[partitionCount];
+            byte[] programBytes = serialize(program);
+            for (int p = 0; p < partitionCount; p++) {
+                sockets[p] = server.accept();
+                sockets[p].setTcpNoDelay(true);
+                ins[p] = new DataInputStream(new BufferedInputStream(sockets[p].getInputStream()));
+                outs[p] = new DataOutputStream(new BufferedOutputStream(sockets[p].getOutputStream()));
+                outs[p].writeInt(partitionCount);
+                outs[p].writeInt(programBytes.length);
+                outs[p].write(programBytes);
+                graph.getPartition(p).writeTo(outs[p]);
+                outs[p].flush();
+            }
+
+            List<SuperstepMetrics> metrics = runSupersteps(program, partitionCount, ins, outs);
+
+            long[] values = new long[graph.getGraph().size()];
+            for (int p = 0; p < partitionCount; p++) {
+                outs[p].writeInt(BspWorkerMain.FINISH);
+                outs[p].flush();
+            }
+            for (int p = 0; p < partitionCount; p++) {
+                Partition partition = graph.getPartition(p);
+                for (int local = 0; local < partition.size(); local++) {
+                    values[partition.globalId(local)] = ins[p].readLong();
+                }
+            }
+            return new BspResult(graph.getGraph(), values, metrics);
+        } catch (IOException e) {
+            throw new UncheckedIOException("BSP execution failed", e);
+        } finally {
+            for (Socket socket : sockets) {
+                closeQuietly(socket);
+            }
+            processes.forEach(Process::destroy);
+        }
+    }
+
+    private List<SuperstepMetrics> runSupersteps(VertexProgram program, int partitionCount, DataInputStream[] ins,
+            DataOutputStream[] outs) throws IOException {
+        List<SuperstepMetrics> metrics = new ArrayList<>();
+        MessageBatch[] incoming = new MessageBatch[partitionCount];
+        for (int p = 0; p < partitionCount; p++) {
+            incoming[p] = new MessageBatch();
+        }
+
+        for (int superstep = 0; superstep < program.maxSupersteps(); superstep++) {
+            long start = System.nanoTime();
+            long bytes = 0;
+            for (int p = 0; p < partitionCount; p++) {
+                outs[p].writeInt(BspWorkerMain.STEP);
+                outs[p].writeInt(superstep);
+                bytes += incoming[p].writeTo(outs[p]);
+                outs[p].flush();
+                incoming[p].clear();
+            }
+
+            long active = 0;
+            long messages = 0;
+            long remoteMessages = 0;
+            for (int p = 0; p < partitionCount; p++) {
+                active += ins[p].readInt();
+                messages += ins[p].readLong();
+                remoteMessages += ins[p].readLong();
+                for (int q = 0; q < partitionCount; q++) {
+                    if (q != p) {
+                        bytes += incoming[q].readFrom(ins[p]);
+                    }
+                }
+            }
+
+            metrics.add(new SuperstepMetrics(superstep, System.nanoTime() - start, active, messages, remoteMessages,
+                    bytes));
+            if (active == 0 && messages == 0) {
+                break;
+            }
+        }
+        return metrics;
+    }
+
+    private static byte[] serialize(VertexProgram program) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(program);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing else to do, the worker process is destroyed anyway
+            }
+        }
+    }
+}
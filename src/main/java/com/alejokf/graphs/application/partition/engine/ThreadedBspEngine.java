@@ -0,0 +1,93 @@
+package com.alejokf.graphs.application.partition.engine;
+
+import com.alejokf.graphs.application.partition.BspResult;
+import com.alejokf.graphs.application.partition.PartitionedGraph;
+import com.alejokf.graphs.application.partition.SuperstepMetrics;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@link BspEngine} running every worker in its own thread of the current JVM.
+ * <p>
+ * Every superstep has two phases separated by a barrier: first all workers compute their vertices in parallel, then
+ * every worker collects in parallel the batches of messages the other workers sent to it.
+ */
+public class ThreadedBspEngine implements BspEngine {
+
+    public BspResult run(PartitionedGraph graph, VertexProgram program) {
+        int partitionCount = graph.partitionCount();
+        BspWorker[] workers = new BspWorker[partitionCount];
+        for (int p = 0; p < partitionCount; p++) {
+            workers[p] = new BspWorker(graph.getPartition(p), program, partitionCount);
+        }
+
+        List<SuperstepMetrics> metrics = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(partitionCount);
+        try {
+            for (int superstep = 0; superstep < program.maxSupersteps(); superstep++) {
+                long start = System.nanoTime();
+
+                List<Callable<Integer>> computeTasks = new ArrayList<>();
+                for (BspWorker worker : workers) {
+                    int step = superstep;
+                    computeTasks.add(() -> worker.compute(step));
+                }
+                long active = 0;
+                for (Future<Integer> future : executor.invokeAll(computeTasks)) {
+                    active += future.get();
+                }
+
+                long messages = 0;
+                long remoteMessages = 0;
+                for (BspWorker worker : workers) {
+                    messages += worker.sentMessages();
+                    remoteMessages += worker.remoteMessages();
+                }
+
+                List<Callable<Void>> exchangeTasks = new ArrayList<>();
+                for (int q = 0; q < partitionCount; q++) {
+                    int target = q;
+                    exchangeTasks.add(() -> {
+                        for (BspWorker sender : workers) {
+                            MessageBatch batch = sender.outbox(target);
+                            workers[target].deliver(batch);
+                            batch.clear();
+                        }
+                        return null;
+                    });
+                }
+                for (Future<Void> future : executor.invokeAll(exchangeTasks)) {
+                    future.get();
+                }
+
+                metrics.add(new SuperstepMetrics(superstep, System.nanoTime() - start, active, messages,
+                        remoteMessages, 0));
+                if (active == 0 && messages == 0) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("BSP execution interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("BSP execution failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] values = new long[graph.getGraph().size()];
+        for (BspWorker worker : workers) {
+            for (int local = 0; local < worker.getPartition().size(); local++) {
+                values[worker.getPartition().globalId(local)] = worker.value(local);
+            }
+        }
+        return new BspResult(graph.getGraph(), values, metrics);
+    }
+}
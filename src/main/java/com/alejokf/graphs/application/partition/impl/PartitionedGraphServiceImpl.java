@@ -0,0 +1,55 @@
+package com.alejokf.graphs.application.partition.impl;
+
+import com.alejokf.graphs.application.partition.BspMode;
+import com.alejokf.graphs.application.partition.BspResult;
+import com.alejokf.graphs.application.partition.PartitionStrategy;
+import com.alejokf.graphs.application.partition.PartitionedGraph;
+import com.alejokf.graphs.application.partition.PartitionedGraphService;
+import com.alejokf.graphs.application.partition.VertexProgram;
+import com.alejokf.graphs.application.partition.engine.BspEngine;
+import com.alejokf.graphs.application.partition.engine.ProcessBspEngine;
+import com.alejokf.graphs.application.partition.engine.ThreadedBspEngine;
+import com.alejokf.graphs.application.partition.programs.HopReachabilityProgram;
+import com.alejokf.graphs.application.partition.programs.ShortestPathProgram;
+import com.alejokf.graphs.application.partition.programs.TraceCountProgram;
+import com.alejokf.graphs.domain.Graph;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service to run graph queries as vertex programs on a partitioned graph
+ */
+@Component
+public class PartitionedGraphServiceImpl implements PartitionedGraphService {
+
+    private final BspEngine threadedEngine = new ThreadedBspEngine();
+    private final BspEngine processEngine = new ProcessBspEngine();
+
+    public PartitionedGraph partition(Graph graph, int partitions, PartitionStrategy strategy) {
+        return PartitionedGraph.of(graph.getIndexedGraph(), partitions, strategy);
+    }
+
+    public BspResult shortestPaths(PartitionedGraph graph, String start, BspMode mode) {
+        return run(graph, new ShortestPathProgram(startNode(graph, start)), mode);
+    }
+
+    public BspResult reachableByMaxHops(PartitionedGraph graph, String start, int maxHops, BspMode mode) {
+        return run(graph, new HopReachabilityProgram(startNode(graph, start), maxHops), mode);
+    }
+
+    public BspResult countTracesByMaxHops(PartitionedGraph graph, String start, int maxHops, BspMode mode) {
+        return run(graph, new TraceCountProgram(startNode(graph, start), maxHops), mode);
+    }
+
+    private BspResult run(PartitionedGraph graph, VertexProgram program, BspMode mode) {
+        BspEngine engine = mode == BspMode.PROCESSES ? processEngine : threadedEngine;
+        return engine.run(graph, program);
+    }
+
+    private int startNode(PartitionedGraph graph, String start) {
+        int startNode = graph.getGraph().indexOf(start);
+        if (startNode < 0) {
+            throw new IllegalArgumentException("Start node does not exist");
+        }
+        return startNode;
+    }
+}
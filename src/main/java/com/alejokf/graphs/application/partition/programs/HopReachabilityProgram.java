@@ -0,0 +1,53 @@
+package com.alejokf.graphs.application.partition.programs;
+
+import com.alejokf.graphs.application.partition.Vertex;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+/**
+ * Vertex program calculating the minimum number of hops, from 1 to {@code maxHops}, of a non-empty trace from a
+ * source vertex to every other vertex. Vertices not reachable within {@code maxHops} hops keep the value
+ * {@link #UNREACHABLE}.
+ */
+public class HopReachabilityProgram implements VertexProgram {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final int source;
+    private final int maxHops;
+
+    public HopReachabilityProgram(int source, int maxHops) {
+        this.source = source;
+        this.maxHops = maxHops;
+    }
+
+    public long initialValue(int vertex) {
+        return UNREACHABLE;
+    }
+
+    public long combine(long first, long second) {
+        return Math.min(first, second);
+    }
+
+    public void compute(Vertex vertex, boolean hasMessage, long message) {
+        if (vertex.superstep() == 0 && vertex.id() == source && maxHops > 0) {
+            for (int edge = 0; edge < vertex.edgeCount(); edge++) {
+                vertex.sendAlong(edge, 1);
+            }
+        } else if (hasMessage && message < vertex.value()) {
+            vertex.setValue(message);
+            if (message < maxHops) {
+                for (int edge = 0; edge < vertex.edgeCount(); edge++) {
+                    vertex.sendAlong(edge, message + 1);
+                }
+            }
+        }
+        vertex.voteToHalt();
+    }
+
+    @Override
+    public int maxSupersteps() {
+        return maxHops + 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.alejokf.graphs.application.partition.programs;
+
+import com.alejokf.graphs.application.partition.Vertex;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+/**
+ * Vertex program calculating the shortest distance from a source vertex to every other vertex.
+ * <p>
+ * As in {@link com.alejokf.graphs.application.shortestpath.ShortestPathService}, the distance from the source to
+ * itself is the distance of the shortest non-empty trace starting and ending on it. Unreachable vertices keep the
+ * value {@link #UNREACHABLE}.
+ */
+public class ShortestPathProgram implements VertexProgram {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final int source;
+
+    public ShortestPathProgram(int source) {
+        this.source = source;
+    }
+
+    public long initialValue(int vertex) {
+        return UNREACHABLE;
+    }
+
+    public long combine(long first, long second) {
+        return Math.min(first, second);
+    }
+
+    public void compute(Vertex vertex, boolean hasMessage, long message) {
+        if (vertex.superstep() == 0 && vertex.id() == source) {
+            for (int edge = 0; edge < vertex.edgeCount(); edge++) {
+                vertex.sendAlong(edge, vertex.edgeWeight(edge));
+            }
+        } else if (hasMessage && message < vertex.value()) {
+            vertex.setValue(message);
+            for (int edge = 0; edge < vertex.edgeCount(); edge++) {
+                vertex.sendAlong(edge, message + vertex.edgeWeight(edge));
+            }
+        }
+        vertex.voteToHalt();
+    }
+}
@@ -0,0 +1,58 @@
+package com.alejokf.graphs.application.partition.programs;
+
+import com.alejokf.graphs.application.partition.Vertex;
+import com.alejokf.graphs.application.partition.VertexProgram;
+
+/**
+ * Vertex program counting the traces from a source vertex to every other vertex with 1 to {@code maxHops} hops,
+ * i.e. the number of traces {@link com.alejokf.graphs.application.search.GraphSearchService#tracesByMaxHops} would
+ * return, without enumerating them.
+ * <p>
+ * The message received in superstep {@code h} is the number of traces with exactly {@code h} hops ending on the
+ * vertex, which is added to its value and propagated through every outgoing edge.
+ * <p>
+ * The number of traces grows exponentially with {@code maxHops}, so counts are added with {@link Math#addExact}, like
+ * the trace counter of the query planner: a count that doesn't fit in a long fails the execution with an
+ * {@link ArithmeticException} instead of wrapping around.
+ */
+public class TraceCountProgram implements VertexProgram {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int source;
+    private final int maxHops;
+
+    public TraceCountProgram(int source, int maxHops) {
+        this.source = source;
+        this.maxHops = maxHops;
+    }
+
+    public long initialValue(int vertex) {
+        return 0;
+    }
+
+    public long combine(long first, long second) {
+        return Math.addExact(first, second);
+    }
+
+    public void compute(Vertex vertex, boolean hasMessage, long message) {
+        if (vertex.superstep() == 0 && vertex.id() == source && maxHops > 0) {
+            for (int edge = 0; edge < vertex.edgeCount(); edge++) {
+                vertex.sendAlong(edge, 1);
+            }
+        } else if (hasMessage) {
+            vertex.setValue(Math.addExact(vertex.value(), message));
+            if (vertex.superstep() < maxHops) {
+                for (int edge = 0; edge < vertex.edgeCount(); edge++) {
+                    vertex.sendAlong(edge, message);
+                }
+            }
+        }
+        vertex.voteToHalt();
+    }
+
+    @Override
+    public int maxSupersteps() {
+        return maxHops + 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.alejokf.graphs.application.planner;
+
+/**
+ * Class representing the estimated cost of answering a query with a {@link Strategy}
+ */
+public class CostEstimate {
+
+    private final Strategy strategy;
+    // The estimated number of basic operations, e.g. states expanded or edges scanned
+    private final double operations;
+    // The estimated time, from the operations and the measured time per operation of the strategy
+    private final double nanos;
+
+    public CostEstimate(Strategy strategy, double operations, double nanos) {
+        this.strategy = strategy;
+        this.operations = operations;
+        this.nanos = nanos;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public double getOperations() {
+        return operations;
+    }
+
+    public double getNanos() {
+        return nanos;
+    }
+}
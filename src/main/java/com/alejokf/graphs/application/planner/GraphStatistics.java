@@ -0,0 +1,161 @@
+package com.alejokf.graphs.application.planner;
+
+import com.alejokf.graphs.application.components.StronglyConnectedComponents;
+import com.alejokf.graphs.domain.IndexedGraph;
+
+/**
+ * Class representing the statistics of a graph used to estimate the cost of a query: the distribution of the
+ * out-degrees and of the edge weights, and the sizes of the strongly connected components.
+ * <p>
+ * Distributions are kept as histograms with power of two buckets: bucket 0 counts the value 0, and bucket {@code i}
+ * the values in {@code [2^(i-1), 2^i)}.
+ */
+public final class GraphStatistics {
+
+    private static final int BUCKETS = 64;
+
+    private final int nodes;
+    private final int edges;
+    private final int maxOutDegree;
+    private final long[] outDegreeHistogram;
+    private final long minWeight;
+    private final long maxWeight;
+    private final double meanWeight;
+    private final long[] weightHistogram;
+    private final int componentCount;
+    private final int largestComponent;
+    // The number of nodes in components with a cycle
+    private final int cyclicNodes;
+    // The number of edges between two nodes of the same component with a cycle
+    private final int cyclicEdges;
+
+    private GraphStatistics(IndexedGraph graph) {
+        this.nodes = graph.size();
+        this.edges = graph.edgeCount();
+        this.outDegreeHistogram = new long[BUCKETS];
+        this.weightHistogram = new long[BUCKETS];
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+
+        int maxDegree = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        double weightSum = 0;
+        int nodesInCycles = 0;
+        int edgesInCycles = 0;
+        for (int node = 0; node < nodes; node++) {
+            int degree = graph.outDegree(node);
+            maxDegree = Math.max(maxDegree, degree);
+            outDegreeHistogram[bucket(degree)]++;
+            int component = components.componentOf(node);
+            boolean cyclic = components.isCyclic(component);
+            if (cyclic) {
+                nodesInCycles++;
+            }
+            for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                long weight = graph.outWeight(edge);
+                min = Math.min(min, weight);
+                max = Math.max(max, weight);
+                weightSum += weight;
+                weightHistogram[bucket(weight)]++;
+                if (cyclic && components.componentOf(graph.outHead(edge)) == component) {
+                    edgesInCycles++;
+                }
+            }
+        }
+        int largest = 0;
+        for (int component = 0; component < components.componentCount(); component++) {
+            largest = Math.max(largest, components.componentSize(component));
+        }
+
+        this.maxOutDegree = maxDegree;
+        this.minWeight = edges == 0 ? 0 : min;
+        this.maxWeight = max;
+        this.meanWeight = edges == 0 ? 0 : weightSum / edges;
+        this.componentCount = components.componentCount();
+        this.largestComponent = largest;
+        this.cyclicNodes = nodesInCycles;
+        this.cyclicEdges = edgesInCycles;
+    }
+
+    /**
+     * Returns the statistics of the {@code graph}, which are calculated only the first time they are requested for
+     * that graph
+     *
+     * @param graph the graph
+     * @return the statistics of the graph
+     */
+    public static GraphStatistics of(IndexedGraph graph) {
+        return graph.derive(GraphStatistics.class, GraphStatistics::new);
+    }
+
+    private static int bucket(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    public int getEdges() {
+        return edges;
+    }
+
+    public double getMeanOutDegree() {
+        return nodes == 0 ? 0 : (double) edges / nodes;
+    }
+
+    public int getMaxOutDegree() {
+        return maxOutDegree;
+    }
+
+    public long[] getOutDegreeHistogram() {
+        return outDegreeHistogram;
+    }
+
+    public long getMinWeight() {
+        return minWeight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public double getMeanWeight() {
+        return meanWeight;
+    }
+
+    public long[] getWeightHistogram() {
+        return weightHistogram;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public int getLargestComponent() {
+        return largestComponent;
+    }
+
+    public int getCyclicNodes() {
+        return cyclicNodes;
+    }
+
+    /**
+     * The growth factor of the number of traces for every additional hop. Long traces can only keep growing inside
+     * components with cycles, so it is the mean out-degree within those components, or the mean out-degree of the
+     * graph if it has no cycles.
+     *
+     * @return the branching factor of the graph
+     */
+    public double getBranchingFactor() {
+        return cyclicNodes == 0 ? getMeanOutDegree() : (double) cyclicEdges / cyclicNodes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d edges, out-degree mean %.2f max %d, branching %.2f, weights %d..%d mean "
+                        + "%.2f, %d components, largest %d, %d nodes in cycles", nodes, edges, getMeanOutDegree(),
+                maxOutDegree, getBranchingFactor(), minWeight, maxWeight, meanWeight, componentCount,
+                largestComponent, cyclicNodes);
+    }
+}
@@ -0,0 +1,47 @@
+package com.alejokf.graphs.application.planner;
+
+/**
+ * Class representing the result of a query run with its {@link QueryPlan}
+ */
+public class PlannedResult {
+
+    private final QueryPlan plan;
+    // The result, as written by the batch pipeline
+    private final String result;
+    // The operations actually performed by the chosen strategy
+    private final long actualOperations;
+    private final long actualNanos;
+
+    public PlannedResult(QueryPlan plan, String result, long actualOperations, long actualNanos) {
+        this.plan = plan;
+        this.result = result;
+        this.actualOperations = actualOperations;
+        this.actualNanos = actualNanos;
+    }
+
+    public QueryPlan getPlan() {
+        return plan;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public long getActualOperations() {
+        return actualOperations;
+    }
+
+    public long getActualNanos() {
+        return actualNanos;
+    }
+
+    /**
+     * @return the plan as text, followed by the actual cost of the chosen strategy and the result
+     */
+    public String explain() {
+        CostEstimate chosen = plan.getChosen();
+        return plan.explain() + String.format("Actual %s: %d ops (estimated %.0f), %d ns (estimated %.0f)%n",
+                chosen.getStrategy(), actualOperations, chosen.getOperations(), actualNanos, chosen.getNanos())
+                + "Result: " + result + "\n";
+    }
+}
@@ -0,0 +1,60 @@
+package com.alejokf.graphs.application.planner;
+
+import com.alejokf.graphs.application.batch.BatchQuery;
+
+import java.util.List;
+
+/**
+ * Class representing the plan of a query: the estimated cost of every strategy able to answer it, and the chosen one
+ */
+public class QueryPlan {
+
+    private final BatchQuery query;
+    private final GraphStatistics statistics;
+    // The estimates of every applicable strategy
+    private final List<CostEstimate> estimates;
+    private final CostEstimate chosen;
+
+    public QueryPlan(BatchQuery query, GraphStatistics statistics, List<CostEstimate> estimates, CostEstimate chosen) {
+        this.query = query;
+        this.statistics = statistics;
+        this.estimates = estimates;
+        this.chosen = chosen;
+    }
+
+    public BatchQuery getQuery() {
+        return query;
+    }
+
+    public GraphStatistics getStatistics() {
+        return statistics;
+    }
+
+    public List<CostEstimate> getEstimates() {
+        return estimates;
+    }
+
+    public CostEstimate getChosen() {
+        return chosen;
+    }
+
+    public Strategy getStrategy() {
+        return chosen.getStrategy();
+    }
+
+    /**
+     * @return the plan as text: the query, the graph statistics, and the estimates of every strategy, with the chosen
+     * one marked
+     */
+    public String explain() {
+        StringBuilder explain = new StringBuilder();
+        explain.append("Query: ").append(query).append('\n');
+        explain.append("Graph: ").append(statistics).append('\n');
+        for (CostEstimate estimate : estimates) {
+            explain.append(String.format("%s %-18s estimated %14.0f ops %16.0f ns%n",
+                    estimate == chosen ? "*" : " ", estimate.getStrategy(), estimate.getOperations(),
+                    estimate.getNanos()));
+        }
+        return explain.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.alejokf.graphs.application.planner;
+
+import com.alejokf.graphs.application.batch.BatchQuery;
+import com.alejokf.graphs.domain.Graph;
+
+public interface QueryPlannerService {
+
+    /**
+     * Estimates the cost of every strategy able to answer the {@code query} on the {@code graph}, and chooses the
+     * cheapest one
+     *
+     * @param graph the graph
+     * @param query the query
+     * @return the plan of the query
+     */
+    QueryPlan plan(Graph graph, BatchQuery query);
+
+    /**
+     * Plans the {@code query} and runs it with the chosen strategy. The result is the same whatever the strategy.
+     *
+     * @param graph the graph
+     * @param query the query
+     * @return the result of the query, with its plan and actual cost
+     */
+    PlannedResult execute(Graph graph, BatchQuery query);
+}
@@ -0,0 +1,33 @@
+package com.alejokf.graphs.application.planner;
+
+/**
+ * Strategies to answer a query
+ */
+public enum Strategy {
+
+    /**
+     * Answers from the reachability index that there is no trace, without searching
+     */
+    INDEX_LOOKUP,
+
+    /**
+     * Follows a given trace edge by edge
+     */
+    TRACE_WALK,
+
+    /**
+     * Enumerates every trace with a depth-first search, and counts them
+     */
+    DFS_ENUMERATION,
+
+    /**
+     * Counts the traces with dynamic programming over the number of traces reaching every node with every number of
+     * hops or latency, without enumerating them
+     */
+    DP_COUNTING,
+
+    /**
+     * Looks up the distance in the shortest path tree of the source, which is calculated and cached if needed
+     */
+    SHORTEST_PATH_TREE
+}
@@ -0,0 +1,206 @@
+package com.alejokf.graphs.application.planner.impl;
+
+import com.alejokf.graphs.application.batch.BatchQuery;
+import com.alejokf.graphs.application.batch.QueryKind;
+import com.alejokf.graphs.application.planner.CostEstimate;
+import com.alejokf.graphs.application.planner.GraphStatistics;
+import com.alejokf.graphs.application.planner.PlannedResult;
+import com.alejokf.graphs.application.planner.QueryPlan;
+import com.alejokf.graphs.application.planner.QueryPlannerService;
+import com.alejokf.graphs.application.planner.Strategy;
+import com.alejokf.graphs.application.reachability.ReachabilityIndex;
+import com.alejokf.graphs.application.search.GraphSearchService;
+import com.alejokf.graphs.application.search.GraphTraversalService;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.shortestpath.ShortestPathService;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service choosing the cheapest strategy to answer a query.
+ * <p>
+ * The cost of every strategy is estimated in operations from the {@link GraphStatistics}, and turned into time with
+ * a fixed time per operation of the strategy. These are heuristic constants, not calibrated on the running machine:
+ * only their ratios matter to the choice, and they encode that an operation of a DFS (pushing a state to the trace
+ * forest) is much more expensive than one of DP counting (adding a count):
+ * <ul>
+ * <li>Index lookup: a single operation, only applicable when the end can't be reached from the start</li>
+ * <li>DFS enumeration: one state per trace prefix, estimated as {@code b + b^2 + ... + b^h} with {@code b} the
+ * branching factor and {@code h} the hops, or the latency divided by the mean weight</li>
+ * <li>DP counting: the limit times the nodes plus edges. By latency, it is only applicable if all weights are
+ * positive and the counts of the maximum weight latencies fit in memory</li>
+ * <li>Shortest path tree: a single operation if cached, a Dijkstra search otherwise</li>
+ * </ul>
+ */
+@Component
+public class QueryPlannerServiceImpl implements QueryPlannerService {
+
+    // Heuristic time per operation of every strategy, see the class comment
+    private static final double NANOS_PER_LOOKUP = 100;
+    private static final double NANOS_PER_HOP = 50;
+    private static final double NANOS_PER_STATE = 100;
+    private static final double NANOS_PER_DP_OPERATION = 5;
+    private static final double NANOS_PER_DIJKSTRA_OPERATION = 5;
+    // Maximum number of counts kept by DP counting by latency, i.e. the maximum weight times the nodes
+    private static final long MAX_LATENCY_COUNTS = 1 << 22;
+
+    private final GraphTraversalService graphTraversalService;
+    private final GraphSearchService graphSearchService;
+    private final ShortestPathService shortestPathService;
+
+    @Autowired
+    public QueryPlannerServiceImpl(GraphTraversalService graphTraversalService,
+            GraphSearchService graphSearchService, ShortestPathService shortestPathService) {
+        this.graphTraversalService = graphTraversalService;
+        this.graphSearchService = graphSearchService;
+        this.shortestPathService = shortestPathService;
+    }
+
+    public QueryPlan plan(Graph graph, BatchQuery query) {
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        GraphStatistics statistics = GraphStatistics.of(indexedGraph);
+        List<CostEstimate> estimates = new ArrayList<>();
+
+        if (query.getKind() == QueryKind.LATENCY) {
+            estimates.add(estimate(Strategy.TRACE_WALK, query.getNodes().size(), NANOS_PER_HOP));
+        } else {
+            int start = indexOf(indexedGraph, query.getStart());
+            int end = indexedGraph.indexOf(query.getEnd());
+            double size = (double) statistics.getNodes() + statistics.getEdges();
+            if (end < 0 || !ReachabilityIndex.of(indexedGraph).canReach(start, end)) {
+                estimates.add(estimate(Strategy.INDEX_LOOKUP, 1, NANOS_PER_LOOKUP));
+            } else if (query.getKind() == QueryKind.SHORTEST) {
+                boolean cached = ShortestPathTrees.of(indexedGraph).get(start) != null;
+                double operations = cached ? 1 : size * Math.max(1, log2(statistics.getNodes()));
+                estimates.add(estimate(Strategy.SHORTEST_PATH_TREE, operations,
+                        cached ? NANOS_PER_LOOKUP : NANOS_PER_DIJKSTRA_OPERATION));
+            } else {
+                int limit = query.getLimit();
+                double hops = query.getKind() != QueryKind.MAX_LATENCY ? limit :
+                        statistics.getMeanWeight() > 0 ? Math.ceil(limit / statistics.getMeanWeight()) :
+                                Double.POSITIVE_INFINITY;
+                estimates.add(estimate(Strategy.DFS_ENUMERATION, traces(statistics.getBranchingFactor(), hops),
+                        NANOS_PER_STATE));
+                if (query.getKind() != QueryKind.MAX_LATENCY || (statistics.getMinWeight() > 0
+                        && (statistics.getMaxWeight() + 1) * statistics.getNodes() <= MAX_LATENCY_COUNTS)) {
+                    estimates.add(estimate(Strategy.DP_COUNTING, limit * size, NANOS_PER_DP_OPERATION));
+                }
+            }
+        }
+
+        CostEstimate chosen = estimates.stream().min(Comparator.comparingDouble(CostEstimate::getNanos))
+                .orElseThrow();
+        return new QueryPlan(query, statistics, estimates, chosen);
+    }
+
+    public PlannedResult execute(Graph graph, BatchQuery query) {
+        QueryPlan plan = plan(graph, query);
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        long startTime = System.nanoTime();
+        String result;
+        long operations;
+
+        switch (plan.getStrategy()) {
+            case INDEX_LOOKUP:
+                result = query.getKind() == QueryKind.SHORTEST ? GraphTraversalService.NO_SUCH_TRACE : "0";
+                operations = 1;
+                break;
+            case TRACE_WALK:
+                result = graphTraversalService.traceLatencyOutput(graph, query.getNodes());
+                operations = query.getNodes().size();
+                break;
+            case DFS_ENUMERATION:
+                Traces traces = search(graph, query);
+                result = String.valueOf(traces.size());
+                operations = traces.entryCount();
+                break;
+            case DP_COUNTING:
+                TraceCounter counter = new TraceCounter(indexedGraph);
+                result = String.valueOf(count(counter, indexedGraph, query, plan.getStatistics()));
+                operations = counter.operations();
+                break;
+            case SHORTEST_PATH_TREE:
+                int start = indexedGraph.indexOf(query.getStart());
+                ShortestPathTrees trees = ShortestPathTrees.of(indexedGraph);
+                ShortestPathTree tree = trees.get(start);
+                if (tree == null) {
+                    tree = ShortestPathTree.of(indexedGraph, start,
+                            shortestPathService.shortestPath(graph, query.getStart()));
+                    trees.put(start, tree);
+                    operations = tree.operations();
+                } else {
+                    operations = 1;
+                }
+                long distance = tree.distance(indexedGraph.indexOf(query.getEnd()));
+                result = distance == ShortestPaths.UNREACHABLE ? GraphTraversalService.NO_SUCH_TRACE :
+                        String.valueOf(distance);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + plan.getStrategy());
+        }
+        return new PlannedResult(plan, result, operations, System.nanoTime() - startTime);
+    }
+
+    private Traces search(Graph graph, BatchQuery query) {
+        switch (query.getKind()) {
+            case EXACT_HOPS:
+                return graphSearchService.tracesByExactHops(graph, query.getStart(), query.getEnd(), query.getLimit());
+            case MAX_HOPS:
+                return graphSearchService.tracesByMaxHops(graph, query.getStart(), query.getEnd(), query.getLimit());
+            case MAX_LATENCY:
+                return graphSearchService.tracesByMaxLatency(graph, query.getStart(), query.getEnd(),
+                        query.getLimit());
+            default:
+                throw new IllegalArgumentException("Not a trace search " + query.getKind());
+        }
+    }
+
+    private static long count(TraceCounter counter, IndexedGraph graph, BatchQuery query,
+            GraphStatistics statistics) {
+        int start = graph.indexOf(query.getStart());
+        int end = graph.indexOf(query.getEnd());
+        switch (query.getKind()) {
+            case EXACT_HOPS:
+                return counter.countByHops(start, end, query.getLimit(), true);
+            case MAX_HOPS:
+                return counter.countByHops(start, end, query.getLimit(), false);
+            case MAX_LATENCY:
+                return counter.countByLatency(start, end, query.getLimit(), statistics.getMaxWeight());
+            default:
+                throw new IllegalArgumentException("Not a trace search " + query.getKind());
+        }
+    }
+
+    private static CostEstimate estimate(Strategy strategy, double operations, double nanosPerOperation) {
+        return new CostEstimate(strategy, operations, operations * nanosPerOperation);
+    }
+
+    /**
+     * @return the number of trace prefixes with 1 to {@code hops} hops, {@code b + b^2 + ... + b^hops}
+     */
+    private static double traces(double branching, double hops) {
+        if (branching == 1) {
+            return hops;
+        }
+        return branching * (Math.pow(branching, hops) - 1) / (branching - 1);
+    }
+
+    private static double log2(int value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    private static int indexOf(IndexedGraph graph, String label) {
+        int node = graph.indexOf(label);
+        if (node < 0) {
+            throw new IllegalArgumentException("Start node does not exist");
+        }
+        return node;
+    }
+}
@@ -0,0 +1,52 @@
+package com.alejokf.graphs.application.planner.impl;
+
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.domain.IndexedGraph;
+
+/**
+ * The shortest paths from a source node to every node, calculated by the
+ * {@link com.alejokf.graphs.application.shortestpath.ShortestPathService}, with the number of operations of the
+ * calculation. As everywhere else, the distance of the source to itself is the one of its shortest cycle.
+ */
+class ShortestPathTree {
+
+    private final IndexedGraph graph;
+    private final ShortestPaths paths;
+    // Nodes popped plus edges relaxed when calculating the tree
+    private final long operations;
+
+    private ShortestPathTree(IndexedGraph graph, ShortestPaths paths, long operations) {
+        this.graph = graph;
+        this.paths = paths;
+        this.operations = operations;
+    }
+
+    /**
+     * @param graph  the graph
+     * @param source the source node
+     * @param paths  the shortest paths from {@code source}
+     * @return the tree of the {@code paths}, whose operations are the ones of Dijkstra's algorithm: the edges of the
+     * source, and every reached node with its edges
+     */
+    static ShortestPathTree of(IndexedGraph graph, int source, ShortestPaths paths) {
+        long operations = graph.outDegree(source);
+        for (int node = 0; node < graph.size(); node++) {
+            if (paths.getDistance(graph.getLabel(node)) != null) {
+                operations += 1 + graph.outDegree(node);
+            }
+        }
+        return new ShortestPathTree(graph, paths, operations);
+    }
+
+    /**
+     * @return the shortest distance to {@code target}, or {@link ShortestPaths#UNREACHABLE}
+     */
+    long distance(int target) {
+        Long distance = paths.getDistance(graph.getLabel(target));
+        return distance == null ? ShortestPaths.UNREACHABLE : distance;
+    }
+
+    long operations() {
+        return operations;
+    }
+}
@@ -0,0 +1,40 @@
+package com.alejokf.graphs.application.planner.impl;
+
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the most recently used {@link ShortestPathTree}s of a graph. The number of trees is limited so the cache
+ * holds about the same number of distances whatever the size of the graph.
+ */
+class ShortestPathTrees {
+
+    private static final int MAX_TREES = 64;
+    private static final int MAX_DISTANCES = 1 << 22;
+
+    private final Map<Integer, ShortestPathTree> trees;
+
+    private ShortestPathTrees(IndexedGraph graph) {
+        int capacity = Math.max(1, Math.min(MAX_TREES, MAX_DISTANCES / Math.max(1, graph.size())));
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    static ShortestPathTrees of(IndexedGraph graph) {
+        return graph.derive(ShortestPathTrees.class, ShortestPathTrees::new);
+    }
+
+    synchronized ShortestPathTree get(int source) {
+        return trees.get(source);
+    }
+
+    synchronized void put(int source, ShortestPathTree tree) {
+        trees.put(source, tree);
+    }
+}
@@ -0,0 +1,110 @@
+package com.alejokf.graphs.application.planner.impl;
+
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Counts traces with dynamic programming instead of enumerating them.
+ * <p>
+ * The number of traces from the start node reaching every node with {@code h} hops (or with latency {@code l}) is
+ * calculated from the numbers with {@code h - 1} hops (or with the latencies {@code l - w} of the incoming edges), so
+ * the cost is proportional to the limit times the size of the graph, no matter how many traces there are. Counts
+ * that don't fit in a long fail with an {@link ArithmeticException}.
+ * <p>
+ * The counts are the same as the sizes of the results of
+ * {@link com.alejokf.graphs.application.search.GraphSearchService}. An instance counts the operations of its
+ * calculations and must not be shared between threads.
+ */
+class TraceCounter {
+
+    private final IndexedGraph graph;
+    // Nodes scanned plus edges followed
+    private long operations;
+
+    TraceCounter(IndexedGraph graph) {
+        this.graph = graph;
+    }
+
+    long operations() {
+        return operations;
+    }
+
+    /**
+     * @param exact whether only the traces with exactly {@code hops} hops are counted, or those with 1 to
+     *              {@code hops} hops
+     * @return the number of traces from {@code start} to {@code end}
+     */
+    long countByHops(int start, int end, int hops, boolean exact) {
+        int size = graph.size();
+        long[] current = new long[size];
+        long[] next = new long[size];
+        current[start] = 1;
+        long count = exact && hops == 0 && start == end ? 1 : 0;
+
+        for (int hop = 1; hop <= hops; hop++) {
+            boolean any = false;
+            for (int node = 0; node < size; node++) {
+                long traces = current[node];
+                if (traces != 0) {
+                    for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                        int head = graph.outHead(edge);
+                        next[head] = Math.addExact(next[head], traces);
+                    }
+                    operations += graph.outDegree(node);
+                    any = true;
+                }
+            }
+            operations += size;
+            if (!any) {
+                break;
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+            Arrays.fill(next, 0);
+            if (!exact || hop == hops) {
+                count = Math.addExact(count, current[end]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the traces with a latency of less than {@code maxLatency}. Only the counts of the latencies up to the
+     * maximum edge weight ahead are kept, in a ring of layers.
+     *
+     * @return the number of traces from {@code start} to {@code end}
+     */
+    long countByLatency(int start, int end, int maxLatency, long maxWeight) {
+        int size = graph.size();
+        int window = (int) maxWeight + 1;
+        long[][] layers = new long[window][size];
+        layers[0][start] = 1;
+        long count = 0;
+
+        for (int latency = 0; latency < maxLatency; latency++) {
+            long[] layer = layers[latency % window];
+            if (latency > 0) {
+                count = Math.addExact(count, layer[end]);
+            }
+            for (int node = 0; node < size; node++) {
+                long traces = layer[node];
+                if (traces != 0) {
+                    for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                        long headLatency = latency + graph.outWeight(edge);
+                        if (headLatency < maxLatency) {
+                            long[] headLayer = layers[(int) (headLatency % window)];
+                            int head = graph.outHead(edge);
+                            headLayer[head] = Math.addExact(headLayer[head], traces);
+                        }
+                    }
+                    operations += graph.outDegree(node);
+                }
+            }
+            operations += size;
+            Arrays.fill(layer, 0);
+        }
+        return count;
+    }
+}
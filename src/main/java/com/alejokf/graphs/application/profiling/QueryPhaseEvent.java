@@ -0,0 +1,28 @@
+package com.alejokf.graphs.application.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a phase of a profiled query
+ */
+@Name("com.alejokf.graphs.QueryPhase")
+@Label("Graph Query Phase")
+@Category("Graph Queries")
+@Description("A phase of a graph query run with profiling switched on")
+class QueryPhaseEvent extends Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
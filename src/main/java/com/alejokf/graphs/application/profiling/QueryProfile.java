@@ -0,0 +1,129 @@
+package com.alejokf.graphs.application.profiling;
+
+import java.util.List;
+
+/**
+ * Expansion statistics of a profiled query, see {@link QueryProfiler}.
+ * <p>
+ * Counters that don't apply to a search are 0, e.g. trace searches use no heap. Allocated bytes are -1 if the JVM
+ * can't measure them.
+ */
+public final class QueryProfile {
+
+    private final String query;
+    private final long statesPushed;
+    private final long statesPopped;
+    private final long edgesRelaxed;
+    private final long heapInserts;
+    private final long heapRemoves;
+    private final long heapDecreaseKeys;
+    private final int maxFrontier;
+    private final List<Phase> phases;
+
+    QueryProfile(String query, long statesPushed, long statesPopped, long edgesRelaxed, long heapInserts,
+            long heapRemoves, long heapDecreaseKeys, int maxFrontier, List<Phase> phases) {
+        this.query = query;
+        this.statesPushed = statesPushed;
+        this.statesPopped = statesPopped;
+        this.edgesRelaxed = edgesRelaxed;
+        this.heapInserts = heapInserts;
+        this.heapRemoves = heapRemoves;
+        this.heapDecreaseKeys = heapDecreaseKeys;
+        this.maxFrontier = maxFrontier;
+        this.phases = List.copyOf(phases);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public long getStatesPushed() {
+        return statesPushed;
+    }
+
+    public long getStatesPopped() {
+        return statesPopped;
+    }
+
+    /**
+     * @return the number of edges followed from the expanded states
+     */
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    public long getHeapInserts() {
+        return heapInserts;
+    }
+
+    public long getHeapRemoves() {
+        return heapRemoves;
+    }
+
+    public long getHeapDecreaseKeys() {
+        return heapDecreaseKeys;
+    }
+
+    /**
+     * @return the maximum number of states waiting to be expanded at the same time
+     */
+    public int getMaxFrontier() {
+        return maxFrontier;
+    }
+
+    /**
+     * @return the phases of the query, in order
+     */
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * @return the wall time of the whole query
+     */
+    public long getNanos() {
+        return phases.stream().mapToLong(Phase::getNanos).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(query).append('\n');
+        builder.append(String.format("  states pushed %d, popped %d, edges relaxed %d, max frontier %d%n",
+                statesPushed, statesPopped, edgesRelaxed, maxFrontier));
+        builder.append(String.format("  heap inserts %d, removes %d, decrease-keys %d%n", heapInserts, heapRemoves,
+                heapDecreaseKeys));
+        for (Phase phase : phases) {
+            builder.append(String.format("  %-12s %10.3f ms %12d bytes allocated%n", phase.getName(),
+                    phase.getNanos() / 1e6, phase.getAllocatedBytes()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A phase of a query, with its wall time and the bytes it allocated
+     */
+    public static final class Phase {
+
+        private final String name;
+        private final long nanos;
+        private final long allocatedBytes;
+
+        Phase(String name, long nanos, long allocatedBytes) {
+            this.name = name;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
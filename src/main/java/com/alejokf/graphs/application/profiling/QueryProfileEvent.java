@@ -0,0 +1,46 @@
+package com.alejokf.graphs.application.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a profiled query, with the statistics of its {@link QueryProfile}
+ */
+@Name("com.alejokf.graphs.QueryProfile")
+@Label("Graph Query")
+@Category("Graph Queries")
+@Description("A graph query run with profiling switched on")
+class QueryProfileEvent extends Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("States Pushed")
+    long statesPushed;
+
+    @Label("States Popped")
+    long statesPopped;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+
+    @Label("Heap Inserts")
+    long heapInserts;
+
+    @Label("Heap Removes")
+    long heapRemoves;
+
+    @Label("Heap Decrease-Keys")
+    long heapDecreaseKeys;
+
+    @Label("Max Frontier")
+    int maxFrontier;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,164 @@
+package com.alejokf.graphs.application.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the expansion statistics of a single query, when profiling is switched on with
+ * {@link com.alejokf.graphs.application.options.QueryOptions#withProfiling()}.
+ * <p>
+ * Searches hold a null profiler when profiling is off, and guard every call with a null check, so an unprofiled
+ * query only pays for a predictable branch. The counters are plain fields: a profiler belongs to a single query and
+ * must not be shared between threads.
+ * <p>
+ * The query is split in phases with {@link #phase(String)}, and the wall time and the bytes allocated by the thread
+ * are measured for every phase. {@link #finish()} returns the {@link QueryProfile} and commits it, and every phase, as
+ * JFR events ({@link QueryProfileEvent} and {@link QueryPhaseEvent}), so slow queries can be correlated with GC and
+ * CPU activity in flight recordings.
+ */
+public final class QueryProfiler {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final String query;
+    private final QueryProfileEvent event = new QueryProfileEvent();
+    private final List<QueryProfile.Phase> phases = new ArrayList<>();
+
+    private String phase;
+    private long phaseStartNanos;
+    private long phaseStartBytes;
+    private QueryPhaseEvent phaseEvent;
+
+    private long statesPushed;
+    private long statesPopped;
+    private long edgesRelaxed;
+    private long heapInserts;
+    private long heapRemoves;
+    private long heapDecreaseKeys;
+    private int maxFrontier;
+
+    private QueryProfiler(String query) {
+        this.query = query;
+    }
+
+    /**
+     * Starts profiling a query
+     *
+     * @param query the description of the query, e.g. its type and arguments
+     * @param phase the name of the first phase
+     * @return the profiler of the query
+     */
+    public static QueryProfiler start(String query, String phase) {
+        QueryProfiler profiler = new QueryProfiler(query);
+        profiler.event.begin();
+        profiler.startPhase(phase);
+        return profiler;
+    }
+
+    /**
+     * Ends the current phase and starts the next one
+     *
+     * @param name the name of the next phase
+     */
+    public void phase(String name) {
+        endPhase();
+        startPhase(name);
+    }
+
+    public void statePushed() {
+        statesPushed++;
+    }
+
+    public void statePopped() {
+        statesPopped++;
+    }
+
+    /**
+     * @param edges the number of edges followed from the expanded state
+     */
+    public void edgesRelaxed(int edges) {
+        edgesRelaxed += edges;
+    }
+
+    public void heapInsert() {
+        heapInserts++;
+    }
+
+    public void heapRemove() {
+        heapRemoves++;
+    }
+
+    public void heapDecreaseKey() {
+        heapDecreaseKeys++;
+    }
+
+    /**
+     * @param size the current number of states waiting to be expanded
+     */
+    public void frontier(int size) {
+        if (size > maxFrontier) {
+            maxFrontier = size;
+        }
+    }
+
+    /**
+     * Ends the last phase and the query
+     *
+     * @return the profile of the query
+     */
+    public QueryProfile finish() {
+        endPhase();
+        QueryProfile profile = new QueryProfile(query, statesPushed, statesPopped, edgesRelaxed, heapInserts,
+                heapRemoves, heapDecreaseKeys, maxFrontier, phases);
+        event.end();
+        if (event.shouldCommit()) {
+            event.query = query;
+            event.statesPushed = statesPushed;
+            event.statesPopped = statesPopped;
+            event.edgesRelaxed = edgesRelaxed;
+            event.heapInserts = heapInserts;
+            event.heapRemoves = heapRemoves;
+            event.heapDecreaseKeys = heapDecreaseKeys;
+            event.maxFrontier = maxFrontier;
+            event.allocatedBytes = phases.stream().mapToLong(QueryProfile.Phase::getAllocatedBytes)
+                    .reduce(0, (a, b) -> a < 0 || b < 0 ? -1 : a + b);
+            event.commit();
+        }
+        return profile;
+    }
+
+    private void startPhase(String name) {
+        phase = name;
+        phaseEvent = new QueryPhaseEvent();
+        phaseEvent.begin();
+        phaseStartBytes = allocatedBytes();
+        phaseStartNanos = System.nanoTime();
+    }
+
+    private void endPhase() {
+        long nanos = System.nanoTime() - phaseStartNanos;
+        long bytes = allocatedBytes();
+        long allocated = bytes < 0 || phaseStartBytes < 0 ? -1 : bytes - phaseStartBytes;
+        phases.add(new QueryProfile.Phase(phase, nanos, allocated));
+        phaseEvent.end();
+        if (phaseEvent.shouldCommit()) {
+            phaseEvent.query = query;
+            phaseEvent.phase = phase;
+            phaseEvent.allocatedBytes = allocated;
+            phaseEvent.commit();
+        }
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if the JVM can't measure them
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
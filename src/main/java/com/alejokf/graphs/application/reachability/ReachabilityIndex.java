@@ -0,0 +1,204 @@
+package com.alejokf.graphs.application.reachability;
+
+import com.alejokf.graphs.application.components.StronglyConnectedComponents;
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Index answering whether a node can reach another one through a non-empty trace, without searching the graph.
+ * <p>
+ * The graph is first condensed into its {@link StronglyConnectedComponents}, which form a DAG. Then the components
+ * are numbered in the post-order of a depth-first traversal of the DAG, so all the components of a subtree of the
+ * traversal have consecutive numbers. Every component is labelled with the (merged) intervals of post-order numbers
+ * it can reach, which are built from the labels of its successors when the traversal leaves it. Since subtrees are
+ * consecutive, the labels are usually a handful of intervals, and a query is a binary search on them.
+ */
+public final class ReachabilityIndex {
+
+    private final StronglyConnectedComponents components;
+    // The post-order number of every component
+    private final int[] postOrder;
+    // Intervals of component c are in [intervalOffsets[c], intervalOffsets[c + 1]), sorted and not overlapping
+    private final int[] intervalOffsets;
+    private final int[] intervalStarts;
+    private final int[] intervalEnds;
+
+    private ReachabilityIndex(StronglyConnectedComponents components, int[] postOrder, int[] intervalOffsets,
+            int[] intervalStarts, int[] intervalEnds) {
+        this.components = components;
+        this.postOrder = postOrder;
+        this.intervalOffsets = intervalOffsets;
+        this.intervalStarts = intervalStarts;
+        this.intervalEnds = intervalEnds;
+    }
+
+    /**
+     * Returns the reachability index of the {@code graph}, which is built only the first time it is requested for
+     * that graph
+     *
+     * @param graph the graph
+     * @return the reachability index of the graph
+     */
+    public static ReachabilityIndex of(IndexedGraph graph) {
+        return graph.derive(ReachabilityIndex.class, ReachabilityIndex::build);
+    }
+
+    private static ReachabilityIndex build(IndexedGraph graph) {
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(graph);
+        int componentCount = components.componentCount();
+
+        // Condensation DAG, with the distinct successors of every component
+        int[] members = new int[graph.size()];
+        int[] memberOffsets = new int[componentCount + 1];
+        for (int node = 0; node < graph.size(); node++) {
+            memberOffsets[components.componentOf(node) + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] positions = Arrays.copyOf(memberOffsets, componentCount);
+        for (int node = 0; node < graph.size(); node++) {
+            members[positions[components.componentOf(node)]++] = node;
+        }
+
+        int[] successorOffsets = new int[componentCount + 1];
+        int[] successors = new int[graph.edgeCount()];
+        int[] lastSeen = new int[componentCount];
+        Arrays.fill(lastSeen, -1);
+        int successorCount = 0;
+        for (int c = 0; c < componentCount; c++) {
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int node = members[m];
+                for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                    int successor = components.componentOf(graph.outHead(edge));
+                    if (successor != c && lastSeen[successor] != c) {
+                        lastSeen[successor] = c;
+                        successors[successorCount++] = successor;
+                    }
+                }
+            }
+            successorOffsets[c + 1] = successorCount;
+        }
+
+        // Iterative depth-first traversal of the DAG, labelling every component when the traversal leaves it
+        int[] postOrder = new int[componentCount];
+        Arrays.fill(postOrder, -1);
+        int[][] labels = new int[componentCount][];
+        int[] nextSuccessor = new int[componentCount];
+        int[] callStack = new int[componentCount];
+        boolean[] visited = new boolean[componentCount];
+        int counter = 0;
+
+        // Components with bigger ids come first in topological order, so roots are tried from the last one
+        for (int root = componentCount - 1; root >= 0; root--) {
+            if (visited[root]) {
+                continue;
+            }
+            int callStackSize = 0;
+            visited[root] = true;
+            nextSuccessor[root] = successorOffsets[root];
+            callStack[callStackSize++] = root;
+            while (callStackSize > 0) {
+                int c = callStack[callStackSize - 1];
+                if (nextSuccessor[c] < successorOffsets[c + 1]) {
+                    int successor = successors[nextSuccessor[c]++];
+                    if (!visited[successor]) {
+                        visited[successor] = true;
+                        nextSuccessor[successor] = successorOffsets[successor];
+                        callStack[callStackSize++] = successor;
+                    }
+                    continue;
+                }
+                callStackSize--;
+                postOrder[c] = counter++;
+                labels[c] = label(c, postOrder, labels, successors, successorOffsets);
+            }
+        }
+
+        int[] intervalOffsets = new int[componentCount + 1];
+        for (int c = 0; c < componentCount; c++) {
+            intervalOffsets[c + 1] = intervalOffsets[c] + labels[c].length / 2;
+        }
+        int[] intervalStarts = new int[intervalOffsets[componentCount]];
+        int[] intervalEnds = new int[intervalOffsets[componentCount]];
+        for (int c = 0; c < componentCount; c++) {
+            for (int i = 0; i < labels[c].length / 2; i++) {
+                intervalStarts[intervalOffsets[c] + i] = labels[c][2 * i];
+                intervalEnds[intervalOffsets[c] + i] = labels[c][2 * i + 1];
+            }
+        }
+        return new ReachabilityIndex(components, postOrder, intervalOffsets, intervalStarts, intervalEnds);
+    }
+
+    /**
+     * Builds the label of a component as the merge of its own post-order number and the labels of its successors,
+     * which are all complete since the graph is a DAG. Labels are stored as {@code [start0, end0, start1, ...]}.
+     */
+    private static int[] label(int component, int[] postOrder, int[][] labels, int[] successors,
+            int[] successorOffsets) {
+        int length = 2;
+        for (int s = successorOffsets[component]; s < successorOffsets[component + 1]; s++) {
+            length += labels[successors[s]].length;
+        }
+        long[] intervals = new long[length / 2];
+        int count = 0;
+        intervals[count++] = ((long) postOrder[component] << 32) | postOrder[component];
+        for (int s = successorOffsets[component]; s < successorOffsets[component + 1]; s++) {
+            int[] successorLabel = labels[successors[s]];
+            for (int i = 0; i < successorLabel.length; i += 2) {
+                intervals[count++] = ((long) successorLabel[i] << 32) | successorLabel[i + 1];
+            }
+        }
+        // Post-order numbers are non-negative, so sorting the packed values sorts the intervals by start
+        Arrays.sort(intervals);
+
+        int[] merged = new int[2 * count];
+        int mergedLength = 0;
+        for (long interval : intervals) {
+            int start = (int) (interval >>> 32);
+            int end = (int) interval;
+            if (mergedLength > 0 && start <= merged[mergedLength - 1] + 1) {
+                merged[mergedLength - 1] = Math.max(merged[mergedLength - 1], end);
+            } else {
+                merged[mergedLength++] = start;
+                merged[mergedLength++] = end;
+            }
+        }
+        return Arrays.copyOf(merged, mergedLength);
+    }
+
+    /**
+     * Returns whether there is a non-empty trace from node {@code from} to node {@code to}. In particular, a node can
+     * only reach itself if it is part of a cycle.
+     *
+     * @param from the id of the starting node
+     * @param to   the id of the ending node
+     * @return true if {@code to} is reachable from {@code from}
+     */
+    public boolean canReach(int from, int to) {
+        int fromComponent = components.componentOf(from);
+        int toComponent = components.componentOf(to);
+        if (fromComponent == toComponent) {
+            return from != to || components.isCyclic(fromComponent);
+        }
+        int target = postOrder[toComponent];
+        int low = intervalOffsets[fromComponent];
+        int high = intervalOffsets[fromComponent + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (intervalEnds[middle] < target) {
+                low = middle + 1;
+            } else if (intervalStarts[middle] > target) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public StronglyConnectedComponents getComponents() {
+        return components;
+    }
+}
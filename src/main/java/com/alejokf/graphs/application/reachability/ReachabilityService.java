@@ -0,0 +1,17 @@
+package com.alejokf.graphs.application.reachability;
+
+import com.alejokf.graphs.domain.Graph;
+
+public interface ReachabilityService {
+
+    /**
+     * Returns whether there is a non-empty trace in the {@code graph} from node {@code from} to node {@code to}.
+     * Nodes that don't exist in the graph can't reach and can't be reached.
+     *
+     * @param graph the graph
+     * @param from  the starting node
+     * @param to    the ending node
+     * @return true if {@code to} can be reached from {@code from}
+     */
+    boolean canReach(Graph graph, String from, String to);
+}
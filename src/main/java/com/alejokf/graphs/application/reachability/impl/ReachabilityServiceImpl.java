@@ -0,0 +1,22 @@
+package com.alejokf.graphs.application.reachability.impl;
+
+import com.alejokf.graphs.application.reachability.ReachabilityIndex;
+import com.alejokf.graphs.application.reachability.ReachabilityService;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service to answer reachability queries with the {@link ReachabilityIndex} of the graph, which is built on the first
+ * query and reused afterwards
+ */
+@Component
+public class ReachabilityServiceImpl implements ReachabilityService {
+
+    public boolean canReach(Graph graph, String from, String to) {
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int fromNode = indexedGraph.indexOf(from);
+        int toNode = indexedGraph.indexOf(to);
+        return fromNode >= 0 && toNode >= 0 && ReachabilityIndex.of(indexedGraph).canReach(fromNode, toNode);
+    }
+}
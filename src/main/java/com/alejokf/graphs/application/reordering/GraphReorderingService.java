@@ -0,0 +1,27 @@
+package com.alejokf.graphs.application.reordering;
+
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+
+public interface GraphReorderingService {
+
+    /**
+     * Calculates the {@code ordering} of the nodes of the {@code graph}
+     *
+     * @param graph    the indexed graph
+     * @param ordering the ordering
+     * @return the current id of every node, in the new order, as expected by {@link IndexedGraph#reorder(int[])}
+     */
+    int[] order(IndexedGraph graph, NodeOrdering ordering);
+
+    /**
+     * Returns a graph with the same nodes and edges as the {@code graph}, whose {@link IndexedGraph} has the nodes
+     * numbered following the {@code ordering}. Labels are kept, so the graph answers every query the same way. It is
+     * meant to run after loading the graph, before any query.
+     *
+     * @param graph    the graph
+     * @param ordering the ordering
+     * @return the reordered graph
+     */
+    Graph reorder(Graph graph, NodeOrdering ordering);
+}
@@ -0,0 +1,27 @@
+package com.alejokf.graphs.application.reordering;
+
+/**
+ * Orderings used to renumber the nodes of a graph, so nodes visited together are close in memory. Edges are
+ * followed in both directions, as searches follow outgoing edges and reverse searches incoming ones.
+ */
+public enum NodeOrdering {
+
+    /**
+     * Breadth-first order, starting every connected component on its lowest id
+     */
+    BFS,
+
+    /**
+     * Reverse Cuthill-McKee: breadth-first order starting every connected component on a node of minimum degree,
+     * visiting the neighbours of every node by increasing degree, reversed at the end. Keeps the ids of the two
+     * nodes of every edge close, i.e. reduces the bandwidth of the adjacency matrix
+     */
+    REVERSE_CUTHILL_MCKEE,
+
+    /**
+     * Degree-sorted hub clustering: the nodes with more than the average degree are placed first, by decreasing
+     * degree, and the rest keep their relative order. The hubs, which are visited by most searches, share the
+     * cache lines
+     */
+    HUB_CLUSTERING
+}
@@ -0,0 +1,163 @@
+package com.alejokf.graphs.application.reordering.impl;
+
+import com.alejokf.graphs.application.reordering.GraphReorderingService;
+import com.alejokf.graphs.application.reordering.NodeOrdering;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Service to renumber the nodes of a graph to improve the locality of the searches.
+ * <p>
+ * All the orderings run in O(n + e), but reverse Cuthill-McKee, which sorts the neighbours of every node by degree.
+ */
+@Component
+public class GraphReorderingServiceImpl implements GraphReorderingService {
+
+    public int[] order(IndexedGraph graph, NodeOrdering ordering) {
+        switch (ordering) {
+            case BFS:
+                return breadthFirst(graph, identity(graph.size()), false);
+            case REVERSE_CUTHILL_MCKEE:
+                int[] order = breadthFirst(graph, byDegree(graph), true);
+                for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                }
+                return order;
+            case HUB_CLUSTERING:
+                return hubClustering(graph);
+            default:
+                throw new IllegalArgumentException("Unknown ordering " + ordering);
+        }
+    }
+
+    /**
+     * The reordering starts from a snapshot that is not cached in the {@code graph}, so only the reordered one is
+     * kept
+     */
+    public Graph reorder(Graph graph, NodeOrdering ordering) {
+        IndexedGraph indexedGraph = IndexedGraph.of(graph);
+        IndexedGraph reordered = indexedGraph.reorder(order(indexedGraph, ordering));
+        return new Graph(graph.getNodes(), graph.getEdges(), reordered);
+    }
+
+    /**
+     * Breadth-first order of the nodes, following edges in both directions. Every connected component starts on the
+     * first non-visited node of {@code starts}
+     *
+     * @param graph              the graph
+     * @param starts             the candidate starting nodes, in order of preference
+     * @param neighboursByDegree whether the neighbours of every node are visited by increasing degree, instead of by
+     *                           id
+     * @return the nodes in breadth-first order
+     */
+    private static int[] breadthFirst(IndexedGraph graph, int[] starts, boolean neighboursByDegree) {
+        int size = graph.size();
+        int[] order = new int[size];
+        boolean[] visited = new boolean[size];
+        // Neighbours of the current node, as degree in the high bits and id in the low bits
+        long[] neighbours = new long[16];
+        int head = 0;
+        int tail = 0;
+        for (int start : starts) {
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int node = order[head++];
+                int count = 0;
+                int degree = graph.outDegree(node) + graph.inDegree(node);
+                if (neighbours.length < degree) {
+                    neighbours = new long[Math.max(degree, neighbours.length * 2)];
+                }
+                for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                    count = addNeighbour(graph, graph.outHead(edge), visited, neighbours, count, neighboursByDegree);
+                }
+                for (int edge = graph.inStart(node); edge < graph.inEnd(node); edge++) {
+                    count = addNeighbour(graph, graph.inTail(edge), visited, neighbours, count, neighboursByDegree);
+                }
+                if (neighboursByDegree) {
+                    Arrays.sort(neighbours, 0, count);
+                }
+                for (int i = 0; i < count; i++) {
+                    order[tail++] = (int) neighbours[i];
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int addNeighbour(IndexedGraph graph, int neighbour, boolean[] visited, long[] neighbours,
+            int count, boolean byDegree) {
+        if (visited[neighbour]) {
+            return count;
+        }
+        visited[neighbour] = true;
+        long degree = byDegree ? graph.outDegree(neighbour) + graph.inDegree(neighbour) : 0;
+        neighbours[count] = degree << 32 | neighbour;
+        return count + 1;
+    }
+
+    /**
+     * Hubs first by decreasing degree, then the rest of the nodes by id
+     */
+    private static int[] hubClustering(IndexedGraph graph) {
+        int size = graph.size();
+        double averageDegree = size == 0 ? 0 : 2.0 * graph.edgeCount() / size;
+        int[] byDegree = byDegree(graph);
+        int[] order = new int[size];
+        boolean[] hub = new boolean[size];
+        int count = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            int node = byDegree[i];
+            if (graph.outDegree(node) + graph.inDegree(node) <= averageDegree) {
+                break;
+            }
+            hub[node] = true;
+            order[count++] = node;
+        }
+        for (int node = 0; node < size; node++) {
+            if (!hub[node]) {
+                order[count++] = node;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Nodes sorted by increasing degree, and by id for the same degree, with a counting sort
+     */
+    private static int[] byDegree(IndexedGraph graph) {
+        int size = graph.size();
+        int maxDegree = 0;
+        for (int node = 0; node < size; node++) {
+            maxDegree = Math.max(maxDegree, graph.outDegree(node) + graph.inDegree(node));
+        }
+        int[] positions = new int[maxDegree + 2];
+        for (int node = 0; node < size; node++) {
+            positions[graph.outDegree(node) + graph.inDegree(node) + 1]++;
+        }
+        for (int degree = 0; degree <= maxDegree; degree++) {
+            positions[degree + 1] += positions[degree];
+        }
+        int[] sorted = new int[size];
+        for (int node = 0; node < size; node++) {
+            sorted[positions[graph.outDegree(node) + graph.inDegree(node)]++] = node;
+        }
+        return sorted;
+    }
+
+    private static int[] identity(int size) {
+        int[] identity = new int[size];
+        for (int i = 0; i < size; i++) {
+            identity[i] = i;
+        }
+        return identity;
+    }
+}
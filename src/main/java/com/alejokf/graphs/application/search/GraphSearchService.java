@@ -1,17 +1,17 @@
 package com.alejokf.graphs.application.search;
 
+import com.alejokf.graphs.application.options.QueryOptions;
 import com.alejokf.graphs.domain.Graph;
 import com.alejokf.graphs.domain.Node;
 
-import java.util.List;
-
 public interface GraphSearchService {
 
     /**
      * Returns all the traces in the {@code graph} originating in node {@code start} and ending in node {@code end}
      * with exactly {@code exactHops} hops.
      * <p>
-     * Every trace is represented as a list of {@link Node}, i.e. this method returns a List of Lists of {@link Node}
+     * Every trace is represented as a list of {@link Node}, i.e. this method returns a List of Lists of {@link Node},
+     * which is stored compactly as {@link Traces}
      *
      * @param graph     the graph with the information
      * @param start     the starting node
@@ -19,13 +19,14 @@ public interface GraphSearchService {
      * @param exactHops the exact number of hops
      * @return the list of traces from {@code start} to {@code end} with exactly {@code exactHops} hops.
      */
-    List<List<Node>> tracesByExactHops(final Graph graph, final String start, final String end, final int exactHops);
+    Traces tracesByExactHops(final Graph graph, final String start, final String end, final int exactHops);
 
     /**
      * Returns all the traces in the {@code graph} originating in node {@code start} and ending in node {@code end}
      * with a maximum of {@code maxHops} hops.
      * <p>
-     * Every trace is represented as a list of {@link Node}, i.e. this method returns a List of Lists of {@link Node}
+     * Every trace is represented as a list of {@link Node}, i.e. this method returns a List of Lists of {@link Node},
+     * which is stored compactly as {@link Traces}
      *
      * @param graph   the graph with the information
      * @param start   the starting node
@@ -33,13 +34,14 @@ public interface GraphSearchService {
      * @param maxHops the exact number of hops
      * @return the list of traces from {@code start} to {@code end} with a maximum of {@code maxHops} hops.
      */
-    List<List<Node>> tracesByMaxHops(final Graph graph, final String start, final String end, final int maxHops);
+    Traces tracesByMaxHops(final Graph graph, final String start, final String end, final int maxHops);
 
     /**
      * Returns all the traces in the {@code graph} originating in node {@code start} and ending in node {@code end}
      * with a latency of less than {@code maxLatency}.
      * <p>
-     * Every trace is represented as a list of {@link Node}, i.e. this method returns a List of Lists of {@link Node}
+     * Every trace is represented as a list of {@link Node}, i.e. this method returns a List of Lists of {@link Node},
+     * which is stored compactly as {@link Traces}
      *
      * @param graph      the graph with the information
      * @param start      the starting node
@@ -47,5 +49,35 @@ public interface GraphSearchService {
      * @param maxLatency the exact number of hops
      * @return the list of traces from {@code start} to {@code end} with a latency of less than {@code maxLatency}.
      */
-    List<List<Node>> tracesByMaxLatency(final Graph graph, final String start, final String end, final int maxLatency);
+    Traces tracesByMaxLatency(final Graph graph, final String start, final String end, final int maxLatency);
+
+    /**
+     * Same as {@link #tracesByExactHops(Graph, String, String, int)}, stopping with the traces found so far, marked as
+     * truncated, when a limit of the {@code options} is reached, and with the edges changed by the overlay of the
+     * {@code options}, if any
+     *
+     * @param options the limits of the search
+     */
+    Traces tracesByExactHops(final Graph graph, final String start, final String end, final int exactHops,
+            final QueryOptions options);
+
+    /**
+     * Same as {@link #tracesByMaxHops(Graph, String, String, int)}, stopping with the traces found so far, marked as
+     * truncated, when a limit of the {@code options} is reached, and with the edges changed by the overlay of the
+     * {@code options}, if any
+     *
+     * @param options the limits of the search
+     */
+    Traces tracesByMaxHops(final Graph graph, final String start, final String end, final int maxHops,
+            final QueryOptions options);
+
+    /**
+     * Same as {@link #tracesByMaxLatency(Graph, String, String, int)}, stopping with the traces found so far, marked
+     * as truncated, when a limit of the {@code options} is reached, and with the edges changed by the overlay of the
+     * {@code options}, if any
+     *
+     * @param options the limits of the search
+     */
+    Traces tracesByMaxLatency(final Graph graph, final String start, final String end, final int maxLatency,
+            final QueryOptions options);
 }
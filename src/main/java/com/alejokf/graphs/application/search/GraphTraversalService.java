@@ -1,6 +1,7 @@
 package com.alejokf.graphs.application.search;
 
 import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.WeightOverlay;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -29,4 +30,15 @@ public interface GraphTraversalService {
      * @return the average latency of the trace
      */
     Optional<Long> traceLatency(@NotNull Graph graph, @NotNull List<String> trace);
+
+    /**
+     * Same as {@link #traceLatency(Graph, List)}, on the {@code graph} with the edges changed by the {@code overlay}:
+     * a removed edge can't be part of the trace, and an overridden edge adds its new weight
+     *
+     * @param graph   the graph
+     * @param trace   the trace within the graph
+     * @param overlay the changes to the edges of the graph
+     * @return the average latency of the trace
+     */
+    Optional<Long> traceLatency(@NotNull Graph graph, @NotNull List<String> trace, @NotNull WeightOverlay overlay);
 }
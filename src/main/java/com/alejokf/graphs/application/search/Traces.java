@@ -0,0 +1,322 @@
+package com.alejokf.graphs.application.search;
+
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.profiling.QueryProfile;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact representation of a set of traces found when searching a graph.
+ * <p>
+ * Traces found by a depth-first search share long prefixes, so they are stored as a forest of parent pointers over
+ * node ids: every entry of the forest is a node id and the entry of the previous node in the trace, and every trace
+ * is just the entry of its last node. Each shared prefix is therefore stored once, and a trace is expanded following
+ * the parent pointers only when it is requested.
+ * <p>
+ * This class is a read-only {@code List<List<Node>>}, where every trace is expanded on demand by {@link #get(int)}.
+ * Traces can also be counted, visited and serialized without expanding them into lists of {@link Node}.
+ * <p>
+ * If the search stopped because of a limit of its {@link com.alejokf.graphs.application.options.QueryOptions}, the
+ * traces are the ones found until then, and they are marked as truncated.
+ */
+public final class Traces extends AbstractList<List<Node>> {
+
+    private static final int NO_PARENT = -1;
+
+    private final IndexedGraph graph;
+    // The parent entry of every entry, or NO_PARENT for the first node of a trace
+    private final int[] parents;
+    // The node id of every entry
+    private final int[] nodes;
+    // The depth of every entry, i.e. the number of hops from the first node of its trace
+    private final int[] depths;
+    // The entry of the last node of every trace
+    private final int[] traces;
+    // The reason why the search stopped before finding all traces, or null
+    private final TruncationReason truncation;
+    // The profile of the search, or null if it was not profiled
+    private final QueryProfile profile;
+
+    private Traces(IndexedGraph graph, int[] parents, int[] nodes, int[] depths, int[] traces,
+            TruncationReason truncation, QueryProfile profile) {
+        this.graph = graph;
+        this.parents = parents;
+        this.nodes = nodes;
+        this.depths = depths;
+        this.traces = traces;
+        this.truncation = truncation;
+        this.profile = profile;
+    }
+
+    /**
+     * Visitor of traces represented as node ids
+     */
+    @FunctionalInterface
+    public interface TraceVisitor {
+
+        /**
+         * @param nodes  buffer with the node ids of the trace, only valid during the call
+         * @param length the number of nodes in the trace
+         */
+        void visit(int[] nodes, int length);
+    }
+
+    /**
+     * Returns the trace at position {@code index}, expanded as a list of {@link Node}
+     *
+     * @param index the position of the trace
+     * @return the trace
+     */
+    @Override
+    public List<Node> get(int index) {
+        Objects.checkIndex(index, traces.length);
+        int entry = traces[index];
+        Node[] trace = new Node[depths[entry] + 1];
+        for (int i = trace.length - 1; i >= 0; i--) {
+            trace[i] = graph.getNode(nodes[entry]);
+            entry = parents[entry];
+        }
+        return Arrays.asList(trace);
+    }
+
+    /**
+     * @return the number of traces
+     */
+    @Override
+    public int size() {
+        return traces.length;
+    }
+
+    /**
+     * @return the number of entries of the forest, i.e. the number of nodes stored for all traces
+     */
+    public int entryCount() {
+        return parents.length;
+    }
+
+    /**
+     * @return the number of hops of the trace at position {@code index}, without expanding it
+     */
+    public int hops(int index) {
+        return depths[traces[index]];
+    }
+
+    /**
+     * Visits every trace as node ids, reusing a single buffer for all of them
+     *
+     * @param visitor the visitor
+     */
+    public void forEachTrace(TraceVisitor visitor) {
+        int[] buffer = new int[16];
+        for (int entry : traces) {
+            int length = depths[entry] + 1;
+            if (buffer.length < length) {
+                buffer = new int[Math.max(length, buffer.length * 2)];
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                buffer[i] = nodes[entry];
+                entry = parents[entry];
+            }
+            visitor.visit(buffer, length);
+        }
+    }
+
+    /**
+     * @return a new, independent list with all traces expanded
+     */
+    public List<List<Node>> toLists() {
+        return new ArrayList<>(this);
+    }
+
+    /**
+     * @return true if the search stopped before finding all traces
+     */
+    public boolean isTruncated() {
+        return truncation != null;
+    }
+
+    /**
+     * @return the reason why the search stopped before finding all traces, or null if it found all of them
+     */
+    public TruncationReason getTruncation() {
+        return truncation;
+    }
+
+    /**
+     * @return the profile of the search, or null if it was not profiled
+     */
+    public QueryProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @param profile the profile of the search
+     * @return the same traces, sharing their storage, with the {@code profile}
+     */
+    public Traces withProfile(QueryProfile profile) {
+        return new Traces(graph, parents, nodes, depths, traces, truncation, profile);
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Writes the forest to the stream without expanding the traces. Node ids refer to the {@link IndexedGraph} the
+     * traces were found in.
+     *
+     * @param out the stream
+     * @throws IOException in case an IO error occurs when writing
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(parents.length);
+        for (int entry = 0; entry < parents.length; entry++) {
+            out.writeInt(parents[entry]);
+            out.writeInt(nodes[entry]);
+        }
+        out.writeInt(traces.length);
+        for (int trace : traces) {
+            out.writeInt(trace);
+        }
+        out.writeInt(truncation == null ? -1 : truncation.ordinal());
+    }
+
+    /**
+     * Reads traces written by {@link #writeTo(DataOutputStream)}
+     *
+     * @param in    the stream
+     * @param graph the graph the traces were found in
+     * @return the traces
+     * @throws IOException in case an IO error occurs when reading
+     */
+    public static Traces readFrom(DataInputStream in, IndexedGraph graph) throws IOException {
+        int entryCount = in.readInt();
+        int[] parents = new int[entryCount];
+        int[] nodes = new int[entryCount];
+        int[] depths = new int[entryCount];
+        for (int entry = 0; entry < entryCount; entry++) {
+            parents[entry] = in.readInt();
+            nodes[entry] = in.readInt();
+            depths[entry] = parents[entry] == NO_PARENT ? 0 : depths[parents[entry]] + 1;
+        }
+        int[] traces = new int[in.readInt()];
+        for (int i = 0; i < traces.length; i++) {
+            traces[i] = in.readInt();
+        }
+        int truncation = in.readInt();
+        return new Traces(graph, parents, nodes, depths, traces,
+                truncation < 0 ? null : TruncationReason.values()[truncation], null);
+    }
+
+    /**
+     * Builder used by a depth-first search while it explores the graph.
+     * <p>
+     * The search only keeps its current path here, with {@link #visit(int, int)}, so the builder holds O(depth) state
+     * while exploring. Entries are added to the forest only when a trace is accepted with {@link #addTrace(int)}:
+     * the prefix the trace shares with the last accepted one is already in the forest, so only the rest of its nodes
+     * are added. Since the search is depth-first, no earlier trace shares a longer prefix with it.
+     */
+    public static final class Builder {
+
+        private final IndexedGraph graph;
+        private int[] parents = new int[64];
+        private int[] nodes = new int[64];
+        private int entryCount;
+        private int[] traces = new int[16];
+        private int traceCount;
+        private TruncationReason truncation;
+
+        // The node at every depth of the current path of the search
+        private int[] path = new int[16];
+        // The entry of every node of the path already in the forest, which are the first committedLength ones
+        private int[] committed = new int[16];
+        private int committedLength;
+
+        public Builder(IndexedGraph graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * Moves the current path of the search to {@code node} at position {@code depth}. The nodes before it are
+         * kept, and the nodes after it are discarded.
+         *
+         * @param depth the number of hops from the first node of the path, at most the current depth plus one
+         * @param node  the node id
+         */
+        public void visit(int depth, int node) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                committed = Arrays.copyOf(committed, depth * 2);
+            }
+            path[depth] = node;
+            if (committedLength > depth) {
+                committedLength = depth;
+            }
+        }
+
+        /**
+         * Adds the current path of the search, up to position {@code depth}, as a trace
+         *
+         * @param depth the position of the last node of the trace
+         */
+        public void addTrace(int depth) {
+            for (int i = committedLength; i <= depth; i++) {
+                committed[i] = addEntry(i == 0 ? NO_PARENT : committed[i - 1], path[i]);
+            }
+            committedLength = depth + 1;
+            if (traceCount == traces.length) {
+                traces = Arrays.copyOf(traces, traceCount * 2);
+            }
+            traces[traceCount++] = committed[depth];
+        }
+
+        private int addEntry(int parent, int node) {
+            if (entryCount == parents.length) {
+                parents = Arrays.copyOf(parents, entryCount * 2);
+                nodes = Arrays.copyOf(nodes, entryCount * 2);
+            }
+            parents[entryCount] = parent;
+            nodes[entryCount] = node;
+            return entryCount++;
+        }
+
+        /**
+         * @return the number of traces added so far
+         */
+        public int traceCount() {
+            return traceCount;
+        }
+
+        /**
+         * Marks the traces as truncated, i.e. the search stopped before finding all of them
+         *
+         * @param reason the reason why the search stopped
+         */
+        public void truncate(TruncationReason reason) {
+            this.truncation = reason;
+        }
+
+        /**
+         * Builds the traces. Parents are always added before their children, so a single pass calculates the depths.
+         *
+         * @return the traces
+         */
+        public Traces build() {
+            int[] depths = new int[entryCount];
+            for (int entry = 0; entry < entryCount; entry++) {
+                depths[entry] = parents[entry] == NO_PARENT ? 0 : depths[parents[entry]] + 1;
+            }
+            return new Traces(graph, Arrays.copyOf(parents, entryCount), Arrays.copyOf(nodes, entryCount), depths,
+                    Arrays.copyOf(traces, traceCount), truncation, null);
+        }
+    }
+}
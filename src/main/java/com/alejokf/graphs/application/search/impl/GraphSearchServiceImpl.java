@@ -1,15 +1,19 @@
 package com.alejokf.graphs.application.search.impl;
 
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.profiling.QueryProfiler;
+import com.alejokf.graphs.application.reachability.ReachabilityIndex;
 import com.alejokf.graphs.application.search.GraphSearchService;
-import com.alejokf.graphs.domain.Edge;
+import com.alejokf.graphs.application.search.Traces;
 import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
 import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.WeightOverlay;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.List;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.function.Predicate;
 
 /**
@@ -19,25 +23,43 @@ import java.util.function.Predicate;
 @Component
 public class GraphSearchServiceImpl implements GraphSearchService {
 
-    public List<List<Node>> tracesByExactHops(final Graph graph, final String start, final String end,
+    public Traces tracesByExactHops(final Graph graph, final String start, final String end,
             final int exactHops) {
+        return tracesByExactHops(graph, start, end, exactHops, QueryOptions.NONE);
+    }
+
+    public Traces tracesByMaxHops(final Graph graph, final String start, final String end,
+            final int maxHops) {
+        return tracesByMaxHops(graph, start, end, maxHops, QueryOptions.NONE);
+    }
+
+    public Traces tracesByMaxLatency(final Graph graph, final String start, final String end,
+            final int maxLatency) {
+        return tracesByMaxLatency(graph, start, end, maxLatency, QueryOptions.NONE);
+    }
+
+    public Traces tracesByExactHops(final Graph graph, final String start, final String end,
+            final int exactHops, final QueryOptions options) {
         Predicate<TraceStatus> keepTraversing = status -> status.getHops() <= exactHops;
         Predicate<TraceStatus> addTrace = status -> status.getHops() == exactHops;
-        return tracesByConditionHops(graph, start, end, keepTraversing, addTrace);
+        return tracesByConditionHops(graph, start, end, keepTraversing, addTrace, options,
+                "tracesByExactHops", exactHops);
     }
 
-    public List<List<Node>> tracesByMaxHops(final Graph graph, final String start, final String end,
-            final int maxHops) {
+    public Traces tracesByMaxHops(final Graph graph, final String start, final String end,
+            final int maxHops, final QueryOptions options) {
         Predicate<TraceStatus> keepTraversing = status -> status.getHops() <= maxHops;
         Predicate<TraceStatus> addTrace = status -> status.getHops() > 0 && status.getHops() <= maxHops;
-        return tracesByConditionHops(graph, start, end, keepTraversing, addTrace);
+        return tracesByConditionHops(graph, start, end, keepTraversing, addTrace, options,
+                "tracesByMaxHops", maxHops);
     }
 
-    public List<List<Node>> tracesByMaxLatency(final Graph graph, final String start, final String end,
-            final int maxLatency) {
+    public Traces tracesByMaxLatency(final Graph graph, final String start, final String end,
+            final int maxLatency, final QueryOptions options) {
         Predicate<TraceStatus> keepTraversing = status -> status.getLatency() < maxLatency;
         Predicate<TraceStatus> addTrace = status -> status.getLatency() > 0 && status.getLatency() <= maxLatency;
-        return tracesByConditionHops(graph, start, end, keepTraversing, addTrace);
+        return tracesByConditionHops(graph, start, end, keepTraversing, addTrace, options,
+                "tracesByMaxLatency", maxLatency);
     }
 
     /**
@@ -46,52 +68,117 @@ public class GraphSearchServiceImpl implements GraphSearchService {
      * <p>
      * Every trace is represented as a list of {@link Node}, i.e. this method returns a List of Lists of {@link Node}
      * <p>
+     * The traces are stored as {@link Traces}, a forest of parent pointers where traces sharing a prefix share its
+     * storage. The builder only keeps the current path while searching, and adds nodes to the forest when a trace is
+     * accepted, so the memory of the search is the DFS stack plus the traces found, not every explored state.
+     * <p>
      * This a generalisation which uses two predicates: {@code keepTraversing} to check if the graph traverse should
      * continue in the current node and {@code addTrace} to check if the trace should be added to the results.
      * <p>
      * The implementation uses a DSF (Depth-Search-First) approach when traversing the graph, which navigates through
      * all nodes of the graph going through a single path first until a condition is met and back tracing in case it
      * is necessary.
+     * <p>
+     * The {@link ReachabilityIndex} of the graph is used to return no traces without searching when {@code end} can't
+     * be reached from {@code start}, and to avoid following edges to nodes from which {@code end} can't be reached.
+     * <p>
+     * Every popped state is counted by the {@link QueryBudget} of the {@code options}, and the search stops with the
+     * traces found so far, marked as truncated, as soon as a limit is reached.
+     * <p>
+     * The {@link WeightOverlay} of the {@code options} is resolved into the changed edges, which are only looked up
+     * for the nodes with changes. The reachability index of the base graph is still valid to discard nodes, since
+     * removing edges can only make fewer nodes reachable.
+     * <p>
+     * If the {@code options} switch on profiling, a {@link QueryProfiler} counts the pushed and popped states and the
+     * relaxed edges, in three phases: the reachability index, the search and the building of the traces.
      *
      * @param graph          the graph with the information
      * @param start          the starting node
      * @param end            the ending node
      * @param keepTraversing the predicate to check if the graph traverse should continue
      * @param addTrace       the predicate to check if the trace should be added to the results
+     * @param options        the limits of the search
+     * @param type           the type of search, for its profile
+     * @param limit          the hops or latency limit of the search, for its profile
      * @return the list of traces from {@code start} to {@code end} complying the condition defined in {@code addTrace}
      */
-    private List<List<Node>> tracesByConditionHops(final Graph graph, final String start, final String end,
-            final Predicate<TraceStatus> keepTraversing, final Predicate<TraceStatus> addTrace) {
-        Node startNode = graph.getNodes().get(start);
-        if (startNode == null) {
+    private Traces tracesByConditionHops(final Graph graph, final String start, final String end,
+            final Predicate<TraceStatus> keepTraversing, final Predicate<TraceStatus> addTrace,
+            final QueryOptions options, final String type, final int limit) {
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        QueryProfiler profiler = options.isProfiling() ?
+                QueryProfiler.start(type + " " + start + " " + end + " " + limit, "index") : null;
+        int startNode = indexedGraph.indexOf(start);
+        if (startNode < 0) {
             throw new IllegalArgumentException("Start node does not exist");
         }
 
-        List<List<Node>> traces = new ArrayList<>();
+        Traces.Builder traces = new Traces.Builder(indexedGraph);
+
+        int endNode = indexedGraph.indexOf(end);
+        ReachabilityIndex reachabilityIndex = ReachabilityIndex.of(indexedGraph);
+        if (endNode < 0 || !reachabilityIndex.canReach(startNode, endNode)) {
+            return profiler != null ? traces.build().withProfile(profiler.finish()) : traces.build();
+        }
+        WeightOverlay.EdgeOverrides overrides = options.getOverlay().isEmpty() ? null :
+                options.getOverlay().resolve(indexedGraph);
+        if (profiler != null) {
+            profiler.phase("search");
+        }
 
         //Stack that have the node (when navigating the Graph) and the number of hops to reach that node
-        Deque<TraceStatus> deque = new ConcurrentLinkedDeque<>();
-        deque.push(TraceStatus.of(startNode, List.of(startNode)));
+        Deque<TraceStatus> deque = new ArrayDeque<>();
+        deque.push(TraceStatus.of(startNode, 0, 0L));
 
+        QueryBudget budget = QueryBudget.start(options);
         while (!deque.isEmpty()) {
+            if (!budget.expand()) {
+                break;
+            }
             TraceStatus traceStatus = deque.pop();
-            Node node = traceStatus.getCurrentNode();
+            int node = traceStatus.getCurrentNode();
+            traces.visit(traceStatus.getHops(), node);
+            if (profiler != null) {
+                profiler.statePopped();
+            }
 
             if (keepTraversing.test(traceStatus)) {
-                if (addTrace.test(traceStatus) && node.getLabel().equals(end)) {
-                    traces.add(traceStatus.getNodes());
+                if (addTrace.test(traceStatus) && node == endNode) {
+                    traces.addTrace(traceStatus.getHops());
+                    if (!budget.acceptsMoreResults(traces.traceCount())) {
+                        break;
+                    }
+                }
+                boolean changed = overrides != null && overrides.changes(node);
+                for (int edge = indexedGraph.outStart(node); edge < indexedGraph.outEnd(node); edge++) {
+                    int head = indexedGraph.outHead(edge);
+                    if (head != endNode && !reachabilityIndex.canReach(head, endNode)
+                            || changed && overrides.isRemoved(edge)) {
+                        continue;
+                    }
+                    long weight = changed ? overrides.weight(edge, indexedGraph.outWeight(edge)) :
+                            indexedGraph.outWeight(edge);
+                    deque.push(TraceStatus.of(head, traceStatus.getHops() + 1, traceStatus.getLatency() + weight));
+                    if (profiler != null) {
+                        profiler.statePushed();
+                    }
                 }
-                for (Edge edge : node.getEdgesFrom()) {
-                    List<Node> nodes = new ArrayList<>(traceStatus.getNodes());
-                    nodes.add(edge.getHead());
-                    List<Edge> edges = new ArrayList<>(traceStatus.getEdges());
-                    edges.add(edge);
-                    deque.push(TraceStatus.of(edge.getHead(), nodes, edges));
+                if (profiler != null) {
+                    profiler.edgesRelaxed(indexedGraph.outDegree(node));
+                    profiler.frontier(deque.size());
                 }
             }
         }
 
-        return traces;
+        if (budget.getTruncation() != null) {
+            traces.truncate(budget.getTruncation());
+        }
+        if (profiler == null) {
+            return traces.build();
+        }
+        profiler.phase("build");
+        Traces result = traces.build();
+        return result.withProfile(profiler.finish());
     }
 
 }
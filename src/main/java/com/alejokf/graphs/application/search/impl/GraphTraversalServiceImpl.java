@@ -1,9 +1,12 @@
 package com.alejokf.graphs.application.search.impl;
 
+import com.alejokf.graphs.application.reachability.ReachabilityIndex;
 import com.alejokf.graphs.application.search.GraphTraversalService;
 import com.alejokf.graphs.domain.Edge;
 import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
 import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.WeightOverlay;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
@@ -29,6 +32,9 @@ public class GraphTraversalServiceImpl implements GraphTraversalService {
      * <p>
      * It uses a FIFO queue to store the trace, to avoid keeping the index of the current trace node during the
      * recursion.
+     * <p>
+     * Before traversing, the {@link ReachabilityIndex} of the graph is used to discard traces whose last node can't
+     * be reached from the first one.
      *
      * @param graph the graph
      * @param trace the trace within the graph
@@ -38,6 +44,9 @@ public class GraphTraversalServiceImpl implements GraphTraversalService {
         if (CollectionUtils.isEmpty(trace)) {
             throw new IllegalArgumentException("Trace must be non-empty");
         }
+        if (trace.size() > 1 && !isReachable(graph.getIndexedGraph(), trace.get(0), trace.get(trace.size() - 1))) {
+            return Optional.empty();
+        }
         //FIFO queue with the nodes in the trace
         Queue<String> queue = new ConcurrentLinkedQueue<>(trace);
         Node startNode = graph.getNodes().get(queue.poll());
@@ -45,6 +54,54 @@ public class GraphTraversalServiceImpl implements GraphTraversalService {
 
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation walks the {@link IndexedGraph}, where the changes of the {@code overlay} are resolved into
+     * edge ids. Between two consecutive nodes of the trace, the first edge not removed is followed.
+     */
+    public Optional<Long> traceLatency(@NotNull Graph graph, @NotNull List<String> trace,
+            @NotNull WeightOverlay overlay) {
+        if (overlay.isEmpty()) {
+            return traceLatency(graph, trace);
+        }
+        if (CollectionUtils.isEmpty(trace)) {
+            throw new IllegalArgumentException("Trace must be non-empty");
+        }
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        WeightOverlay.EdgeOverrides overrides = overlay.resolve(indexedGraph);
+        int node = indexedGraph.indexOf(trace.get(0));
+        if (node < 0) {
+            return Optional.empty();
+        }
+        long latency = 0L;
+        for (int i = 1; i < trace.size(); i++) {
+            int next = indexedGraph.indexOf(trace.get(i));
+            int edge = next < 0 ? -1 : edgeTo(indexedGraph, overrides, node, next);
+            if (edge < 0) {
+                return Optional.empty();
+            }
+            latency += overrides.weight(edge, indexedGraph.outWeight(edge));
+            node = next;
+        }
+        return Optional.of(latency);
+    }
+
+    private static int edgeTo(IndexedGraph graph, WeightOverlay.EdgeOverrides overrides, int tail, int head) {
+        for (int edge = graph.outStart(tail); edge < graph.outEnd(tail); edge++) {
+            if (graph.outHead(edge) == head && !overrides.isRemoved(edge)) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isReachable(IndexedGraph graph, String from, String to) {
+        int fromId = graph.indexOf(from);
+        int toId = graph.indexOf(to);
+        return fromId >= 0 && toId >= 0 && ReachabilityIndex.of(graph).canReach(fromId, toId);
+    }
+
     /**
      * Traverses through the graph recursively, from the {@code currentNode} an through all nodes in the {@code queue},
      * accumulating the latency in the process.
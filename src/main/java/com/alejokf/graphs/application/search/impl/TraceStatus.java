@@ -1,58 +1,39 @@
 package com.alejokf.graphs.application.search.impl;
 
-import com.alejokf.graphs.domain.Edge;
-import com.alejokf.graphs.domain.Node;
-
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * Class representing the trace status when navigating the graph
+ * Class representing the trace status when navigating the graph.
+ * <p>
+ * The nodes of the trace are not kept here: the {@link com.alejokf.graphs.application.search.Traces.Builder} of the
+ * search keeps the current path, and the number of hops of the status is the position of its node in that path.
  */
 public class TraceStatus {
 
-    // Current node of the trace
-    private final Node currentNode;
-    // The nodes added to the trace so far
-    private final List<Node> nodes;
-    // The edges added to the trace so far
-    private final List<Edge> edges;
-
-    public static TraceStatus of(Node currentNode, List<Node> trace) {
-        return new TraceStatus(currentNode, trace);
-    }
-
-    public static TraceStatus of(Node currentNode, List<Node> trace, List<Edge> edges) {
-        return new TraceStatus(currentNode, trace, edges);
-    }
+    // Id of the current node of the trace
+    private final int currentNode;
+    // The number of hops of the trace so far
+    private final int hops;
+    // The accumulated latency of the trace so far
+    private final long latency;
 
-    public TraceStatus(Node currentNode, List<Node> nodes) {
-        this(currentNode, nodes, new ArrayList<>());
+    public static TraceStatus of(int currentNode, int hops, long latency) {
+        return new TraceStatus(currentNode, hops, latency);
     }
 
-    public TraceStatus(Node currentNode, List<Node> nodes, List<Edge> edges) {
+    public TraceStatus(int currentNode, int hops, long latency) {
         this.currentNode = currentNode;
-        this.nodes = nodes;
-        this.edges = edges;
+        this.hops = hops;
+        this.latency = latency;
     }
 
-    public Node getCurrentNode() {
+    public int getCurrentNode() {
         return currentNode;
     }
 
     public int getHops() {
-        return nodes.size() - 1;
+        return hops;
     }
 
     public long getLatency() {
-        return edges.stream().map(Edge::getWeight).reduce(0L, Long::sum);
-    }
-
-    public List<Node> getNodes() {
-        return nodes;
-    }
-
-    public List<Edge> getEdges() {
-        return edges;
+        return latency;
     }
 }
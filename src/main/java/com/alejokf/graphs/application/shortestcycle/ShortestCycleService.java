@@ -0,0 +1,47 @@
+package com.alejokf.graphs.application.shortestcycle;
+
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.domain.Graph;
+
+public interface ShortestCycleService {
+
+    /**
+     * Finds the shortest cycle on the {@code graph} through node {@code node}, i.e. the shortest non-empty trace
+     * starting and ending on that node.
+     *
+     * @param graph the graph to perform the calculation
+     * @param node  the node
+     * @return the shortest cycle through {@code node}, or null if there is no cycle through that node
+     */
+    ShortestPath shortestCycle(Graph graph, String node);
+
+    /**
+     * Same as {@link #shortestCycle(Graph, String)}, stopping when a limit of the {@code options} is reached. In that
+     * case, the cycle is the shortest one found by then, marked as truncated, or null if none was found yet. Every
+     * processed node counts as an expanded state, and the maximum number of results does not apply. Overlays are not
+     * supported.
+     *
+     * @param options the limits of the calculation
+     * @throws IllegalArgumentException if the node does not exist or the {@code options} have a non-empty overlay
+     */
+    ShortestPath shortestCycle(Graph graph, String node, QueryOptions options);
+
+    /**
+     * Finds the {@link ShortestCycles}, i.e. the shortest cycle through every node of the {@code graph}
+     *
+     * @param graph the graph to perform the calculation
+     * @return the shortest cycles of every node in the graph
+     */
+    ShortestCycles shortestCycles(Graph graph);
+
+    /**
+     * Same as {@link #shortestCycles(Graph)}, with the limits of the {@code options} applied to the calculation of
+     * every cycle separately, see {@link #shortestCycle(Graph, String, QueryOptions)}. The result is marked as
+     * truncated if any of them reached a limit. Overlays are not supported.
+     *
+     * @param options the limits of the calculation of every cycle
+     * @throws IllegalArgumentException if the {@code options} have a non-empty overlay
+     */
+    ShortestCycles shortestCycles(Graph graph, QueryOptions options);
+}
@@ -0,0 +1,57 @@
+package com.alejokf.graphs.application.shortestcycle;
+
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+
+import java.util.Map;
+
+/**
+ * Class representing the shortest cycle through every node of a graph. Nodes that are not part of any cycle have no
+ * shortest cycle.
+ * <p>
+ * If a calculation stopped because of a limit of its {@link com.alejokf.graphs.application.options.QueryOptions},
+ * the result is marked as truncated: the cycles of that calculation are marked as truncated too, and nodes whose
+ * calculation found no cycle by then have none.
+ */
+public class ShortestCycles {
+
+    // The shortest cycle of every node that is part of a cycle. A map whose key is the label of the node
+    private final Map<String, ShortestPath> shortestCycles;
+    // The reason why a calculation stopped before completing, or null
+    private final TruncationReason truncation;
+
+    public ShortestCycles(Map<String, ShortestPath> shortestCycles) {
+        this(shortestCycles, null);
+    }
+
+    public ShortestCycles(Map<String, ShortestPath> shortestCycles, TruncationReason truncation) {
+        this.shortestCycles = shortestCycles;
+        this.truncation = truncation;
+    }
+
+    /**
+     * @return true if a calculation stopped before completing
+     */
+    public boolean isTruncated() {
+        return truncation != null;
+    }
+
+    /**
+     * @return the reason why a calculation stopped before completing, or null if none did
+     */
+    public TruncationReason getTruncation() {
+        return truncation;
+    }
+
+    /**
+     * @param node the label of the node
+     * @return the shortest cycle through the node, or null if the node is not part of any cycle
+     */
+    public ShortestPath getShortestCycle(String node) {
+        return shortestCycles.get(node);
+    }
+
+    public Map<String, ShortestPath> getShortestCycles() {
+        return shortestCycles;
+    }
+}
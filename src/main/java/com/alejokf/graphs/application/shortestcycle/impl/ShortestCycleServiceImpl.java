@@ -0,0 +1,167 @@
+package com.alejokf.graphs.application.shortestcycle.impl;
+
+import com.alejokf.graphs.application.components.StronglyConnectedComponents;
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.shortestcycle.ShortestCycleService;
+import com.alejokf.graphs.application.shortestcycle.ShortestCycles;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.application.support.DijkstraScratch;
+import com.alejokf.graphs.application.support.DijkstraScratchPool;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Service to calculate the shortest cycles of a graph
+ */
+@Component
+public class ShortestCycleServiceImpl implements ShortestCycleService {
+
+    public ShortestPath shortestCycle(Graph graph, String node) {
+        return shortestCycle(graph, node, QueryOptions.NONE);
+    }
+
+    public ShortestPath shortestCycle(Graph graph, String node, QueryOptions options) {
+        checkOverlay(options);
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int source = indexedGraph.indexOf(node);
+        if (source < 0) {
+            throw new IllegalArgumentException("Node does not exist");
+        }
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(indexedGraph);
+        if (!components.isCyclic(components.componentOf(source))) {
+            return null;
+        }
+        return calculateShortestCycle(indexedGraph, components, source, DijkstraScratchPool.of(indexedGraph),
+                QueryBudget.start(options));
+    }
+
+    public ShortestCycles shortestCycles(Graph graph) {
+        return shortestCycles(graph, QueryOptions.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The shortest cycle of every node is calculated in parallel, with scratches borrowed from the
+     * {@link DijkstraScratchPool} of the graph. Nodes outside non-trivial strongly connected components are not part
+     * of any cycle, so they are skipped without searching. Every calculation has its own {@link QueryBudget}, since a
+     * budget can't be shared between threads.
+     */
+    public ShortestCycles shortestCycles(Graph graph, QueryOptions options) {
+        checkOverlay(options);
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(indexedGraph);
+        DijkstraScratchPool scratches = DijkstraScratchPool.of(indexedGraph);
+
+        ShortestPath[] cycles = new ShortestPath[indexedGraph.size()];
+        TruncationReason[] truncations = new TruncationReason[indexedGraph.size()];
+        IntStream.range(0, indexedGraph.size())
+                .parallel()
+                .filter(node -> components.isCyclic(components.componentOf(node)))
+                .forEach(node -> {
+                    QueryBudget budget = QueryBudget.start(options);
+                    cycles[node] = calculateShortestCycle(indexedGraph, components, node, scratches, budget);
+                    truncations[node] = budget.getTruncation();
+                });
+
+        Map<String, ShortestPath> shortestCycles = new HashMap<>();
+        for (int node = 0; node < cycles.length; node++) {
+            if (cycles[node] != null) {
+                shortestCycles.put(indexedGraph.getLabel(node), cycles[node]);
+            }
+        }
+        TruncationReason truncation = Arrays.stream(truncations).filter(Objects::nonNull).findFirst().orElse(null);
+        return new ShortestCycles(shortestCycles, truncation);
+    }
+
+    /**
+     * Calculates the shortest cycle through node {@code source}.
+     * <p>
+     * The implementation runs Dijkstra's algorithm starting with the outgoing edges of {@code source}, while the
+     * source itself is left non-processed. The search stops as soon as the source is processed, since its distance is
+     * then the length of the shortest cycle. Every cycle through the source is inside its strongly connected
+     * component, so edges leaving the component are not relaxed.
+     * <p>
+     * Every processed node is counted by the {@code budget}. If a limit is reached before the source is processed, a
+     * tentative distance of the source is the length of a cycle through the processed nodes, which is returned marked
+     * as truncated.
+     *
+     * @param graph      the graph
+     * @param components the strongly connected components of the graph
+     * @param source     the source node
+     * @param scratches  the pool the scratch used for the search is borrowed from, and released to once reset
+     * @param budget     the limits of the calculation
+     * @return the shortest cycle through {@code source}, or null if there is none
+     */
+    private ShortestPath calculateShortestCycle(IndexedGraph graph, StronglyConnectedComponents components,
+            int source, DijkstraScratchPool scratches, QueryBudget budget) {
+        int component = components.componentOf(source);
+        DijkstraScratch scratch = scratches.borrow();
+        try {
+            for (int edge = graph.outStart(source); edge < graph.outEnd(source); edge++) {
+                int head = graph.outHead(edge);
+                if (components.componentOf(head) == component) {
+                    scratch.relax(head, graph.outWeight(edge), source);
+                }
+            }
+
+            while (scratch.hasNext()) {
+                if (!budget.expand()) {
+                    return scratch.distance(source) == DijkstraScratch.UNREACHABLE ? null :
+                            toShortestPath(graph, scratch, source).truncated(budget.getTruncation());
+                }
+                int node = scratch.next();
+                if (node == source) {
+                    return toShortestPath(graph, scratch, source);
+                }
+                long distance = scratch.distance(node);
+                for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                    int head = graph.outHead(edge);
+                    if (components.componentOf(head) == component) {
+                        scratch.relax(head, distance + graph.outWeight(edge), node);
+                    }
+                }
+            }
+            return null;
+        } finally {
+            scratch.reset();
+            scratches.release(scratch);
+        }
+    }
+
+    /**
+     * Builds the cycle following the predecessors from {@code source} until {@code source} is reached again
+     */
+    private ShortestPath toShortestPath(IndexedGraph graph, DijkstraScratch scratch, int source) {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(graph.getNode(source));
+        int node = scratch.predecessor(source);
+        while (node != source) {
+            nodes.add(graph.getNode(node));
+            node = scratch.predecessor(node);
+        }
+        nodes.add(graph.getNode(source));
+        Collections.reverse(nodes);
+        Node sourceNode = graph.getNode(source);
+        return new ShortestPath(sourceNode, sourceNode, scratch.distance(source), nodes);
+    }
+
+    private static void checkOverlay(QueryOptions options) {
+        if (!options.getOverlay().isEmpty()) {
+            throw new IllegalArgumentException("Overlays are not supported on shortest cycles");
+        }
+    }
+}
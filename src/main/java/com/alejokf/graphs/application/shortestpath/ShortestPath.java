@@ -1,11 +1,18 @@
 package com.alejokf.graphs.application.shortestpath;
 
+import com.alejokf.graphs.application.options.TruncationReason;
 import com.alejokf.graphs.domain.Node;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Class representing a shortest distance between a {@code source} node and a {@code target} node
+ * <p>
+ * If the calculation of the path stopped because of a limit of its
+ * {@link com.alejokf.graphs.application.options.QueryOptions}, the path is marked as truncated: it is the best one
+ * found by then, which is not necessarily the shortest.
  */
 public class ShortestPath {
 
@@ -15,14 +22,49 @@ public class ShortestPath {
     private final Node target;
     // The distance of the shortest pat
     private final Long distance;
+    // Builds the nodes of the shortest path, if they were not given
+    private final Supplier<List<Node>> nodesSupplier;
+    // The reason why the calculation of the path stopped before completing, or null
+    private final TruncationReason truncation;
     // All nodes in the shortest path
-    private final List<Node> nodes;
+    private volatile List<Node> nodes;
 
     public ShortestPath(Node source, Node target, Long distance, List<Node> nodes) {
+        this(source, target, distance, nodes, null, null);
+    }
+
+    private ShortestPath(Node source, Node target, Long distance, List<Node> nodes,
+            Supplier<List<Node>> nodesSupplier, TruncationReason truncation) {
         this.source = source;
         this.target = target;
         this.distance = distance;
         this.nodes = nodes;
+        this.nodesSupplier = nodesSupplier;
+        this.truncation = truncation;
+    }
+
+    /**
+     * Creates a shortest path whose nodes are only built if {@link #getNodes()} is called, so callers that only need
+     * the distance don't pay for them
+     *
+     * @param source        the source node
+     * @param target        the target node
+     * @param distance      the distance of the shortest path
+     * @param nodesSupplier the function building the nodes of the shortest path
+     * @return the shortest path
+     */
+    public static ShortestPath lazy(Node source, Node target, Long distance, Supplier<List<Node>> nodesSupplier) {
+        Objects.requireNonNull(nodesSupplier, "nodesSupplier is required");
+        return new ShortestPath(source, target, distance, null, nodesSupplier, null);
+    }
+
+    /**
+     * @param truncation the reason why the calculation of the path stopped before completing
+     * @return a copy of this path marked as truncated
+     */
+    public ShortestPath truncated(TruncationReason truncation) {
+        Objects.requireNonNull(truncation, "truncation is required");
+        return new ShortestPath(source, target, distance, nodes, nodesSupplier, truncation);
     }
 
     public Node getSource() {
@@ -37,7 +79,26 @@ public class ShortestPath {
         return distance;
     }
 
+    /**
+     * @return true if the calculation of the path stopped before completing
+     */
+    public boolean isTruncated() {
+        return truncation != null;
+    }
+
+    /**
+     * @return the reason why the calculation of the path stopped before completing, or null if it did not
+     */
+    public TruncationReason getTruncation() {
+        return truncation;
+    }
+
     public List<Node> getNodes() {
-        return nodes;
+        List<Node> result = nodes;
+        if (result == null && nodesSupplier != null) {
+            result = nodesSupplier.get();
+            nodes = result;
+        }
+        return result;
     }
 }
@@ -1,7 +1,10 @@
 package com.alejokf.graphs.application.shortestpath;
 
+import com.alejokf.graphs.application.options.QueryOptions;
 import com.alejokf.graphs.domain.Graph;
 
+import java.util.List;
+
 public interface ShortestPathService {
 
     /**
@@ -12,4 +15,69 @@ public interface ShortestPathService {
      * @return the shortest paths starting from node {@code start}
      */
     ShortestPaths shortestPath(Graph graph, String start);
+
+    /**
+     * Same as {@link #shortestPath(Graph, String)}, stopping when a limit of the {@code options} is reached. In that
+     * case, only the nodes whose shortest path was already final have one, and the result is marked as truncated.
+     * Every processed node counts as an expanded state, and the maximum number of results does not apply. The
+     * calculation sees the edges of the graph changed by the overlay of the {@code options}, if any.
+     *
+     * @param graph   the graph to perform the shortest paths calculation
+     * @param start   the starting node
+     * @param options the limits of the calculation
+     * @return the shortest paths starting from node {@code start}
+     */
+    ShortestPaths shortestPath(Graph graph, String start, QueryOptions options);
+
+    /**
+     * Finds up to {@code k} shortest loopless paths on the {@code graph} from node {@code source} to node
+     * {@code target}, ordered by distance. If {@code source} and {@code target} are the same node, the paths are the
+     * loopless non-empty traces starting and ending on it.
+     *
+     * @param graph  the graph to perform the calculation
+     * @param source the source node
+     * @param target the target node
+     * @param k      the maximum number of paths
+     * @return up to {@code k} shortest paths from {@code source} to {@code target}
+     */
+    List<ShortestPath> kShortestPaths(Graph graph, String source, String target, int k);
+
+    /**
+     * Same as {@link #kShortestPaths(Graph, String, String, int)}, stopping with the paths found so far when a limit
+     * of the {@code options} is reached. Every path found is one of the k shortest, so a truncated result holds the
+     * shortest paths in order, only fewer of them, and every path of it is marked as truncated. Every node processed
+     * by a search counts as an expanded state, and the maximum number of results caps {@code k}. Overlays are not
+     * supported.
+     *
+     * @param options the limits of the calculation
+     * @throws IllegalArgumentException if the {@code options} have a non-empty overlay
+     */
+    List<ShortestPath> kShortestPaths(Graph graph, String source, String target, int k, QueryOptions options);
+
+    /**
+     * Finds the shortest path on the {@code graph} from node {@code source} to node {@code target} with at most
+     * {@code maxHops} hops. If {@code source} and {@code target} are the same node, the path is the shortest
+     * non-empty trace starting and ending on it.
+     *
+     * @param graph   the graph to perform the calculation
+     * @param source  the source node
+     * @param target  the target node
+     * @param maxHops the maximum number of hops
+     * @return the shortest path from {@code source} to {@code target} with at most {@code maxHops} hops, or null if
+     * there is none
+     * @throws IllegalArgumentException if a node does not exist or {@code maxHops} is negative
+     */
+    ShortestPath shortestPathWithMaxHops(Graph graph, String source, String target, int maxHops);
+
+    /**
+     * Same as {@link #shortestPathWithMaxHops(Graph, String, String, int)}, stopping when a limit of the
+     * {@code options} is reached. In that case, the path is the shortest one with at most the number of hops
+     * calculated by then, marked as truncated, or null if none was found yet. Every node calculated in a round counts
+     * as an expanded state, and the maximum number of results does not apply. Overlays are not supported.
+     *
+     * @param options the limits of the calculation
+     * @throws IllegalArgumentException if a node does not exist, {@code maxHops} is negative or the {@code options}
+     *                                  have a non-empty overlay
+     */
+    ShortestPath shortestPathWithMaxHops(Graph graph, String source, String target, int maxHops, QueryOptions options);
 }
@@ -1,30 +1,123 @@
 package com.alejokf.graphs.application.shortestpath;
 
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.profiling.QueryProfile;
+import com.alejokf.graphs.domain.IndexedGraph;
 import com.alejokf.graphs.domain.Node;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Class representing all the shortest distances on a graph starting from the node {@code source} and to all other
  * reachable nodes in the graph
+ * <p>
+ * Distances and predecessors are kept in primitive arrays indexed by the node ids of the {@link IndexedGraph}, so
+ * the memory is linear in the number of nodes. {@link ShortestPath}s are created when requested, and their nodes are
+ * only rebuilt from the predecessors if asked for.
+ * <p>
+ * If the calculation stopped because of a limit of its {@link com.alejokf.graphs.application.options.QueryOptions},
+ * only the nodes whose shortest distance was final by then have a shortest path, and the result is marked as
+ * truncated.
  */
 public class ShortestPaths {
 
-    // The source node
-    private final Node source;
-    // The shortest distances to all other reachable nodes. A map whose key is the label of the target node
-    private final Map<String, ShortestPath> shortestDistances;
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+    public static final int NO_PREDECESSOR = -1;
 
-    public ShortestPaths(Node source, Map<String, ShortestPath> shortestDistances) {
+    private final IndexedGraph graph;
+    // Id of the source node
+    private final int source;
+    // The shortest distance from the source to every node, or UNREACHABLE
+    private final long[] distances;
+    // The node before every node in its shortest path, or NO_PREDECESSOR
+    private final int[] predecessors;
+    // The reason why the calculation stopped before reaching every node, or null
+    private final TruncationReason truncation;
+    // The profile of the calculation, or null if it was not profiled
+    private final QueryProfile profile;
+
+    public ShortestPaths(IndexedGraph graph, int source, long[] distances, int[] predecessors) {
+        this(graph, source, distances, predecessors, null);
+    }
+
+    public ShortestPaths(IndexedGraph graph, int source, long[] distances, int[] predecessors,
+            TruncationReason truncation) {
+        this(graph, source, distances, predecessors, truncation, null);
+    }
+
+    public ShortestPaths(IndexedGraph graph, int source, long[] distances, int[] predecessors,
+            TruncationReason truncation, QueryProfile profile) {
+        this.graph = graph;
         this.source = source;
-        this.shortestDistances = shortestDistances;
+        this.distances = distances;
+        this.predecessors = predecessors;
+        this.truncation = truncation;
+        this.profile = profile;
     }
 
     public Node getSource() {
-        return source;
+        return graph.getNode(source);
+    }
+
+    /**
+     * @return true if the calculation stopped before reaching every node
+     */
+    public boolean isTruncated() {
+        return truncation != null;
     }
 
+    /**
+     * @return the reason why the calculation stopped before reaching every node, or null if it did not
+     */
+    public TruncationReason getTruncation() {
+        return truncation;
+    }
+
+    /**
+     * @return the profile of the calculation, or null if it was not profiled
+     */
+    public QueryProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @param node the label of the target node
+     * @return the shortest distance to the node, or null if it is not reachable
+     */
+    public Long getDistance(String node) {
+        int target = graph.indexOf(node);
+        return target < 0 || distances[target] == UNREACHABLE ? null : distances[target];
+    }
+
+    /**
+     * @param node the label of the target node
+     * @return the shortest path to the node, or null if it is not reachable
+     */
     public ShortestPath getShortestDistances(String node) {
-        return shortestDistances.get(node);
+        int target = graph.indexOf(node);
+        if (target < 0 || distances[target] == UNREACHABLE) {
+            return null;
+        }
+        return ShortestPath.lazy(graph.getNode(source), graph.getNode(target), distances[target],
+                () -> nodes(target));
+    }
+
+    /**
+     * Follows the predecessors from {@code target} until the source is reached. The path to the source itself is
+     * its shortest cycle, so the source is only the stop condition after the first step.
+     */
+    private List<Node> nodes(int target) {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(graph.getNode(target));
+        int node = predecessors[target];
+        while (node != source) {
+            nodes.add(graph.getNode(node));
+            node = predecessors[node];
+        }
+        nodes.add(graph.getNode(source));
+        Collections.reverse(nodes);
+        return Collections.unmodifiableList(nodes);
     }
 }
@@ -0,0 +1,189 @@
+package com.alejokf.graphs.application.shortestpath.impl;
+
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * All-pairs shortest paths of a dense graph, calculated with a blocked Floyd-Warshall algorithm on a flat adjacency
+ * matrix and cached in the {@link IndexedGraph}.
+ * <p>
+ * Calculating the matrix costs about as much as a single source calculation from every node, so it only pays off on
+ * graphs queried from many sources: the matrix is only calculated once the graph has served as many queries as nodes,
+ * which bounds the total cost to twice the cost of the cheapest choice. The matrix is held by a soft reference, so
+ * the garbage collector can reclaim it when memory runs low, and it is then calculated again on the next query.
+ * <p>
+ * The distances and predecessors are kept in two flat {@code n * n} arrays, in row-major order: the entry
+ * {@code i * n + j} belongs to the path from {@code i} to {@code j}. The diagonal starts unreachable instead of 0, so
+ * it ends with the shortest non-empty cycle of every node, like the single source calculations.
+ * <p>
+ * The matrix is processed in square tiles of {@value #TILE} x {@value #TILE} entries, so the three tiles updated
+ * together fit in the L2 cache. For every diagonal tile: the tile itself is updated first, then the tiles in its row
+ * and column in parallel, and then all the other tiles in parallel. It runs in O(n^3 / p) with p processors and uses
+ * 12 bytes per pair of nodes, so it is only used for graphs with few nodes and many edges, see {@link #isDense}.
+ */
+class DenseAllPairsShortestPaths {
+
+    /**
+     * Minimum share of the possible edges a graph must have to use the dense engine
+     */
+    static final double DENSITY_THRESHOLD = 0.25;
+    /**
+     * Below this size a single source calculation is cheap enough
+     */
+    static final int MIN_NODES = 64;
+    /**
+     * Above this size the matrix is too slow to calculate and too big to keep
+     */
+    static final int MAX_NODES = 2048;
+
+    private static final int TILE = 64;
+    // Unreachable distances inside the matrix: the sum of two of them doesn't overflow, so the inner loop has no check
+    private static final long INFINITY = Long.MAX_VALUE >> 2;
+
+    private final IndexedGraph graph;
+    // Queries served before the matrix was calculated
+    private final AtomicLong queries = new AtomicLong();
+    private volatile SoftReference<Matrix> cachedMatrix = new SoftReference<>(null);
+
+    private DenseAllPairsShortestPaths(IndexedGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * @return the all-pairs shortest paths of the {@code graph}, whose matrix is not calculated yet
+     */
+    static DenseAllPairsShortestPaths of(IndexedGraph graph) {
+        return graph.derive(DenseAllPairsShortestPaths.class, DenseAllPairsShortestPaths::new);
+    }
+
+    /**
+     * @return whether the {@code graph} has between {@value #MIN_NODES} and {@value #MAX_NODES} nodes, and at least
+     * {@value #DENSITY_THRESHOLD} of the possible edges
+     */
+    static boolean isDense(IndexedGraph graph) {
+        int size = graph.size();
+        return size >= MIN_NODES && size <= MAX_NODES
+                && graph.edgeCount() >= DENSITY_THRESHOLD * size * (size - 1);
+    }
+
+    /**
+     * Counts a query from {@code source}, and answers it from the matrix if the graph already served as many queries
+     * as nodes, calculating the matrix if it is not cached
+     *
+     * @param source the source node
+     * @return the shortest paths from {@code source}, copied from the matrix, or null if the query should be answered
+     * by a single source calculation
+     */
+    ShortestPaths shortestPaths(int source) {
+        Matrix cached = cachedMatrix.get();
+        if (cached == null) {
+            if (queries.incrementAndGet() <= graph.size()) {
+                return null;
+            }
+            cached = calculate();
+        }
+        int size = graph.size();
+        long[] rowDistances = Arrays.copyOfRange(cached.distances, source * size, (source + 1) * size);
+        int[] rowPredecessors = Arrays.copyOfRange(cached.predecessors, source * size, (source + 1) * size);
+        for (int node = 0; node < size; node++) {
+            if (rowDistances[node] >= INFINITY) {
+                rowDistances[node] = ShortestPaths.UNREACHABLE;
+                rowPredecessors[node] = ShortestPaths.NO_PREDECESSOR;
+            }
+        }
+        return new ShortestPaths(graph, source, rowDistances, rowPredecessors);
+    }
+
+    private synchronized Matrix calculate() {
+        Matrix cached = cachedMatrix.get();
+        if (cached != null) {
+            return cached;
+        }
+        int size = graph.size();
+        long[] matrix = new long[size * size];
+        int[] previous = new int[size * size];
+        Arrays.fill(matrix, INFINITY);
+        Arrays.fill(previous, ShortestPaths.NO_PREDECESSOR);
+        for (int node = 0; node < size; node++) {
+            for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                int entry = node * size + graph.outHead(edge);
+                if (graph.outWeight(edge) < matrix[entry]) {
+                    matrix[entry] = graph.outWeight(edge);
+                    previous[entry] = node;
+                }
+            }
+        }
+
+        int tiles = (size + TILE - 1) / TILE;
+        for (int k = 0; k < tiles; k++) {
+            int diagonal = k;
+            updateTile(matrix, previous, size, k, k, k);
+            IntStream.range(0, 2 * tiles).parallel().forEach(t -> {
+                int other = t % tiles;
+                if (other != diagonal) {
+                    if (t < tiles) {
+                        updateTile(matrix, previous, size, diagonal, other, diagonal);
+                    } else {
+                        updateTile(matrix, previous, size, other, diagonal, diagonal);
+                    }
+                }
+            });
+            IntStream.range(0, tiles * tiles).parallel().forEach(t -> {
+                int row = t / tiles;
+                int column = t % tiles;
+                if (row != diagonal && column != diagonal) {
+                    updateTile(matrix, previous, size, row, column, diagonal);
+                }
+            });
+        }
+        Matrix calculated = new Matrix(matrix, previous);
+        this.cachedMatrix = new SoftReference<>(calculated);
+        return calculated;
+    }
+
+    /**
+     * Relaxes the paths of the tile ({@code row}, {@code column}) through the nodes of the tile {@code k}
+     */
+    private static void updateTile(long[] matrix, int[] previous, int size, int row, int column, int k) {
+        int rowEnd = Math.min(size, (row + 1) * TILE);
+        int columnStart = column * TILE;
+        int columnEnd = Math.min(size, columnStart + TILE);
+        int kEnd = Math.min(size, (k + 1) * TILE);
+        for (int via = k * TILE; via < kEnd; via++) {
+            int viaRow = via * size;
+            for (int i = row * TILE; i < rowEnd; i++) {
+                int iRow = i * size;
+                long toVia = matrix[iRow + via];
+                if (toVia >= INFINITY) {
+                    continue;
+                }
+                for (int j = columnStart; j < columnEnd; j++) {
+                    long distance = toVia + matrix[viaRow + j];
+                    if (distance < matrix[iRow + j]) {
+                        matrix[iRow + j] = distance;
+                        previous[iRow + j] = previous[viaRow + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Distances and predecessors of every pair of nodes, in row-major order
+     */
+    private static final class Matrix {
+
+        private final long[] distances;
+        private final int[] predecessors;
+
+        private Matrix(long[] distances, int[] predecessors) {
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+    }
+}
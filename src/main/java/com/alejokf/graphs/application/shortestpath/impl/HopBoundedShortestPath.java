@@ -0,0 +1,149 @@
+package com.alejokf.graphs.application.shortestpath.impl;
+
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.application.support.DijkstraScratch;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Calculates the shortest path between two nodes with at most a given number of hops, with a Bellman-Ford algorithm
+ * limited to that number of rounds.
+ * <p>
+ * After round {@code r}, the distance of every node is the shortest distance of a non-empty trace from the source
+ * with at most {@code r} hops. Distances are kept in two primitive arrays, the ones of the previous round and the
+ * ones being calculated, which are swapped after every round. Every node pulls its new distance from its incoming
+ * edges, so the nodes of a round are calculated in parallel without any synchronization. If a round changes no
+ * distance, no later round would, and the calculation stops.
+ * <p>
+ * The predecessor chosen by every node in every round is kept to rebuild the path, since the shortest path with at
+ * most {@code r} hops does not necessarily extend the one with at most {@code r - 1}.
+ * <p>
+ * Every node calculated in a round is counted by the {@link QueryBudget} before the round starts, since the nodes of
+ * a round are calculated in parallel. If a limit is reached, the path is the shortest one with at most the number of
+ * hops of the rounds calculated by then.
+ */
+class HopBoundedShortestPath {
+
+    private static final long UNREACHABLE = DijkstraScratch.UNREACHABLE;
+    // Predecessor of a node whose distance did not change in a round
+    private static final int UNCHANGED = -1;
+    // Minimum number of edges of a graph for the rounds to be calculated in parallel
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final IndexedGraph graph;
+    private final int source;
+    private final int target;
+    private final QueryBudget budget;
+
+    HopBoundedShortestPath(IndexedGraph graph, int source, int target, QueryBudget budget) {
+        this.graph = graph;
+        this.source = source;
+        this.target = target;
+        this.budget = budget;
+    }
+
+    /**
+     * @param maxHops the maximum number of hops of the path
+     * @return the shortest path from the source to the target with at most {@code maxHops} hops, or null if there is
+     * none, marked as truncated if a limit of the budget was reached
+     */
+    ShortestPath find(int maxHops) {
+        int size = graph.size();
+        long[] previous = new long[size];
+        long[] current = new long[size];
+        Arrays.fill(previous, UNREACHABLE);
+        List<int[]> predecessors = new ArrayList<>();
+
+        for (int round = 0; round < maxHops && expandRound(); round++) {
+            int[] roundPredecessors = new int[size];
+            long[] from = previous;
+            long[] to = current;
+            IntStream nodes = IntStream.range(0, size);
+            if (graph.edgeCount() >= PARALLEL_THRESHOLD) {
+                nodes = nodes.parallel();
+            }
+            int changed = nodes.map(node -> relax(node, from, to, roundPredecessors) ? 1 : 0).sum();
+            if (changed == 0) {
+                break;
+            }
+            predecessors.add(roundPredecessors);
+            previous = current;
+            current = from;
+        }
+
+        if (previous[target] == UNREACHABLE) {
+            return null;
+        }
+        ShortestPath path = new ShortestPath(graph.getNode(source), graph.getNode(target), previous[target],
+                nodes(predecessors));
+        return budget.getTruncation() == null ? path : path.truncated(budget.getTruncation());
+    }
+
+    /**
+     * Counts every node of the graph as an expanded state of the next round
+     *
+     * @return whether the round can be calculated
+     */
+    private boolean expandRound() {
+        for (int node = 0; node < graph.size(); node++) {
+            if (!budget.expand()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the distance of {@code node} in a round from the distances of the previous one. The trace from the
+     * source starts with no distance, whatever the distance of the source itself is.
+     *
+     * @return whether the distance changed
+     */
+    private boolean relax(int node, long[] previous, long[] current, int[] predecessors) {
+        long best = previous[node];
+        int predecessor = UNCHANGED;
+        for (int edge = graph.inStart(node); edge < graph.inEnd(node); edge++) {
+            int tail = graph.inTail(edge);
+            long tailDistance = tail == source ? 0 : previous[tail];
+            if (tailDistance != UNREACHABLE && tailDistance + graph.inWeight(edge) < best) {
+                best = tailDistance + graph.inWeight(edge);
+                predecessor = tail;
+            }
+        }
+        current[node] = best;
+        predecessors[node] = predecessor;
+        return predecessor != UNCHANGED;
+    }
+
+    /**
+     * Rebuilds the path backwards from the target: in every round the node either kept its path of the previous
+     * round, or was reached from its predecessor with the path of the predecessor in the previous round
+     */
+    private List<Node> nodes(List<int[]> predecessors) {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(graph.getNode(target));
+        int node = target;
+        int round = predecessors.size() - 1;
+        while (true) {
+            while (predecessors.get(round)[node] == UNCHANGED) {
+                round--;
+            }
+            int predecessor = predecessors.get(round)[node];
+            nodes.add(graph.getNode(predecessor));
+            if (predecessor == source) {
+                break;
+            }
+            node = predecessor;
+            round--;
+        }
+        Collections.reverse(nodes);
+        return nodes;
+    }
+}
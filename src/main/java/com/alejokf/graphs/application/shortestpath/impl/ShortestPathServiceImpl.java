@@ -1,22 +1,21 @@
 package com.alejokf.graphs.application.shortestpath.impl;
 
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.profiling.QueryProfiler;
+import com.alejokf.graphs.application.reachability.ReachabilityIndex;
 import com.alejokf.graphs.application.shortestpath.ShortestPath;
 import com.alejokf.graphs.application.shortestpath.ShortestPathService;
 import com.alejokf.graphs.application.shortestpath.ShortestPaths;
-import com.alejokf.graphs.domain.Edge;
+import com.alejokf.graphs.application.support.DijkstraScratch;
+import com.alejokf.graphs.application.support.DijkstraScratchPool;
 import com.alejokf.graphs.domain.Graph;
-import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.WeightOverlay;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.PriorityQueue;
-import java.util.Set;
 
 /**
  * Service to calculate graph shortest paths
@@ -25,144 +24,190 @@ import java.util.Set;
 public class ShortestPathServiceImpl implements ShortestPathService {
 
     public ShortestPaths shortestPath(Graph graph, String start) {
-        Node startNode = graph.getNodes().get(start);
-        if (startNode == null) {
-            throw new IllegalArgumentException("Start node does not exist");
-        }
-        return calculateShortestPaths(graph, startNode);
+        return shortestPath(graph, start, QueryOptions.NONE);
     }
 
     /**
-     * Calculates all shortest paths on graph {@code graph} starting from node {@code source}
-     * <p>
-     * The implementation uses Dijkstra's algorithm, optimized by using a Heap data structure, which maintains the
-     * non-processed nodes ordered by the smallest Dijkstra's greedy score of its incoming edges.
-     * This optimization changes the algorithm running time from O(e*n) to O(e*lon(n)), with e = the number of edges
-     * and n = the number of nodes.
+     * {@inheritDoc}
      * <p>
-     * There is variation in this case: the distance from and to the same node is not 0. Instead, a non-empty trace
-     * starting and ending in the same node needs to exist to calculate the shortest distance.
-     *
-     * @param graph  the graph to perform the shortest paths calculation
-     * @param source the source node
-     * @return the shortest paths starting from node {@code source}
+     * Dense graphs (see {@link DenseAllPairsShortestPaths#isDense}) queried without limits, profiling nor overlay
+     * switch to the all-pairs shortest paths of the graph once they have served as many queries as nodes, see
+     * {@link DenseAllPairsShortestPaths}: all of them are then calculated at once, and every later query only copies a
+     * row of the matrix. Other queries use Dijkstra's algorithm.
      */
-    private ShortestPaths calculateShortestPaths(Graph graph, Node source) {
-        // Set Greedy Score on edges and Heap Score on nodes for every edge starting from the source node and its head.
-        source.getEdgesFrom().forEach(edge -> {
-            edge.setDijkstraGreedyScore(edge.getWeight());
-            edge.getHead().setHeapScore(edge.getWeight());
-        });
-
-        // Processed nodes are those whose shortest path from the source has already been calculated
-        Set<Node> processedNodes = new HashSet<>();
-
-        // Map with the calculated shortest distances. The key is the target node.
-        Map<String, ShortestPath> shortestDistances = new HashMap<>();
-
-        // Heap to maintain the non processed nodes ordered by the minimum Dijkstra greedy score of its edges coming
-        // from the set of non-processed nodes
-        PriorityQueue<Node> minNodesHeap = new PriorityQueue<>(Comparator.comparing(Node::getHeapScore));
-        minNodesHeap.addAll(graph.getNodes().values());
-
-        // Initially, source node is not in the set of non-processed nodes
-        boolean isSourceProcessed = false;
-
-        while (shortestDistances.size() < graph.getNodes().size()) {
-            Node minNode = minNodesHeap.poll();
-
-            // If there are no more edges whose tail is the set of non-processed nodes and the head is in the set of
-            // processed nodes, we set null as the distance to the remaining non-processed nodes, meaning there is no
-            // path between the source node and that node
-            if (minNode == null) {
-                for (Node node : graph.getNodes().values()) {
-                    if (!processedNodes.contains(node)) {
-                        processedNodes.add(node);
-                        shortestDistances.put(node.getLabel(), null);
-                    }
-                }
-                continue;
+    public ShortestPaths shortestPath(Graph graph, String start, QueryOptions options) {
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int startNode = indexedGraph.indexOf(start);
+        if (startNode < 0) {
+            throw new IllegalArgumentException("Start node does not exist");
+        }
+        if (options.isUnlimited() && DenseAllPairsShortestPaths.isDense(indexedGraph)) {
+            ShortestPaths shortestPaths = DenseAllPairsShortestPaths.of(indexedGraph).shortestPaths(startNode);
+            if (shortestPaths != null) {
+                return shortestPaths;
             }
+        }
+        QueryProfiler profiler = options.isProfiling() ?
+                QueryProfiler.start("shortestPath " + start, "initialize") : null;
+        WeightOverlay.EdgeOverrides overrides = options.getOverlay().isEmpty() ? null :
+                options.getOverlay().resolve(indexedGraph);
+        return calculateShortestPaths(indexedGraph, startNode, options, overrides, profiler);
+    }
 
-            Optional<Edge> minEdgeOpt = findMinEdge(minNode, processedNodes, isSourceProcessed, source);
-            if (minEdgeOpt.isPresent()) {
-                Edge minEdge = minEdgeOpt.get();
-                Node nodeFrom = minEdge.getOppositeNode(minNode);
-
-                if (minNode.equals(source)) {
-                    isSourceProcessed = true;
-                }
-
-                processedNodes.add(minNode);
-
-                ShortestPath nodeFromShortestPath = shortestDistances.get(nodeFrom.getLabel());
-                Long previousDistance = nodeFromShortestPath != null ? nodeFromShortestPath.getDistance() : 0L;
-                List<Node> actualPath = nodeFromShortestPath != null ? nodeFromShortestPath.getNodes() :
-                        new ArrayList<>(List.of(source));
-                actualPath.add(minNode);
-
-                shortestDistances.put(minNode.getLabel(), new ShortestPath(source, minNode,
-                        previousDistance + minEdge.getWeight(), actualPath));
+    public List<ShortestPath> kShortestPaths(Graph graph, String source, String target, int k) {
+        return kShortestPaths(graph, source, target, k, QueryOptions.NONE);
+    }
 
-                // minNode has been added to the set of non-processed nodes. There are now new edges whose tail is
-                // in the set of non-processed nodes and the head is in the set of processed nodes.
-                // This can change the heap score of the node, which is the heap key. Therefore, we need to remove
-                // those edges to the heap, recalculate Dijkstra Greedy Score for those edges, and add them to he
-                // heap again.
-                updateHeap(minNodesHeap, minNode, graph.getNodes(), processedNodes, shortestDistances);
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The implementation uses Yen's algorithm, see {@link YenKShortestPaths}.
+     */
+    public List<ShortestPath> kShortestPaths(Graph graph, String source, String target, int k,
+            QueryOptions options) {
+        if (!options.getOverlay().isEmpty()) {
+            throw new IllegalArgumentException("Overlays are not supported on k shortest paths");
+        }
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int sourceNode = indexedGraph.indexOf(source);
+        if (sourceNode < 0) {
+            throw new IllegalArgumentException("Source node does not exist");
         }
+        int targetNode = indexedGraph.indexOf(target);
+        if (targetNode < 0) {
+            throw new IllegalArgumentException("Target node does not exist");
+        }
+        if (!ReachabilityIndex.of(indexedGraph).canReach(sourceNode, targetNode)) {
+            return List.of();
+        }
+        return new YenKShortestPaths(indexedGraph, sourceNode, targetNode, QueryBudget.start(options)).find(k);
+    }
 
-        return new ShortestPaths(source, shortestDistances);
+    public ShortestPath shortestPathWithMaxHops(Graph graph, String source, String target, int maxHops) {
+        return shortestPathWithMaxHops(graph, source, target, maxHops, QueryOptions.NONE);
     }
 
     /**
-     * Finds the edge with the minimum Dijkstra Greedy Score of the provided {@code head} node, whose tail is in the
-     * set of non-processed nodes.
+     * {@inheritDoc}
      * <p>
-     * There is a special case to consider: The source node is not considered to be processed initially, but its
-     * outgoing edges are considered when calculating the scores.
-     *
-     * @param head              the provided head node
-     * @param processedNodes    the set of processed nodes
-     * @param isSourceProcessed flag indicating if the source node has already been processed
-     * @param source            the source node
-     * @return the min edge with the minimum Dijkstra Greedy Score of the provided {@code head} node
+     * The implementation uses a Bellman-Ford algorithm limited to {@code maxHops} rounds, see
+     * {@link HopBoundedShortestPath}.
      */
-    private Optional<Edge> findMinEdge(final Node head, final Set<Node> processedNodes, boolean isSourceProcessed,
-            Node source) {
-        return head.getEdgesTo().stream()
-                .filter(edge -> (!isSourceProcessed && source.equals(edge.getTail())) || processedNodes.contains(edge.getTail()))
-                .min(Comparator.comparing(Edge::getDijkstraGreedyScore));
+    public ShortestPath shortestPathWithMaxHops(Graph graph, String source, String target, int maxHops,
+            QueryOptions options) {
+        if (maxHops < 0) {
+            throw new IllegalArgumentException("The maximum number of hops can't be negative");
+        }
+        if (!options.getOverlay().isEmpty()) {
+            throw new IllegalArgumentException("Overlays are not supported on hop-bounded shortest paths");
+        }
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int sourceNode = indexedGraph.indexOf(source);
+        if (sourceNode < 0) {
+            throw new IllegalArgumentException("Source node does not exist");
+        }
+        int targetNode = indexedGraph.indexOf(target);
+        if (targetNode < 0) {
+            throw new IllegalArgumentException("Target node does not exist");
+        }
+        if (!ReachabilityIndex.of(indexedGraph).canReach(sourceNode, targetNode)) {
+            return null;
+        }
+        return new HopBoundedShortestPath(indexedGraph, sourceNode, targetNode, QueryBudget.start(options))
+                .find(maxHops);
     }
 
     /**
-     * Updates the heap score of the nodes in the Heap, having edges whose tail is in the set of non-processed nodes
-     * and the head is in the set of processed nodes.
+     * Calculates all shortest paths on graph {@code graph} starting from node {@code source}
+     * <p>
+     * The implementation uses Dijkstra's algorithm on the {@link IndexedGraph}, with the indexed binary heap of a
+     * {@link DijkstraScratch} borrowed from the {@link DijkstraScratchPool} of the graph, which supports decreasing
+     * the key of a node in place. The running time is O(e*log(n)), with e = the number of edges and n = the number of
+     * nodes. The distance and predecessor of every node are copied to the result when it is processed, i.e. when they
+     * are final.
+     * <p>
+     * There is variation in this case: the distance from and to the same node is not 0. Instead, a non-empty trace
+     * starting and ending in the same node needs to exist to calculate the shortest distance. That's why the search
+     * starts with the outgoing edges of the source, and the source itself is processed like any other node if it is
+     * reached again.
+     * <p>
+     * Every calculation borrows its own scratch, so shortest paths can be calculated concurrently on the same graph.
+     * Only the nodes reachable from the source are ever added to the heap.
+     * <p>
+     * If a limit of the {@code options} is reached, the nodes still in the heap have no final distance, so they are
+     * left out of the result.
+     * <p>
+     * If the calculation is profiled, the {@code profiler} counts the heap operations and relaxed edges, and is null
+     * otherwise.
+     * <p>
+     * The {@code overrides} of a {@link WeightOverlay} are only looked up for the nodes with changed edges.
      *
-     * @param minNodesHeap      the heap having the nodes ordered by minimum Dijkstra Greedy Score
-     * @param movedNode         the moved node
-     * @param allNodes          Map with all nodes of the graph, whose key is the node label
-     * @param processedNodes    Map with the processed nodes, whose key is the node label
-     * @param shortestDistances Map with the currently calculated shortest distances, whose key is the target node label
+     * @param graph     the graph to perform the shortest paths calculation
+     * @param source    the source node
+     * @param options   the limits of the calculation
+     * @param overrides the changed edges of the graph, or null
+     * @param profiler  the profiler of the calculation, or null
+     * @return the shortest paths starting from node {@code source}
      */
-    private void updateHeap(PriorityQueue<Node> minNodesHeap, Node movedNode, Map<String, Node> allNodes,
-            Set<Node> processedNodes, Map<String, ShortestPath> shortestDistances) {
-        movedNode.getEdgesFrom().forEach(edge -> {
-            Node head = edge.getHead();
-
-            if (allNodes.containsKey(head.getLabel()) && !processedNodes.contains(head)) {
-                ShortestPath movedShortestPath = shortestDistances.get(movedNode.getLabel());
-                if (movedShortestPath != null) {
-                    minNodesHeap.remove(head);
-
-                    edge.setDijkstraGreedyScore(movedShortestPath.getDistance() + edge.getWeight());
-                    long newScore = Math.min(head.getHeapScore(), edge.getDijkstraGreedyScore());
-                    head.setHeapScore(newScore);
+    private ShortestPaths calculateShortestPaths(IndexedGraph graph, int source, QueryOptions options,
+            WeightOverlay.EdgeOverrides overrides, QueryProfiler profiler) {
+        long[] distances = new long[graph.size()];
+        int[] predecessors = new int[graph.size()];
+        Arrays.fill(distances, ShortestPaths.UNREACHABLE);
+        Arrays.fill(predecessors, ShortestPaths.NO_PREDECESSOR);
+
+        QueryBudget budget = QueryBudget.start(options);
+        if (profiler != null) {
+            profiler.phase("search");
+        }
+        DijkstraScratchPool scratches = DijkstraScratchPool.of(graph);
+        DijkstraScratch scratch = scratches.borrow();
+        try {
+            relaxEdges(graph, source, 0, scratch, overrides, profiler);
+            while (scratch.hasNext()) {
+                if (!budget.expand()) {
+                    break;
+                }
+                int node = scratch.next();
+                if (profiler != null) {
+                    profiler.heapRemove();
+                    profiler.statePopped();
+                }
+                distances[node] = scratch.distance(node);
+                predecessors[node] = scratch.predecessor(node);
+                relaxEdges(graph, node, distances[node], scratch, overrides, profiler);
+            }
+        } finally {
+            scratch.reset();
+            scratches.release(scratch);
+        }
+        return new ShortestPaths(graph, source, distances, predecessors, budget.getTruncation(),
+                profiler != null ? profiler.finish() : null);
+    }
 
-                    minNodesHeap.add(head);
+    private static void relaxEdges(IndexedGraph graph, int node, long distance, DijkstraScratch scratch,
+            WeightOverlay.EdgeOverrides overrides, QueryProfiler profiler) {
+        boolean changed = overrides != null && overrides.changes(node);
+        for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+            if (changed && overrides.isRemoved(edge)) {
+                continue;
+            }
+            int head = graph.outHead(edge);
+            long headDistance = distance + (changed ? overrides.weight(edge, graph.outWeight(edge)) :
+                    graph.outWeight(edge));
+            boolean inserted = scratch.distance(head) == DijkstraScratch.UNREACHABLE;
+            if (scratch.relax(head, headDistance, node) && profiler != null) {
+                if (inserted) {
+                    profiler.heapInsert();
+                    profiler.statePushed();
+                } else {
+                    profiler.heapDecreaseKey();
                 }
             }
-        });
+        }
+        if (profiler != null) {
+            profiler.edgesRelaxed(graph.outDegree(node));
+            profiler.frontier(scratch.size());
+        }
     }
 }
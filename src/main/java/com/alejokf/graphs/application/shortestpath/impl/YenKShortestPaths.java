@@ -0,0 +1,287 @@
+package com.alejokf.graphs.application.shortestpath.impl;
+
+import com.alejokf.graphs.application.options.QueryBudget;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.application.support.DijkstraScratch;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Calculates the k shortest loopless paths between two nodes with Yen's algorithm.
+ * <p>
+ * Every new path is a deviation of the previously found one: for every node of that path (the spur node), the part
+ * of the path up to it (the root path) is kept, and a new shortest path from the spur node to the target is searched
+ * without the nodes of the root path and without the edges that the already found paths with the same root path use
+ * next. Those exclusions are kept in node and edge masks which are set and cleared for every spur search, so the
+ * graph is never copied.
+ * <p>
+ * Every spur search is an A* search guided by the shortest distance from every node to the target, calculated once
+ * with a backwards Dijkstra search. Removing nodes and edges can only make distances longer, so that distance is an
+ * admissible and consistent heuristic, and the spur searches explore little more than the paths they return.
+ * <p>
+ * If the source and the target are the same node, the paths are the loopless cycles through that node.
+ * <p>
+ * Every node processed by a search is counted by the {@link QueryBudget}. If a limit is reached, the candidates not
+ * yet chosen are dropped, since a spur search left unfinished could have found a shorter one, and only the paths
+ * already found are returned.
+ */
+class YenKShortestPaths {
+
+    private static final long UNREACHABLE = DijkstraScratch.UNREACHABLE;
+
+    private final IndexedGraph graph;
+    private final int source;
+    private final int target;
+    private final QueryBudget budget;
+
+    // Shortest distance from every node to the target
+    private final long[] distancesToTarget;
+    private final DijkstraScratch scratch;
+    private final BitSet excludedNodes;
+    private final BitSet excludedEdges;
+
+    YenKShortestPaths(IndexedGraph graph, int source, int target, QueryBudget budget) {
+        this.graph = graph;
+        this.source = source;
+        this.target = target;
+        this.budget = budget;
+        this.scratch = new DijkstraScratch(graph.size());
+        this.excludedNodes = new BitSet(graph.size());
+        this.excludedEdges = new BitSet(graph.edgeCount());
+        this.distancesToTarget = distancesToTarget();
+    }
+
+    /**
+     * @param k the maximum number of paths
+     * @return up to {@code k} loopless paths from the source to the target, ordered by distance, marked as truncated
+     * if a limit of the budget was reached
+     */
+    List<ShortestPath> find(int k) {
+        if (k < 1 || budget.getTruncation() != null) {
+            return List.of();
+        }
+        List<Path> paths = new ArrayList<>();
+        Path first = spurPath(source);
+        if (first == null) {
+            return List.of();
+        }
+        paths.add(first);
+
+        PriorityQueue<Path> candidates = new PriorityQueue<>(
+                Comparator.comparingLong((Path path) -> path.distance).thenComparingInt(path -> path.edges.length));
+        Set<Path> seen = new HashSet<>();
+        seen.add(first);
+
+        search:
+        while (paths.size() < k && budget.acceptsMoreResults(paths.size())) {
+            Path previous = paths.get(paths.size() - 1);
+            long rootDistance = 0;
+            for (int i = 0; i < previous.edges.length; i++) {
+                int spurNode = previous.nodes[i];
+
+                for (Path path : paths) {
+                    if (path.edges.length > i && path.sharesRoot(previous, i)) {
+                        excludedEdges.set(path.edges[i]);
+                    }
+                }
+                for (int j = 0; j < i; j++) {
+                    if (previous.nodes[j] != target) {
+                        excludedNodes.set(previous.nodes[j]);
+                    }
+                }
+
+                Path spur = spurPath(spurNode);
+                excludedEdges.clear();
+                excludedNodes.clear();
+                if (budget.getTruncation() != null) {
+                    break search;
+                }
+                if (spur != null) {
+                    Path candidate = previous.root(i, rootDistance).append(spur);
+                    if (seen.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+
+                rootDistance += graph.outWeight(previous.edges[i]);
+            }
+
+            Path next = candidates.poll();
+            if (next == null) {
+                break;
+            }
+            paths.add(next);
+        }
+
+        TruncationReason truncation = budget.getTruncation();
+        List<ShortestPath> result = new ArrayList<>();
+        for (Path path : paths) {
+            ShortestPath shortestPath = toShortestPath(path);
+            result.add(truncation == null ? shortestPath : shortestPath.truncated(truncation));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the shortest non-empty path from {@code spurNode} to the target avoiding the excluded nodes and edges,
+     * and the spur node itself unless it is the target. Returns null as well if a limit of the budget is reached.
+     */
+    private Path spurPath(int spurNode) {
+        try {
+            for (int edge = graph.outStart(spurNode); edge < graph.outEnd(spurNode); edge++) {
+                relax(spurNode, edge, 0);
+            }
+            while (scratch.hasNext()) {
+                if (!budget.expand()) {
+                    return null;
+                }
+                int node = scratch.next();
+                if (node == target) {
+                    return toPath(spurNode);
+                }
+                long distance = scratch.distance(node) - distancesToTarget[node];
+                for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                    relax(spurNode, edge, distance);
+                }
+            }
+            return null;
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    /**
+     * Relaxes an edge in the A* search. The key of every node is its distance from the spur node plus its distance
+     * to the target, and the predecessor stored for every node is the edge it is reached with.
+     */
+    private void relax(int spurNode, int edge, long tailDistance) {
+        int head = graph.outHead(edge);
+        if (excludedEdges.get(edge) || excludedNodes.get(head) || (head == spurNode && head != target)
+                || distancesToTarget[head] == UNREACHABLE) {
+            return;
+        }
+        scratch.relax(head, tailDistance + graph.outWeight(edge) + distancesToTarget[head], edge);
+    }
+
+    private Path toPath(int spurNode) {
+        List<Integer> edges = new ArrayList<>();
+        int node = target;
+        do {
+            int edge = scratch.predecessor(node);
+            edges.add(edge);
+            node = graph.outTail(edge);
+        } while (node != spurNode);
+
+        int[] pathEdges = new int[edges.size()];
+        int[] pathNodes = new int[edges.size() + 1];
+        pathNodes[0] = spurNode;
+        long distance = 0;
+        for (int i = 0; i < pathEdges.length; i++) {
+            pathEdges[i] = edges.get(edges.size() - 1 - i);
+            pathNodes[i + 1] = graph.outHead(pathEdges[i]);
+            distance += graph.outWeight(pathEdges[i]);
+        }
+        return new Path(pathNodes, pathEdges, distance);
+    }
+
+    /**
+     * Backwards Dijkstra search from the target, following the incoming edges. If a limit of the budget is reached,
+     * the distances are incomplete, and no path is searched.
+     */
+    private long[] distancesToTarget() {
+        long[] distances = new long[graph.size()];
+        Arrays.fill(distances, UNREACHABLE);
+        try {
+            scratch.relax(target, 0, DijkstraScratch.NO_PREDECESSOR);
+            while (scratch.hasNext()) {
+                if (!budget.expand()) {
+                    break;
+                }
+                int node = scratch.next();
+                long distance = scratch.distance(node);
+                distances[node] = distance;
+                for (int edge = graph.inStart(node); edge < graph.inEnd(node); edge++) {
+                    scratch.relax(graph.inTail(edge), distance + graph.inWeight(edge), node);
+                }
+            }
+        } finally {
+            scratch.reset();
+        }
+        return distances;
+    }
+
+    private ShortestPath toShortestPath(Path path) {
+        List<Node> nodes = new ArrayList<>();
+        for (int node : path.nodes) {
+            nodes.add(graph.getNode(node));
+        }
+        return new ShortestPath(graph.getNode(source), graph.getNode(target), path.distance, nodes);
+    }
+
+    /**
+     * A path, as its sequence of nodes and the sequence of edges between them
+     */
+    private static final class Path {
+
+        private final int[] nodes;
+        private final int[] edges;
+        private final long distance;
+
+        private Path(int[] nodes, int[] edges, long distance) {
+            this.nodes = nodes;
+            this.edges = edges;
+            this.distance = distance;
+        }
+
+        /**
+         * @return true if the first {@code length} edges of both paths are the same
+         */
+        private boolean sharesRoot(Path other, int length) {
+            return Arrays.equals(edges, 0, length, other.edges, 0, length);
+        }
+
+        /**
+         * @return the path with the first {@code length} edges of this path
+         */
+        private Path root(int length, long rootDistance) {
+            return new Path(Arrays.copyOf(nodes, length + 1), Arrays.copyOf(edges, length), rootDistance);
+        }
+
+        /**
+         * @return this path followed by {@code other}, which starts on the last node of this path
+         */
+        private Path append(Path other) {
+            int[] newNodes = Arrays.copyOf(nodes, nodes.length + other.edges.length);
+            System.arraycopy(other.nodes, 1, newNodes, nodes.length, other.edges.length);
+            int[] newEdges = Arrays.copyOf(edges, edges.length + other.edges.length);
+            System.arraycopy(other.edges, 0, newEdges, edges.length, other.edges.length);
+            return new Path(newNodes, newEdges, distance + other.distance);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(edges, ((Path) o).edges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+    }
+}
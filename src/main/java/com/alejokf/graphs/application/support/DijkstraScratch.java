@@ -0,0 +1,130 @@
+package com.alejokf.graphs.application.support;
+
+import java.util.Arrays;
+
+/**
+ * Reusable working state for a Dijkstra search on an {@link com.alejokf.graphs.domain.IndexedGraph}: tentative
+ * distances, predecessors and the heap of non-processed nodes.
+ * <p>
+ * Only the nodes touched by a search are reset by {@link #reset()}, so a single instance can be reused for many
+ * searches at a cost proportional to the explored region instead of the whole graph. An instance must not be shared
+ * between threads.
+ */
+public final class DijkstraScratch {
+
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+    public static final int NO_PREDECESSOR = -1;
+
+    private final long[] distances;
+    private final int[] predecessors;
+    private final IndexedMinHeap heap;
+    // The nodes whose distance has been set since the last reset
+    private int[] touched;
+    private int touchedCount;
+
+    public DijkstraScratch(int size) {
+        this.distances = new long[size];
+        this.predecessors = new int[size];
+        this.heap = new IndexedMinHeap(size);
+        this.touched = new int[Math.max(16, Math.min(size, 1024))];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(predecessors, NO_PREDECESSOR);
+    }
+
+    public int capacity() {
+        return distances.length;
+    }
+
+    /**
+     * Sets the tentative distance of {@code node} to {@code distance} if it improves the current one, and adds or
+     * moves the node in the heap accordingly
+     *
+     * @param node        the node id
+     * @param distance    the new tentative distance
+     * @param predecessor the node from which {@code node} is reached with that distance
+     * @return true if the tentative distance was improved
+     */
+    public boolean relax(int node, long distance, int predecessor) {
+        long current = distances[node];
+        if (distance >= current) {
+            return false;
+        }
+        if (current == UNREACHABLE) {
+            touch(node);
+        }
+        distances[node] = distance;
+        predecessors[node] = predecessor;
+        heap.insertOrDecrease(node, distance);
+        return true;
+    }
+
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    /**
+     * @return the number of non-processed nodes in the heap
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return the smallest tentative distance among the non-processed nodes
+     */
+    public long peekDistance() {
+        return heap.peekKey();
+    }
+
+    /**
+     * Removes from the heap the non-processed node with the smallest tentative distance, which becomes processed
+     *
+     * @return the node id
+     */
+    public int next() {
+        return heap.poll();
+    }
+
+    public long distance(int node) {
+        return distances[node];
+    }
+
+    public int predecessor(int node) {
+        return predecessors[node];
+    }
+
+    /**
+     * @return the number of nodes whose distance has been set since the last reset
+     */
+    public int touchedCount() {
+        return touchedCount;
+    }
+
+    /**
+     * @param i the position, in the range {@code [0, touchedCount())}
+     * @return the i-th node whose distance has been set since the last reset
+     */
+    public int touched(int i) {
+        return touched[i];
+    }
+
+    /**
+     * Leaves the scratch ready for a new search
+     */
+    public void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int node = touched[i];
+            distances[node] = UNREACHABLE;
+            predecessors[node] = NO_PREDECESSOR;
+        }
+        touchedCount = 0;
+        heap.clear();
+    }
+
+    private void touch(int node) {
+        if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, Math.min(distances.length, touched.length * 2));
+        }
+        touched[touchedCount++] = node;
+    }
+}
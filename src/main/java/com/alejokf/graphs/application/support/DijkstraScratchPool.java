@@ -0,0 +1,50 @@
+package com.alejokf.graphs.application.support;
+
+import com.alejokf.graphs.domain.IndexedGraph;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of the {@link DijkstraScratch}es of an {@link IndexedGraph}, shared by all the searches on the graph.
+ * <p>
+ * Allocating a scratch costs O(n), while reusing one only costs the region explored by the previous search, so
+ * searches borrow a scratch, leave it reset, and release it. At most one idle scratch per processor is kept, so the
+ * memory retained by the graph is bounded whatever the number of threads that searched it. Scratches released when
+ * the pool is full are left to the garbage collector.
+ */
+public final class DijkstraScratchPool {
+
+    private final int size;
+    private final BlockingQueue<DijkstraScratch> idle;
+
+    private DijkstraScratchPool(IndexedGraph graph) {
+        this.size = graph.size();
+        this.idle = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param graph the graph
+     * @return the pool of scratches of the {@code graph}, created the first time it is requested
+     */
+    public static DijkstraScratchPool of(IndexedGraph graph) {
+        return graph.derive(DijkstraScratchPool.class, DijkstraScratchPool::new);
+    }
+
+    /**
+     * @return an idle scratch, or a new one if there is none
+     */
+    public DijkstraScratch borrow() {
+        DijkstraScratch scratch = idle.poll();
+        return scratch != null ? scratch : new DijkstraScratch(size);
+    }
+
+    /**
+     * Returns a scratch to the pool. The scratch must be reset, and must not be used after it is released.
+     *
+     * @param scratch the scratch
+     */
+    public void release(DijkstraScratch scratch) {
+        idle.offer(scratch);
+    }
+}
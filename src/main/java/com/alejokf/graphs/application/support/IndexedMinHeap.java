@@ -0,0 +1,146 @@
+package com.alejokf.graphs.application.support;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of node ids in the range {@code [0, capacity)}, ordered by a {@code long} key.
+ * <p>
+ * Every node can be in the heap at most once, and its position is tracked so that the key of a node already in the
+ * heap can be decreased in O(log(n)) instead of removing and adding it again.
+ */
+public final class IndexedMinHeap {
+
+    // The node ids in heap order
+    private final int[] heap;
+    // The key of every node in the heap, indexed by node id
+    private final long[] keys;
+    // The position of every node in the heap, indexed by node id, or -1 if the node is not in the heap
+    private final int[] positions;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new long[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * Adds the {@code node} with the provided {@code key}, or decreases its key if it is already in the heap with a
+     * bigger key
+     *
+     * @param node the node id
+     * @param key  the key of the node
+     * @return true if the node was added, false if it was already in the heap
+     */
+    public boolean insertOrDecrease(int node, long key) {
+        int position = positions[node];
+        if (position < 0) {
+            position = size++;
+            heap[position] = node;
+            positions[node] = position;
+            keys[node] = key;
+            siftUp(position);
+            return true;
+        }
+        if (key < keys[node]) {
+            keys[node] = key;
+            siftUp(position);
+        }
+        return false;
+    }
+
+    /**
+     * @return the node with the minimum key, without removing it
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * @return the minimum key in the heap
+     */
+    public long peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the node with the minimum key
+     *
+     * @return the node with the minimum key
+     */
+    public int poll() {
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes all nodes from the heap, in O(size) instead of O(capacity)
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        long key = keys[node];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = heap[parentPosition];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        long key = keys[node];
+        int half = size >>> 1;
+        while (position < half) {
+            int childPosition = 2 * position + 1;
+            int child = heap[childPosition];
+            int rightPosition = childPosition + 1;
+            if (rightPosition < size && keys[heap[rightPosition]] < keys[child]) {
+                childPosition = rightPosition;
+                child = heap[childPosition];
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            heap[position] = child;
+            positions[child] = position;
+            position = childPosition;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,353 @@
+package com.alejokf.graphs.domain;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable, compressed snapshot of the outgoing adjacency of a graph, for graphs too big to keep as an
+ * {@link IndexedGraph} in memory.
+ * <p>
+ * Node ids are the ones of the {@link IndexedGraph} the snapshot is built from, so its neighbors are already sorted
+ * by id. The adjacency of every node is stored in a byte stream as its degree followed by the gaps between
+ * consecutive heads, all of them encoded as varints (7 bits per byte, the highest bit set on every byte but the
+ * last). The first head is encoded relative to the node itself with a zig-zag encoding, so edges to nearby ids take
+ * a single byte whatever the size of the graph.
+ * <p>
+ * Weights are stored apart, in edge order, bit-packed as the difference with the minimum weight using the minimum
+ * width for the observed range: a graph whose weights are between 1 and 100 uses 7 bits per weight.
+ * <p>
+ * Varints can only be decoded sequentially, so the position of every {@value #SAMPLE_INTERVAL}th node in the byte
+ * stream (and of its first edge) is kept in a sampled offset index. Moving to a node decodes the degrees of at most
+ * {@value #SAMPLE_INTERVAL} - 1 nodes from its sample, skipping their heads. The edges are then read with an
+ * {@link EdgeCursor}, without materializing any list.
+ * <p>
+ * The nodes are kept as an {@link IndexedGraph} without edges (see {@link #getNodes()}), so results of searches on
+ * the compressed graph are labelled like the ones on the uncompressed graph.
+ */
+public final class CompressedGraph {
+
+    /**
+     * Number of nodes between two entries of the sampled offset index
+     */
+    public static final int SAMPLE_INTERVAL = 16;
+    private static final int SAMPLE_SHIFT = Integer.numberOfTrailingZeros(SAMPLE_INTERVAL);
+
+    // The nodes of the graph, without edges
+    private final IndexedGraph nodes;
+    private final int edgeCount;
+
+    // Degree and head gaps of every node, as varints
+    private final byte[] adjacency;
+    // Position in the adjacency of every sampled node, and the id of its first edge
+    private final int[] samplePositions;
+    private final int[] sampleEdges;
+
+    // Weight of every edge minus the minimum weight, packed in weightWidth bits
+    private final long[] weights;
+    private final long minWeight;
+    private final int weightWidth;
+
+    private CompressedGraph(IndexedGraph nodes, int edgeCount, byte[] adjacency, int[] samplePositions,
+            int[] sampleEdges, long[] weights, long minWeight, int weightWidth) {
+        this.nodes = nodes;
+        this.edgeCount = edgeCount;
+        this.adjacency = adjacency;
+        this.samplePositions = samplePositions;
+        this.sampleEdges = sampleEdges;
+        this.weights = weights;
+        this.minWeight = minWeight;
+        this.weightWidth = weightWidth;
+    }
+
+    /**
+     * Builds the compressed snapshot of the {@link IndexedGraph} of the provided {@code graph}, so the snapshot keeps
+     * its node ids, including the ones of a reordered graph (see
+     * {@link com.alejokf.graphs.application.reordering.GraphReorderingService}), whose nearby ids compress better.
+     *
+     * @param graph the graph
+     * @return the compressed snapshot of the graph
+     */
+    public static CompressedGraph of(Graph graph) {
+        Objects.requireNonNull(graph, "graph is required");
+        return of(graph.getIndexedGraph());
+    }
+
+    /**
+     * Builds the compressed snapshot of the outgoing adjacency of the provided {@code graph}
+     *
+     * @param graph the indexed graph
+     * @return the compressed snapshot of the graph
+     */
+    public static CompressedGraph of(IndexedGraph graph) {
+        Objects.requireNonNull(graph, "graph is required");
+        int nodeCount = graph.size();
+        int edgeCount = graph.edgeCount();
+
+        long minWeight = 0;
+        long maxWeight = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            long weight = graph.outWeight(edge);
+            if (edge == 0 || weight < minWeight) {
+                minWeight = weight;
+            }
+            if (edge == 0 || weight > maxWeight) {
+                maxWeight = weight;
+            }
+        }
+        // The range is read as unsigned, so it fits in 64 bits whatever the weights are
+        int weightWidth = 64 - Long.numberOfLeadingZeros(maxWeight - minWeight);
+        long[] weights = new long[(int) (((long) edgeCount * weightWidth + 63) >>> 6)];
+
+        int sampleCount = (nodeCount + SAMPLE_INTERVAL - 1) >>> SAMPLE_SHIFT;
+        int[] samplePositions = new int[sampleCount];
+        int[] sampleEdges = new int[sampleCount];
+        ByteBuffer adjacency = new ByteBuffer(nodeCount + edgeCount);
+
+        for (int node = 0; node < nodeCount; node++) {
+            if ((node & (SAMPLE_INTERVAL - 1)) == 0) {
+                samplePositions[node >>> SAMPLE_SHIFT] = adjacency.size();
+                sampleEdges[node >>> SAMPLE_SHIFT] = graph.outStart(node);
+            }
+            adjacency.writeVarint(graph.outDegree(node));
+            int previous = node;
+            for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                int head = graph.outHead(edge);
+                if (edge == graph.outStart(node)) {
+                    int delta = head - node;
+                    adjacency.writeVarint((delta << 1) ^ (delta >> 31));
+                } else {
+                    adjacency.writeVarint(head - previous);
+                }
+                previous = head;
+                writeBits(weights, (long) edge * weightWidth, weightWidth, graph.outWeight(edge) - minWeight);
+            }
+        }
+
+        Node[] labels = new Node[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            labels[node] = graph.getNode(node);
+        }
+        IndexedGraph nodes = IndexedGraph.of(labels, new int[0], new int[0], new long[0]);
+        return new CompressedGraph(nodes, edgeCount, adjacency.toArray(), samplePositions, sampleEdges, weights,
+                minWeight, weightWidth);
+    }
+
+    private static void writeBits(long[] words, long position, int width, long value) {
+        if (width == 0) {
+            return;
+        }
+        int word = (int) (position >>> 6);
+        int offset = (int) (position & 63);
+        words[word] |= value << offset;
+        if (offset + width > 64) {
+            words[word + 1] |= value >>> (64 - offset);
+        }
+    }
+
+    private long readWeight(int edge) {
+        if (weightWidth == 0) {
+            return minWeight;
+        }
+        long position = (long) edge * weightWidth;
+        int word = (int) (position >>> 6);
+        int offset = (int) (position & 63);
+        long value = weights[word] >>> offset;
+        if (offset + weightWidth > 64) {
+            value |= weights[word + 1] << (64 - offset);
+        }
+        long mask = weightWidth == 64 ? -1L : (1L << weightWidth) - 1;
+        return minWeight + (value & mask);
+    }
+
+    /**
+     * @return a new cursor over the edges of this graph. Cursors are not thread-safe, every thread needs its own
+     */
+    public EdgeCursor cursor() {
+        return new EdgeCursor();
+    }
+
+    /**
+     * Returns the nodes of the graph as an {@link IndexedGraph} without edges, to translate between labels and ids
+     *
+     * @return the nodes of the graph
+     */
+    public IndexedGraph getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return the number of bits used to store every weight
+     */
+    public int getWeightWidth() {
+        return weightWidth;
+    }
+
+    /**
+     * @return the bytes used by the adjacency, the weights and the offset index, without the nodes
+     */
+    public long sizeInBytes() {
+        return adjacency.length + 8L * weights.length + 4L * (samplePositions.length + sampleEdges.length);
+    }
+
+    /**
+     * @return the bits used by every edge, including its weight and its share of the degrees and the offset index
+     */
+    public double bitsPerEdge() {
+        return edgeCount == 0 ? 0 : 8.0 * sizeInBytes() / edgeCount;
+    }
+
+    /**
+     * Returns the bytes the outgoing adjacency of an {@link IndexedGraph} of the same size uses: an {@code int}
+     * offset per node, and an {@code int} head and a {@code long} weight per edge
+     *
+     * @return the bytes used by the uncompressed outgoing adjacency
+     */
+    public long uncompressedSizeInBytes() {
+        return 4L * (size() + 1) + 12L * edgeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d edges, %d bytes (%.2f bits per edge, %d bits per weight), "
+                        + "uncompressed %d bytes (%.2f bits per edge)", size(), edgeCount, sizeInBytes(),
+                bitsPerEdge(), weightWidth, uncompressedSizeInBytes(),
+                edgeCount == 0 ? 0 : 8.0 * uncompressedSizeInBytes() / edgeCount);
+    }
+
+    /**
+     * Cursor decoding the outgoing edges of a node sequentially.
+     * <p>
+     * Usage: {@code cursor.moveTo(node); while (cursor.next()) { use cursor.head() and cursor.weight() }}
+     */
+    public final class EdgeCursor {
+
+        private int position;
+        private int edge;
+        private int remaining;
+        private int head;
+        private boolean first;
+
+        private EdgeCursor() {
+        }
+
+        /**
+         * Positions the cursor before the first outgoing edge of {@code node}
+         *
+         * @param node the node id
+         * @return the out-degree of the node
+         */
+        public int moveTo(int node) {
+            int sample = node >>> SAMPLE_SHIFT;
+            position = samplePositions[sample];
+            edge = sampleEdges[sample];
+            for (int skipped = sample << SAMPLE_SHIFT; skipped < node; skipped++) {
+                int degree = readVarint();
+                edge += degree;
+                while (degree > 0) {
+                    if (adjacency[position++] >= 0) {
+                        degree--;
+                    }
+                }
+            }
+            remaining = readVarint();
+            head = node;
+            first = true;
+            // The edge id is incremented before reading every edge
+            edge--;
+            return remaining;
+        }
+
+        /**
+         * Decodes the next edge of the node
+         *
+         * @return true if there was a next edge, false if all the edges of the node were already read
+         */
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            edge++;
+            int gap = readVarint();
+            if (first) {
+                head += (gap >>> 1) ^ -(gap & 1);
+                first = false;
+            } else {
+                head += gap;
+            }
+            return true;
+        }
+
+        /**
+         * @return the head of the current edge
+         */
+        public int head() {
+            return head;
+        }
+
+        /**
+         * @return the weight of the current edge
+         */
+        public long weight() {
+            return readWeight(edge);
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = adjacency[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    /**
+     * Growable byte array used while the adjacency is encoded
+     */
+    private static final class ByteBuffer {
+
+        private byte[] bytes;
+        private int size;
+
+        private ByteBuffer(int capacity) {
+            this.bytes = new byte[Math.max(16, capacity)];
+        }
+
+        private void writeVarint(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
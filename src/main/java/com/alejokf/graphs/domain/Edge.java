@@ -12,7 +12,6 @@ public class Edge {
     private final Node tail;
     private final Node head;
     private final Long weight;
-    private Long dijkstraGreedyScore = Long.MAX_VALUE;
 
     public Edge(Node tail, Node head, Long weight) {
         Objects.requireNonNull(tail, "tail is required");
@@ -34,10 +33,6 @@ public class Edge {
         }
     }
 
-    public void cleanup() {
-        dijkstraGreedyScore = Long.MAX_VALUE;
-    }
-
     @Override
     public String toString() {
         return tail + " --(" + weight + ")--> " + head;
@@ -54,12 +49,4 @@ public class Edge {
     public Long getWeight() {
         return weight;
     }
-
-    public Long getDijkstraGreedyScore() {
-        return dijkstraGreedyScore;
-    }
-
-    public void setDijkstraGreedyScore(Long dijkstraGreedyScore) {
-        this.dijkstraGreedyScore = dijkstraGreedyScore;
-    }
 }
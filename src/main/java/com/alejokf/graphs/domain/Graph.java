@@ -22,6 +22,8 @@ public class Graph {
 
     private final Map<String, Node> nodes;
     private final List<Edge> edges;
+    // Array based snapshot of the graph, built on first use
+    private volatile IndexedGraph indexedGraph;
 
     public Graph(Map<String, Node> nodes, List<Edge> edges) {
         Objects.requireNonNull(nodes, "nodes are required");
@@ -30,19 +32,50 @@ public class Graph {
         this.edges = edges;
     }
 
-    public Map<String, Node> getNodes() {
-        return nodes;
+    /**
+     * Creates a graph whose {@link IndexedGraph} snapshot is already built, e.g. with its nodes reordered
+     *
+     * @param nodes        the nodes of the graph
+     * @param edges        the edges of the graph
+     * @param indexedGraph the snapshot of the same nodes and edges
+     */
+    public Graph(Map<String, Node> nodes, List<Edge> edges, IndexedGraph indexedGraph) {
+        this(nodes, edges);
+        Objects.requireNonNull(indexedGraph, "indexedGraph is required");
+        if (indexedGraph.size() != nodes.size() || indexedGraph.edgeCount() != edges.size()) {
+            throw new IllegalArgumentException("The indexed graph must have the same nodes and edges");
+        }
+        this.indexedGraph = indexedGraph;
     }
 
-    public void cleanup() {
-        nodes.values().forEach(Node::cleanup);
-        edges.forEach(Edge::cleanup);
+    public Map<String, Node> getNodes() {
+        return nodes;
     }
 
     public List<Edge> getEdges() {
         return edges;
     }
 
+    /**
+     * Returns the {@link IndexedGraph} snapshot of this graph. The snapshot is built the first time it is requested
+     * and then shared by all callers, so the graph is expected not to change after that.
+     *
+     * @return the indexed snapshot of this graph
+     */
+    public IndexedGraph getIndexedGraph() {
+        IndexedGraph result = indexedGraph;
+        if (result == null) {
+            synchronized (this) {
+                result = indexedGraph;
+                if (result == null) {
+                    result = IndexedGraph.of(this);
+                    indexedGraph = result;
+                }
+            }
+        }
+        return result;
+    }
+
     public void printGraph() {
         logger.info("Printing graph");
         for (Node node : nodes.values()) {
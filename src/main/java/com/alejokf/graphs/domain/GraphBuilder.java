@@ -0,0 +1,198 @@
+package com.alejokf.graphs.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Thread-safe builder of a {@link Graph}, fed with edges by any number of concurrent producers.
+ * <p>
+ * Labels are translated into temporary ids by a concurrent dictionary: looking up a known label takes no lock, and
+ * adding a new one only locks a single bin of the map. Edges are appended, as ids and weight, to a buffer of
+ * primitive arrays owned by the producing thread, so producers never contend on the edges and every edge takes 16
+ * bytes until the graph is built, instead of an {@link Edge} and two hash set entries.
+ * <p>
+ * {@link #build()} then sorts the labels in parallel, renumbers the edges of every buffer in label order (the order of
+ * {@link IndexedGraph#of(Graph)}) while compacting them into a single set of arrays, releasing every buffer as soon
+ * as it is copied, and builds the {@link IndexedGraph} snapshot. The {@link Node}s and {@link Edge}s are created last,
+ * in parallel, with every node filled by a single thread.
+ * <p>
+ * {@link #addEdge} can be called concurrently, but {@link #build()} must only be called once every producer is done,
+ * and after it happens-before the end of every producer (e.g. after joining their threads or futures).
+ */
+public final class GraphBuilder {
+
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Queue<EdgeBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<EdgeBuffer> buffer = ThreadLocal.withInitial(() -> {
+        EdgeBuffer threadBuffer = new EdgeBuffer();
+        buffers.add(threadBuffer);
+        return threadBuffer;
+    });
+    private volatile boolean built;
+
+    /**
+     * Adds an edge, and its nodes if they were not added yet. It can be called concurrently from many threads.
+     *
+     * @param tail   the label of the tail node
+     * @param head   the label of the head node
+     * @param weight the weight of the edge
+     */
+    public void addEdge(String tail, String head, long weight) {
+        Objects.requireNonNull(tail, "tail is required");
+        Objects.requireNonNull(head, "head is required");
+        if (built) {
+            throw new IllegalStateException("The graph was already built");
+        }
+        buffer.get().add(idOf(tail), idOf(head), weight);
+    }
+
+    /**
+     * Adds a node without edges, if it was not added yet. It can be called concurrently from many threads.
+     *
+     * @param label the label of the node
+     */
+    public void addNode(String label) {
+        Objects.requireNonNull(label, "label is required");
+        if (built) {
+            throw new IllegalStateException("The graph was already built");
+        }
+        idOf(label);
+    }
+
+    private int idOf(String label) {
+        Integer id = ids.get(label);
+        return id != null ? id : ids.computeIfAbsent(label, ignored -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Builds the graph with every node and edge added so far. The builder can't be used afterwards.
+     *
+     * @return the graph, with its {@link IndexedGraph} snapshot already built
+     */
+    public synchronized Graph build() {
+        if (built) {
+            throw new IllegalStateException("The graph was already built");
+        }
+        built = true;
+
+        String[] labels = new String[nextId.get()];
+        ids.forEach((label, id) -> labels[id] = label);
+        ids.clear();
+        String[] sortedLabels = labels.clone();
+        Arrays.parallelSort(sortedLabels);
+        Map<String, Integer> sortedIds = new HashMap<>(sortedLabels.length * 4 / 3 + 1);
+        for (int i = 0; i < sortedLabels.length; i++) {
+            sortedIds.put(sortedLabels[i], i);
+        }
+        int[] newIds = new int[labels.length];
+        IntStream.range(0, labels.length).parallel().forEach(id -> newIds[id] = sortedIds.get(labels[id]));
+
+        int edgeCount = buffers.stream().mapToInt(threadBuffer -> threadBuffer.size).sum();
+        int[] tails = new int[edgeCount];
+        int[] heads = new int[edgeCount];
+        long[] weights = new long[edgeCount];
+        int offset = 0;
+        for (EdgeBuffer threadBuffer = buffers.poll(); threadBuffer != null; threadBuffer = buffers.poll()) {
+            int start = offset;
+            EdgeBuffer copied = threadBuffer;
+            IntStream.range(0, copied.size).parallel().forEach(i -> {
+                tails[start + i] = newIds[copied.tails[i]];
+                heads[start + i] = newIds[copied.heads[i]];
+            });
+            System.arraycopy(copied.weights, 0, weights, start, copied.size);
+            offset += copied.size;
+            copied.release();
+        }
+
+        Node[] nodes = new Node[sortedLabels.length];
+        Arrays.parallelSetAll(nodes, id -> new Node(sortedLabels[id]));
+        IndexedGraph indexedGraph = IndexedGraph.of(nodes, tails, heads, weights);
+        return new Graph(nodeMap(nodes), edges(indexedGraph, nodes), indexedGraph);
+    }
+
+    private static Map<String, Node> nodeMap(Node[] nodes) {
+        Map<String, Node> nodeMap = new HashMap<>(nodes.length * 4 / 3 + 1);
+        for (Node node : nodes) {
+            nodeMap.put(node.getLabel(), node);
+        }
+        return nodeMap;
+    }
+
+    /**
+     * Creates the edges in the order of the outgoing adjacency of the {@code graph}, and adds them to their nodes: the
+     * outgoing edges of every node are added by the thread creating them, and the incoming edges of every node are
+     * then added by a single thread, once the edges are grouped by head
+     */
+    private static List<Edge> edges(IndexedGraph graph, Node[] nodes) {
+        Edge[] edges = new Edge[graph.edgeCount()];
+        IntStream.range(0, nodes.length).parallel().forEach(node -> {
+            Node tail = nodes[node];
+            for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                edges[edge] = new Edge(tail, nodes[graph.outHead(edge)], graph.outWeight(edge));
+                tail.addEdgeFrom(edges[edge]);
+            }
+        });
+
+        // Edges of every head, in the order of the tails, like the incoming adjacency
+        int[] headOffsets = new int[nodes.length + 1];
+        for (int edge = 0; edge < edges.length; edge++) {
+            headOffsets[graph.outHead(edge) + 1]++;
+        }
+        for (int node = 0; node < nodes.length; node++) {
+            headOffsets[node + 1] += headOffsets[node];
+        }
+        int[] positions = Arrays.copyOf(headOffsets, nodes.length);
+        int[] byHead = new int[edges.length];
+        for (int edge = 0; edge < edges.length; edge++) {
+            byHead[positions[graph.outHead(edge)]++] = edge;
+        }
+        IntStream.range(0, nodes.length).parallel().forEach(node -> {
+            for (int i = headOffsets[node]; i < headOffsets[node + 1]; i++) {
+                nodes[node].addEdgeTo(edges[byHead[i]]);
+            }
+        });
+        return new ArrayList<>(Arrays.asList(edges));
+    }
+
+    /**
+     * Edges added by a single thread, as growable primitive arrays
+     */
+    private static final class EdgeBuffer {
+
+        private int[] tails = new int[INITIAL_BUFFER_CAPACITY];
+        private int[] heads = new int[INITIAL_BUFFER_CAPACITY];
+        private long[] weights = new long[INITIAL_BUFFER_CAPACITY];
+        private int size;
+
+        private void add(int tail, int head, long weight) {
+            if (size == tails.length) {
+                int capacity = tails.length * 2;
+                tails = Arrays.copyOf(tails, capacity);
+                heads = Arrays.copyOf(heads, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            tails[size] = tail;
+            heads[size] = head;
+            weights[size] = weight;
+            size++;
+        }
+
+        private void release() {
+            tails = null;
+            heads = null;
+            weights = null;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.alejokf.graphs.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable, array based snapshot of a {@link Graph}, where every node is identified by an {@code int} id.
+ * <p>
+ * The adjacency is stored in the "Compressed Sparse Row" layout: the outgoing edges of node {@code u} are the edges
+ * in the range {@code [outStart(u), outEnd(u))}, and their heads and weights are read with {@link #outHead(int)} and
+ * {@link #outWeight(int)}. The incoming edges are stored in the same way, so the graph can also be navigated
+ * backwards.
+ * <p>
+ * Node ids are assigned following the natural order of the labels, and the edges of every node are sorted by the id
+ * of the opposite node, so two snapshots of the same graph are always identical. A snapshot can be renumbered with
+ * {@link #reorder(int[])}, e.g. to place neighbours close in memory.
+ */
+public final class IndexedGraph {
+
+    // The nodes of the graph, whose position in the array is their id
+    private final Node[] nodes;
+    // The id of every node, whose key is the node label
+    private final Map<String, Integer> ids;
+
+    // Outgoing edges: edges of node u are in [outOffsets[u], outOffsets[u + 1])
+    private final int[] outOffsets;
+    private final int[] outHeads;
+    private final long[] outWeights;
+
+    // Incoming edges: edges of node u are in [inOffsets[u], inOffsets[u + 1])
+    private final int[] inOffsets;
+    private final int[] inTails;
+    private final long[] inWeights;
+
+    // Structures derived from this graph (e.g. indexes), built once and shared by all callers
+    private final Map<Class<?>, Object> derived = new ConcurrentHashMap<>();
+
+    private IndexedGraph(Node[] nodes, Map<String, Integer> ids, int[] outOffsets, int[] outHeads,
+            long[] outWeights, int[] inOffsets, int[] inTails, long[] inWeights) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.outOffsets = outOffsets;
+        this.outHeads = outHeads;
+        this.outWeights = outWeights;
+        this.inOffsets = inOffsets;
+        this.inTails = inTails;
+        this.inWeights = inWeights;
+    }
+
+    /**
+     * Builds the indexed snapshot of the provided {@code graph}
+     *
+     * @param graph the graph
+     * @return the indexed snapshot of the graph
+     */
+    public static IndexedGraph of(Graph graph) {
+        Objects.requireNonNull(graph, "graph is required");
+        Node[] nodes = graph.getNodes().values().toArray(new Node[0]);
+        Arrays.sort(nodes, Comparator.comparing(Node::getLabel));
+
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < nodes.length; i++) {
+            ids.put(nodes[i].getLabel(), i);
+        }
+
+        List<Edge> edges = graph.getEdges();
+        int[] tails = new int[edges.size()];
+        int[] heads = new int[edges.size()];
+        long[] weights = new long[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            Edge edge = edges.get(i);
+            tails[i] = ids.get(edge.getTail().getLabel());
+            heads[i] = ids.get(edge.getHead().getLabel());
+            weights[i] = edge.getWeight();
+        }
+        return of(nodes, tails, heads, weights);
+    }
+
+    /**
+     * Builds an indexed graph from the provided edge arrays, where the edge {@code i} goes from {@code tails[i]} to
+     * {@code heads[i]} with weight {@code weights[i]}, and the node ids are the positions in {@code nodes}
+     *
+     * @param nodes   the nodes of the graph, ordered by id
+     * @param tails   the tail of every edge
+     * @param heads   the head of every edge
+     * @param weights the weight of every edge
+     * @return the indexed graph
+     */
+    public static IndexedGraph of(Node[] nodes, int[] tails, int[] heads, long[] weights) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < nodes.length; i++) {
+            ids.put(nodes[i].getLabel(), i);
+        }
+
+        int[] outOffsets = new int[nodes.length + 1];
+        int[] outHeads = new int[heads.length];
+        long[] outWeights = new long[heads.length];
+        fill(tails, heads, weights, outOffsets, outHeads, outWeights);
+
+        int[] inOffsets = new int[nodes.length + 1];
+        int[] inTails = new int[tails.length];
+        long[] inWeights = new long[tails.length];
+        fill(heads, tails, weights, inOffsets, inTails, inWeights);
+
+        return new IndexedGraph(nodes, ids, outOffsets, outHeads, outWeights, inOffsets, inTails, inWeights);
+    }
+
+    /**
+     * Builds a copy of this graph with the nodes renumbered: the node with id {@code order[i]} in this graph gets id
+     * {@code i} in the copy. Labels, edges and weights are the same, so the copy answers every query the same way,
+     * only the memory layout changes.
+     *
+     * @param order the current id of every node, in the new order
+     * @return the renumbered graph
+     */
+    public IndexedGraph reorder(int[] order) {
+        if (order.length != nodes.length) {
+            throw new IllegalArgumentException("The order must have " + nodes.length + " nodes");
+        }
+        int[] newIds = new int[nodes.length];
+        Arrays.fill(newIds, -1);
+        Node[] reordered = new Node[nodes.length];
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] < 0 || order[i] >= nodes.length || newIds[order[i]] >= 0) {
+                throw new IllegalArgumentException("The order must be a permutation of the node ids");
+            }
+            newIds[order[i]] = i;
+            reordered[i] = nodes[order[i]];
+        }
+
+        int edgeCount = edgeCount();
+        int[] tails = new int[edgeCount];
+        int[] heads = new int[edgeCount];
+        long[] weights = new long[edgeCount];
+        for (int node = 0; node < nodes.length; node++) {
+            for (int edge = outStart(node); edge < outEnd(node); edge++) {
+                tails[edge] = newIds[node];
+                heads[edge] = newIds[outHeads[edge]];
+                weights[edge] = outWeights[edge];
+            }
+        }
+        return of(reordered, tails, heads, weights);
+    }
+
+    /**
+     * Fills the CSR arrays with the edges grouped by {@code from} and sorted by {@code to}, using a counting sort
+     * by {@code to} followed by a stable counting sort by {@code from}.
+     */
+    private static void fill(int[] from, int[] to, long[] weights, int[] offsets, int[] targets,
+            long[] targetWeights) {
+        int nodeCount = offsets.length - 1;
+        int edgeCount = from.length;
+
+        int[] byTarget = countingSort(to, identity(edgeCount), nodeCount);
+        int[] order = countingSort(from, byTarget, nodeCount);
+
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            targets[i] = to[order[i]];
+            targetWeights[i] = weights[order[i]];
+        }
+    }
+
+    private static int[] identity(int size) {
+        int[] identity = new int[size];
+        for (int i = 0; i < size; i++) {
+            identity[i] = i;
+        }
+        return identity;
+    }
+
+    private static int[] countingSort(int[] keys, int[] order, int keyCount) {
+        int[] positions = new int[keyCount + 1];
+        for (int edge : order) {
+            positions[keys[edge] + 1]++;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            positions[i + 1] += positions[i];
+        }
+        int[] sorted = new int[order.length];
+        for (int edge : order) {
+            sorted[positions[keys[edge]]++] = edge;
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the structure of type {@code type} derived from this graph, building it with {@code builder} the first
+     * time it is requested. Since the graph is immutable, the structure is shared by all callers. Builders may
+     * request other derived structures, and if two threads race to build the same structure only one is kept.
+     *
+     * @param type    the type of the derived structure, used as its key
+     * @param builder the function building the structure from this graph
+     * @param <T>     the type of the derived structure
+     * @return the derived structure
+     */
+    public <T> T derive(Class<T> type, Function<IndexedGraph, T> builder) {
+        Object structure = derived.get(type);
+        if (structure == null) {
+            structure = builder.apply(this);
+            Object previous = derived.putIfAbsent(type, structure);
+            if (previous != null) {
+                structure = previous;
+            }
+        }
+        return type.cast(structure);
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return outHeads.length;
+    }
+
+    /**
+     * Returns the id of the node with the provided {@code label}, or -1 if it doesn't exist
+     *
+     * @param label the node label
+     * @return the id of the node or -1 if it doesn't exist
+     */
+    public int indexOf(String label) {
+        Integer id = ids.get(label);
+        return id != null ? id : -1;
+    }
+
+    public Node getNode(int id) {
+        return nodes[id];
+    }
+
+    public String getLabel(int id) {
+        return nodes[id].getLabel();
+    }
+
+    public int outStart(int node) {
+        return outOffsets[node];
+    }
+
+    public int outEnd(int node) {
+        return outOffsets[node + 1];
+    }
+
+    public int outDegree(int node) {
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+
+    public int outHead(int edge) {
+        return outHeads[edge];
+    }
+
+    public long outWeight(int edge) {
+        return outWeights[edge];
+    }
+
+    /**
+     * Returns the tail of an outgoing edge, found with a binary search on the offsets
+     *
+     * @param edge the outgoing edge
+     * @return the id of the node the edge starts from
+     */
+    public int outTail(int edge) {
+        int low = 0;
+        int high = nodes.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (outOffsets[middle] <= edge) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    public int inStart(int node) {
+        return inOffsets[node];
+    }
+
+    public int inEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    public int inTail(int edge) {
+        return inTails[edge];
+    }
+
+    public long inWeight(int edge) {
+        return inWeights[edge];
+    }
+}
@@ -16,9 +16,6 @@ public class Node {
     // The edges pointing to this node, i.e. whose head is this node
     private final Set<Edge> edgesTo = new HashSet<>();
 
-    // This is the key used to seep up the Dijkstra shortest path algorithm
-    private Long heapScore = Long.MAX_VALUE;
-
     public Node(String label) {
         Objects.requireNonNull(label, "label is required");
         this.label = label;
@@ -32,10 +29,6 @@ public class Node {
         edgesFrom.add(edge);
     }
 
-    public void cleanup() {
-        heapScore = Long.MAX_VALUE;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -50,7 +43,8 @@ public class Node {
 
     @Override
     public int hashCode() {
-        return Objects.hash(label);
+        // The hash code of a String is cached, unlike Objects.hash which allocates an array on every call
+        return label.hashCode();
     }
 
     @Override
@@ -69,12 +63,4 @@ public class Node {
     public Set<Edge> getEdgesFrom() {
         return edgesFrom;
     }
-
-    public Long getHeapScore() {
-        return heapScore;
-    }
-
-    public void setHeapScore(Long heapScore) {
-        this.heapScore = heapScore;
-    }
 }
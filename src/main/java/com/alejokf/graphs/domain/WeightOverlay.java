@@ -0,0 +1,224 @@
+package com.alejokf.graphs.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sparse set of changes to the edges of a graph, to answer "what if" queries without copying the graph: edges whose
+ * weight is overridden and edges that are removed. The changes apply to every edge from the tail to the head, so
+ * parallel edges change together.
+ * <p>
+ * Instances are immutable, and every {@code with} method returns a copy with one more change, so an overlay can be
+ * shared by concurrent queries and extended into many scenarios. Changes are kept by label, independent of any graph,
+ * and are resolved against the {@link IndexedGraph} of a query with {@link #resolve(IndexedGraph)}, in time
+ * proportional to the number of changes.
+ */
+public final class WeightOverlay {
+
+    /**
+     * Overlay without changes
+     */
+    public static final WeightOverlay EMPTY = new WeightOverlay(Map.of(), Set.of());
+
+    private final Map<Link, Long> weights;
+    private final Set<Link> removed;
+
+    private WeightOverlay(Map<Link, Long> weights, Set<Link> removed) {
+        this.weights = weights;
+        this.removed = removed;
+    }
+
+    /**
+     * @param tail   the label of the tail node
+     * @param head   the label of the head node
+     * @param weight the new weight of the edges from {@code tail} to {@code head}
+     * @return a copy with the weight of the edges from {@code tail} to {@code head} overridden
+     * @throws IllegalArgumentException if the {@code weight} is negative
+     */
+    public WeightOverlay withWeight(String tail, String head, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("The weight can't be negative");
+        }
+        Link link = new Link(tail, head);
+        Map<Link, Long> newWeights = new HashMap<>(weights);
+        newWeights.put(link, weight);
+        Set<Link> newRemoved = new HashSet<>(removed);
+        newRemoved.remove(link);
+        return new WeightOverlay(newWeights, newRemoved);
+    }
+
+    /**
+     * @param tail the label of the tail node
+     * @param head the label of the head node
+     * @return a copy with the edges from {@code tail} to {@code head} removed
+     */
+    public WeightOverlay withoutEdge(String tail, String head) {
+        Link link = new Link(tail, head);
+        Map<Link, Long> newWeights = new HashMap<>(weights);
+        newWeights.remove(link);
+        Set<Link> newRemoved = new HashSet<>(removed);
+        newRemoved.add(link);
+        return new WeightOverlay(newWeights, newRemoved);
+    }
+
+    /**
+     * @return the number of changed links
+     */
+    public int size() {
+        return weights.size() + removed.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Translates the changes into the ids of the edges of the {@code graph}
+     *
+     * @param graph the graph the overlay is applied to
+     * @return the changed edges of the graph
+     * @throws IllegalArgumentException if a changed link is not an edge of the graph
+     */
+    public EdgeOverrides resolve(IndexedGraph graph) {
+        Objects.requireNonNull(graph, "graph is required");
+        // Every changed edge, with its new weight, or null if it is removed
+        Map<Integer, Long> changes = new HashMap<>();
+        Set<Integer> changedTails = new HashSet<>();
+        for (Map.Entry<Link, Long> entry : weights.entrySet()) {
+            for (int edge : edgesOf(graph, entry.getKey(), changedTails)) {
+                changes.put(edge, entry.getValue());
+            }
+        }
+        for (Link link : removed) {
+            for (int edge : edgesOf(graph, link, changedTails)) {
+                changes.put(edge, null);
+            }
+        }
+
+        int[] edges = changes.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        long[] newWeights = new long[edges.length];
+        boolean[] removedEdges = new boolean[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            Long weight = changes.get(edges[i]);
+            removedEdges[i] = weight == null;
+            newWeights[i] = weight == null ? 0 : weight;
+        }
+        int[] tails = changedTails.stream().mapToInt(Integer::intValue).sorted().toArray();
+        return new EdgeOverrides(edges, newWeights, removedEdges, tails);
+    }
+
+    private static int[] edgesOf(IndexedGraph graph, Link link, Set<Integer> changedTails) {
+        int tail = graph.indexOf(link.tail);
+        int head = graph.indexOf(link.head);
+        if (tail < 0 || head < 0) {
+            throw new IllegalArgumentException("Edge " + link + " does not exist");
+        }
+        int[] edges = new int[graph.outDegree(tail)];
+        int count = 0;
+        for (int edge = graph.outStart(tail); edge < graph.outEnd(tail); edge++) {
+            if (graph.outHead(edge) == head) {
+                edges[count++] = edge;
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("Edge " + link + " does not exist");
+        }
+        changedTails.add(tail);
+        return Arrays.copyOf(edges, count);
+    }
+
+    @Override
+    public String toString() {
+        return "weights " + weights + ", removed " + removed;
+    }
+
+    /**
+     * Changes of a {@link WeightOverlay} resolved against an {@link IndexedGraph}, as the sorted ids of the changed
+     * outgoing edges. Searches only look up the edges of the nodes for which {@link #changes(int)} is true, so a node
+     * without changes costs a binary search over the changed tails, and every edge of the others a binary search over
+     * the changed edges.
+     */
+    public static final class EdgeOverrides {
+
+        private final int[] edges;
+        private final long[] weights;
+        private final boolean[] removed;
+        private final int[] tails;
+
+        private EdgeOverrides(int[] edges, long[] weights, boolean[] removed, int[] tails) {
+            this.edges = edges;
+            this.weights = weights;
+            this.removed = removed;
+            this.tails = tails;
+        }
+
+        /**
+         * @param node the node id
+         * @return whether any outgoing edge of the node is changed
+         */
+        public boolean changes(int node) {
+            return Arrays.binarySearch(tails, node) >= 0;
+        }
+
+        /**
+         * @param edge the id of an outgoing edge
+         * @return whether the edge is removed
+         */
+        public boolean isRemoved(int edge) {
+            int i = Arrays.binarySearch(edges, edge);
+            return i >= 0 && removed[i];
+        }
+
+        /**
+         * @param edge       the id of an outgoing edge
+         * @param baseWeight the weight of the edge in the graph
+         * @return the overridden weight of the edge, or {@code baseWeight} if it is not overridden
+         */
+        public long weight(int edge, long baseWeight) {
+            int i = Arrays.binarySearch(edges, edge);
+            return i >= 0 && !removed[i] ? weights[i] : baseWeight;
+        }
+    }
+
+    /**
+     * The link from a tail to a head, i.e. all the edges between them
+     */
+    private static final class Link {
+
+        private final String tail;
+        private final String head;
+
+        private Link(String tail, String head) {
+            Objects.requireNonNull(tail, "tail is required");
+            Objects.requireNonNull(head, "head is required");
+            this.tail = tail;
+            this.head = head;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Link link = (Link) o;
+            return tail.equals(link.tail) && head.equals(link.head);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tail.hashCode() + head.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return tail + "->" + head;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.alejokf.graphs.mainapp;
+
+import com.alejokf.graphs.application.compression.CompressedGraphService;
+import com.alejokf.graphs.application.search.GraphSearchService;
+import com.alejokf.graphs.application.shortestpath.ShortestPathService;
+import com.alejokf.graphs.config.DIConfig;
+import com.alejokf.graphs.domain.CompressedGraph;
+import com.alejokf.graphs.domain.Edge;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.infrastructure.GraphProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the {@link CompressedGraph} with the uncompressed {@link IndexedGraph}: the bits used by every edge, and
+ * the throughput of the shortest path and trace search engines on both representations.
+ * <p>
+ * Arguments: [input graph, or number of nodes of a random graph] [edges per node of the random graph]. The random
+ * graph connects every node with nodes of nearby ids, like graphs whose nodes were numbered following their
+ * locality.
+ */
+public class CompressionBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressionBenchmark.class);
+    private static final int SOURCES = 64;
+    private static final int SEARCH_HOPS = 3;
+
+    public static void main(String[] args) throws IOException {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(DIConfig.class);
+        String input = args.length > 0 ? args[0] : "200000";
+        int edgesPerNode = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        Graph graph = input.chars().allMatch(Character::isDigit) ?
+                randomGraph(Integer.parseInt(input), edgesPerNode) :
+                context.getBean(GraphProcessor.class).readFromFile(input);
+
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        long start = System.nanoTime();
+        CompressedGraph compressedGraph = CompressedGraph.of(indexedGraph);
+        logger.info(String.format("Compressed in %.1f ms: %s", (System.nanoTime() - start) / 1e6, compressedGraph));
+
+        ShortestPathService shortestPathService = context.getBean(ShortestPathService.class);
+        GraphSearchService graphSearchService = context.getBean(GraphSearchService.class);
+        CompressedGraphService compressedGraphService = context.getBean(CompressedGraphService.class);
+        int[] sources = new int[SOURCES];
+        Random random = new Random(1);
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = random.nextInt(indexedGraph.size());
+        }
+
+        for (int round = 0; round < 2; round++) {
+            String prefix = round == 0 ? "warm-up " : "";
+            double uncompressed = run(prefix + "shortest paths, uncompressed",
+                    i -> shortestPathService.shortestPath(graph, indexedGraph.getLabel(sources[i])));
+            double compressed = run(prefix + "shortest paths, compressed",
+                    i -> compressedGraphService.shortestPath(compressedGraph, indexedGraph.getLabel(sources[i])));
+            logger.info(String.format("Shortest paths throughput cost: %.2fx", compressed / uncompressed));
+
+            uncompressed = run(prefix + SEARCH_HOPS + " hops searches, uncompressed",
+                    i -> graphSearchService.tracesByMaxHops(graph, indexedGraph.getLabel(sources[i]),
+                            indexedGraph.getLabel(sources[(i + 1) % SOURCES]), SEARCH_HOPS));
+            compressed = run(prefix + SEARCH_HOPS + " hops searches, compressed",
+                    i -> compressedGraphService.tracesByMaxHops(compressedGraph, indexedGraph.getLabel(sources[i]),
+                            indexedGraph.getLabel(sources[(i + 1) % SOURCES]), SEARCH_HOPS));
+            logger.info(String.format("Trace search throughput cost: %.2fx", compressed / uncompressed));
+        }
+        context.close();
+    }
+
+    /**
+     * Runs the query once per source, and returns the milliseconds per query
+     */
+    private static double run(String name, IntConsumer query) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SOURCES; i++) {
+            query.accept(i);
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / SOURCES;
+        logger.info(String.format("%-40s %10.3f ms per query", name, millis));
+        return millis;
+    }
+
+    private static Graph randomGraph(int nodeCount, int edgesPerNode) {
+        Random random = new Random(7);
+        Map<String, Node> nodes = new HashMap<>();
+        Node[] byId = new Node[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            byId[i] = new Node(String.format("N%08d", i));
+            nodes.put(byId[i].getLabel(), byId[i]);
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < edgesPerNode; j++) {
+                // Mostly short jumps, with some long ones so every node reaches the whole graph
+                int distance = random.nextInt(10) == 0 ? random.nextInt(nodeCount) : random.nextInt(1024) - 512;
+                Node tail = byId[i];
+                Node head = byId[Math.floorMod(i + distance, nodeCount)];
+                Edge edge = new Edge(tail, head, 1L + random.nextInt(100));
+                tail.addEdgeFrom(edge);
+                head.addEdgeTo(edge);
+                edges.add(edge);
+            }
+        }
+        return new Graph(nodes, edges);
+    }
+}
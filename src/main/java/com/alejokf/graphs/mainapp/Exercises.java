@@ -1,37 +1,52 @@
 package com.alejokf.graphs.mainapp;
 
-import com.alejokf.graphs.application.search.GraphSearchService;
-import com.alejokf.graphs.application.search.GraphTraversalService;
-import com.alejokf.graphs.application.shortestpath.ShortestPaths;
-import com.alejokf.graphs.application.shortestpath.ShortestPathService;
+import com.alejokf.graphs.application.batch.BatchQueryService;
+import com.alejokf.graphs.application.batch.BatchSummary;
 import com.alejokf.graphs.config.DIConfig;
 import com.alejokf.graphs.domain.Graph;
-import com.alejokf.graphs.domain.Node;
 import com.alejokf.graphs.infrastructure.GraphProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
- *
+ * Runs the queries of a query file on a graph. Without arguments, the ten exercises are run on the default graph.
+ * <p>
+ * Arguments: the graph file, the query file, the results file and the number of threads. Without a results file, the
+ * results are logged.
  */
 public class Exercises {
 
     private static final Logger logger = LoggerFactory.getLogger(Exercises.class);
     private static final String DEFAULT_INPUT = "com/alejokf/graphs/TestInput.csv";
+    private static final String DEFAULT_QUERIES = "com/alejokf/graphs/Exercises.queries";
 
     public static void main(String[] args) {
         String inputGraphPath = args.length > 0 ? args[0] : DEFAULT_INPUT;
+        String queriesPath = args.length > 1 ? args[1] : DEFAULT_QUERIES;
+        String resultsPath = args.length > 2 ? args[2] : null;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
         logger.info("Using graph input at " + inputGraphPath);
 
         Exercises exercises = new Exercises();
-        exercises.runExercises(inputGraphPath);
+        exercises.runQueries(inputGraphPath, queriesPath, resultsPath, threads);
     }
 
     public void runExercises(String inputGraphPath) {
+        runQueries(inputGraphPath, DEFAULT_QUERIES, null, Runtime.getRuntime().availableProcessors());
+    }
+
+    public void runQueries(String inputGraphPath, String queriesPath, String resultsPath, int threads) {
         AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(DIConfig.class);
         GraphProcessor csvProcessor = context.getBean(GraphProcessor.class);
         Graph graph = null;
@@ -42,41 +57,35 @@ public class Exercises {
         }
 
         if (graph != null) {
-            GraphTraversalService graphTraversalService = context.getBean(GraphTraversalService.class);
-            GraphSearchService graphSearchService = context.getBean(GraphSearchService.class);
-            ShortestPathService shortestPathService = context.getBean(ShortestPathService.class);
-
-            String ex1 = graphTraversalService.traceLatencyOutput(graph, List.of("A", "B", "C"));
-            logger.info("1. " + ex1);
-
-            String ex2 = graphTraversalService.traceLatencyOutput(graph, List.of("A", "D"));
-            logger.info("2. " + ex2);
-
-            String ex3 = graphTraversalService.traceLatencyOutput(graph, List.of("A", "D", "C"));
-            logger.info("3. " + ex3);
-
-            String ex4 = graphTraversalService.traceLatencyOutput(graph, List.of("A", "E", "B", "C", "D"));
-            logger.info("4. " + ex4);
-
-            String ex5 = graphTraversalService.traceLatencyOutput(graph, List.of("A", "E", "D"));
-            logger.info("5. " + ex5);
-
-            List<List<Node>> ex6 = graphSearchService.tracesByMaxHops(graph, "C", "C", 3);
-            logger.info("6. " + ex6.size());
-
-            List<List<Node>> ex7 = graphSearchService.tracesByExactHops(graph, "A", "C", 4);
-            logger.info("7. " + ex7.size());
-
-            ShortestPaths ex8 = shortestPathService.shortestPath(graph, "A");
-            logger.info("8. " + ex8.getShortestDistances("C").getDistance());
-            graph.cleanup();
-
-            ShortestPaths ex9 = shortestPathService.shortestPath(graph, "B");
-            logger.info("9. " + ex9.getShortestDistances("B").getDistance());
-            graph.cleanup();
-
-            List<List<Node>> ex10 = graphSearchService.tracesByMaxLatency(graph, "C", "C", 30);
-            logger.info("10. " + ex10.size());
+            BatchQueryService batchQueryService = context.getBean(BatchQueryService.class);
+            try (BufferedReader queries = openQueries(queriesPath)) {
+                BatchSummary summary;
+                if (resultsPath != null) {
+                    try (Writer results = Files.newBufferedWriter(Path.of(resultsPath), StandardCharsets.UTF_8)) {
+                        summary = batchQueryService.run(graph, queries, results, threads);
+                    }
+                } else {
+                    StringWriter results = new StringWriter();
+                    summary = batchQueryService.run(graph, queries, results, threads);
+                    String[] lines = results.toString().split("\n");
+                    for (int i = 0; i < lines.length; i++) {
+                        logger.info((i + 1) + ". " + lines[i]);
+                    }
+                }
+                logger.info(summary.toString());
+            } catch (IOException e) {
+                logger.error("Could not run queries " + queriesPath, e);
+            }
         }
     }
+
+    /**
+     * Opens the query file, from the classpath or the file system
+     */
+    private BufferedReader openQueries(String queriesPath) throws IOException {
+        InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream(queriesPath);
+        return inputStream != null ?
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)) :
+                Files.newBufferedReader(Path.of(queriesPath), StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,33 @@
+package com.alejokf.graphs.mainapp;
+
+import com.alejokf.graphs.application.batch.BatchQuery;
+import com.alejokf.graphs.application.planner.QueryPlannerService;
+import com.alejokf.graphs.config.DIConfig;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.infrastructure.GraphProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Runs a query and logs its plan: the estimated cost of every strategy, the chosen one, and its actual cost.
+ * <p>
+ * Arguments: the graph file and the query, as a line of a query file, e.g. {@code "maxHops C C 3"}.
+ */
+public class ExplainQuery {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExplainQuery.class);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: ExplainQuery GRAPH_PATH QUERY");
+        }
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(DIConfig.class);
+        Graph graph = context.getBean(GraphProcessor.class).readFromFile(args[0]);
+        BatchQuery query = BatchQuery.parse(String.join(" ", Arrays.asList(args).subList(1, args.length)));
+        logger.info("\n" + context.getBean(QueryPlannerService.class).execute(graph, query).explain());
+    }
+}
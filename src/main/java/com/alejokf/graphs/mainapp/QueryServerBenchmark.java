@@ -0,0 +1,105 @@
+package com.alejokf.graphs.mainapp;
+
+import com.alejokf.graphs.application.async.AsyncGraphQueryService;
+import com.alejokf.graphs.config.DIConfig;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.infrastructure.GraphProcessor;
+import com.alejokf.graphs.server.QueryServer;
+import com.alejokf.graphs.server.client.QueryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Latency benchmark of the {@link QueryServer}: several client threads send the exercise queries, first one request
+ * per trace latency lookup and then the same lookups batched in a single request, and the latency percentiles and
+ * throughput of every scenario are reported.
+ * <p>
+ * Arguments: [input graph] [client threads] [requests per thread]
+ */
+public class QueryServerBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryServerBenchmark.class);
+    private static final String DEFAULT_INPUT = "com/alejokf/graphs/TestInput.csv";
+    private static final int BATCH_SIZE = 100;
+
+    private static final List<List<String>> TRACES = List.of(List.of("A", "B", "C"), List.of("A", "D"),
+            List.of("A", "D", "C"), List.of("A", "E", "B", "C", "D"), List.of("A", "E", "D"));
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        String inputGraphPath = args.length > 0 ? args[0] : DEFAULT_INPUT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(DIConfig.class);
+        Graph graph = context.getBean(GraphProcessor.class).readFromFile(inputGraphPath);
+        try (QueryServer server = new QueryServer(graph, context.getBean(AsyncGraphQueryService.class), 0)) {
+            server.start();
+            QueryClient client = new QueryClient(server.getPort());
+
+            run("warm-up", threads, requests / 4, i -> client.traceLatencyOutput(TRACES.get(i % TRACES.size())));
+            run("latency, one per request", threads, requests,
+                    i -> client.traceLatencyOutput(TRACES.get(i % TRACES.size())));
+            List<List<String>> batch = new ArrayList<>();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(TRACES.get(i % TRACES.size()));
+            }
+            run("latency, " + BATCH_SIZE + " per request", threads, requests / BATCH_SIZE,
+                    i -> client.traceLatencyOutputs(batch));
+            run("traces C-C maxLatency 30, streamed", threads, requests / 10,
+                    i -> client.traces("maxLatency", "C", "C", 30).count());
+            run("shortest path A-C", threads, requests, i -> client.shortestPath("A", "C"));
+        }
+        context.close();
+    }
+
+    private static void run(String name, int threads, int requestsPerThread, Request request)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[requestsPerThread];
+                for (int i = 0; i < requestsPerThread; i++) {
+                    long requestStart = System.nanoTime();
+                    request.send(i);
+                    latencies[i] = System.nanoTime() - requestStart;
+                }
+                return latencies;
+            }));
+        }
+        long[] latencies = new long[threads * requestsPerThread];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(futures.get(t).get(), 0, latencies, t * requestsPerThread, requestsPerThread);
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        logger.info(String.format("%-40s %8d requests %10.0f req/s   p50 %7.3f ms   p90 %7.3f ms   p99 %7.3f ms",
+                name, latencies.length, latencies.length / (elapsed / 1e9), percentile(latencies, 0.5),
+                percentile(latencies, 0.9), percentile(latencies, 0.99)));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(sorted.length * percentile))] / 1e6;
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        Object send(int i);
+    }
+}
@@ -0,0 +1,169 @@
+package com.alejokf.graphs.mainapp;
+
+import com.alejokf.graphs.application.isochrone.IsochroneService;
+import com.alejokf.graphs.application.reordering.GraphReorderingService;
+import com.alejokf.graphs.application.reordering.NodeOrdering;
+import com.alejokf.graphs.application.search.GraphSearchService;
+import com.alejokf.graphs.application.shortestpath.ShortestPathService;
+import com.alejokf.graphs.config.DIConfig;
+import com.alejokf.graphs.domain.CompressedGraph;
+import com.alejokf.graphs.domain.Edge;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.infrastructure.GraphProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the node orderings of {@link GraphReorderingService} with the label order of the loaded graph: the
+ * locality of the edges, and the throughput of traversals (isochrones), trace searches and shortest paths.
+ * <p>
+ * The JVM can't read the hardware counters, so the locality is reported as the share of edges whose nodes are less
+ * than 1024 ids apart, i.e. whose {@code int} entries share a 4 KiB page, and the mean log2 distance between their
+ * ids.
+ * Run it under {@code perf stat -e cache-misses} to count the actual misses.
+ * <p>
+ * Arguments: [input graph, or side of a random grid graph with shuffled labels]
+ */
+public class ReorderingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReorderingBenchmark.class);
+    private static final int SOURCES = 32;
+    private static final int SEARCH_HOPS = 6;
+    private static final long ISOCHRONE_BUDGET = 1_000;
+
+    public static void main(String[] args) throws IOException {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(DIConfig.class);
+        String input = args.length > 0 ? args[0] : "500";
+        Graph graph = input.chars().allMatch(Character::isDigit) ?
+                gridGraph(Integer.parseInt(input)) :
+                context.getBean(GraphProcessor.class).readFromFile(input);
+
+        GraphReorderingService reorderingService = context.getBean(GraphReorderingService.class);
+        ShortestPathService shortestPathService = context.getBean(ShortestPathService.class);
+        GraphSearchService graphSearchService = context.getBean(GraphSearchService.class);
+        IsochroneService isochroneService = context.getBean(IsochroneService.class);
+
+        Random random = new Random(1);
+        String[] sources = new String[SOURCES];
+        IndexedGraph labelOrder = graph.getIndexedGraph();
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = labelOrder.getLabel(random.nextInt(labelOrder.size()));
+        }
+
+        List<NodeOrdering> orderings = new ArrayList<>();
+        orderings.add(null);
+        orderings.addAll(List.of(NodeOrdering.values()));
+        List<Graph> graphs = new ArrayList<>();
+        double[] reorderMillis = new double[orderings.size()];
+        for (int i = 0; i < orderings.size(); i++) {
+            long start = System.nanoTime();
+            graphs.add(orderings.get(i) == null ? graph : reorderingService.reorder(graph, orderings.get(i)));
+            reorderMillis[i] = (System.nanoTime() - start) / 1e6;
+        }
+
+        // The first round warms up the code and builds the indexes cached in every graph
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < orderings.size(); i++) {
+                Graph reordered = graphs.get(i);
+                IndexedGraph indexedGraph = reordered.getIndexedGraph();
+                double traversal = run(j -> isochroneService.isochrone(reordered, sources[j], ISOCHRONE_BUDGET));
+                double search = run(j -> graphSearchService.tracesByMaxHops(reordered, sources[j],
+                        sources[(j + 1) % SOURCES], SEARCH_HOPS));
+                double shortestPaths = run(j -> shortestPathService.shortestPath(reordered, sources[j]));
+                if (round == 1) {
+                    logger.info(String.format("%-22s reordered in %7.1f ms, %5.1f%% edges in a page, "
+                                    + "mean log2 gap %5.2f, compressed %5.2f bits per edge | isochrone %7.3f ms, "
+                                    + "%d hops search %7.3f ms, shortest paths %7.3f ms",
+                            orderings.get(i) == null ? "LABEL (as loaded)" : orderings.get(i), reorderMillis[i],
+                            100 * samePage(indexedGraph), meanLogGap(indexedGraph),
+                            CompressedGraph.of(indexedGraph).bitsPerEdge(), traversal, SEARCH_HOPS, search,
+                            shortestPaths));
+                }
+            }
+        }
+        context.close();
+    }
+
+    /**
+     * Runs the query once per source, and returns the milliseconds per query
+     */
+    private static double run(IntConsumer query) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SOURCES; i++) {
+            query.accept(i);
+        }
+        return (System.nanoTime() - start) / 1e6 / SOURCES;
+    }
+
+    private static double samePage(IndexedGraph graph) {
+        long close = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                if (Math.abs(graph.outHead(edge) - node) < 1024) {
+                    close++;
+                }
+            }
+        }
+        return graph.edgeCount() == 0 ? 0 : (double) close / graph.edgeCount();
+    }
+
+    private static double meanLogGap(IndexedGraph graph) {
+        double sum = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+                sum += 32 - Integer.numberOfLeadingZeros(Math.abs(graph.outHead(edge) - node));
+            }
+        }
+        return graph.edgeCount() == 0 ? 0 : sum / graph.edgeCount();
+    }
+
+    /**
+     * Grid of {@code side} x {@code side} nodes with edges in both directions between neighbours, like a road
+     * network. Labels are random, so the label order scatters the neighbours.
+     */
+    private static Graph gridGraph(int side) {
+        Random random = new Random(7);
+        Map<String, Node> nodes = new HashMap<>();
+        Node[] grid = new Node[side * side];
+        for (int i = 0; i < grid.length; i++) {
+            String label;
+            do {
+                label = Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+            } while (nodes.containsKey(label));
+            grid[i] = new Node(label);
+            nodes.put(label, grid[i]);
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                Node node = grid[row * side + column];
+                if (column + 1 < side) {
+                    addEdges(node, grid[row * side + column + 1], random, edges);
+                }
+                if (row + 1 < side) {
+                    addEdges(node, grid[(row + 1) * side + column], random, edges);
+                }
+            }
+        }
+        return new Graph(nodes, edges);
+    }
+
+    private static void addEdges(Node a, Node b, Random random, List<Edge> edges) {
+        for (Edge edge : List.of(new Edge(a, b, 1L + random.nextInt(100)), new Edge(b, a, 1L + random.nextInt(100)))) {
+            edge.getTail().addEdgeFrom(edge);
+            edge.getHead().addEdgeTo(edge);
+            edges.add(edge);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.alejokf.graphs.server;
+
+import com.alejokf.graphs.application.async.AsyncGraphQueryService;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.search.GraphTraversalService;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.config.DIConfig;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.infrastructure.GraphProcessor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Long-lived server answering graph queries over HTTP on the loopback interface, so many client processes share a
+ * single loaded graph.
+ * <p>
+ * Endpoints (traces are node labels separated by commas):
+ * <ul>
+ * <li>{@code GET /latency?trace=A,B,C}: the latency of the trace, or {@value GraphTraversalService#NO_SUCH_TRACE}</li>
+ * <li>{@code POST /latency}: a batch of traces, one per line, answered with one latency per line. The batch runs as
+ * a single query, and a trace that fails is answered with {@value AsyncGraphQueryService#ERROR_PREFIX} and the error
+ * message in its line</li>
+ * <li>{@code GET /traces?type=maxHops|exactHops|maxLatency&start=C&end=C&limit=3}: the traces, one per line,
+ * streamed in chunks. With {@code &count=true} only the number of traces is returned</li>
+ * <li>{@code GET /shortest?start=A&end=C}: the distance and the nodes of the shortest path, or
+ * {@value GraphTraversalService#NO_SUCH_TRACE}</li>
+ * </ul>
+ * Concurrent identical trace searches and shortest path calculations are coalesced into a single execution.
+ * <p>
+ * Every trace search runs with the limits of the server: a timeout, a maximum number of expanded states and a
+ * maximum number of traces. A request can lower them with the optional parameters {@code timeoutMillis},
+ * {@code maxStates} and {@code maxResults}. A search reaching a limit answers with the traces found so far, and the
+ * reason in the {@value #TRUNCATED_HEADER} header.
+ */
+public class QueryServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryServer.class);
+    private static final String DEFAULT_INPUT = "com/alejokf/graphs/TestInput.csv";
+    private static final int DEFAULT_PORT = 8642;
+    // Number of traces written between two flushes, i.e. the size of every chunk of a streamed response
+    private static final int TRACES_PER_CHUNK = 1024;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private static final long DEFAULT_MAX_EXPANDED_STATES = 100_000_000;
+    private static final int DEFAULT_MAX_RESULTS = 10_000_000;
+    static final String TRUNCATED_HEADER = "X-Truncated";
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final Graph graph;
+    private final AsyncGraphQueryService queryService;
+    private final HttpServer httpServer;
+    private final ExecutorService httpExecutor;
+    private final Duration timeout;
+    private final long maxExpandedStates;
+    private final int maxResults;
+    private final RequestCoalescer<String, Traces> traceSearches = new RequestCoalescer<>();
+    private final RequestCoalescer<String, ShortestPaths> shortestPaths = new RequestCoalescer<>();
+
+    public QueryServer(Graph graph, AsyncGraphQueryService queryService, int port) throws IOException {
+        this(graph, queryService, port, DEFAULT_TIMEOUT, DEFAULT_MAX_EXPANDED_STATES, DEFAULT_MAX_RESULTS);
+    }
+
+    /**
+     * @param graph             the graph to query
+     * @param queryService      the service running the queries
+     * @param port              the port to listen on, or 0 for any free port
+     * @param timeout           the maximum time a trace search may run
+     * @param maxExpandedStates the maximum number of states a trace search may expand
+     * @param maxResults        the maximum number of traces a trace search may return
+     * @throws IOException if the server can't listen on the port
+     */
+    public QueryServer(Graph graph, AsyncGraphQueryService queryService, int port, Duration timeout,
+            long maxExpandedStates, int maxResults) throws IOException {
+        if (timeout.isNegative() || timeout.isZero() || maxExpandedStates < 1 || maxResults < 1) {
+            throw new IllegalArgumentException("The limits of the server must be positive");
+        }
+        this.graph = graph;
+        this.queryService = queryService;
+        this.timeout = timeout;
+        this.maxExpandedStates = maxExpandedStates;
+        this.maxResults = maxResults;
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.httpExecutor = Executors.newCachedThreadPool();
+        httpServer.setExecutor(httpExecutor);
+        httpServer.createContext("/latency", this::handleLatency);
+        httpServer.createContext("/traces", this::handleTraces);
+        httpServer.createContext("/shortest", this::handleShortest);
+    }
+
+    /**
+     * Starts a server on the graph {@code args[0]} and the port {@code args[1]}.
+     * <p>
+     * Responses are written as headers and body separately, which with Nagle's algorithm and delayed ACKs adds tens of
+     * milliseconds to every small response, so the launcher switches on {@value #NODELAY_PROPERTY} before creating the
+     * server, unless it was set at launch (e.g. {@code -Dsun.net.httpserver.nodelay=false}). Applications embedding
+     * the server should launch the JVM with {@code -Dsun.net.httpserver.nodelay=true}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        String inputGraphPath = args.length > 0 ? args[0] : DEFAULT_INPUT;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(DIConfig.class);
+        Graph graph = context.getBean(GraphProcessor.class).readFromFile(inputGraphPath);
+        QueryServer server = new QueryServer(graph, context.getBean(AsyncGraphQueryService.class), port);
+        server.start();
+        logger.info("Serving graph " + inputGraphPath + " at http://localhost:" + server.getPort());
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        httpExecutor.shutdown();
+    }
+
+    private void handleLatency(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                List<List<String>> traces = new ArrayList<>();
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        traces.add(parseTrace(line));
+                    }
+                }
+                StringBuilder body = new StringBuilder();
+                for (String latency : queryService.traceLatencyOutputs(graph, traces).join()) {
+                    body.append(latency).append('\n');
+                }
+                send(exchange, body.toString());
+            } else {
+                List<String> trace = parseTrace(parameter(exchange, "trace"));
+                send(exchange, queryService.traceLatencyOutput(graph, trace).join() + "\n");
+            }
+        });
+    }
+
+    private void handleTraces(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String type = parameter(exchange, "type");
+            String start = parameter(exchange, "start");
+            String end = parameter(exchange, "end");
+            int limit = Integer.parseInt(parameter(exchange, "limit"));
+            long timeoutMillis = limit(exchange, "timeoutMillis", timeout.toMillis());
+            long maxStates = limit(exchange, "maxStates", maxExpandedStates);
+            int maxTraces = (int) limit(exchange, "maxResults", maxResults);
+            String key = type + ":" + start + ":" + end + ":" + limit + ":" + timeoutMillis + ":" + maxStates + ":"
+                    + maxTraces;
+            Traces traces = traceSearches.submit(key, () -> searchTraces(type, start, end, limit,
+                    QueryOptions.NONE.withTimeout(Duration.ofMillis(timeoutMillis))
+                            .withMaxExpandedStates(maxStates)
+                            .withMaxResults(maxTraces))).join();
+
+            if (traces.isTruncated()) {
+                exchange.getResponseHeaders().set(TRUNCATED_HEADER, traces.getTruncation().name());
+            }
+            if (Boolean.parseBoolean(parameters(exchange).get("count"))) {
+                send(exchange, traces.size() + "\n");
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            IndexedGraph indexedGraph = traces.getGraph();
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                int[] written = {0};
+                traces.forEachTrace((nodes, length) -> {
+                    try {
+                        for (int i = 0; i < length; i++) {
+                            if (i > 0) {
+                                writer.write(',');
+                            }
+                            writer.write(indexedGraph.getLabel(nodes[i]));
+                        }
+                        writer.write('\n');
+                        if (++written[0] % TRACES_PER_CHUNK == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+            }
+        });
+    }
+
+    private CompletableFuture<Traces> searchTraces(String type, String start, String end, int limit,
+            QueryOptions options) {
+        switch (type) {
+            case "maxHops":
+                return queryService.tracesByMaxHops(graph, start, end, limit, options);
+            case "exactHops":
+                return queryService.tracesByExactHops(graph, start, end, limit, options);
+            case "maxLatency":
+                return queryService.tracesByMaxLatency(graph, start, end, limit, options);
+            default:
+                throw new IllegalArgumentException("Unknown trace search type " + type);
+        }
+    }
+
+    private void handleShortest(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String start = parameter(exchange, "start");
+            String end = parameter(exchange, "end");
+            ShortestPaths paths = shortestPaths.submit(start, () -> queryService.shortestPath(graph, start)).join();
+            ShortestPath path = paths.getShortestDistances(end);
+            if (path == null) {
+                send(exchange, GraphTraversalService.NO_SUCH_TRACE + "\n");
+            } else {
+                send(exchange, path.getDistance() + " " + path.getNodes().stream().map(Node::getLabel)
+                        .collect(Collectors.joining(",")) + "\n");
+            }
+        });
+    }
+
+    /**
+     * Runs a handler translating failures into HTTP status codes: 400 for invalid requests, 503 when the query was
+     * rejected because its lane is full, and 500 otherwise
+     */
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            handler.handle();
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            int status = cause instanceof IllegalArgumentException ? 400 :
+                    cause instanceof RejectedExecutionException ? 503 : 500;
+            if (status == 500) {
+                logger.error("Query " + exchange.getRequestURI() + " failed", cause);
+            }
+            try {
+                send(exchange, status, cause.getMessage() + "\n");
+            } catch (IOException | RuntimeException ignored) {
+                // The response had already started, the client sees a truncated response
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        send(exchange, 200, body);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static List<String> parseTrace(String trace) {
+        return Arrays.asList(trace.trim().split(","));
+    }
+
+    private static String parameter(HttpExchange exchange, String name) {
+        String value = parameters(exchange).get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Parameter " + name + " is required");
+        }
+        return value;
+    }
+
+    /**
+     * @return the value of the optional limit parameter {@code name}, which can't exceed the limit of the server
+     * {@code serverLimit}, or {@code serverLimit} if it is missing
+     */
+    private static long limit(HttpExchange exchange, String name, long serverLimit) {
+        String value = parameters(exchange).get(name);
+        if (value == null) {
+            return serverLimit;
+        }
+        long limit = Long.parseLong(value);
+        if (limit < 1) {
+            throw new IllegalArgumentException("Parameter " + name + " must be positive");
+        }
+        return Math.min(limit, serverLimit);
+    }
+
+    private static Map<String, String> parameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle() throws IOException;
+    }
+}
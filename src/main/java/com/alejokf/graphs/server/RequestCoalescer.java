@@ -0,0 +1,52 @@
+package com.alejokf.graphs.server;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical requests: while a request is in flight, every identical request receives the same
+ * future instead of running it again
+ *
+ * @param <K> the type of the request key
+ * @param <V> the type of the result
+ */
+class RequestCoalescer<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the future of the in-flight request with the same {@code key}, or starts a new one with
+     * {@code request}
+     *
+     * @param key     the request key
+     * @param request the function starting the request
+     * @return the future result of the request
+     */
+    CompletableFuture<V> submit(K key, Supplier<CompletableFuture<V>> request) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            request.get().whenComplete((result, error) -> {
+                inFlight.remove(key, created);
+                if (error != null) {
+                    created.completeExceptionally(error);
+                } else {
+                    created.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,135 @@
+package com.alejokf.graphs.server.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Client of the {@link com.alejokf.graphs.server.QueryServer}.
+ * <p>
+ * Responses are returned as the server writes them: latencies as their output String, traces as lists of node labels
+ * and shortest paths as their distance followed by their nodes.
+ */
+public class QueryClient {
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+
+    public QueryClient(int port) {
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.baseUri = URI.create("http://127.0.0.1:" + port);
+    }
+
+    /**
+     * @param trace the trace
+     * @return the latency output of the trace
+     */
+    public String traceLatencyOutput(List<String> trace) {
+        return get("/latency?trace=" + encode(String.join(",", trace))).trim();
+    }
+
+    /**
+     * Requests the latency output of many traces in a single request
+     *
+     * @param traces the traces
+     * @return the latency output of every trace, in the same order
+     */
+    public List<String> traceLatencyOutputs(List<List<String>> traces) {
+        String body = traces.stream().map(trace -> String.join(",", trace)).collect(Collectors.joining("\n"));
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/latency"))
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        return Arrays.asList(send(request, HttpResponse.BodyHandlers.ofString()).split("\n"));
+    }
+
+    /**
+     * Streams the traces as the server sends them, without waiting for the complete response. The stream must be
+     * closed.
+     *
+     * @param type  the type of search: maxHops, exactHops or maxLatency
+     * @param start the starting node
+     * @param end   the ending node
+     * @param limit the hops or latency limit
+     * @return the stream of traces, as lists of node labels
+     */
+    public Stream<List<String>> traces(String type, String start, String end, int limit) {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(tracesPath(type, start, end, limit))).build();
+        return send(request, HttpResponse.BodyHandlers.ofLines())
+                .filter(line -> !line.isEmpty())
+                .map(line -> Arrays.asList(line.split(",")));
+    }
+
+    /**
+     * @return the number of traces, counted by the server
+     */
+    public long countTraces(String type, String start, String end, int limit) {
+        return Long.parseLong(get(tracesPath(type, start, end, limit) + "&count=true").trim());
+    }
+
+    /**
+     * @param start the starting node
+     * @param end   the ending node
+     * @return the distance and nodes of the shortest path, or "NO SUCH TRACE"
+     */
+    public String shortestPath(String start, String end) {
+        return get("/shortest?start=" + encode(start) + "&end=" + encode(end)).trim();
+    }
+
+    private static String tracesPath(String type, String start, String end, int limit) {
+        return "/traces?type=" + encode(type) + "&start=" + encode(start) + "&end=" + encode(end) + "&limit=" + limit;
+    }
+
+    private String get(String path) {
+        return send(HttpRequest.newBuilder(baseUri.resolve(path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private <T> T send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            HttpResponse<T> response = httpClient.send(request, bodyHandler);
+            if (response.statusCode() != 200) {
+                Object body = response.body();
+                String message = body instanceof Stream ?
+                        ((Stream<?>) body).map(String::valueOf).collect(Collectors.joining("\n")) : String.valueOf(body);
+                throw new QueryException(response.statusCode(), message.trim());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the server", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Exception thrown when the server answers with an error
+     */
+    public static class QueryException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public QueryException(int status, String message) {
+            super(status + ": " + message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.alejokf.graphs.application.async.impl;
+
+import com.alejokf.graphs.application.async.AsyncGraphQueryService;
+import com.alejokf.graphs.application.async.QueryLimits;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl;
+import com.alejokf.graphs.application.search.impl.GraphTraversalServiceImpl;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncGraphQueryServiceImplTest {
+
+    private final AsyncGraphQueryServiceImpl asyncGraphQueryServiceImpl = new AsyncGraphQueryServiceImpl(
+            new GraphTraversalServiceImpl(), new GraphSearchServiceImpl(), new ShortestPathServiceImpl());
+    private Graph graph;
+
+    @BeforeAll
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @AfterAll
+    void close() {
+        asyncGraphQueryServiceImpl.close();
+    }
+
+    @Test
+    void queries_SameResultsAsServices() throws ExecutionException, InterruptedException {
+        assertEquals("9", asyncGraphQueryServiceImpl.traceLatencyOutput(graph, List.of("A", "B", "C")).get());
+        assertEquals(2, asyncGraphQueryServiceImpl.tracesByMaxHops(graph, "C", "C", 3).get().size());
+        assertEquals(3, asyncGraphQueryServiceImpl.tracesByExactHops(graph, "A", "C", 4).get().size());
+        assertEquals(7, asyncGraphQueryServiceImpl.tracesByMaxLatency(graph, "C", "C", 30).get().size());
+    }
+
+    @Test
+    void queries_WithOptions() throws ExecutionException, InterruptedException {
+        Traces traces = asyncGraphQueryServiceImpl.tracesByMaxHops(graph, "C", "C", 6,
+                QueryOptions.NONE.withMaxResults(3)).get();
+        assertEquals(3, traces.size());
+        assertEquals(TruncationReason.MAX_RESULTS, traces.getTruncation());
+        assertFalse(asyncGraphQueryServiceImpl.tracesByExactHops(graph, "A", "C", 4, QueryOptions.NONE).get()
+                .isTruncated());
+        assertEquals(7, asyncGraphQueryServiceImpl.tracesByMaxLatency(graph, "C", "C", 30, QueryOptions.NONE).get()
+                .size());
+        assertTrue(asyncGraphQueryServiceImpl.shortestPath(graph, "A", QueryOptions.NONE.withMaxExpandedStates(1))
+                .get().isTruncated());
+    }
+
+    @Test
+    void traceLatencyOutputs_FailedTraceDoesNotFailBatch() throws ExecutionException, InterruptedException {
+        List<String> outputs = asyncGraphQueryServiceImpl.traceLatencyOutputs(graph,
+                List.of(List.of("A", "B", "C"), List.of(), List.of("A", "E", "D"))).get();
+        assertEquals(3, outputs.size());
+        assertEquals("9", outputs.get(0));
+        assertTrue(outputs.get(1).startsWith(AsyncGraphQueryService.ERROR_PREFIX));
+        assertEquals("NO SUCH TRACE", outputs.get(2));
+    }
+
+    @Test
+    void shortestPath_Concurrent() throws ExecutionException, InterruptedException {
+        List<CompletableFuture<Long>> distances = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            distances.add(asyncGraphQueryServiceImpl.shortestPath(graph, i % 2 == 0 ? "A" : "B")
+                    .thenApply(paths -> paths.getShortestDistances(paths.getSource().getLabel().equals("A") ? "C" :
+                            "B").getDistance()));
+        }
+        for (CompletableFuture<Long> distance : distances) {
+            assertEquals(9L, distance.get());
+        }
+    }
+
+    @Test
+    void queryLane_RejectsWhenFull() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            QueryLane lane = new QueryLane("test", QueryLimits.of(1, 1), executor);
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> running = lane.submit(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 1;
+            });
+            CompletableFuture<Integer> queued = lane.submit(() -> 2);
+            CompletableFuture<Integer> rejected = lane.submit(() -> 3);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+            assertTrue(exception.getCause() instanceof RejectedExecutionException);
+            assertEquals(1, lane.queued());
+
+            release.countDown();
+            assertEquals(1, running.get());
+            assertEquals(2, queued.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void queryLane_RejectsAfterShutdown() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        QueryLane lane = new QueryLane("test", QueryLimits.of(1, 1), executor);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = lane.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Integer> queued = lane.submit(() -> {
+            ran.set(true);
+            return 2;
+        });
+        executor.shutdown();
+        release.countDown();
+        assertEquals(1, running.get());
+
+        // The queued query is handed over after the shutdown, and is rejected instead of running on the thread of
+        // the finished one
+        ExecutionException exception = assertThrows(ExecutionException.class, queued::get);
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        CompletableFuture<Integer> submitted = lane.submit(() -> {
+            ran.set(true);
+            return 3;
+        });
+        exception = assertThrows(ExecutionException.class, submitted::get);
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        assertFalse(ran.get());
+        assertEquals(0, lane.running());
+        assertEquals(0, lane.queued());
+    }
+}
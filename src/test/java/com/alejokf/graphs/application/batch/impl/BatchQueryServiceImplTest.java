@@ -0,0 +1,103 @@
+package com.alejokf.graphs.application.batch.impl;
+
+import com.alejokf.graphs.application.batch.BatchSummary;
+import com.alejokf.graphs.application.batch.QueryKind;
+import com.alejokf.graphs.application.planner.impl.QueryPlannerServiceImpl;
+import com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl;
+import com.alejokf.graphs.application.search.impl.GraphTraversalServiceImpl;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchQueryServiceImplTest {
+
+    private final BatchQueryServiceImpl batchQueryServiceImpl = new BatchQueryServiceImpl(
+            new QueryPlannerServiceImpl(new GraphTraversalServiceImpl(), new GraphSearchServiceImpl(),
+                    new ShortestPathServiceImpl()));
+    private Graph graph;
+
+    @BeforeEach
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void run_Exercises() throws IOException {
+        String queries = "# exercises\n" +
+                "latency A B C\n" +
+                "latency A D\n" +
+                "latency A D C\n" +
+                "latency A E B C D\n" +
+                "latency A E D\n" +
+                "\n" +
+                "maxHops C C 3\n" +
+                "exactHops A C 4\n" +
+                "shortest A C\n" +
+                "shortest B B\n" +
+                "maxLatency C C 30\n";
+        StringWriter results = new StringWriter();
+
+        BatchSummary summary = batchQueryServiceImpl.run(graph, new BufferedReader(new StringReader(queries)),
+                results, 4);
+
+        assertEquals("9\n5\n13\n22\nNO SUCH TRACE\n2\n3\n9\n9\n7\n", results.toString());
+        assertEquals(10, summary.getQueries());
+        assertEquals(0, summary.getErrors());
+        assertEquals(5, summary.getKinds().get(QueryKind.LATENCY).getCount());
+        assertEquals(2, summary.getKinds().get(QueryKind.SHORTEST).getCount());
+    }
+
+    @Test
+    void run_InvalidQueries() throws IOException {
+        String queries = "latency A B C\n" +
+                "unknown A B\n" +
+                "maxHops C C\n" +
+                "maxHops X C 3\n" +
+                "shortest A C\n";
+        StringWriter results = new StringWriter();
+
+        BatchSummary summary = batchQueryServiceImpl.run(graph, new BufferedReader(new StringReader(queries)),
+                results, 2);
+
+        String[] lines = results.toString().split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("9", lines[0]);
+        assertTrue(lines[1].startsWith("ERROR at line 2"));
+        assertTrue(lines[2].startsWith("ERROR at line 3"));
+        assertTrue(lines[3].startsWith("ERROR at line 4"));
+        assertEquals("9", lines[4]);
+        assertEquals(3, summary.getErrors());
+    }
+
+    @Test
+    void run_ManyQueriesInInputOrder() throws IOException {
+        String[] queries = {"latency A B C", "maxLatency C C 30", "shortest A C", "exactHops A C 4", "latency A E D"};
+        String[] expected = {"9", "7", "9", "3", "NO SUCH TRACE"};
+        StringBuilder input = new StringBuilder();
+        List<String> expectedLines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            input.append(queries[i * 7 % queries.length]).append('\n');
+            expectedLines.add(expected[i * 7 % queries.length]);
+        }
+        StringWriter results = new StringWriter();
+
+        BatchSummary summary = batchQueryServiceImpl.run(graph, new BufferedReader(new StringReader(input.toString())),
+                results, 8);
+
+        assertEquals(expectedLines, List.of(results.toString().split("\n")));
+        assertEquals(2_000, summary.getQueries());
+    }
+}
@@ -0,0 +1,137 @@
+package com.alejokf.graphs.application.compression.impl;
+
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.search.Traces;
+import com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl;
+import com.alejokf.graphs.application.search.impl.GraphTraversalServiceImpl;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.CompressedGraph;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.domain.WeightOverlay;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedGraphServiceImplTest {
+
+    private final CompressedGraphServiceImpl compressedGraphServiceImpl = new CompressedGraphServiceImpl();
+    private CompressedGraph graph;
+
+    @BeforeEach
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = CompressedGraph.of(reader.readFromFile("com/alejokf/graphs/TestInput.csv"));
+    }
+
+    @Test
+    void exercises_SameResultsAsUncompressed() {
+        assertEquals(Optional.of(9L), compressedGraphServiceImpl.traceLatency(graph, List.of("A", "B", "C")));
+        assertEquals(Optional.of(5L), compressedGraphServiceImpl.traceLatency(graph, List.of("A", "D")));
+        assertEquals(Optional.of(13L), compressedGraphServiceImpl.traceLatency(graph, List.of("A", "D", "C")));
+        assertEquals(Optional.of(22L),
+                compressedGraphServiceImpl.traceLatency(graph, List.of("A", "E", "B", "C", "D")));
+        assertEquals(Optional.empty(), compressedGraphServiceImpl.traceLatency(graph, List.of("A", "E", "D")));
+        assertEquals(2, compressedGraphServiceImpl.tracesByMaxHops(graph, "C", "C", 3).size());
+        assertEquals(3, compressedGraphServiceImpl.tracesByExactHops(graph, "A", "C", 4).size());
+        assertEquals(9L, compressedGraphServiceImpl.shortestPath(graph, "A").getShortestDistances("C")
+                .getDistance());
+        assertEquals(9L, compressedGraphServiceImpl.shortestPath(graph, "B").getShortestDistances("B")
+                .getDistance());
+        assertEquals(7, compressedGraphServiceImpl.tracesByMaxLatency(graph, "C", "C", 30).size());
+    }
+
+    @Test
+    void traces_WithOptions_Truncated() {
+        Traces traces = compressedGraphServiceImpl.tracesByMaxHops(graph, "C", "C", 6,
+                QueryOptions.NONE.withMaxResults(3));
+        assertEquals(3, traces.size());
+        assertEquals(TruncationReason.MAX_RESULTS, traces.getTruncation());
+
+        Traces expanded = compressedGraphServiceImpl.tracesByMaxLatency(graph, "C", "C", 30,
+                QueryOptions.NONE.withMaxExpandedStates(5));
+        assertEquals(TruncationReason.MAX_EXPANDED_STATES, expanded.getTruncation());
+        assertTrue(expanded.size() < 7);
+
+        Traces complete = compressedGraphServiceImpl.tracesByExactHops(graph, "A", "C", 4,
+                QueryOptions.NONE.withMaxExpandedStates(1_000));
+        assertEquals(3, complete.size());
+        assertFalse(complete.isTruncated());
+
+        assertThrows(IllegalArgumentException.class, () -> compressedGraphServiceImpl.tracesByMaxHops(graph, "C",
+                "C", 3, QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withWeight("A", "B", 1))));
+    }
+
+    @Test
+    void unknownNodes() {
+        assertEquals(Optional.empty(), compressedGraphServiceImpl.traceLatency(graph, List.of("A", "Z")));
+        assertTrue(compressedGraphServiceImpl.tracesByMaxHops(graph, "A", "Z", 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> compressedGraphServiceImpl.shortestPath(graph, "Z"));
+        assertThrows(IllegalArgumentException.class,
+                () -> compressedGraphServiceImpl.traceLatency(graph, List.of()));
+    }
+
+    @Test
+    void compressedGraph_DecodesSameEdges() {
+        Graph randomGraph = TestGraphs.random(300, 300, 3000,
+                random -> 1L + (long) (random.nextDouble() * (1L << 40)), 3);
+        IndexedGraph indexedGraph = randomGraph.getIndexedGraph();
+        CompressedGraph compressedGraph = CompressedGraph.of(randomGraph);
+        assertEquals(40, compressedGraph.getWeightWidth());
+        assertEquals(indexedGraph.edgeCount(), compressedGraph.edgeCount());
+
+        CompressedGraph.EdgeCursor cursor = compressedGraph.cursor();
+        // Visiting the nodes in reverse order exercises the sampled offset index
+        for (int node = indexedGraph.size() - 1; node >= 0; node--) {
+            assertEquals(indexedGraph.outDegree(node), cursor.moveTo(node));
+            for (int edge = indexedGraph.outStart(node); edge < indexedGraph.outEnd(node); edge++) {
+                assertTrue(cursor.next());
+                assertEquals(indexedGraph.outHead(edge), cursor.head());
+                assertEquals(indexedGraph.outWeight(edge), cursor.weight());
+            }
+            assertFalse(cursor.next());
+        }
+        assertTrue(compressedGraph.sizeInBytes() < compressedGraph.uncompressedSizeInBytes());
+    }
+
+    @Test
+    void randomGraph_SameResultsAsUncompressed() {
+        Graph randomGraph = TestGraphs.random(500, 500, 2000, random -> 1L + (long) (random.nextDouble() * 20), 5);
+        CompressedGraph compressedGraph = CompressedGraph.of(randomGraph);
+        ShortestPathServiceImpl shortestPathService = new ShortestPathServiceImpl();
+        GraphSearchServiceImpl graphSearchService = new GraphSearchServiceImpl();
+        GraphTraversalServiceImpl graphTraversalService = new GraphTraversalServiceImpl();
+
+        for (int i = 0; i < 500; i += 13) {
+            String source = "N" + i;
+            ShortestPaths expected = shortestPathService.shortestPath(randomGraph, source);
+            ShortestPaths actual = compressedGraphServiceImpl.shortestPath(compressedGraph, source);
+            String target = "N" + (i * 7 % 500);
+            assertEquals(expected.getDistance(target), actual.getDistance(target));
+            for (int j = 0; j < 500; j += 31) {
+                assertEquals(expected.getDistance("N" + j), actual.getDistance("N" + j));
+            }
+
+            assertEquals(graphSearchService.tracesByMaxHops(randomGraph, source, target, 4),
+                    compressedGraphServiceImpl.tracesByMaxHops(compressedGraph, source, target, 4));
+            assertEquals(graphSearchService.tracesByMaxLatency(randomGraph, source, target, 25),
+                    compressedGraphServiceImpl.tracesByMaxLatency(compressedGraph, source, target, 25));
+
+            List<String> trace = List.of(source, "N" + (i + 1), "N" + (i + 2));
+            assertEquals(graphTraversalService.traceLatency(randomGraph, trace),
+                    compressedGraphServiceImpl.traceLatency(compressedGraph, trace));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.alejokf.graphs.application.estimation.impl;
+
+import com.alejokf.graphs.application.estimation.EstimationOptions;
+import com.alejokf.graphs.application.estimation.TraceCountEstimate;
+import com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.GraphBuilder;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceCountEstimationServiceImplTest {
+
+    private static final EstimationOptions OPTIONS = EstimationOptions.DEFAULT.withTargetRelativeError(0.01)
+            .withTimeBudget(Duration.ofSeconds(10));
+
+    private final TraceCountEstimationServiceImpl estimationServiceImpl = new TraceCountEstimationServiceImpl();
+    private Graph graph;
+
+    @BeforeEach
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void estimates_Exercises() {
+        assertClose(2, estimationServiceImpl.estimateTracesByMaxHops(graph, "C", "C", 3, OPTIONS));
+        assertClose(3, estimationServiceImpl.estimateTracesByExactHops(graph, "A", "C", 4, OPTIONS));
+        assertClose(7, estimationServiceImpl.estimateTracesByMaxLatency(graph, "C", "C", 30, OPTIONS));
+    }
+
+    @Test
+    void estimate_NoTraces_Exact() {
+        TraceCountEstimate estimate = estimationServiceImpl.estimateTracesByMaxHops(graph, "C", "A", 10, OPTIONS);
+        assertEquals(TraceCountEstimate.StopReason.EXACT, estimate.getStopReason());
+        assertEquals(0, estimate.getEstimate());
+        assertEquals(0, estimationServiceImpl.estimateTracesByMaxHops(graph, "A", "C", 1, OPTIONS).getEstimate());
+        assertEquals(1, estimationServiceImpl.estimateTracesByExactHops(graph, "A", "A", 0, OPTIONS).getEstimate());
+        assertThrows(IllegalArgumentException.class,
+                () -> estimationServiceImpl.estimateTracesByMaxHops(graph, "Z", "C", 3, OPTIONS));
+    }
+
+    @Test
+    void estimate_SameSeed_SameEstimateWhateverTheParallelism() {
+        Graph randomGraph = TestGraphs.random(40, 300, 10, 5);
+        EstimationOptions options = EstimationOptions.DEFAULT.withTargetRelativeError(0).withMaxSamples(50_000)
+                .withTimeBudget(Duration.ofMinutes(1)).withSeed(7);
+        TraceCountEstimate sequential = estimationServiceImpl.estimateTracesByMaxHops(randomGraph, "N0", "N1", 8,
+                options.withParallelism(1));
+        TraceCountEstimate parallel = estimationServiceImpl.estimateTracesByMaxHops(randomGraph, "N0", "N1", 8,
+                options.withParallelism(4));
+        assertEquals(TraceCountEstimate.StopReason.MAX_SAMPLES, parallel.getStopReason());
+        assertEquals(50_000, parallel.getSamples());
+        assertEquals(sequential.getEstimate(), parallel.getEstimate());
+        assertEquals(sequential.getStandardError(), parallel.getStandardError());
+    }
+
+    @Test
+    void estimate_DenseCyclicGraph_CloseToExactCount() {
+        Graph randomGraph = TestGraphs.random(30, 200, 10, 11);
+        GraphSearchServiceImpl graphSearchService = new GraphSearchServiceImpl();
+        EstimationOptions options = OPTIONS.withTargetRelativeError(0.02);
+
+        assertClose(graphSearchService.tracesByMaxHops(randomGraph, "N0", "N1", 6).size(),
+                estimationServiceImpl.estimateTracesByMaxHops(randomGraph, "N0", "N1", 6, options));
+        assertClose(graphSearchService.tracesByExactHops(randomGraph, "N2", "N2", 5).size(),
+                estimationServiceImpl.estimateTracesByExactHops(randomGraph, "N2", "N2", 5, options));
+        assertClose(graphSearchService.tracesByMaxLatency(randomGraph, "N3", "N4", 20).size(),
+                estimationServiceImpl.estimateTracesByMaxLatency(randomGraph, "N3", "N4", 20, options));
+    }
+
+    @Test
+    void estimateByMaxLatency_ZeroWeightCycle_WalksAreCut() {
+        GraphBuilder builder = new GraphBuilder();
+        builder.addEdge("S", "A", 1);
+        builder.addEdge("A", "B", 0);
+        builder.addEdge("B", "A", 0);
+        Graph zeroWeightGraph = builder.build();
+
+        // Walks are cut after (5 / 1 + 1) * 3 hops, so only the traces S-A, S-A-B-A, ... with at most 18 hops are
+        // counted
+        TraceCountEstimate estimate = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> estimationServiceImpl.estimateTracesByMaxLatency(zeroWeightGraph, "S", "A", 5, OPTIONS));
+        assertEquals(9, estimate.getEstimate());
+    }
+
+    @Test
+    void estimateByMaxLatency_ZeroWeightChains_WalksAreNotCut() {
+        GraphBuilder builder = new GraphBuilder();
+        builder.addEdge("A", "B", 0);
+        builder.addEdge("B", "C", 0);
+        builder.addEdge("C", "D", 0);
+        builder.addEdge("D", "A", 1);
+        Graph zeroWeightGraph = builder.build();
+
+        // The traces with 1 to 4 laps of the cycle have a latency below 5, and the one with 4 laps has 19 hops
+        TraceCountEstimate estimate = estimationServiceImpl.estimateTracesByMaxLatency(zeroWeightGraph, "A", "D", 5,
+                OPTIONS);
+        assertEquals(4, estimate.getEstimate());
+        assertEquals(4, new GraphSearchServiceImpl().tracesByMaxLatency(zeroWeightGraph, "A", "D", 5).size());
+    }
+
+    @Test
+    void estimate_TimeBudget() {
+        Graph randomGraph = TestGraphs.random(40, 300, 10, 5);
+        TraceCountEstimate estimate = estimationServiceImpl.estimateTracesByMaxHops(randomGraph, "N0", "N1", 12,
+                EstimationOptions.DEFAULT.withTargetRelativeError(0).withTimeBudget(Duration.ZERO));
+        assertEquals(TraceCountEstimate.StopReason.TIME_BUDGET, estimate.getStopReason());
+        assertTrue(estimate.getSamples() > 0);
+        assertTrue(estimate.getLower() <= estimate.getEstimate() && estimate.getEstimate() <= estimate.getUpper());
+    }
+
+    @Test
+    void normalQuantile() {
+        assertEquals(1.959964, TraceCountEstimationServiceImpl.normalQuantile(0.975), 1e-6);
+        assertEquals(-2.326348, TraceCountEstimationServiceImpl.normalQuantile(0.01), 1e-6);
+        assertEquals(0, TraceCountEstimationServiceImpl.normalQuantile(0.5), 1e-12);
+    }
+
+    /**
+     * The exact count is within three margins of the estimate, far beyond the confidence level, so the test is not
+     * flaky
+     */
+    private static void assertClose(long exact, TraceCountEstimate estimate) {
+        assertTrue(Math.abs(estimate.getEstimate() - exact) <= 3 * (estimate.getUpper() - estimate.getEstimate()),
+                exact + " not close to " + estimate);
+        assertEquals(TraceCountEstimate.StopReason.TARGET_ERROR, estimate.getStopReason());
+    }
+}
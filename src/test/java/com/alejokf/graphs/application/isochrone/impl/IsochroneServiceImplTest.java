@@ -0,0 +1,94 @@
+package com.alejokf.graphs.application.isochrone.impl;
+
+import com.alejokf.graphs.application.isochrone.Isochrone;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IsochroneServiceImplTest {
+
+    private final IsochroneServiceImpl isochroneServiceImpl = new IsochroneServiceImpl();
+    private Graph graph;
+
+    @BeforeEach
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void isochrone_FromA() {
+        Isochrone isochrone = isochroneServiceImpl.isochrone(graph, "A", 9);
+        assertEquals(4, isochrone.size());
+        assertEquals(5, isochrone.distanceOf("B"));
+        assertEquals(5, isochrone.distanceOf("D"));
+        assertEquals(7, isochrone.distanceOf("E"));
+        assertEquals("C", isochrone.label(3));
+        assertEquals(9, isochrone.distance(3));
+        assertEquals(-1, isochrone.distanceOf("A"));
+
+        assertEquals(0, isochroneServiceImpl.isochrone(graph, "A", 4).size());
+    }
+
+    @Test
+    void isochrone_FromA_MaxResults() {
+        Isochrone isochrone = isochroneServiceImpl.isochrone(graph, "A", 9, QueryOptions.NONE.withMaxResults(2));
+        assertEquals(TruncationReason.MAX_RESULTS, isochrone.getTruncation());
+        // Only the closest nodes, B and D, are kept
+        assertEquals(2, isochrone.size());
+        assertEquals(5, isochrone.distanceOf("B"));
+        assertEquals(5, isochrone.distanceOf("D"));
+        assertEquals(-1, isochrone.distanceOf("E"));
+
+        assertFalse(isochroneServiceImpl.isochrone(graph, "A", 9).isTruncated());
+    }
+
+    @Test
+    void isochrone_FromC_IncludesCycle() {
+        Isochrone isochrone = isochroneServiceImpl.isochrone(graph, "C", 9);
+        assertEquals(4, isochrone.size());
+        assertEquals(2, isochrone.distanceOf("E"));
+        assertEquals(8, isochrone.distanceOf("D"));
+        assertEquals(5, isochrone.distanceOf("B"));
+        assertEquals(9, isochrone.distanceOf("C"));
+    }
+
+    @Test
+    void isochrones_RandomGraph_SameAsShortestPaths() {
+        Graph randomGraph = TestGraphs.random(200, 800, 20, 11);
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            labels.add("N" + i);
+        }
+        ShortestPathServiceImpl shortestPathService = new ShortestPathServiceImpl();
+
+        List<Isochrone> isochrones = isochroneServiceImpl.isochrones(randomGraph, labels, 25);
+        assertEquals(200, isochrones.size());
+        for (int i = 0; i < 200; i += 13) {
+            Isochrone isochrone = isochrones.get(i);
+            assertEquals("N" + i, isochrone.getSource().getLabel());
+            for (String label : labels) {
+                ShortestPath path = shortestPathService.shortestPathWithMaxHops(randomGraph, "N" + i, label, 200);
+                long expected = path == null || path.getDistance() > 25 ? -1 : path.getDistance();
+                assertEquals(expected, isochrone.distanceOf(label));
+            }
+            for (int j = 1; j < isochrone.size(); j++) {
+                assertTrue(isochrone.distance(j - 1) <= isochrone.distance(j));
+            }
+        }
+    }
+}
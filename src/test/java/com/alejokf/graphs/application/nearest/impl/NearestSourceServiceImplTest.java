@@ -0,0 +1,121 @@
+package com.alejokf.graphs.application.nearest.impl;
+
+import com.alejokf.graphs.application.nearest.Direction;
+import com.alejokf.graphs.application.nearest.NearestSources;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NearestSourceServiceImplTest {
+
+    private final NearestSourceServiceImpl nearestSourceServiceImpl = new NearestSourceServiceImpl();
+    private Graph graph;
+
+    @BeforeEach
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void nearestSources_Forward() {
+        NearestSources nearest = nearestSourceServiceImpl.nearestSources(graph, List.of("A", "C"), Direction.FORWARD);
+        assertEquals(0L, nearest.getDistance("A"));
+        assertEquals("A", nearest.getOwner("A"));
+        assertEquals(0L, nearest.getDistance("C"));
+        assertEquals("C", nearest.getOwner("C"));
+        assertEquals(2L, nearest.getDistance("E"));
+        assertEquals("C", nearest.getOwner("E"));
+        assertEquals(5L, nearest.getDistance("B"));
+        assertEquals("A", nearest.getOwner("B"));
+        assertEquals(5L, nearest.getDistance("D"));
+        assertEquals("A", nearest.getOwner("D"));
+    }
+
+    @Test
+    void nearestSources_Forward_MaxExpandedStates() {
+        NearestSources nearest = nearestSourceServiceImpl.nearestSources(graph, List.of("A", "C"), Direction.FORWARD,
+                QueryOptions.NONE.withMaxExpandedStates(2));
+        assertEquals(TruncationReason.MAX_EXPANDED_STATES, nearest.getTruncation());
+        // Only the sources are processed, the nodes reached from them have no final distance yet
+        assertEquals("A", nearest.getOwner("A"));
+        assertEquals("C", nearest.getOwner("C"));
+        assertNull(nearest.getDistance("E"));
+        assertNull(nearest.getOwner("E"));
+        assertNull(nearest.getOwner("B"));
+
+        assertFalse(nearestSourceServiceImpl.nearestSources(graph, List.of("A", "C"), Direction.FORWARD)
+                .isTruncated());
+    }
+
+    @Test
+    void nearestSources_Reverse() {
+        NearestSources nearest = nearestSourceServiceImpl.nearestSources(graph, List.of("A"), Direction.REVERSE);
+        assertEquals(0L, nearest.getDistance("A"));
+        // No node but A itself reaches A
+        assertNull(nearest.getDistance("B"));
+        assertNull(nearest.getOwner("C"));
+
+        nearest = nearestSourceServiceImpl.nearestSources(graph, List.of("B", "D"), Direction.REVERSE);
+        assertEquals(5L, nearest.getDistance("C"));
+        assertEquals("B", nearest.getOwner("C"));
+        assertEquals(3L, nearest.getDistance("E"));
+        assertEquals("B", nearest.getOwner("E"));
+        assertEquals(5L, nearest.getDistance("A"));
+    }
+
+    @Test
+    void nearestSources_RandomGraph_SameAsShortestPaths() {
+        Graph randomGraph = TestGraphs.random(150, 450, 30, 5);
+        List<String> sources = List.of("N3", "N50", "N97", "N120");
+        ShortestPathServiceImpl shortestPathService = new ShortestPathServiceImpl();
+
+        NearestSources forward = nearestSourceServiceImpl.nearestSources(randomGraph, sources, Direction.FORWARD);
+        NearestSources reverse = nearestSourceServiceImpl.nearestSources(randomGraph, sources, Direction.REVERSE);
+        for (Node node : randomGraph.getNodes().values()) {
+            Long forwardExpected = null;
+            Long reverseExpected = null;
+            for (String source : sources) {
+                forwardExpected = min(forwardExpected, distance(shortestPathService, randomGraph, source,
+                        node.getLabel()));
+                reverseExpected = min(reverseExpected, distance(shortestPathService, randomGraph, node.getLabel(),
+                        source));
+            }
+            assertEquals(forwardExpected, forward.getDistance(node.getLabel()));
+            assertEquals(reverseExpected, reverse.getDistance(node.getLabel()));
+            if (forwardExpected != null) {
+                assertEquals(forwardExpected, distance(shortestPathService, randomGraph,
+                        forward.getOwner(node.getLabel()), node.getLabel()));
+            }
+        }
+    }
+
+    private static Long distance(ShortestPathServiceImpl shortestPathService, Graph graph, String from, String to) {
+        if (from.equals(to)) {
+            return 0L;
+        }
+        ShortestPath path = shortestPathService.shortestPathWithMaxHops(graph, from, to, graph.getNodes().size());
+        return path == null ? null : path.getDistance();
+    }
+
+    private static Long min(Long a, Long b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        return Math.min(a, b);
+    }
+}
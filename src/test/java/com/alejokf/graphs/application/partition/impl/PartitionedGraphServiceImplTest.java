@@ -0,0 +1,76 @@
+package com.alejokf.graphs.application.partition.impl;
+
+import com.alejokf.graphs.application.partition.BspMode;
+import com.alejokf.graphs.application.partition.BspResult;
+import com.alejokf.graphs.application.partition.PartitionStrategy;
+import com.alejokf.graphs.application.partition.PartitionedGraph;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PartitionedGraphServiceImplTest {
+
+    private final PartitionedGraphServiceImpl partitionedGraphServiceImpl = new PartitionedGraphServiceImpl();
+    private Graph graph;
+
+    @BeforeAll
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void shortestPaths_FromC_Threads() {
+        PartitionedGraph partitioned = partitionedGraphServiceImpl.partition(graph, 3, PartitionStrategy.HASH);
+        BspResult result = partitionedGraphServiceImpl.shortestPaths(partitioned, "C", BspMode.THREADS);
+        assertEquals(8L, result.getValue("D"));
+        assertEquals(9L, result.getValue("C"));
+        assertEquals(Long.MAX_VALUE, result.getValue("A"));
+        assertFalse(result.getMetrics().isEmpty());
+    }
+
+    @Test
+    void reachableByMaxHops_FromA_Threads() {
+        PartitionedGraph partitioned = partitionedGraphServiceImpl.partition(graph, 2, PartitionStrategy.EDGE_CUT);
+        BspResult result = partitionedGraphServiceImpl.reachableByMaxHops(partitioned, "A", 1, BspMode.THREADS);
+        assertEquals(1L, result.getValue("B"));
+        assertEquals(1L, result.getValue("E"));
+        assertEquals(Long.MAX_VALUE, result.getValue("C"));
+    }
+
+    @Test
+    void countTracesByMaxHops_CC_Threads() {
+        PartitionedGraph partitioned = partitionedGraphServiceImpl.partition(graph, 2, PartitionStrategy.EDGE_CUT);
+        assertEquals(2L, partitionedGraphServiceImpl.countTracesByMaxHops(partitioned, "C", 3, BspMode.THREADS)
+                .getValue("C"));
+        assertEquals(10L, partitionedGraphServiceImpl.countTracesByMaxHops(partitioned, "C", 6, BspMode.THREADS)
+                .getValue("C"));
+    }
+
+    @Test
+    void countTracesByMaxHops_Overflow_Fails() {
+        PartitionedGraph partitioned = partitionedGraphServiceImpl.partition(graph, 2, PartitionStrategy.EDGE_CUT);
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> partitionedGraphServiceImpl.countTracesByMaxHops(partitioned, "C", 500, BspMode.THREADS));
+        assertTrue(exception.getCause() instanceof ArithmeticException);
+    }
+
+    @Test
+    void shortestPaths_FromA_Processes() {
+        PartitionedGraph partitioned = partitionedGraphServiceImpl.partition(graph, 2, PartitionStrategy.HASH);
+        BspResult result = partitionedGraphServiceImpl.shortestPaths(partitioned, "A", BspMode.PROCESSES);
+        assertEquals(9L, result.getValue("C"));
+        assertEquals(5L, result.getValue("D"));
+        assertEquals(Long.MAX_VALUE, result.getValue("A"));
+    }
+}
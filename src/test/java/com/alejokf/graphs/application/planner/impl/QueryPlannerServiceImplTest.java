@@ -0,0 +1,108 @@
+package com.alejokf.graphs.application.planner.impl;
+
+import com.alejokf.graphs.application.batch.BatchQuery;
+import com.alejokf.graphs.application.planner.PlannedResult;
+import com.alejokf.graphs.application.planner.QueryPlan;
+import com.alejokf.graphs.application.planner.Strategy;
+import com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl;
+import com.alejokf.graphs.application.search.impl.GraphTraversalServiceImpl;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryPlannerServiceImplTest {
+
+    private final GraphSearchServiceImpl graphSearchService = new GraphSearchServiceImpl();
+    private final QueryPlannerServiceImpl queryPlannerServiceImpl = new QueryPlannerServiceImpl(
+            new GraphTraversalServiceImpl(), graphSearchService, new ShortestPathServiceImpl());
+    private Graph graph;
+
+    @BeforeEach
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void execute_Exercises() {
+        assertEquals("9", result("latency A B C"));
+        assertEquals("NO SUCH TRACE", result("latency A E D"));
+        assertEquals("2", result("maxHops C C 3"));
+        assertEquals("3", result("exactHops A C 4"));
+        assertEquals("9", result("shortest A C"));
+        assertEquals("9", result("shortest B B"));
+        assertEquals("7", result("maxLatency C C 30"));
+    }
+
+    @Test
+    void plan_Unreachable_IndexLookup() {
+        QueryPlan plan = queryPlannerServiceImpl.plan(graph, BatchQuery.parse("maxHops C A 10"));
+        assertEquals(Strategy.INDEX_LOOKUP, plan.getStrategy());
+        assertEquals("0", result("maxHops C A 10"));
+        assertEquals("NO SUCH TRACE", result("shortest B A"));
+    }
+
+    @Test
+    void plan_ShortestPathTree_Cached() {
+        BatchQuery query = BatchQuery.parse("shortest A C");
+        assertTrue(queryPlannerServiceImpl.plan(graph, query).getChosen().getOperations() > 1);
+
+        PlannedResult first = queryPlannerServiceImpl.execute(graph, query);
+        assertEquals(Strategy.SHORTEST_PATH_TREE, first.getPlan().getStrategy());
+        assertEquals(1, queryPlannerServiceImpl.plan(graph, BatchQuery.parse("shortest A D")).getChosen()
+                .getOperations());
+        assertEquals("5", result("shortest A D"));
+    }
+
+    @Test
+    void plan_ManyHops_DpCounting() {
+        BatchQuery query = BatchQuery.parse("maxHops C C 40");
+        PlannedResult result = queryPlannerServiceImpl.execute(graph, query);
+        assertEquals(Strategy.DP_COUNTING, result.getPlan().getStrategy());
+        assertTrue(result.explain().contains("* DP_COUNTING"));
+        assertTrue(result.explain().contains("DFS_ENUMERATION"));
+    }
+
+    @Test
+    void plan_FewHopsOnBigGraph_DfsEnumeration() {
+        Graph randomGraph = TestGraphs.random(2000, 6000, 9, 3);
+        BatchQuery query = BatchQuery.parse("maxHops N0 N1 2");
+        assertEquals(Strategy.DFS_ENUMERATION, queryPlannerServiceImpl.plan(randomGraph, query).getStrategy());
+        assertEquals(String.valueOf(graphSearchService.tracesByMaxHops(randomGraph, "N0", "N1", 2).size()),
+                queryPlannerServiceImpl.execute(randomGraph, query).getResult());
+    }
+
+    @Test
+    void traceCounter_RandomGraph_SameAsSearch() {
+        Graph randomGraph = TestGraphs.random(30, 60, 9, 3);
+        IndexedGraph indexedGraph = randomGraph.getIndexedGraph();
+
+        for (int i = 0; i < 30; i += 3) {
+            for (int j = 0; j < 30; j += 4) {
+                String start = "N" + i;
+                String end = "N" + j;
+                int startNode = indexedGraph.indexOf(start);
+                int endNode = indexedGraph.indexOf(end);
+                assertEquals(graphSearchService.tracesByMaxHops(randomGraph, start, end, 6).size(),
+                        new TraceCounter(indexedGraph).countByHops(startNode, endNode, 6, false));
+                assertEquals(graphSearchService.tracesByExactHops(randomGraph, start, end, 5).size(),
+                        new TraceCounter(indexedGraph).countByHops(startNode, endNode, 5, true));
+                assertEquals(graphSearchService.tracesByMaxLatency(randomGraph, start, end, 25).size(),
+                        new TraceCounter(indexedGraph).countByLatency(startNode, endNode, 25, 9));
+            }
+        }
+    }
+
+    private String result(String query) {
+        return queryPlannerServiceImpl.execute(graph, BatchQuery.parse(query)).getResult();
+    }
+}
@@ -0,0 +1,82 @@
+package com.alejokf.graphs.application.reachability.impl;
+
+import com.alejokf.graphs.domain.Edge;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReachabilityServiceImplTest {
+
+    private final ReachabilityServiceImpl reachabilityServiceImpl = new ReachabilityServiceImpl();
+    private Graph graph;
+
+    @BeforeAll
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void canReach_FromA() {
+        assertTrue(reachabilityServiceImpl.canReach(graph, "A", "B"));
+        assertTrue(reachabilityServiceImpl.canReach(graph, "A", "C"));
+        assertFalse(reachabilityServiceImpl.canReach(graph, "A", "A"));
+    }
+
+    @Test
+    void canReach_ToA() {
+        assertFalse(reachabilityServiceImpl.canReach(graph, "C", "A"));
+        assertFalse(reachabilityServiceImpl.canReach(graph, "E", "A"));
+    }
+
+    @Test
+    void canReach_SameComponent() {
+        assertTrue(reachabilityServiceImpl.canReach(graph, "C", "C"));
+        assertTrue(reachabilityServiceImpl.canReach(graph, "D", "B"));
+    }
+
+    @Test
+    void canReach_UnknownNode() {
+        assertFalse(reachabilityServiceImpl.canReach(graph, "A", "Z"));
+    }
+
+    @Test
+    void canReach_RandomGraph_SameAsSearch() {
+        Graph randomGraph = TestGraphs.random(60, 60, 90, random -> 1L, 42);
+        Collection<Node> nodes = randomGraph.getNodes().values();
+
+        for (Node from : nodes) {
+            Set<Node> reachable = new HashSet<>();
+            Deque<Node> pending = new ArrayDeque<>(List.of(from));
+            while (!pending.isEmpty()) {
+                for (Edge edge : pending.pop().getEdgesFrom()) {
+                    if (reachable.add(edge.getHead())) {
+                        pending.push(edge.getHead());
+                    }
+                }
+            }
+            for (Node to : nodes) {
+                assertEquals(reachable.contains(to),
+                        reachabilityServiceImpl.canReach(randomGraph, from.getLabel(), to.getLabel()),
+                        from + " -> " + to);
+            }
+        }
+    }
+}
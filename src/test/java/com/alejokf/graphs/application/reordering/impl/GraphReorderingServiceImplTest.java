@@ -0,0 +1,163 @@
+package com.alejokf.graphs.application.reordering.impl;
+
+import com.alejokf.graphs.application.reordering.NodeOrdering;
+import com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl;
+import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.CompressedGraph;
+import com.alejokf.graphs.domain.Edge;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
+import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphReorderingServiceImplTest {
+
+    private final GraphReorderingServiceImpl graphReorderingServiceImpl = new GraphReorderingServiceImpl();
+    private final ShortestPathServiceImpl shortestPathService = new ShortestPathServiceImpl();
+    private final GraphSearchServiceImpl graphSearchService = new GraphSearchServiceImpl();
+
+    @Test
+    void reorder_ExercisesSameResults() throws IOException {
+        Graph graph = new CSVGraphProcessor().readFromFile("com/alejokf/graphs/TestInput.csv");
+        for (NodeOrdering ordering : NodeOrdering.values()) {
+            Graph reordered = graphReorderingServiceImpl.reorder(graph, ordering);
+            assertEquals(9L, shortestPathService.shortestPath(reordered, "A").getShortestDistances("C")
+                    .getDistance());
+            assertEquals(9L, shortestPathService.shortestPath(reordered, "B").getShortestDistances("B")
+                    .getDistance());
+            assertEquals(2, graphSearchService.tracesByMaxHops(reordered, "C", "C", 3).size());
+            assertEquals(3, graphSearchService.tracesByExactHops(reordered, "A", "C", 4).size());
+            assertEquals(7, graphSearchService.tracesByMaxLatency(reordered, "C", "C", 30).size());
+        }
+    }
+
+    @Test
+    void order_IsPermutation() {
+        Graph graph = TestGraphs.random(300, 900, 20, 13);
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        for (NodeOrdering ordering : NodeOrdering.values()) {
+            int[] order = graphReorderingServiceImpl.order(indexedGraph, ordering);
+            boolean[] seen = new boolean[indexedGraph.size()];
+            for (int node : order) {
+                assertTrue(!seen[node]);
+                seen[node] = true;
+            }
+            assertEquals(indexedGraph.size(), order.length);
+        }
+    }
+
+    @Test
+    void reorder_RandomGraph_SameResults() {
+        Graph graph = TestGraphs.random(300, 900, 20, 13);
+        for (NodeOrdering ordering : NodeOrdering.values()) {
+            Graph reordered = graphReorderingServiceImpl.reorder(graph, ordering);
+            for (int i = 0; i < 300; i += 17) {
+                ShortestPaths expected = shortestPathService.shortestPath(graph, "N" + i);
+                ShortestPaths actual = shortestPathService.shortestPath(reordered, "N" + i);
+                for (int j = 0; j < 300; j += 7) {
+                    assertEquals(expected.getDistance("N" + j), actual.getDistance("N" + j));
+                }
+                assertEquals(graphSearchService.tracesByMaxHops(graph, "N" + i, "N" + (i + 1), 4).size(),
+                        graphSearchService.tracesByMaxHops(reordered, "N" + i, "N" + (i + 1), 4).size());
+            }
+        }
+    }
+
+    @Test
+    void reverseCuthillMcKee_ShuffledPath_NeighboursAreConsecutive() {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            positions.add(i);
+        }
+        Collections.shuffle(positions, new Random(5));
+        Map<String, Node> nodes = new HashMap<>();
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            nodes.put("N" + positions.get(i), new Node("N" + positions.get(i)));
+        }
+        for (int i = 0; i + 1 < 100; i++) {
+            addEdge(nodes, edges, "N" + positions.get(i), "N" + positions.get(i + 1), 1);
+        }
+        Graph reordered = graphReorderingServiceImpl.reorder(new Graph(nodes, edges),
+                NodeOrdering.REVERSE_CUTHILL_MCKEE);
+
+        IndexedGraph indexedGraph = reordered.getIndexedGraph();
+        for (int node = 0; node < indexedGraph.size(); node++) {
+            for (int edge = indexedGraph.outStart(node); edge < indexedGraph.outEnd(node); edge++) {
+                assertEquals(1, Math.abs(indexedGraph.outHead(edge) - node));
+            }
+        }
+    }
+
+    @Test
+    void reverseCuthillMcKee_ShuffledPath_CompressesSmaller() {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            positions.add(i);
+        }
+        Collections.shuffle(positions, new Random(7));
+        Map<String, Node> nodes = new HashMap<>();
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            nodes.put("N" + positions.get(i), new Node("N" + positions.get(i)));
+        }
+        for (int i = 0; i + 1 < 1000; i++) {
+            addEdge(nodes, edges, "N" + positions.get(i), "N" + positions.get(i + 1), 1);
+        }
+        Graph graph = new Graph(nodes, edges);
+        Graph reordered = graphReorderingServiceImpl.reorder(graph, NodeOrdering.REVERSE_CUTHILL_MCKEE);
+
+        // Every head is next to its tail once reordered, so every gap takes a single byte
+        assertTrue(CompressedGraph.of(reordered).sizeInBytes() < CompressedGraph.of(graph).sizeInBytes());
+    }
+
+    @Test
+    void hubClustering_HubsFirst() {
+        Map<String, Node> nodes = new HashMap<>();
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            nodes.put("N" + i, new Node("N" + i));
+        }
+        for (int i = 0; i < 9; i++) {
+            addEdge(nodes, edges, "N9", "N" + i, 1);
+        }
+        addEdge(nodes, edges, "N1", "N2", 1);
+        addEdge(nodes, edges, "N3", "N1", 1);
+
+        IndexedGraph indexedGraph = graphReorderingServiceImpl.reorder(new Graph(nodes, edges),
+                NodeOrdering.HUB_CLUSTERING).getIndexedGraph();
+        assertEquals("N9", indexedGraph.getLabel(0));
+        assertEquals("N1", indexedGraph.getLabel(1));
+        assertEquals("N0", indexedGraph.getLabel(2));
+        assertEquals(0, indexedGraph.indexOf("N9"));
+    }
+
+    @Test
+    void reorder_NotPermutation() {
+        IndexedGraph indexedGraph = TestGraphs.random(10, 20, 20, 13).getIndexedGraph();
+        assertThrows(IllegalArgumentException.class, () -> indexedGraph.reorder(new int[]{0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> indexedGraph.reorder(new int[10]));
+    }
+
+    private static void addEdge(Map<String, Node> nodes, List<Edge> edges, String tail, String head, long weight) {
+        Edge edge = new Edge(nodes.get(tail), nodes.get(head), weight);
+        nodes.get(tail).addEdgeFrom(edge);
+        nodes.get(head).addEdgeTo(edge);
+        edges.add(edge);
+    }
+}
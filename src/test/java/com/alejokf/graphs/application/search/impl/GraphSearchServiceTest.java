@@ -1,17 +1,32 @@
 package com.alejokf.graphs.application.search.impl;
 
+import com.alejokf.graphs.application.options.CancellationToken;
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.profiling.QueryProfile;
+import com.alejokf.graphs.application.search.Traces;
 import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.IndexedGraph;
 import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.WeightOverlay;
 import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -68,4 +83,128 @@ class GraphSearchServiceTest {
         List<List<Node>> traces = graphSearchServiceImpl.tracesByMaxLatency(graph, "C", "C", 30);
         assertEquals(7, traces.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void tracesByMaxHops_CC6_SharedPrefixes() {
+        Traces traces = graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 6);
+        int expandedNodes = traces.stream().mapToInt(List::size).sum();
+        assertTrue(traces.entryCount() < expandedNodes);
+
+        List<Integer> hops = new ArrayList<>();
+        traces.forEachTrace((nodes, length) -> hops.add(length - 1));
+        for (int i = 0; i < traces.size(); i++) {
+            assertEquals(traces.get(i).size() - 1, traces.hops(i));
+            assertEquals(traces.hops(i), hops.get(i));
+        }
+    }
+
+    @Test
+    void tracesByMaxHops_CC6_Serialization() throws IOException {
+        Traces traces = graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 6);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        traces.writeTo(new DataOutputStream(bytes));
+        Traces read = Traces.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                graph.getIndexedGraph());
+        assertEquals(traces.toLists(), read.toLists());
+    }
+
+    @Test
+    void tracesByMaxLatency_CC_30_MaxResults() {
+        Traces traces = graphSearchServiceImpl.tracesByMaxLatency(graph, "C", "C", 30,
+                QueryOptions.NONE.withMaxResults(3));
+        assertEquals(3, traces.size());
+        assertTrue(traces.isTruncated());
+        assertEquals(TruncationReason.MAX_RESULTS, traces.getTruncation());
+
+        Traces complete = graphSearchServiceImpl.tracesByMaxLatency(graph, "C", "C", 30, QueryOptions.NONE);
+        assertFalse(complete.isTruncated());
+        assertTrue(complete.toLists().containsAll(traces.toLists()));
+    }
+
+    @Test
+    void tracesByMaxHops_CC_20_MaxExpandedStates() {
+        Traces traces = graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 20,
+                QueryOptions.NONE.withMaxExpandedStates(1000));
+        assertEquals(TruncationReason.MAX_EXPANDED_STATES, traces.getTruncation());
+        for (List<Node> trace : traces) {
+            assertEquals("C", trace.get(0).getLabel());
+            assertEquals("C", trace.get(trace.size() - 1).getLabel());
+        }
+    }
+
+    @Test
+    void tracesByMaxHops_CC_40_CancelledAndDeadline() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        Traces cancelled = graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 40,
+                QueryOptions.NONE.withCancellationToken(token));
+        assertEquals(TruncationReason.CANCELLED, cancelled.getTruncation());
+
+        Traces expired = graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 40,
+                QueryOptions.NONE.withDeadline(Instant.now().minusSeconds(1)));
+        assertEquals(TruncationReason.DEADLINE, expired.getTruncation());
+    }
+
+    @Test
+    void tracesByMaxHops_CC3_Profiling() {
+        assertNull(graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 3).getProfile());
+
+        Traces traces = graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 3, QueryOptions.NONE.withProfiling());
+        assertEquals(2, traces.size());
+        QueryProfile profile = traces.getProfile();
+        assertEquals("tracesByMaxHops C C 3", profile.getQuery());
+        // Every pushed state is popped, plus the initial one
+        assertEquals(profile.getStatesPushed() + 1, profile.getStatesPopped());
+        assertTrue(profile.getEdgesRelaxed() >= profile.getStatesPushed());
+        assertTrue(profile.getMaxFrontier() > 0);
+        assertEquals(0, profile.getHeapInserts());
+        assertEquals(List.of("index", "search", "build"),
+                profile.getPhases().stream().map(QueryProfile.Phase::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void tracesByMaxHops_CC3_Overlay() {
+        QueryOptions options = QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withoutEdge("C", "E"));
+        Traces traces = graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 3, options);
+        assertEquals(List.of("CDC"), traces.stream()
+                .map(trace -> trace.stream().map(Node::getLabel).collect(Collectors.joining()))
+                .collect(Collectors.toList()));
+        assertEquals(2, graphSearchServiceImpl.tracesByMaxHops(graph, "C", "C", 3).size());
+    }
+
+    @Test
+    void tracesByMaxLatency_CC_30_Overlay() {
+        QueryOptions options = QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withoutEdge("C", "D"));
+        // Only the cycle CEBC, of latency 9, is left
+        assertEquals(3, graphSearchServiceImpl.tracesByMaxLatency(graph, "C", "C", 30, options).size());
+
+        options = QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withoutEdge("C", "D").withWeight("E", "B", 13));
+        // The cycle CEBC now has latency 19
+        assertEquals(1, graphSearchServiceImpl.tracesByMaxLatency(graph, "C", "C", 30, options).size());
+    }
+
+    @Test
+    void tracesBuilder_OnlyAcceptedPathsAreStored() {
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        int c = indexedGraph.indexOf("C");
+        Traces.Builder builder = new Traces.Builder(indexedGraph);
+        builder.visit(0, c);
+        builder.visit(1, indexedGraph.indexOf("D"));
+        builder.visit(2, c);
+        builder.addTrace(2);
+        // A path that is explored but never accepted
+        builder.visit(2, indexedGraph.indexOf("E"));
+        builder.visit(3, indexedGraph.indexOf("B"));
+        builder.visit(1, indexedGraph.indexOf("E"));
+        builder.visit(2, indexedGraph.indexOf("B"));
+        builder.visit(3, c);
+        builder.addTrace(3);
+
+        Traces traces = builder.build();
+        assertEquals(List.of("CDC", "CEBC"), traces.stream()
+                .map(trace -> trace.stream().map(Node::getLabel).collect(Collectors.joining()))
+                .collect(Collectors.toList()));
+        // C is shared by both traces, and the rejected path is not stored
+        assertEquals(6, traces.entryCount());
+    }
+}
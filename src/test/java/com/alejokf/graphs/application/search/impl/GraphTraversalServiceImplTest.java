@@ -1,6 +1,7 @@
 package com.alejokf.graphs.application.search.impl;
 
 import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.WeightOverlay;
 import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -71,4 +73,24 @@ class GraphTraversalServiceImplTest {
         String traceLatencyOutput = graphTraversalServiceImpl.traceLatencyOutput(graph, List.of("A", "E", "D"));
         assertEquals("NO SUCH TRACE", traceLatencyOutput);
     }
-}
\ No newline at end of file
+
+    @Test
+    void traceLatency_TestInput_Overlay() {
+        WeightOverlay overlay = WeightOverlay.EMPTY.withWeight("B", "C", 10).withoutEdge("A", "D");
+        assertEquals(Optional.of(15L), graphTraversalServiceImpl.traceLatency(graph, List.of("A", "B", "C"), overlay));
+        assertFalse(graphTraversalServiceImpl.traceLatency(graph, List.of("A", "D", "C"), overlay).isPresent());
+        assertEquals(Optional.of(13L), graphTraversalServiceImpl.traceLatency(graph, List.of("A", "D", "C"),
+                WeightOverlay.EMPTY));
+        // The base graph does not change
+        assertEquals(Optional.of(9L), graphTraversalServiceImpl.traceLatency(graph, List.of("A", "B", "C")));
+        assertThrows(IllegalArgumentException.class, () -> graphTraversalServiceImpl.traceLatency(graph,
+                List.of("A", "B"), WeightOverlay.EMPTY.withoutEdge("A", "C")));
+    }
+
+    @Test
+    void weightOverlay_NegativeWeight() {
+        assertThrows(IllegalArgumentException.class, () -> WeightOverlay.EMPTY.withWeight("A", "B", -1));
+        assertEquals(Optional.of(4L), graphTraversalServiceImpl.traceLatency(graph, List.of("A", "B", "C"),
+                WeightOverlay.EMPTY.withWeight("A", "B", 0)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.alejokf.graphs.application.shortestcycle.impl;
+
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.shortestcycle.ShortestCycles;
+import com.alejokf.graphs.application.shortestpath.ShortestPath;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.WeightOverlay;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShortestCycleServiceImplTest {
+
+    private final ShortestCycleServiceImpl shortestCycleServiceImpl = new ShortestCycleServiceImpl();
+    private Graph graph;
+
+    @BeforeAll
+    void loadGraph() throws IOException {
+        CSVGraphProcessor reader = new CSVGraphProcessor();
+        graph = reader.readFromFile("com/alejokf/graphs/TestInput.csv");
+    }
+
+    @Test
+    void shortestCycle_B() {
+        ShortestPath shortestCycleB = shortestCycleServiceImpl.shortestCycle(graph, "B");
+        assertNotNull(shortestCycleB);
+        assertEquals(9L, shortestCycleB.getDistance());
+        assertEquals("BCEB", shortestCycleB.getNodes().stream().map(Node::getLabel).collect(Collectors.joining()));
+    }
+
+    @Test
+    void shortestCycle_B_MaxExpandedStates() {
+        // C and E are processed, and B is reached back from E but not processed
+        ShortestPath shortestCycleB = shortestCycleServiceImpl.shortestCycle(graph, "B",
+                QueryOptions.NONE.withMaxExpandedStates(2));
+        assertEquals(9L, shortestCycleB.getDistance());
+        assertEquals(TruncationReason.MAX_EXPANDED_STATES, shortestCycleB.getTruncation());
+
+        assertNull(shortestCycleServiceImpl.shortestCycle(graph, "B", QueryOptions.NONE.withMaxExpandedStates(1)));
+        assertFalse(shortestCycleServiceImpl.shortestCycle(graph, "B").isTruncated());
+    }
+
+    @Test
+    void shortestCycle_A() {
+        assertNull(shortestCycleServiceImpl.shortestCycle(graph, "A"));
+    }
+
+    @Test
+    void shortestCycles_AllNodes() {
+        ShortestCycles shortestCycles = shortestCycleServiceImpl.shortestCycles(graph);
+        assertNull(shortestCycles.getShortestCycle("A"));
+        assertEquals(9L, shortestCycles.getShortestCycle("B").getDistance());
+        assertEquals(9L, shortestCycles.getShortestCycle("C").getDistance());
+        assertEquals(16L, shortestCycles.getShortestCycle("D").getDistance());
+        assertEquals(9L, shortestCycles.getShortestCycle("E").getDistance());
+        assertEquals("DCD", shortestCycles.getShortestCycle("D").getNodes().stream().map(Node::getLabel)
+                .collect(Collectors.joining()));
+    }
+
+    @Test
+    void shortestCycles_MaxExpandedStates() {
+        ShortestCycles shortestCycles = shortestCycleServiceImpl.shortestCycles(graph,
+                QueryOptions.NONE.withMaxExpandedStates(2));
+        assertEquals(TruncationReason.MAX_EXPANDED_STATES, shortestCycles.getTruncation());
+        // D is reached back through C before its cycle search stops
+        assertEquals(16L, shortestCycles.getShortestCycle("D").getDistance());
+        assertTrue(shortestCycles.getShortestCycle("D").isTruncated());
+
+        assertFalse(shortestCycleServiceImpl.shortestCycles(graph).isTruncated());
+        assertThrows(IllegalArgumentException.class, () -> shortestCycleServiceImpl.shortestCycles(graph,
+                QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withoutEdge("B", "C"))));
+    }
+}
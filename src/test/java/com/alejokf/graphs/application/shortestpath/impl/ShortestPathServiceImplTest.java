@@ -1,19 +1,36 @@
 package com.alejokf.graphs.application.shortestpath.impl;
 
+import com.alejokf.graphs.application.options.QueryOptions;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.profiling.QueryProfile;
 import com.alejokf.graphs.application.shortestpath.ShortestPath;
 import com.alejokf.graphs.application.shortestpath.ShortestPaths;
+import com.alejokf.graphs.domain.Edge;
 import com.alejokf.graphs.domain.Graph;
 import com.alejokf.graphs.domain.Node;
+import com.alejokf.graphs.domain.TestGraphs;
+import com.alejokf.graphs.domain.WeightOverlay;
 import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ShortestPathServiceImplTest {
 
@@ -61,4 +78,279 @@ class ShortestPathServiceImplTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void kShortestPaths_AC() {
+        List<ShortestPath> paths = shortestPathServiceImpl.kShortestPaths(graph, "A", "C", 10);
+        assertEquals(4, paths.size());
+        assertEquals(List.of("ABC", "ADC", "AEBC", "ADEBC"), paths.stream()
+                .map(path -> path.getNodes().stream().map(Node::getLabel).collect(Collectors.joining()))
+                .collect(Collectors.toList()));
+        assertEquals(List.of(9L, 13L, 14L, 18L),
+                paths.stream().map(ShortestPath::getDistance).collect(Collectors.toList()));
+    }
+
+    @Test
+    void kShortestPaths_CC() {
+        List<ShortestPath> paths = shortestPathServiceImpl.kShortestPaths(graph, "C", "C", 2);
+        assertEquals(2, paths.size());
+        assertEquals("CEBC", paths.get(0).getNodes().stream().map(Node::getLabel).collect(Collectors.joining()));
+        assertEquals(16L, paths.get(1).getDistance());
+    }
+
+    @Test
+    void kShortestPaths_AC_MaxResults() {
+        List<ShortestPath> paths = shortestPathServiceImpl.kShortestPaths(graph, "A", "C", 10,
+                QueryOptions.NONE.withMaxResults(2));
+        assertEquals(List.of(9L, 13L), paths.stream().map(ShortestPath::getDistance).collect(Collectors.toList()));
+        assertTrue(paths.stream().allMatch(path -> path.getTruncation() == TruncationReason.MAX_RESULTS));
+
+        // The search from the target runs out of states before any path is found
+        assertEquals(List.of(), shortestPathServiceImpl.kShortestPaths(graph, "A", "C", 10,
+                QueryOptions.NONE.withMaxExpandedStates(1)));
+        assertFalse(shortestPathServiceImpl.kShortestPaths(graph, "A", "C", 10).get(0).isTruncated());
+        assertThrows(IllegalArgumentException.class, () -> shortestPathServiceImpl.kShortestPaths(graph, "A", "C", 10,
+                QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withoutEdge("A", "B"))));
+    }
+
+    @Test
+    void shortestPathWithMaxHops_AC() {
+        assertNull(shortestPathServiceImpl.shortestPathWithMaxHops(graph, "A", "C", 1));
+
+        ShortestPath path = shortestPathServiceImpl.shortestPathWithMaxHops(graph, "A", "C", 2);
+        assertEquals(9L, path.getDistance());
+        assertEquals("ABC", path.getNodes().stream().map(Node::getLabel).collect(Collectors.joining()));
+    }
+
+    @Test
+    void shortestPathWithMaxHops_CC() {
+        assertNull(shortestPathServiceImpl.shortestPathWithMaxHops(graph, "C", "C", 1));
+
+        ShortestPath twoHops = shortestPathServiceImpl.shortestPathWithMaxHops(graph, "C", "C", 2);
+        assertEquals(16L, twoHops.getDistance());
+        assertEquals("CDC", twoHops.getNodes().stream().map(Node::getLabel).collect(Collectors.joining()));
+
+        ShortestPath threeHops = shortestPathServiceImpl.shortestPathWithMaxHops(graph, "C", "C", 3);
+        assertEquals(9L, threeHops.getDistance());
+        assertEquals("CEBC", threeHops.getNodes().stream().map(Node::getLabel).collect(Collectors.joining()));
+    }
+
+    @Test
+    void shortestPathWithMaxHops_CC_MaxExpandedStates() {
+        // Every round expands the 5 nodes of the graph, so only 2 rounds fit
+        ShortestPath path = shortestPathServiceImpl.shortestPathWithMaxHops(graph, "C", "C", 3,
+                QueryOptions.NONE.withMaxExpandedStates(10));
+        assertEquals(16L, path.getDistance());
+        assertEquals("CDC", path.getNodes().stream().map(Node::getLabel).collect(Collectors.joining()));
+        assertEquals(TruncationReason.MAX_EXPANDED_STATES, path.getTruncation());
+
+        assertNull(shortestPathServiceImpl.shortestPathWithMaxHops(graph, "C", "C", 3,
+                QueryOptions.NONE.withMaxExpandedStates(5)));
+        assertFalse(shortestPathServiceImpl.shortestPathWithMaxHops(graph, "C", "C", 3).isTruncated());
+    }
+
+    @Test
+    void shortestPathWithMaxHops_NegativeHops() {
+        assertThrows(IllegalArgumentException.class,
+                () -> shortestPathServiceImpl.shortestPathWithMaxHops(graph, "A", "C", -1));
+        assertNull(shortestPathServiceImpl.shortestPathWithMaxHops(graph, "A", "C", 0));
+    }
+
+    @Test
+    void shortestPathWithMaxHops_RandomGraph_SameAsKShortestPaths() {
+        Graph randomGraph = TestGraphs.random(500, 5000, 100, 7);
+
+        for (int i = 0; i < 500; i += 7) {
+            ShortestPath expected = shortestPathServiceImpl.kShortestPaths(randomGraph, "N0", "N" + i, 1).stream()
+                    .findFirst().orElse(null);
+            ShortestPath actual = shortestPathServiceImpl.shortestPathWithMaxHops(randomGraph, "N0", "N" + i, 500);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertEquals(expected.getDistance(), actual.getDistance());
+                long distance = 0;
+                for (int j = 1; j < actual.getNodes().size(); j++) {
+                    Node tail = actual.getNodes().get(j - 1);
+                    Node head = actual.getNodes().get(j);
+                    distance += tail.getEdgesFrom().stream().filter(edge -> edge.getHead().equals(head))
+                            .mapToLong(Edge::getWeight).min().orElseThrow();
+                }
+                assertEquals(expected.getDistance(), distance);
+            }
+        }
+    }
+
+    @Test
+    void shortestPath_RandomGraph_SameAsKShortestPaths() {
+        Graph randomGraph = TestGraphs.random(500, 5000, 100, 7);
+
+        ShortestPaths shortestPaths = shortestPathServiceImpl.shortestPath(randomGraph, "N0");
+        for (int i = 0; i < 500; i += 7) {
+            ShortestPath expected = shortestPathServiceImpl.kShortestPaths(randomGraph, "N0", "N" + i, 1).stream()
+                    .findFirst().orElse(null);
+            ShortestPath actual = shortestPaths.getShortestDistances("N" + i);
+            if (expected == null) {
+                assertNull(actual);
+                assertNull(shortestPaths.getDistance("N" + i));
+            } else {
+                assertEquals(expected.getDistance(), actual.getDistance());
+                assertEquals(expected.getDistance(), shortestPaths.getDistance("N" + i));
+                assertEquals("N0", actual.getNodes().get(0).getLabel());
+                assertEquals("N" + i, actual.getNodes().get(actual.getNodes().size() - 1).getLabel());
+            }
+        }
+    }
+
+    @Test
+    void shortestPath_PathsDoNotShareNodes() {
+        ShortestPaths shortestPaths = shortestPathServiceImpl.shortestPath(graph, "A");
+        List<Node> pathAB = shortestPaths.getShortestDistances("B").getNodes();
+        List<Node> pathAC = shortestPaths.getShortestDistances("C").getNodes();
+        assertEquals("AB", pathAB.stream().map(Node::getLabel).collect(Collectors.joining()));
+        assertEquals("ABC", pathAC.stream().map(Node::getLabel).collect(Collectors.joining()));
+        assertThrows(UnsupportedOperationException.class, () -> pathAB.add(new Node("X")));
+    }
+
+    @Test
+    void shortestPath_FromA_MaxExpandedStates() {
+        ShortestPaths shortestPaths = shortestPathServiceImpl.shortestPath(graph, "A",
+                QueryOptions.NONE.withMaxExpandedStates(2));
+        assertTrue(shortestPaths.isTruncated());
+        assertEquals(TruncationReason.MAX_EXPANDED_STATES, shortestPaths.getTruncation());
+        // B and D (at 5) are processed first, the rest have no final distance yet
+        assertEquals(5L, shortestPaths.getDistance("B"));
+        assertEquals(5L, shortestPaths.getDistance("D"));
+        assertNull(shortestPaths.getShortestDistances("C"));
+        assertNull(shortestPaths.getDistance("E"));
+
+        assertFalse(shortestPathServiceImpl.shortestPath(graph, "A").isTruncated());
+    }
+
+    @Test
+    void shortestPath_FromA_Profiling() {
+        assertNull(shortestPathServiceImpl.shortestPath(graph, "A").getProfile());
+
+        QueryProfile profile = shortestPathServiceImpl.shortestPath(graph, "A", QueryOptions.NONE.withProfiling())
+                .getProfile();
+        assertEquals("shortestPath A", profile.getQuery());
+        // B, D and E are inserted from A, C from B, and every other relaxation finds a longer distance
+        assertEquals(4, profile.getHeapInserts());
+        assertEquals(4, profile.getHeapRemoves());
+        assertEquals(0, profile.getHeapDecreaseKeys());
+        assertEquals(4, profile.getStatesPopped());
+        assertEquals(9, profile.getEdgesRelaxed());
+        assertEquals(3, profile.getMaxFrontier());
+        assertEquals(List.of("initialize", "search"),
+                profile.getPhases().stream().map(QueryProfile.Phase::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shortestPath_Profiling_RecordsJfrEvents() throws IOException {
+        Path file = Files.createTempFile("profile", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.alejokf.graphs.QueryProfile");
+            recording.enable("com.alejokf.graphs.QueryPhase");
+            recording.start();
+            shortestPathServiceImpl.shortestPath(graph, "A", QueryOptions.NONE.withProfiling());
+            shortestPathServiceImpl.shortestPath(graph, "B");
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            List<RecordedEvent> queries = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.alejokf.graphs.QueryProfile"))
+                    .collect(Collectors.toList());
+            assertEquals(1, queries.size());
+            assertEquals("shortestPath A", queries.get(0).getString("query"));
+            assertEquals(4, queries.get(0).getLong("statesPopped"));
+            assertEquals(2, events.size() - queries.size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shortestPath_DenseGraph_SameAsDijkstra() {
+        // Only the first 140 nodes have outgoing edges, so the last ones can't be reached from themselves
+        Graph denseGraph = TestGraphs.random(150, 140, 140 * 60, random -> 1L + random.nextInt(1000), 11);
+        assertTrue(DenseAllPairsShortestPaths.isDense(denseGraph.getIndexedGraph()));
+        // The first 150 queries, one per node, use Dijkstra's algorithm, and the matrix is calculated on the next one
+        DenseAllPairsShortestPaths allPairs = DenseAllPairsShortestPaths.of(denseGraph.getIndexedGraph());
+        for (int i = 0; i < 149; i++) {
+            assertNull(allPairs.shortestPaths(i));
+        }
+        assertNotNull(shortestPathServiceImpl.shortestPath(denseGraph, "N149"));
+        assertNotNull(allPairs.shortestPaths(0));
+
+        for (int i = 0; i < 150; i += 3) {
+            String source = "N" + i;
+            ShortestPaths dense = shortestPathServiceImpl.shortestPath(denseGraph, source);
+            ShortestPaths dijkstra = shortestPathServiceImpl.shortestPath(denseGraph, source,
+                    QueryOptions.NONE.withTimeout(Duration.ofHours(1)));
+            for (int j = 0; j < 150; j++) {
+                String target = "N" + j;
+                assertEquals(dijkstra.getDistance(target), dense.getDistance(target), source + " to " + target);
+                ShortestPath path = dense.getShortestDistances(target);
+                if (path == null) {
+                    assertNull(dijkstra.getShortestDistances(target));
+                    continue;
+                }
+                assertEquals(source, path.getNodes().get(0).getLabel());
+                assertEquals(target, path.getNodes().get(path.getNodes().size() - 1).getLabel());
+                long distance = 0;
+                for (int k = 1; k < path.getNodes().size(); k++) {
+                    Node tail = path.getNodes().get(k - 1);
+                    Node head = path.getNodes().get(k);
+                    distance += tail.getEdgesFrom().stream().filter(edge -> edge.getHead().equals(head))
+                            .mapToLong(Edge::getWeight).min().orElseThrow();
+                }
+                assertEquals(path.getDistance(), distance);
+            }
+        }
+    }
+
+    @Test
+    void shortestPath_LazyNodes() {
+        Node a = new Node("A");
+        Node b = new Node("B");
+        assertNull(new ShortestPath(a, b, 5L, null).getNodes());
+
+        AtomicInteger built = new AtomicInteger();
+        ShortestPath lazy = ShortestPath.lazy(a, b, 5L, () -> {
+            built.incrementAndGet();
+            return List.of(a, b);
+        });
+        assertEquals(0, built.get());
+        assertEquals(List.of(a, b), lazy.getNodes());
+        assertEquals(List.of(a, b), lazy.getNodes());
+        assertEquals(1, built.get());
+    }
+
+    @Test
+    void queryOptions_Unlimited() {
+        assertTrue(QueryOptions.NONE.isUnlimited());
+        assertTrue(QueryOptions.NONE.withMaxResults(Integer.MAX_VALUE).isUnlimited());
+        assertFalse(QueryOptions.NONE.withMaxExpandedStates(1_000).isUnlimited());
+        assertFalse(QueryOptions.NONE.withTimeout(Duration.ofHours(1)).isUnlimited());
+        assertFalse(QueryOptions.NONE.withProfiling().isUnlimited());
+        assertFalse(QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withoutEdge("A", "B")).isUnlimited());
+    }
+
+    @Test
+    void shortestPath_FromA_Overlay() {
+        WeightOverlay overlay = WeightOverlay.EMPTY.withWeight("B", "C", 10).withoutEdge("A", "D");
+        ShortestPaths shortestPaths = shortestPathServiceImpl.shortestPath(graph, "A",
+                QueryOptions.NONE.withOverlay(overlay));
+        assertEquals(15L, shortestPaths.getDistance("C"));
+        assertEquals("ABC", shortestPaths.getShortestDistances("C").getNodes().stream().map(Node::getLabel)
+                .collect(Collectors.joining()));
+        assertEquals(23L, shortestPaths.getDistance("D"));
+        assertEquals("ABCD", shortestPaths.getShortestDistances("D").getNodes().stream().map(Node::getLabel)
+                .collect(Collectors.joining()));
+
+        // The base graph does not change
+        assertEquals(9L, shortestPathServiceImpl.shortestPath(graph, "A").getDistance("C"));
+        assertThrows(IllegalArgumentException.class, () -> shortestPathServiceImpl.shortestPath(graph, "A",
+                QueryOptions.NONE.withOverlay(WeightOverlay.EMPTY.withWeight("A", "X", 1))));
+    }
+}
@@ -0,0 +1,105 @@
+package com.alejokf.graphs.domain;
+
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GraphBuilderTest {
+
+    @Test
+    void build_TestInput() throws IOException {
+        Graph graph = new CSVGraphProcessor().readFromFile("com/alejokf/graphs/TestInput.csv");
+        assertEquals(5, graph.getNodes().size());
+        assertEquals(9, graph.getEdges().size());
+
+        Node a = graph.getNodes().get("A");
+        assertEquals("B5 D5 E7", a.getEdgesFrom().stream().map(edge -> edge.getHead() + "" + edge.getWeight())
+                .sorted().collect(Collectors.joining(" ")));
+        assertEquals(0, a.getEdgesTo().size());
+        assertEquals(2, graph.getNodes().get("C").getEdgesTo().size());
+
+        IndexedGraph indexedGraph = graph.getIndexedGraph();
+        assertEquals(0, indexedGraph.indexOf("A"));
+        assertEquals(4, indexedGraph.indexOf("E"));
+        assertEquals(3, indexedGraph.outDegree(0));
+    }
+
+    @Test
+    void build_ConcurrentProducers_SameAsSequential() throws Exception {
+        List<String[]> edges = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 40_000; i++) {
+            edges.add(new String[]{"N" + random.nextInt(2_000), "N" + random.nextInt(2_000),
+                    String.valueOf(1 + random.nextInt(100))});
+        }
+
+        GraphBuilder sequential = new GraphBuilder();
+        for (String[] edge : edges) {
+            sequential.addEdge(edge[0], edge[1], Long.parseLong(edge[2]));
+        }
+        sequential.addNode("Isolated");
+        Graph expected = sequential.build();
+
+        GraphBuilder concurrent = new GraphBuilder();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> producers = new ArrayList<>();
+            for (int producer = 0; producer < 8; producer++) {
+                int first = producer;
+                producers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = first; i < edges.size(); i += 8) {
+                        String[] edge = edges.get(i);
+                        concurrent.addEdge(edge[0], edge[1], Long.parseLong(edge[2]));
+                    }
+                    concurrent.addNode("Isolated");
+                }, executor));
+            }
+            CompletableFuture.allOf(producers.toArray(CompletableFuture<?>[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+        Graph actual = concurrent.build();
+
+        assertEquals(expected.getNodes().keySet(), actual.getNodes().keySet());
+        assertEquals(expected.getEdges().size(), actual.getEdges().size());
+        IndexedGraph expectedIndexed = expected.getIndexedGraph();
+        IndexedGraph actualIndexed = actual.getIndexedGraph();
+        for (int node = 0; node < expectedIndexed.size(); node++) {
+            assertEquals(expectedIndexed.getLabel(node), actualIndexed.getLabel(node));
+            assertEquals(adjacency(expectedIndexed, node), adjacency(actualIndexed, node));
+            Node actualNode = actual.getNodes().get(actualIndexed.getLabel(node));
+            assertEquals(actualIndexed.outDegree(node), actualNode.getEdgesFrom().size());
+            assertEquals(actualIndexed.inDegree(node), actualNode.getEdgesTo().size());
+        }
+        assertEquals(0, actual.getNodes().get("Isolated").getEdgesFrom().size());
+    }
+
+    @Test
+    void build_Twice() {
+        GraphBuilder builder = new GraphBuilder();
+        builder.addEdge("A", "B", 1);
+        builder.build();
+        assertThrows(IllegalStateException.class, builder::build);
+        assertThrows(IllegalStateException.class, () -> builder.addEdge("B", "C", 1));
+    }
+
+    private static List<String> adjacency(IndexedGraph graph, int node) {
+        List<String> adjacency = new ArrayList<>();
+        for (int edge = graph.outStart(node); edge < graph.outEnd(node); edge++) {
+            adjacency.add(graph.getLabel(graph.outHead(edge)) + ":" + graph.outWeight(edge));
+        }
+        adjacency.sort(null);
+        return adjacency;
+    }
+}
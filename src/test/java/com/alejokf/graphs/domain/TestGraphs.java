@@ -0,0 +1,53 @@
+package com.alejokf.graphs.domain;
+
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+/**
+ * Random graphs shared by the tests, built with a {@link GraphBuilder}
+ */
+public final class TestGraphs {
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Builds a graph with nodes {@code N0} to {@code N<nodeCount - 1>} and {@code edgeCount} random edges with
+     * weights between 1 and {@code maxWeight}
+     *
+     * @param nodeCount the number of nodes
+     * @param edgeCount the number of edges
+     * @param maxWeight the maximum weight of an edge
+     * @param seed      the seed of the random generator
+     * @return the random graph
+     */
+    public static Graph random(int nodeCount, int edgeCount, int maxWeight, long seed) {
+        return random(nodeCount, nodeCount, edgeCount, random -> 1L + random.nextInt(maxWeight), seed);
+    }
+
+    /**
+     * Builds a graph with nodes {@code N0} to {@code N<nodeCount - 1>} and {@code edgeCount} random edges. For every
+     * edge, the tail, the head and the weight are drawn in that order, so a seed always builds the same graph.
+     *
+     * @param nodeCount the number of nodes
+     * @param tailCount the number of nodes with outgoing edges, {@code N0} to {@code N<tailCount - 1>}
+     * @param edgeCount the number of edges
+     * @param weights   draws the weight of an edge
+     * @param seed      the seed of the random generator
+     * @return the random graph
+     */
+    public static Graph random(int nodeCount, int tailCount, int edgeCount, ToLongFunction<Random> weights,
+            long seed) {
+        Random random = new Random(seed);
+        GraphBuilder builder = new GraphBuilder();
+        for (int i = 0; i < nodeCount; i++) {
+            builder.addNode("N" + i);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            String tail = "N" + random.nextInt(tailCount);
+            String head = "N" + random.nextInt(nodeCount);
+            builder.addEdge(tail, head, weights.applyAsLong(random));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.alejokf.graphs.server;
+
+import com.alejokf.graphs.application.async.impl.AsyncGraphQueryServiceImpl;
+import com.alejokf.graphs.application.options.TruncationReason;
+import com.alejokf.graphs.application.search.impl.GraphSearchServiceImpl;
+import com.alejokf.graphs.application.search.impl.GraphTraversalServiceImpl;
+import com.alejokf.graphs.application.shortestpath.impl.ShortestPathServiceImpl;
+import com.alejokf.graphs.domain.Graph;
+import com.alejokf.graphs.infrastructure.impl.CSVGraphProcessor;
+import com.alejokf.graphs.server.client.QueryClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryServerTest {
+
+    private final AsyncGraphQueryServiceImpl queryService = new AsyncGraphQueryServiceImpl(
+            new GraphTraversalServiceImpl(), new GraphSearchServiceImpl(), new ShortestPathServiceImpl());
+    private Graph graph;
+    private QueryServer server;
+    private QueryClient client;
+
+    @BeforeAll
+    void startServer() throws IOException {
+        graph = new CSVGraphProcessor().readFromFile("com/alejokf/graphs/TestInput.csv");
+        server = new QueryServer(graph, queryService, 0);
+        server.start();
+        client = new QueryClient(server.getPort());
+    }
+
+    @AfterAll
+    void stopServer() {
+        server.close();
+        queryService.close();
+    }
+
+    @Test
+    void traceLatency() {
+        assertEquals("9", client.traceLatencyOutput(List.of("A", "B", "C")));
+        assertEquals("NO SUCH TRACE", client.traceLatencyOutput(List.of("A", "E", "D")));
+    }
+
+    @Test
+    void traceLatency_Batch() {
+        assertEquals(List.of("9", "5", "13", "22", "NO SUCH TRACE"), client.traceLatencyOutputs(List.of(
+                List.of("A", "B", "C"), List.of("A", "D"), List.of("A", "D", "C"), List.of("A", "E", "B", "C", "D"),
+                List.of("A", "E", "D"))));
+    }
+
+    @Test
+    void traceLatency_BatchLargerThanLaneQueue() {
+        List<List<String>> traces = Collections.nCopies(20_000, List.of("A", "B", "C"));
+        List<String> latencies = client.traceLatencyOutputs(traces);
+        assertEquals(20_000, latencies.size());
+        assertTrue(latencies.stream().allMatch("9"::equals));
+    }
+
+    @Test
+    void traces_Streamed() {
+        try (Stream<List<String>> traces = client.traces("maxHops", "C", "C", 6)) {
+            List<List<String>> received = traces.collect(Collectors.toList());
+            assertEquals(10, received.size());
+            assertTrue(received.contains(List.of("C", "D", "C", "D", "E", "B", "C")));
+        }
+        assertEquals(7, client.countTraces("maxLatency", "C", "C", 30));
+    }
+
+    @Test
+    void traces_LimitedByRequest() throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(
+                "http://127.0.0.1:" + server.getPort() + "/traces?type=maxHops&start=C&end=C&limit=6&count=true"
+                        + "&maxResults=3")).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("3", response.body().trim());
+        assertEquals(Optional.of(TruncationReason.MAX_RESULTS.name()),
+                response.headers().firstValue(QueryServer.TRUNCATED_HEADER));
+        assertEquals(10, client.countTraces("maxHops", "C", "C", 6));
+    }
+
+    @Test
+    void traces_LimitedByServer() throws IOException {
+        try (QueryServer limitedServer = new QueryServer(graph, queryService, 0, Duration.ofSeconds(10),
+                Long.MAX_VALUE, 4)) {
+            limitedServer.start();
+            QueryClient limitedClient = new QueryClient(limitedServer.getPort());
+
+            assertEquals(4, limitedClient.countTraces("maxHops", "C", "C", 6));
+            assertEquals(2, limitedClient.countTraces("maxHops", "C", "C", 3));
+        }
+    }
+
+    @Test
+    void shortestPath() {
+        assertEquals("9 A,B,C", client.shortestPath("A", "C"));
+        assertEquals("NO SUCH TRACE", client.shortestPath("C", "A"));
+    }
+
+    @Test
+    void invalidRequest() {
+        QueryClient.QueryException exception = assertThrows(QueryClient.QueryException.class,
+                () -> client.countTraces("maxHops", "Z", "C", 3));
+        assertEquals(400, exception.getStatus());
+    }
+}
@@ -0,0 +1,84 @@
+package com.alejokf.graphs.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+
+    @Test
+    void submit_IdenticalRequestsInFlight_ShareFuture() {
+        AtomicInteger started = new AtomicInteger();
+        CompletableFuture<Integer> request = new CompletableFuture<>();
+
+        CompletableFuture<Integer> first = coalescer.submit("A", () -> {
+            started.incrementAndGet();
+            return request;
+        });
+        CompletableFuture<Integer> second = coalescer.submit("A", () -> {
+            started.incrementAndGet();
+            return request;
+        });
+
+        assertSame(first, second);
+        assertEquals(1, started.get());
+        assertEquals(1, coalescer.inFlight());
+        request.complete(7);
+        assertEquals(7, second.join());
+    }
+
+    @Test
+    void submit_DifferentRequests_NotShared() {
+        CompletableFuture<Integer> first = coalescer.submit("A", CompletableFuture::new);
+        CompletableFuture<Integer> second = coalescer.submit("B", CompletableFuture::new);
+
+        assertNotSame(first, second);
+        assertEquals(2, coalescer.inFlight());
+    }
+
+    @Test
+    void submit_AfterCompletion_StartsAgain() {
+        CompletableFuture<Integer> first = coalescer.submit("A", () -> CompletableFuture.completedFuture(1));
+        assertEquals(0, coalescer.inFlight());
+
+        CompletableFuture<Integer> second = coalescer.submit("A", () -> CompletableFuture.completedFuture(2));
+
+        assertEquals(1, first.join());
+        assertEquals(2, second.join());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void submit_FailedRequest_FailsEveryWaiter() {
+        CompletableFuture<Integer> request = new CompletableFuture<>();
+        CompletableFuture<Integer> first = coalescer.submit("A", () -> request);
+        CompletableFuture<Integer> second = coalescer.submit("A", () -> request);
+
+        request.completeExceptionally(new IllegalArgumentException("Node Z does not exist"));
+
+        CompletionException exception = assertThrows(CompletionException.class, second::join);
+        assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void submit_RequestNotStarted_FailsAndIsRemoved() {
+        CompletableFuture<Integer> future = coalescer.submit("A", () -> {
+            throw new IllegalStateException("Shut down");
+        });
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, coalescer.inFlight());
+    }
+}